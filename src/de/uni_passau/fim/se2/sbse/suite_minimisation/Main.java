@@ -1,18 +1,29 @@
 package de.uni_passau.fim.se2.sbse.suite_minimisation;
 
 import de.uni_passau.fim.se2.sbse.suite_minimisation.algorithms.GeneticAlgorithm;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.algorithms.SamplingType;
 import de.uni_passau.fim.se2.sbse.suite_minimisation.algorithms.SearchAlgorithmType;
 import de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes.Chromosome;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes.InitialisationType;
 import de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes.TestSuiteChromosome;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.crossover.CrossoverType;
 import de.uni_passau.fim.se2.sbse.suite_minimisation.fitness_functions.FitnessFunction;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.mutation.MutationType;
 import de.uni_passau.fim.se2.sbse.suite_minimisation.stopping_conditions.MaxFitnessEvaluations;
 import de.uni_passau.fim.se2.sbse.suite_minimisation.stopping_conditions.StoppingCondition;
 import de.uni_passau.fim.se2.sbse.suite_minimisation.utils.AlgorithmBuilder;
 import de.uni_passau.fim.se2.sbse.suite_minimisation.utils.CoverageTracker;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.utils.ExecCoverageImporter;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.utils.GranularityType;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.utils.LauncherCoverageTracker;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.utils.ModuleCoverageTracker;
 import de.uni_passau.fim.se2.sbse.suite_minimisation.utils.Randomness;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.utils.TestCost;
 import de.uni_passau.fim.se2.sbse.suite_minimisation.utils.Utils;
 import picocli.CommandLine;
 
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.Callable;
 
@@ -44,11 +55,124 @@ public class Main implements Callable<Integer> {
             defaultValue = "10")
     private int repetitions;
 
+    @CommandLine.Option(
+            names = {"-d", "--deadline"},
+            description = "The wall-clock deadline of a portfolio search in milliseconds (0 for none).",
+            defaultValue = "0")
+    private long deadlineMillis;
+
+    @CommandLine.Option(
+            names = {"-m", "--mutation"},
+            description = "The mutation operator: ${COMPLETION-CANDIDATES}.",
+            defaultValue = "BIT_FLIP")
+    private MutationType mutationType;
+
+    @CommandLine.Option(
+            names = {"-x", "--crossover"},
+            description = "The crossover operator: ${COMPLETION-CANDIDATES}.",
+            defaultValue = "SINGLE_POINT")
+    private CrossoverType crossoverType;
+
+    @CommandLine.Option(
+            names = {"-i", "--init"},
+            description = "The initialisation of the population of NSGA-II variants: ${COMPLETION-CANDIDATES}.",
+            defaultValue = "RANDOM")
+    private InitialisationType initialisationType;
+
+    @CommandLine.Option(
+            names = {"--sampling"},
+            description = "The choice of suite sizes of random search: ${COMPLETION-CANDIDATES}.",
+            defaultValue = "RANDOM")
+    private SamplingType samplingType;
+
+    @CommandLine.Option(
+            names = {"--population-size"},
+            description = "The population size of NSGA-II variants, MOEA/D and SMS-EMOA, and the samples per generation of PBIL.",
+            defaultValue = "50")
+    private int populationSize;
+
+    @CommandLine.Option(
+            names = {"-k", "--tournament-size"},
+            description = "The tournament size of the parent selection of NSGA-II variants.",
+            defaultValue = "2")
+    private int tournamentSize;
+
+    @CommandLine.Option(
+            names = {"--parallel-selection"},
+            description = "Run the parent tournaments of a generation concurrently, "
+                    + "from a population size of 2048.")
+    private boolean parallelSelection;
+
+    @CommandLine.Option(
+            names = {"--no-pooling"},
+            description = "Allocate new chromosomes for all offspring instead of recycling rejected ones.")
+    private boolean noPooling;
+
+    @CommandLine.Option(
+            names = {"--isolate-tests"},
+            description = "Load fresh copies of the class under test and its test suite for every test case when measuring coverage.")
+    private boolean isolateTests;
+
+    @CommandLine.Option(
+            names = {"--coverage-workers"},
+            description = "The number of threads measuring the coverage of test cases concurrently.",
+            defaultValue = "1")
+    private int coverageWorkers;
+
+    @CommandLine.Option(
+            names = {"--fork"},
+            description = "Run the test cases in child JVMs when measuring coverage, one per coverage worker.")
+    private boolean fork;
+
+    @CommandLine.Option(
+            names = {"--test-timeout"},
+            description = "The number of seconds after which a test case running in a child JVM is aborted.",
+            defaultValue = "10")
+    private long testTimeout;
+
+    @CommandLine.Option(
+            names = {"--coverage-cache"},
+            description = "A directory in which coverage matrices are cached across runs.")
+    private Path coverageCache;
+
+    @CommandLine.Option(
+            names = {"--granularity"},
+            description = "The columns of the coverage matrix of the class under test: ${COMPLETION-CANDIDATES}.",
+            defaultValue = "LINE")
+    private GranularityType granularity;
+
+    @CommandLine.Option(
+            names = {"--profile-runs"},
+            description = "The number of runs of every test case measuring its wall time, CPU time and allocated bytes (0 for none).",
+            defaultValue = "0")
+    private int profileRuns;
+
+    @CommandLine.Option(
+            names = {"--profile-warmups"},
+            description = "The number of runs of every test case before its cost is measured.",
+            defaultValue = "1")
+    private int profileWarmups;
+
+    @CommandLine.Option(
+            names = {"--classes"},
+            description = "Measure the coverage of all classes in the given package, directory or jar by the test suite of the class under test.")
+    private String classes;
+
+    @CommandLine.Option(
+            names = {"--junit-platform"},
+            description = "Run the test suite through the JUnit Platform Launcher, with one test case per test, repeated or parameterised invocation and dynamic test.")
+    private boolean junitPlatform;
+
+    @CommandLine.Option(
+            names = {"--exec"},
+            description = "Import the coverage matrix from JaCoCo .exec files with one session per test case instead of running the test suite; repeatable.")
+    private List<Path> execFiles;
+
     @CommandLine.Option(
             names = {"-s", "--seed"},
             description = "Use a fixed RNG seed.")
     public void setSeed(int seed) {
-        Randomness.random().setSeed(seed);
+        Randomness.setSeed(seed);
     }
 
     @CommandLine.Parameters(
@@ -58,17 +182,26 @@ public class Main implements Callable<Integer> {
             converter = AlgorithmConverter.class)
     private List<SearchAlgorithmType> algorithms;
 
+    @CommandLine.Spec
+    private CommandLine.Model.CommandSpec spec;
+
     /**
      * The names of the test cases (corresponding to the coverage matrix). That is, for and index
      * {@code i}, {@code testCases[i]} tells the name of the ith test case and
-     * {@code coverageMatrix[i]} tells which lines of code are covered by the ith test case.
+     * {@code coverageRows[i]} tells which lines of code are covered by the ith test case.
      */
     private String[] testCases;
 
     /**
-     * The coverage matrix for the analyzed software system.
+     * The coverage matrix for the analyzed software system, with every row packed into 64-bit
+     * words.
+     */
+    private long[][] coverageRows;
+
+    /**
+     * The number of lines (columns) of the coverage matrix.
      */
-    private boolean[][] coverageMatrix;
+    private int numberLines;
 
     /**
      * Instance of the algorithm builder to create the search algorithms.
@@ -87,14 +220,25 @@ public class Main implements Callable<Integer> {
      * @return The exit code of the application
      */
     public Integer call() {
+        validateCoverageOptions();
         try {
             setCoverageMatrixAndTestCaseNames();
         } catch (Exception e) {
-            System.err.println("Error while initializing coverage matrix and test case names.");
+            System.err.println("Error while initializing coverage matrix and test case names: " + e.getMessage());
             return 1;
         }
         StoppingCondition stoppingCondition = MaxFitnessEvaluations.of(maxEvaluations);
-        this.algorithmBuilder = new AlgorithmBuilder(Randomness.random(), stoppingCondition, coverageMatrix);
+        this.algorithmBuilder = new AlgorithmBuilder(Randomness.random(), stoppingCondition, coverageRows, numberLines);
+        algorithmBuilder.setMutationType(mutationType);
+        algorithmBuilder.setCrossoverType(crossoverType);
+        algorithmBuilder.setPopulationSize(populationSize);
+        algorithmBuilder.setPooling(!noPooling);
+        algorithmBuilder.setSelection(tournamentSize, parallelSelection);
+        algorithmBuilder.setInitialisationType(initialisationType);
+        algorithmBuilder.setSamplingType(samplingType);
+        if (deadlineMillis > 0) {
+            algorithmBuilder.setPortfolioDeadline(Duration.ofMillis(deadlineMillis));
+        }
 
         List<AlgorithmStats> results = startSearch();
         for (final AlgorithmStats result : results) {
@@ -135,7 +279,9 @@ public class Main implements Callable<Integer> {
         final var list = new ArrayList<RepetitionStats>(repetitions);
         for (int i = 1; i <= repetitions; i++) {
             System.out.printf("Repetition %d/%d for algorithm %s\n", i, repetitions, algorithm);
-            final List<? extends Chromosome<?>> testSuites = algorithm.findSolution();
+            // Every repetition draws from its own child stream, so it can be reproduced on its own.
+            final List<? extends Chromosome<?>> testSuites =
+                    Randomness.withStream(Randomness.split(), algorithm::findSolution);
             final double hyperVolume = Utils.computeHyperVolume(testSuites, coverageFF, sizeFF, covRef, sizeRef);
             final var testSuiteStats = makeTestSuiteStatsFrom(testSuites);
             final var repetitionStats = new RepetitionStats(i, testSuiteStats, hyperVolume);
@@ -233,6 +379,32 @@ public class Main implements Callable<Integer> {
 
 
 
+    /**
+     * Rejects combinations of coverage options of which one would be ignored.
+     *
+     * @throws CommandLine.ParameterException if the options cannot be combined
+     */
+    private void validateCoverageOptions() {
+        if (execFiles != null) {
+            if (junitPlatform || fork || coverageCache != null || profileRuns > 0 || isolateTests
+                    || coverageWorkers != 1) {
+                throw new CommandLine.ParameterException(spec.commandLine(),
+                        "--junit-platform, --fork, --coverage-cache, --profile-runs, --isolate-tests and "
+                                + "--coverage-workers are not supported with --exec");
+            }
+        } else if (classes != null) {
+            if (junitPlatform || fork || coverageCache != null || profileRuns > 0) {
+                throw new CommandLine.ParameterException(spec.commandLine(),
+                        "--junit-platform, --fork, --coverage-cache and --profile-runs are not supported with --classes");
+            }
+        } else if (junitPlatform) {
+            if (fork || coverageCache != null || profileRuns > 0) {
+                throw new CommandLine.ParameterException(spec.commandLine(),
+                        "--fork, --coverage-cache and --profile-runs are not supported with --junit-platform");
+            }
+        }
+    }
+
     /**
      * Initializes the coverage matrix and the test case names.
      *
@@ -240,9 +412,76 @@ public class Main implements Callable<Integer> {
      */
     private void setCoverageMatrixAndTestCaseNames() throws Exception {
         final String fullyQualifiedClassName = packageName + "." + className;
-        CoverageTracker tracker = new CoverageTracker(fullyQualifiedClassName);
-        this.coverageMatrix = tracker.getCoverageMatrix();
+        if (execFiles != null) {
+            ExecCoverageImporter importer = classes != null
+                    ? ExecCoverageImporter.of(classes, getClass().getClassLoader())
+                    : ExecCoverageImporter.of(Class.forName(fullyQualifiedClassName));
+            importer.setGranularity(granularity);
+            for (Path execFile : execFiles) {
+                importer.read(execFile);
+            }
+            this.coverageRows = importer.getPackedCoverageMatrix();
+            this.numberLines = importer.getColumns().length;
+            this.testCases = importer.getTestCases();
+
+            for (String mismatched : importer.getMismatchedClasses()) {
+                System.err.println("Execution data of " + mismatched + " was recorded for other bytecode; it is ignored.");
+            }
+            return;
+        }
+        if (classes != null) {
+            ModuleCoverageTracker tracker = ModuleCoverageTracker.of(
+                    classes, Class.forName(fullyQualifiedClassName + "Test"), isolateTests);
+            tracker.setWorkers(coverageWorkers);
+            tracker.setGranularity(granularity);
+            this.coverageRows = tracker.getPackedCoverageMatrix();
+            this.numberLines = tracker.getColumns().length;
+            this.testCases = tracker.getTestCases();
+            return;
+        }
+        if (junitPlatform) {
+            LauncherCoverageTracker tracker = new LauncherCoverageTracker(Class.forName(fullyQualifiedClassName),
+                    Class.forName(fullyQualifiedClassName + "Test"), isolateTests);
+            tracker.setWorkers(coverageWorkers);
+            tracker.setGranularity(granularity);
+            this.coverageRows = tracker.getPackedCoverageMatrix();
+            this.numberLines = tracker.getSourceLineNumbers().length;
+            this.testCases = tracker.getTestCases();
+            return;
+        }
+
+        CoverageTracker tracker = new CoverageTracker(fullyQualifiedClassName, isolateTests);
+        tracker.setWorkers(coverageWorkers);
+        tracker.setForked(fork);
+        tracker.setTestTimeout(Duration.ofSeconds(testTimeout));
+        tracker.setCacheDirectory(coverageCache);
+        tracker.setGranularity(granularity);
+        tracker.setProfiling(profileWarmups, profileRuns);
+        this.coverageRows = tracker.getPackedCoverageMatrix();
+        this.numberLines = tracker.getSourceLineNumbers().length;
         this.testCases = tracker.getTestCases();
+
+        for (String testCase : tracker.getFailedTestCases()) {
+            System.err.println("Test case " + testCase + " crashed or timed out; it covers nothing.");
+        }
+        if (profileRuns > 0) {
+            printTestCosts(tracker.getTestCosts());
+        }
+    }
+
+    /**
+     * Prints the median wall time, CPU time and allocated bytes of every test case.
+     *
+     * @param costs the costs of the test cases, in the order of the test cases
+     */
+    private void printTestCosts(final TestCost[] costs) {
+        System.out.printf("Test case costs (median of %d runs):%n", profileRuns);
+        for (int i = 0; i < costs.length; i++) {
+            if (costs[i] != null) {
+                System.out.printf("  %s: wall %.3f ms, CPU %.3f ms, %d bytes%n", testCases[i],
+                        costs[i].wallNanos() / 1e6, costs[i].cpuNanos() / 1e6, costs[i].allocatedBytes());
+            }
+        }
     }
 
     /**
@@ -402,6 +641,12 @@ final class AlgorithmConverter implements CommandLine.ITypeConverter<SearchAlgor
         return switch (algorithm.toUpperCase()) {
             case "RS" -> SearchAlgorithmType.RANDOM_SEARCH;
             case "NSGA2" -> SearchAlgorithmType.NSGA_II;
+            case "MNSGA2" -> SearchAlgorithmType.MEMETIC_NSGA_II;
+            case "MOEAD" -> SearchAlgorithmType.MOEA_D;
+            case "SMSEMOA" -> SearchAlgorithmType.SMS_EMOA;
+            case "MAXK" -> SearchAlgorithmType.MAX_K_COVERAGE;
+            case "PBIL" -> SearchAlgorithmType.PBIL;
+            case "PORTFOLIO" -> SearchAlgorithmType.PORTFOLIO;
             default -> throw new IllegalArgumentException("The algorithm '" + algorithm + "' is not a valid option.");
         };
     }
@@ -0,0 +1,342 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.algorithms;
+
+import de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes.ChromosomeGenerator;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes.TestSuiteChromosome;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.fitness_functions.FitnessFunction;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.stopping_conditions.StoppingCondition;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.utils.Randomness;
+
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGenerator.SplittableGenerator;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * MOEA/D (multi-objective evolutionary algorithm based on decomposition) for the test suite
+ * minimisation problem.
+ * <p>
+ * The bi-objective problem is decomposed into {@code populationSize} scalar subproblems, one per
+ * weight vector spread uniformly over the size/coverage trade-off. Every subproblem keeps its
+ * current best solution and only cooperates with the subproblems of its neighbourhood, i.e., the
+ * ones with the closest weight vectors. Unlike NSGA-II no global non-dominated sort is needed:
+ * a generation evolves every subproblem once, which is done concurrently. Replacing neighbouring
+ * solutions is guarded by lock striping so that subproblems with disjoint neighbourhoods never
+ * block each other. Every concurrent task is bound to its own child stream of {@link Randomness},
+ * so a generator obtained from {@link Randomness#random()} is never contended. Since concurrent
+ * tasks may read and replace the same neighbours, results are only reproducible up to the
+ * scheduling of these tasks.
+ * <p>
+ * Both objectives are normalised and treated as minimising ({@code size} and
+ * {@code 1 - coverage}), so the utopian point {@code (0, 0)} serves as fixed reference point for
+ * the scalarisation functions.
+ */
+public class MOEAD implements GeneticAlgorithm<TestSuiteChromosome> {
+
+    /**
+     * The scalarisation functions supported for aggregating both objectives of a subproblem.
+     */
+    public enum Scalarisation {
+        /**
+         * Weighted Tchebycheff distance to the utopian point.
+         */
+        TCHEBYCHEFF,
+
+        /**
+         * Penalty-based boundary intersection.
+         */
+        PBI,
+    }
+
+    /**
+     * Penalty factor used by the {@link Scalarisation#PBI PBI} scalarisation.
+     */
+    private static final double PBI_PENALTY = 5.0;
+
+    /**
+     * Substitute for zero weights, so that Tchebycheff still distinguishes weakly dominated
+     * solutions on the boundary subproblems.
+     */
+    private static final double MIN_WEIGHT = 1e-6;
+
+    /**
+     * Maximum number of neighbours a single offspring may replace. Keeps one good offspring from
+     * taking over a whole neighbourhood and thereby preserves diversity.
+     */
+    private static final int MAX_REPLACEMENTS = 2;
+
+    /**
+     * Number of locks guarding the subproblems. Must be a power of two.
+     */
+    private static final int STRIPES = 16;
+
+    private final StoppingCondition stoppingCondition;
+    private final RandomGenerator random;
+
+    private final int populationSize;
+    private final int neighbourhoodSize;
+    private final Scalarisation scalarisation;
+
+    private final ChromosomeGenerator<TestSuiteChromosome> generator;
+
+    private final FitnessFunction<TestSuiteChromosome> sizeFF;      // minimizing
+    private final FitnessFunction<TestSuiteChromosome> coverageFF;   // maximizing
+
+    // Weight on the size objective per subproblem (the coverage weight is 1 - sizeWeight).
+    private final double[] sizeWeights;
+
+    // Indices of the closest subproblems (including the subproblem itself) per subproblem.
+    private final int[][] neighbourhoods;
+
+    private final Object[] stripes;
+
+    // Current solution per subproblem, only accessed while holding the corresponding stripe.
+    private Solution[] solutions;
+
+    // Supplies solutions found elsewhere, which are offered to the subproblems every generation.
+    private Supplier<List<TestSuiteChromosome>> immigrants = List::of;
+
+    /**
+     * An evaluated chromosome together with its (cached) objective values.
+     */
+    private record Solution(TestSuiteChromosome chromosome, double size, double coverage) {
+    }
+
+    public MOEAD(
+            StoppingCondition stoppingCondition,
+            RandomGenerator random,
+            int populationSize,
+            int neighbourhoodSize,
+            Scalarisation scalarisation,
+            ChromosomeGenerator<TestSuiteChromosome> generator,
+            FitnessFunction<TestSuiteChromosome> sizeFF,
+            FitnessFunction<TestSuiteChromosome> coverageFF
+    ) {
+        if (populationSize <= 0) {
+            throw new IllegalArgumentException("population size must be positive");
+        }
+        if (neighbourhoodSize <= 0) {
+            throw new IllegalArgumentException("neighbourhood size must be positive");
+        }
+
+        this.stoppingCondition = requireNonNull(stoppingCondition);
+        this.random = requireNonNull(random);
+        this.populationSize = populationSize;
+        this.neighbourhoodSize = Math.min(neighbourhoodSize, populationSize);
+        this.scalarisation = requireNonNull(scalarisation);
+        this.generator = requireNonNull(generator);
+        this.sizeFF = requireNonNull(sizeFF);
+        this.coverageFF = requireNonNull(coverageFF);
+
+        this.sizeWeights = makeWeights(populationSize);
+        this.neighbourhoods = makeNeighbourhoods(sizeWeights, this.neighbourhoodSize);
+        this.stripes = new Object[STRIPES];
+        Arrays.setAll(stripes, i -> new Object());
+    }
+
+    /**
+     * Sets the source of immigrants, e.g., the solutions other searches have found so far. After
+     * every generation, each supplied chromosome replaces the solutions of up to
+     * {@value #MAX_REPLACEMENTS} subproblems it scalarises better than. Immigrants are not charged
+     * to the search budget, as they have been evaluated elsewhere. There are no immigrants by
+     * default.
+     *
+     * @param immigrants the source of immigrants
+     */
+    public void setImmigrants(Supplier<List<TestSuiteChromosome>> immigrants) {
+        this.immigrants = requireNonNull(immigrants);
+    }
+
+    @Override
+    public List<TestSuiteChromosome> findSolution() {
+        notifySearchStarted();
+
+        // 1) one initial solution per subproblem
+        solutions = new Solution[populationSize];
+        int initialised = 0;
+        while (initialised < populationSize && !searchMustStop()) {
+            solutions[initialised++] = evaluateCounted(generator.get());
+        }
+
+        if (initialised < populationSize) {
+            // The budget did not even suffice for the initial population.
+            return nonDominated(Arrays.copyOf(solutions, initialised));
+        }
+
+        // 2) generations: every subproblem produces one offspring, concurrently
+        final int[] order = IntStream.range(0, populationSize).toArray();
+        while (!searchMustStop()) {
+            shuffle(order);
+
+            // Budget is charged up front on this thread, so the stopping condition need not be
+            // thread-safe and is never exceeded.
+            int claimed = 0;
+            while (claimed < order.length && !searchMustStop()) {
+                notifyFitnessEvaluation();
+                claimed++;
+            }
+
+            // Every task draws from its own child stream, derived deterministically on this thread.
+            final SplittableGenerator[] streams = new SplittableGenerator[claimed];
+            for (int k = 0; k < claimed; k++) {
+                streams[k] = Randomness.split();
+            }
+
+            IntStream.range(0, claimed).parallel()
+                    .forEach(k -> Randomness.runWithStream(streams[k], () -> evolve(order[k])));
+
+            for (TestSuiteChromosome immigrant : immigrants.get()) {
+                replace(evaluate(immigrant), order);
+            }
+        }
+
+        return nonDominated(solutions);
+    }
+
+    @Override
+    public StoppingCondition getStoppingCondition() {
+        return stoppingCondition;
+    }
+
+    // ---------- variation and neighbourhood replacement ----------
+    private void evolve(int subproblem) {
+        int[] neighbourhood = neighbourhoods[subproblem];
+
+        TestSuiteChromosome child;
+        if (neighbourhood.length > 1) {
+            int a = neighbourhood[random.nextInt(neighbourhood.length)];
+            int b;
+            do {
+                b = neighbourhood[random.nextInt(neighbourhood.length)];
+            } while (a == b);
+
+            child = read(a).chromosome().crossover(read(b).chromosome()).getFst().mutate();
+        } else {
+            child = read(subproblem).chromosome().mutate();
+        }
+
+        replace(evaluate(child), neighbourhood);
+    }
+
+    // Lets the solution replace the solutions of up to MAX_REPLACEMENTS of the given subproblems.
+    private void replace(Solution solution, int[] subproblems) {
+        // Visit the subproblems starting at a random offset, so none is systematically favoured.
+        int replaced = 0;
+        int start = random.nextInt(subproblems.length);
+        for (int k = 0; k < subproblems.length && replaced < MAX_REPLACEMENTS; k++) {
+            int j = subproblems[(start + k) % subproblems.length];
+            synchronized (stripe(j)) {
+                if (scalarise(solution, j) < scalarise(solutions[j], j)) {
+                    solutions[j] = solution;
+                    replaced++;
+                }
+            }
+        }
+    }
+
+    private Solution read(int subproblem) {
+        synchronized (stripe(subproblem)) {
+            return solutions[subproblem];
+        }
+    }
+
+    private Object stripe(int subproblem) {
+        return stripes[subproblem & (STRIPES - 1)];
+    }
+
+    // ---------- scalarisation ----------
+    private double scalarise(Solution s, int subproblem) {
+        double w1 = Math.max(sizeWeights[subproblem], MIN_WEIGHT);
+        double w2 = Math.max(1.0 - sizeWeights[subproblem], MIN_WEIGHT);
+
+        // Distances to the utopian point (size 0, coverage 1).
+        double f1 = s.size();
+        double f2 = 1.0 - s.coverage();
+
+        return switch (scalarisation) {
+            case TCHEBYCHEFF -> Math.max(w1 * f1, w2 * f2);
+            case PBI -> {
+                double norm = Math.hypot(w1, w2);
+                double d1 = (f1 * w1 + f2 * w2) / norm;
+                double d2 = Math.hypot(f1 - d1 * w1 / norm, f2 - d1 * w2 / norm);
+                yield d1 + PBI_PENALTY * d2;
+            }
+        };
+    }
+
+    private static double[] makeWeights(int n) {
+        double[] weights = new double[n];
+        if (n == 1) {
+            weights[0] = 0.5;
+        } else {
+            for (int i = 0; i < n; i++) {
+                weights[i] = (double) i / (n - 1);
+            }
+        }
+        return weights;
+    }
+
+    private static int[][] makeNeighbourhoods(double[] weights, int size) {
+        int n = weights.length;
+        int[][] neighbourhoods = new int[n][];
+        for (int i = 0; i < n; i++) {
+            final double w = weights[i];
+            neighbourhoods[i] = IntStream.range(0, n)
+                    .boxed()
+                    .sorted(Comparator.comparingDouble(j -> Math.abs(weights[j] - w)))
+                    .limit(size)
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+        return neighbourhoods;
+    }
+
+    private void shuffle(int[] a) {
+        for (int i = a.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = a[i];
+            a[i] = a[j];
+            a[j] = tmp;
+        }
+    }
+
+    // ---------- evaluation ----------
+    private Solution evaluate(TestSuiteChromosome c) {
+        return new Solution(c, sizeFF.applyAsDouble(c), coverageFF.applyAsDouble(c));
+    }
+
+    private Solution evaluateCounted(TestSuiteChromosome c) {
+        Solution s = evaluate(c);
+        notifyFitnessEvaluation();
+        return s;
+    }
+
+    // ---------- result ----------
+    private static List<TestSuiteChromosome> nonDominated(Solution[] population) {
+        List<TestSuiteChromosome> front = new ArrayList<>();
+        Set<TestSuiteChromosome> seen = new HashSet<>();
+
+        for (Solution p : population) {
+            boolean dominated = false;
+            for (Solution q : population) {
+                if (dominates(q, p)) {
+                    dominated = true;
+                    break;
+                }
+            }
+            if (!dominated && seen.add(p.chromosome())) {
+                front.add(p.chromosome());
+            }
+        }
+
+        return front;
+    }
+
+    private static boolean dominates(Solution a, Solution b) {
+        boolean notWorseAll = (a.size() <= b.size()) && (a.coverage() >= b.coverage());
+        boolean betterOne = (a.size() < b.size()) || (a.coverage() > b.coverage());
+        return notWorseAll && betterOne;
+    }
+}
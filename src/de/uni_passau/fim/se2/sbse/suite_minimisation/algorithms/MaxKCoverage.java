@@ -0,0 +1,262 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.algorithms;
+
+import de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes.TestSuiteChromosome;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.crossover.Crossover;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.mutation.Mutation;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.stopping_conditions.StoppingCondition;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.utils.CoverageIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Builds the Pareto front by solving the max-k-coverage problem for every suite size {@code k}.
+ * <p>
+ * The size objective only takes the values {@code 1/T, ..., T/T}, so the Pareto front consists of
+ * at most one point per size: the best coverage achievable with {@code k} tests. Sizes beyond the
+ * length of the greedy order cannot add coverage and are not considered. For each size, a
+ * swap local search is run: the best pair of a selected and an unselected test is exchanged as
+ * long as this strictly increases coverage. The search for size {@code k + 1} is warm-started
+ * from the local optimum for size {@code k}, extended by the test with the largest marginal gain.
+ * <p>
+ * The sizes are split into contiguous blocks that are processed concurrently. Every block is seeded
+ * with the greedy prefix of its smallest size and then proceeds through its sizes in ascending
+ * order. Every applied swap and every emitted suite is charged as one fitness evaluation; probing
+ * the gain of a swap is not, since it is computed incrementally from per-line hit counts. Charging
+ * is serialised on the stopping condition, so it does not need to be thread-safe itself.
+ */
+public class MaxKCoverage implements GeneticAlgorithm<TestSuiteChromosome> {
+
+    private final StoppingCondition stoppingCondition;
+    private final CoverageIndex coverage;
+
+    private final Mutation<TestSuiteChromosome> mutation;
+    private final Crossover<TestSuiteChromosome> crossover;
+
+    /**
+     * The maximum number of blocks of sizes processed concurrently.
+     */
+    private final int parallelism;
+
+    private final int words;
+
+    /**
+     * A local optimum for one suite size.
+     */
+    private record Solution(boolean[] genes, int coveredLines) {
+    }
+
+    public MaxKCoverage(
+            StoppingCondition stoppingCondition,
+            CoverageIndex coverage,
+            Mutation<TestSuiteChromosome> mutation,
+            Crossover<TestSuiteChromosome> crossover,
+            int parallelism
+    ) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+
+        this.stoppingCondition = requireNonNull(stoppingCondition);
+        this.coverage = requireNonNull(coverage);
+        this.mutation = requireNonNull(mutation);
+        this.crossover = requireNonNull(crossover);
+        this.parallelism = parallelism;
+        this.words = CoverageIndex.wordsFor(coverage.getNumberOfLines());
+    }
+
+    @Override
+    public List<TestSuiteChromosome> findSolution() {
+        notifySearchStarted();
+
+        final int[] greedy = coverage.greedyOrder();
+        final int maxSize = Math.max(greedy.length, 1);
+        final Solution[] best = new Solution[maxSize + 1]; // indexed by suite size
+
+        final int blocks = Math.min(parallelism, maxSize);
+        IntStream.range(0, blocks).parallel().forEach(b -> {
+            int from = 1 + (int) ((long) b * maxSize / blocks);
+            int to = (int) ((long) (b + 1) * maxSize / blocks);
+            solveBlock(greedy, from, to, best);
+        });
+
+        // Sizes are visited in ascending order, so a suite is non-dominated iff it covers more
+        // lines than all smaller ones.
+        List<TestSuiteChromosome> front = new ArrayList<>();
+        int bestCovered = -1;
+        for (int k = 1; k <= maxSize; k++) {
+            Solution s = best[k];
+            if (s != null && s.coveredLines() > bestCovered) {
+                bestCovered = s.coveredLines();
+                front.add(new TestSuiteChromosome(s.genes(), mutation, crossover));
+            }
+        }
+        return front;
+    }
+
+    @Override
+    public StoppingCondition getStoppingCondition() {
+        return stoppingCondition;
+    }
+
+    // ---------- per-block search ----------
+    private void solveBlock(int[] greedy, int from, int to, Solution[] best) {
+        Suite suite = new Suite();
+        for (int i = 0; i < from; i++) {
+            suite.add(i < greedy.length ? greedy[i] : i);
+        }
+
+        for (int k = from; k <= to; k++) {
+            if (k > from) {
+                suite.add(bestAddition(suite));
+            }
+            if (!improve(suite) || !tryCharge()) {
+                return;
+            }
+            best[k] = new Solution(suite.genes.clone(), suite.coveredLines);
+        }
+    }
+
+    /**
+     * Applies best-improvement swaps until no swap increases coverage.
+     *
+     * @return {@code false} if the budget ran out while swapping
+     */
+    private boolean improve(Suite suite) {
+        final long[] missed = new long[words];
+        final long[] unique = new long[words];
+        final int[] gains = new int[coverage.getNumberOfTests()];
+
+        while (true) {
+            suite.missedLines(missed);
+            for (int t = 0; t < gains.length; t++) {
+                gains[t] = suite.genes[t] ? 0 : gain(t, missed);
+            }
+
+            int bestIn = -1;
+            int bestOut = -1;
+            int bestDelta = 0;
+            for (int out = 0; out < gains.length; out++) {
+                if (!suite.genes[out]) continue;
+                suite.uniqueLines(out, unique);
+                for (int in = 0; in < gains.length; in++) {
+                    // The loss is non-negative, so only tests with enough gain can improve.
+                    if (suite.genes[in] || gains[in] <= bestDelta) continue;
+                    int delta = gains[in] - loss(in, unique);
+                    if (delta > bestDelta) {
+                        bestDelta = delta;
+                        bestIn = in;
+                        bestOut = out;
+                    }
+                }
+            }
+
+            if (bestIn < 0) return true;
+            if (!tryCharge()) return false;
+
+            suite.remove(bestOut);
+            suite.add(bestIn);
+        }
+    }
+
+    /**
+     * Returns the unselected test that covers the most missed lines, or the lowest unselected
+     * index if no test adds coverage.
+     */
+    private int bestAddition(Suite suite) {
+        final long[] missed = new long[words];
+        suite.missedLines(missed);
+
+        int best = -1;
+        int bestGain = -1;
+        for (int t = 0; t < suite.genes.length; t++) {
+            if (suite.genes[t]) continue;
+            int gain = gain(t, missed);
+            if (gain > bestGain) {
+                bestGain = gain;
+                best = t;
+            }
+        }
+        return best;
+    }
+
+    private int gain(int test, long[] missed) {
+        long[] row = coverage.row(test);
+        int gain = 0;
+        for (int w = 0; w < words; w++) {
+            gain += Long.bitCount(row[w] & missed[w]);
+        }
+        return gain;
+    }
+
+    private int loss(int in, long[] unique) {
+        long[] row = coverage.row(in);
+        int loss = 0;
+        for (int w = 0; w < words; w++) {
+            loss += Long.bitCount(unique[w] & ~row[w]);
+        }
+        return loss;
+    }
+
+    // ---------- budget ----------
+    private boolean tryCharge() {
+        synchronized (stoppingCondition) {
+            if (searchMustStop()) {
+                return false;
+            }
+            notifyFitnessEvaluation();
+            return true;
+        }
+    }
+
+    /**
+     * A test suite under local search, with the number of selected tests covering each line.
+     */
+    private final class Suite {
+        final boolean[] genes = new boolean[coverage.getNumberOfTests()];
+        final int[] hits = new int[coverage.getNumberOfLines()];
+        int coveredLines;
+
+        void add(int test) {
+            genes[test] = true;
+            for (int k = coverage.testLineOffset(test); k < coverage.testLineOffset(test + 1); k++) {
+                if (hits[coverage.testLine(k)]++ == 0) coveredLines++;
+            }
+        }
+
+        void remove(int test) {
+            genes[test] = false;
+            for (int k = coverage.testLineOffset(test); k < coverage.testLineOffset(test + 1); k++) {
+                if (--hits[coverage.testLine(k)] == 0) coveredLines--;
+            }
+        }
+
+        /**
+         * Writes the packed set of lines not covered by any selected test.
+         */
+        void missedLines(long[] missed) {
+            for (int w = 0; w < missed.length; w++) {
+                missed[w] = 0;
+            }
+            for (int l = 0; l < hits.length; l++) {
+                if (hits[l] == 0) missed[l >>> 6] |= 1L << l;
+            }
+        }
+
+        /**
+         * Writes the packed set of lines covered by the given selected test only.
+         */
+        void uniqueLines(int test, long[] unique) {
+            for (int w = 0; w < unique.length; w++) {
+                unique[w] = 0;
+            }
+            for (int k = coverage.testLineOffset(test); k < coverage.testLineOffset(test + 1); k++) {
+                int line = coverage.testLine(k);
+                if (hits[line] == 1) unique[line >>> 6] |= 1L << line;
+            }
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.algorithms;
+
+import de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes.ChromosomeGenerator;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes.GenomePool;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes.TestSuiteChromosome;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.fitness_functions.FitnessFunction;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.stopping_conditions.StoppingCondition;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.utils.CoverageIndex;
+
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A memetic variant of NSGA-II that applies a cheap local improvement step to a share of the
+ * offspring before survivor selection.
+ * <p>
+ * The local search works on the packed genes and per-line hit counts of the offspring, i.e., how
+ * many selected tests cover each line:
+ * <ol>
+ *     <li>Redundancy removal: a selected test all of whose lines are hit at least twice adds no
+ *     coverage and is dropped. The result dominates the original offspring, since coverage stays
+ *     the same while the suite shrinks. Each check only visits the lines of the test.</li>
+ *     <li>Swap (optional): a random missed line that some test covers is picked, and an unselected
+ *     test covering it, found via the inverted line-to-tests index, is swapped in for the selected
+ *     test whose removal loses the fewest lines, provided the swap strictly increases coverage at
+ *     equal size.</li>
+ * </ol>
+ * The hit counts are kept in a buffer per thread, which is reset by visiting the lines of the
+ * selected tests only instead of clearing all lines of the CUT.
+ * <p>
+ * Redundancy removal does not need a fitness evaluation, its outcome is known in advance. Every
+ * applied swap is charged as one fitness evaluation to the shared stopping condition, and swaps are
+ * skipped once the budget is exhausted.
+ */
+public class MemeticNSGA2 extends NSGA2 {
+
+    private final RandomGenerator random;
+    private final CoverageIndex coverage;
+
+    /**
+     * Probability with which an offspring is subjected to local search.
+     */
+    private final double localSearchRate;
+
+    /**
+     * Whether the local search may swap in tests covering missed lines.
+     */
+    private final boolean swaps;
+
+    /**
+     * The lines covered by at least one test, the only ones a swap can add.
+     */
+    private final int[] coverableLines;
+
+    /**
+     * Per-line hit counts and selected tests of the offspring being improved. The hit counts are
+     * all zero between two improvements.
+     */
+    private record Scratch(int[] hits, int[] selected) {
+    }
+
+    private final ThreadLocal<Scratch> scratches;
+
+    public MemeticNSGA2(
+            StoppingCondition stoppingCondition,
+            RandomGenerator random,
+            int populationSize,
+            ChromosomeGenerator<TestSuiteChromosome> generator,
+            FitnessFunction<TestSuiteChromosome> sizeFF,
+            FitnessFunction<TestSuiteChromosome> coverageFF,
+            CoverageIndex coverage,
+            double localSearchRate,
+            boolean swaps
+    ) {
+        this(stoppingCondition, random, populationSize, generator, sizeFF, coverageFF, coverage,
+                localSearchRate, swaps, new GenomePool(false));
+    }
+
+    public MemeticNSGA2(
+            StoppingCondition stoppingCondition,
+            RandomGenerator random,
+            int populationSize,
+            ChromosomeGenerator<TestSuiteChromosome> generator,
+            FitnessFunction<TestSuiteChromosome> sizeFF,
+            FitnessFunction<TestSuiteChromosome> coverageFF,
+            CoverageIndex coverage,
+            double localSearchRate,
+            boolean swaps,
+            GenomePool pool
+    ) {
+        super(stoppingCondition, random, populationSize, generator, sizeFF, coverageFF, pool);
+        if (!(0.0 <= localSearchRate && localSearchRate <= 1.0)) {
+            throw new IllegalArgumentException("Expected a probability: " + localSearchRate);
+        }
+
+        this.random = requireNonNull(random);
+        this.coverage = requireNonNull(coverage);
+        this.localSearchRate = localSearchRate;
+        this.swaps = swaps;
+        this.coverableLines = IntStream.range(0, coverage.getNumberOfLines())
+                .filter(l -> coverage.testCount(l) > 0)
+                .toArray();
+        this.scratches = ThreadLocal.withInitial(() -> new Scratch(
+                new int[coverage.getNumberOfLines()], new int[coverage.getNumberOfTests()]));
+    }
+
+    @Override
+    protected TestSuiteChromosome improve(TestSuiteChromosome offspring) {
+        if (random.nextDouble() >= localSearchRate) {
+            return offspring;
+        }
+
+        long[] words = offspring.getWords();
+        Scratch scratch = scratches.get();
+        int[] hits = scratch.hits();
+        int[] selected = scratch.selected();
+
+        int size = 0;
+        for (int w = 0; w < words.length; w++) {
+            for (long bits = words[w]; bits != 0; bits &= bits - 1) {
+                int t = (w << 6) + Long.numberOfTrailingZeros(bits);
+                selected[size++] = t;
+                addHits(t, hits, 1);
+            }
+        }
+
+        boolean changed = removeRedundantTests(words, hits, selected, size);
+        if (swaps && !searchMustStop()) {
+            changed |= swapInMissedLine(words, hits);
+        }
+
+        // Only the lines of the selected tests have been hit, so clearing them resets the buffer.
+        for (int w = 0; w < words.length; w++) {
+            for (long bits = words[w]; bits != 0; bits &= bits - 1) {
+                int t = (w << 6) + Long.numberOfTrailingZeros(bits);
+                for (int k = coverage.testLineOffset(t); k < coverage.testLineOffset(t + 1); k++) {
+                    hits[coverage.testLine(k)] = 0;
+                }
+            }
+        }
+
+        return changed
+                ? TestSuiteChromosome.ofWords(words, offspring.length(), offspring.getMutation(),
+                        offspring.getCrossover())
+                : offspring;
+    }
+
+    // ---------- redundancy removal ----------
+    private boolean removeRedundantTests(long[] words, int[] hits, int[] selected, int size) {
+        // Visit the tests in random order so that no test is systematically preferred.
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = selected[i];
+            selected[i] = selected[j];
+            selected[j] = tmp;
+        }
+
+        boolean changed = false;
+        int remaining = size;
+        for (int i = 0; i < size; i++) {
+            int t = selected[i];
+            if (remaining > 1 && isRedundant(t, hits)) {
+                words[t >>> 6] &= ~(1L << t);
+                addHits(t, hits, -1);
+                remaining--;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    private boolean isRedundant(int test, int[] hits) {
+        for (int k = coverage.testLineOffset(test); k < coverage.testLineOffset(test + 1); k++) {
+            if (hits[coverage.testLine(k)] < 2) return false;
+        }
+        return true;
+    }
+
+    // ---------- swap ----------
+    private boolean swapInMissedLine(long[] words, int[] hits) {
+        int missed = pickMissedLine(hits);
+        if (missed < 0) return false;
+
+        // Reservoir-sample an unselected test covering the missed line.
+        int in = -1;
+        int candidates = 0;
+        for (int k = coverage.lineTestOffset(missed); k < coverage.lineTestOffset(missed + 1); k++) {
+            int t = coverage.lineTest(k);
+            if (!isSelected(words, t) && random.nextInt(++candidates) == 0) {
+                in = t;
+            }
+        }
+        if (in < 0) return false;
+
+        int gain = 0;
+        for (int k = coverage.testLineOffset(in); k < coverage.testLineOffset(in + 1); k++) {
+            if (hits[coverage.testLine(k)] == 0) gain++;
+        }
+
+        // The selected test losing the fewest lines when swapped out.
+        int out = -1;
+        int leastLoss = Integer.MAX_VALUE;
+        for (int w = 0; w < words.length && leastLoss > 0; w++) {
+            for (long bits = words[w]; bits != 0 && leastLoss > 0; bits &= bits - 1) {
+                int t = (w << 6) + Long.numberOfTrailingZeros(bits);
+                int loss = 0;
+                for (int k = coverage.testLineOffset(t); k < coverage.testLineOffset(t + 1); k++) {
+                    int line = coverage.testLine(k);
+                    if (hits[line] == 1 && !coverage.covers(in, line)) loss++;
+                }
+                if (loss < leastLoss) {
+                    leastLoss = loss;
+                    out = t;
+                }
+            }
+        }
+
+        if (out < 0 || gain <= leastLoss) return false;
+
+        notifyFitnessEvaluation();
+        words[out >>> 6] &= ~(1L << out);
+        addHits(out, hits, -1);
+        words[in >>> 6] |= 1L << in;
+        addHits(in, hits, 1);
+        return true;
+    }
+
+    /**
+     * Returns a random coverable line that no selected test hits, or {@code -1} if there is none.
+     */
+    private int pickMissedLine(int[] hits) {
+        int line = -1;
+        int seen = 0;
+        for (int l : coverableLines) {
+            if (hits[l] == 0 && random.nextInt(++seen) == 0) {
+                line = l;
+            }
+        }
+        return line;
+    }
+
+    private static boolean isSelected(long[] words, int test) {
+        return (words[test >>> 6] & (1L << test)) != 0;
+    }
+
+    private void addHits(int test, int[] hits, int delta) {
+        for (int k = coverage.testLineOffset(test); k < coverage.testLineOffset(test + 1); k++) {
+            hits[coverage.testLine(k)] += delta;
+        }
+    }
+}
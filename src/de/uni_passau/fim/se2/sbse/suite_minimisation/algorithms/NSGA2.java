@@ -1,48 +1,116 @@
 package de.uni_passau.fim.se2.sbse.suite_minimisation.algorithms;
 
 import de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes.ChromosomeGenerator;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes.GenomePool;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes.PopulationInitialiser;
 import de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes.TestSuiteChromosome;
 import de.uni_passau.fim.se2.sbse.suite_minimisation.fitness_functions.FitnessFunction;
-import de.uni_passau.fim.se2.sbse.suite_minimisation.selection.BinaryTournamentSelection;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.selection.CrowdedTournamentSelection;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.selection.RankedSelection;
 import de.uni_passau.fim.se2.sbse.suite_minimisation.selection.Selection;
 import de.uni_passau.fim.se2.sbse.suite_minimisation.stopping_conditions.StoppingCondition;
-import de.uni_passau.fim.se2.sbse.suite_minimisation.utils.Pair;
 
 import java.util.*;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
 
 import static java.util.Objects.requireNonNull;
 
 public class NSGA2 implements GeneticAlgorithm<TestSuiteChromosome> {
 
     private final StoppingCondition stoppingCondition;
-    private final Random random;
+    private final RandomGenerator random;
 
     private final int populationSize;
 
-    private final ChromosomeGenerator<TestSuiteChromosome> generator;
+    private PopulationInitialiser<TestSuiteChromosome> initialiser;
     private Selection<TestSuiteChromosome> selection;
 
     private final FitnessFunction<TestSuiteChromosome> sizeFF;      // minimizing
     private final FitnessFunction<TestSuiteChromosome> coverageFF;   // maximizing
 
-    // Metadata used by tournament comparator
-    private final Map<TestSuiteChromosome, Integer> rank = new IdentityHashMap<>();
-    private final Map<TestSuiteChromosome, Double> crowding = new IdentityHashMap<>();
+    /**
+     * Recycles the chromosomes rejected by survivor selection as offspring.
+     */
+    private final GenomePool pool;
+
+    /**
+     * Supplies solutions found elsewhere, which compete in the survivor selection of every
+     * generation.
+     */
+    private Supplier<List<TestSuiteChromosome>> immigrants = List::of;
+
+    // Metadata of the last ranked population, by position: objectives, rank and crowding distance
+    private List<TestSuiteChromosome> ranked = List.of();
+    private double[] size = new double[0];
+    private double[] coverage = new double[0];
+    private int[] rank = new int[0];
+    private double[] crowding = new double[0];
 
     public NSGA2(
             StoppingCondition stoppingCondition,
-            Random random,
+            RandomGenerator random,
             int populationSize,
             ChromosomeGenerator<TestSuiteChromosome> generator,
             FitnessFunction<TestSuiteChromosome> sizeFF,
             FitnessFunction<TestSuiteChromosome> coverageFF
+    ) {
+        this(stoppingCondition, random, populationSize, generator, sizeFF, coverageFF,
+                new GenomePool(false));
+    }
+
+    public NSGA2(
+            StoppingCondition stoppingCondition,
+            RandomGenerator random,
+            int populationSize,
+            ChromosomeGenerator<TestSuiteChromosome> generator,
+            FitnessFunction<TestSuiteChromosome> sizeFF,
+            FitnessFunction<TestSuiteChromosome> coverageFF,
+            GenomePool pool
     ) {
         this.stoppingCondition = requireNonNull(stoppingCondition);
         this.random = requireNonNull(random);
         this.populationSize = populationSize;
-        this.generator = requireNonNull(generator);
+        this.initialiser = PopulationInitialiser.random(generator);
         this.sizeFF = requireNonNull(sizeFF);
         this.coverageFF = requireNonNull(coverageFF);
+        this.pool = requireNonNull(pool);
+        this.selection = new CrowdedTournamentSelection<>(2, random, false);
+    }
+
+    /**
+     * Replaces the initialisation of the population, drawing every member from the chromosome
+     * generator by default.
+     *
+     * @param initialiser the initialisation of the population
+     */
+    public void setInitialiser(PopulationInitialiser<TestSuiteChromosome> initialiser) {
+        this.initialiser = requireNonNull(initialiser);
+    }
+
+    /**
+     * Replaces the parent selection, binary tournament on rank and crowding distance by default.
+     * The ranking of the population is passed to a {@link RankedSelection} before the parents of
+     * every generation are selected; other selections can compare chromosomes with
+     * {@link #nsga2Comparator()}. All parents of a generation are selected by one call of
+     * {@link Selection#selectIndices(List, int)}.
+     *
+     * @param selection the parent selection
+     */
+    public void setSelection(Selection<TestSuiteChromosome> selection) {
+        this.selection = requireNonNull(selection);
+    }
+
+    /**
+     * Sets the source of immigrants, e.g., the solutions other searches have found so far. Every
+     * generation, copies of the supplied chromosomes that are not in the population yet compete
+     * with parents and offspring in survivor selection. Immigrants are not charged to the search
+     * budget, as they have been evaluated elsewhere. There are no immigrants by default.
+     *
+     * @param immigrants the source of immigrants
+     */
+    public void setImmigrants(Supplier<List<TestSuiteChromosome>> immigrants) {
+        this.immigrants = requireNonNull(immigrants);
     }
 
     @Override
@@ -51,48 +119,41 @@ public class NSGA2 implements GeneticAlgorithm<TestSuiteChromosome> {
 
         // 1) init population
         List<TestSuiteChromosome> population = new ArrayList<>(populationSize);
-        while (population.size() < populationSize && !searchMustStop()) {
-            TestSuiteChromosome c = generator.get();
+        for (TestSuiteChromosome c : initialiser.initialise(populationSize)) {
+            if (searchMustStop()) break;
             evaluate(c);
             population.add(c);
         }
 
         // 2) generations
+        TestSuiteChromosome[] children = new TestSuiteChromosome[2];
         while (!searchMustStop()) {
 
-            // update rank + crowding for parent selection
-            List<List<TestSuiteChromosome>> fronts = fastNonDominatedSort(population);
-            assignRankAndCrowding(fronts);
-
-            this.selection = new BinaryTournamentSelection<>(
-                    (a, b) -> {
-                        int ra = rank.get(a);
-                        int rb = rank.get(b);
-                        if (ra != rb) return Integer.compare(rb, ra);
-
-                        double ca = crowding.get(a);
-                        double cb = crowding.get(b);
-                        return Double.compare(ca, cb);
-                    },
-                    random
-            );
-
+            // update rank + crowding and select all parents of this generation at once
+            rankPopulation(population);
+            if (selection instanceof RankedSelection<TestSuiteChromosome> ranked) {
+                ranked.setRanking(rank, crowding);
+            }
+            int[] parents = selection.selectIndices(population, populationSize + (populationSize & 1));
 
             // create offspring of size N
             List<TestSuiteChromosome> offspring = new ArrayList<>(populationSize);
+            int nextParent = 0;
             while (offspring.size() < populationSize && !searchMustStop()) {
-                TestSuiteChromosome p1 = selection.apply(population);
-                TestSuiteChromosome p2 = selection.apply(population);
+                TestSuiteChromosome p1 = population.get(parents[nextParent++]);
+                TestSuiteChromosome p2 = population.get(parents[nextParent++]);
 
-                Pair<TestSuiteChromosome> children = p1.crossover(p2);
-                TestSuiteChromosome c1 = children.getFst().mutate();
-                TestSuiteChromosome c2 = children.getSnd().mutate();
+                pool.breed(p1, p2, children);
+                TestSuiteChromosome c1 = children[0];
+                TestSuiteChromosome c2 = children[1];
 
                 evaluate(c1);
-                offspring.add(c1);
-                if (offspring.size() < populationSize) {
+                offspring.add(improveAndRecycle(c1));
+                if (offspring.size() < populationSize && !searchMustStop()) {
                     evaluate(c2);
-                    offspring.add(c2);
+                    offspring.add(improveAndRecycle(c2));
+                } else {
+                    pool.release(c2);
                 }
             }
 
@@ -100,16 +161,22 @@ public class NSGA2 implements GeneticAlgorithm<TestSuiteChromosome> {
             List<TestSuiteChromosome> combined = new ArrayList<>(population.size() + offspring.size());
             combined.addAll(population);
             combined.addAll(offspring);
+            for (TestSuiteChromosome immigrant : immigrants.get()) {
+                if (!combined.contains(immigrant)) {
+                    combined.add(immigrant.copy());
+                }
+            }
 
-            List<List<TestSuiteChromosome>> combinedFronts = fastNonDominatedSort(combined);
-            assignRankAndCrowding(combinedFronts);
-
-            population = selectNextPopulation(combinedFronts);
+            population = selectNextPopulation(combined, rankPopulation(combined));
         }
 
         // return first Pareto front of final population
-        List<List<TestSuiteChromosome>> finalFronts = fastNonDominatedSort(population);
-        return finalFronts.isEmpty() ? List.of() : finalFronts.get(0);
+        int[][] finalFronts = rankPopulation(population);
+        List<TestSuiteChromosome> first = new ArrayList<>();
+        if (finalFronts.length > 0) {
+            for (int i : finalFronts[0]) first.add(population.get(i));
+        }
+        return first;
     }
 
     @Override
@@ -117,6 +184,27 @@ public class NSGA2 implements GeneticAlgorithm<TestSuiteChromosome> {
         return stoppingCondition;
     }
 
+    /**
+     * Hook to improve a freshly evaluated offspring before survivor selection. Implementations
+     * must account for any additional fitness evaluations via {@link #notifyFitnessEvaluation()}
+     * and must not exceed the search budget. The default implementation returns the offspring as
+     * is.
+     *
+     * @param offspring the evaluated offspring
+     * @return the offspring to use for survivor selection
+     */
+    protected TestSuiteChromosome improve(TestSuiteChromosome offspring) {
+        return offspring;
+    }
+
+    private TestSuiteChromosome improveAndRecycle(TestSuiteChromosome offspring) {
+        TestSuiteChromosome improved = improve(offspring);
+        if (improved != offspring) {
+            pool.release(offspring);
+        }
+        return improved;
+    }
+
     // ---------- evaluation ----------
     private void evaluate(TestSuiteChromosome c) {
         // one evaluation budget per chromosome (even though we compute two objectives)
@@ -125,149 +213,189 @@ public class NSGA2 implements GeneticAlgorithm<TestSuiteChromosome> {
         notifyFitnessEvaluation();
     }
 
-    // ---------- dominance ----------
-    private boolean dominates(TestSuiteChromosome a, TestSuiteChromosome b) {
-        double aSize = sizeFF.applyAsDouble(a);
-        double bSize = sizeFF.applyAsDouble(b);
+    // ---------- ranking ----------
+    // Computes the objectives of every member once, sorts the population into fronts and assigns
+    // rank and crowding distance, all by position in the population. Returns the fronts, best
+    // first, as positions.
+    private int[][] rankPopulation(List<TestSuiteChromosome> pop) {
+        int n = pop.size();
+        ranked = pop;
+        size = new double[n];
+        coverage = new double[n];
+        rank = new int[n];
+        crowding = new double[n];
+
+        for (int i = 0; i < n; i++) {
+            TestSuiteChromosome c = pop.get(i);
+            size[i] = sizeFF.applyAsDouble(c);
+            coverage[i] = coverageFF.applyAsDouble(c);
+        }
 
-        double aCov = coverageFF.applyAsDouble(a);
-        double bCov = coverageFF.applyAsDouble(b);
+        int[][] fronts = fastNonDominatedSort(n);
+        for (int f = 0; f < fronts.length; f++) {
+            for (int i : fronts[f]) rank[i] = f;
+            computeCrowdingDistance(fronts[f]);
+        }
+        return fronts;
+    }
 
-        boolean notWorseAll = (aSize <= bSize) && (aCov >= bCov);
-        boolean betterOne = (aSize < bSize) || (aCov > bCov);
+    // ---------- dominance ----------
+    private boolean dominates(int a, int b) {
+        boolean notWorseAll = (size[a] <= size[b]) && (coverage[a] >= coverage[b]);
+        boolean betterOne = (size[a] < size[b]) || (coverage[a] > coverage[b]);
         return notWorseAll && betterOne;
     }
 
     // ---------- NSGA-II: fast non-dominated sort ----------
-    private List<List<TestSuiteChromosome>> fastNonDominatedSort(List<TestSuiteChromosome> pop) {
-        Map<TestSuiteChromosome, List<TestSuiteChromosome>> S = new IdentityHashMap<>();
-        Map<TestSuiteChromosome, Integer> n = new IdentityHashMap<>();
-
-        List<List<TestSuiteChromosome>> fronts = new ArrayList<>();
-        List<TestSuiteChromosome> first = new ArrayList<>();
-
-        for (TestSuiteChromosome p : pop) {
-            S.put(p, new ArrayList<>());
-            n.put(p, 0);
-
-            for (TestSuiteChromosome q : pop) {
+    private int[][] fastNonDominatedSort(int n) {
+        // dominated[p][0 .. dominatedCount[p]) are the members dominated by p
+        int[][] dominated = new int[n][];
+        int[] dominatedCount = new int[n];
+        int[] dominatorCount = new int[n];
+
+        int[] current = new int[n];
+        int currentSize = 0;
+
+        for (int p = 0; p < n; p++) {
+            int[] s = new int[n];
+            for (int q = 0; q < n; q++) {
                 if (p == q) continue;
                 if (dominates(p, q)) {
-                    S.get(p).add(q);
+                    s[dominatedCount[p]++] = q;
                 } else if (dominates(q, p)) {
-                    n.put(p, n.get(p) + 1);
+                    dominatorCount[p]++;
                 }
             }
+            dominated[p] = s;
 
-            if (n.get(p) == 0) first.add(p);
+            if (dominatorCount[p] == 0) current[currentSize++] = p;
         }
 
-        fronts.add(first);
-
-        int i = 0;
-        while (i < fronts.size() && !fronts.get(i).isEmpty()) {
-            List<TestSuiteChromosome> next = new ArrayList<>();
-            for (TestSuiteChromosome p : fronts.get(i)) {
-                for (TestSuiteChromosome q : S.get(p)) {
-                    n.put(q, n.get(q) - 1);
-                    if (n.get(q) == 0) next.add(q);
+        List<int[]> fronts = new ArrayList<>();
+        int[] next = new int[n];
+        while (currentSize > 0) {
+            fronts.add(Arrays.copyOf(current, currentSize));
+
+            int nextSize = 0;
+            for (int i = 0; i < currentSize; i++) {
+                int p = current[i];
+                for (int k = 0; k < dominatedCount[p]; k++) {
+                    int q = dominated[p][k];
+                    if (--dominatorCount[q] == 0) next[nextSize++] = q;
                 }
             }
-            i++;
-            if (!next.isEmpty()) fronts.add(next);
+
+            int[] tmp = current;
+            current = next;
+            next = tmp;
+            currentSize = nextSize;
         }
 
-        return fronts;
+        return fronts.toArray(new int[0][]);
     }
 
     // ---------- NSGA-II: crowding distance ----------
-    private void assignRankAndCrowding(List<List<TestSuiteChromosome>> fronts) {
-        rank.clear();
-        crowding.clear();
-
-        for (int i = 0; i < fronts.size(); i++) {
-            List<TestSuiteChromosome> front = fronts.get(i);
-            for (TestSuiteChromosome c : front) rank.put(c, i);
-            computeCrowdingDistance(front);
-        }
-    }
-
-    private void computeCrowdingDistance(List<TestSuiteChromosome> front) {
-        int n = front.size();
+    // Sorts the front by size and then (stably) by coverage as a side effect.
+    private void computeCrowdingDistance(int[] front) {
+        int n = front.length;
         if (n == 0) return;
 
-        for (TestSuiteChromosome c : front) crowding.put(c, 0.0);
         if (n <= 2) {
-            for (TestSuiteChromosome c : front) crowding.put(c, Double.POSITIVE_INFINITY);
+            for (int i : front) crowding[i] = Double.POSITIVE_INFINITY;
             return;
         }
 
         // Objective 1: size (min)
-        front.sort(Comparator.comparingDouble(c -> sizeFF.applyAsDouble(c)));
-        crowding.put(front.get(0), Double.POSITIVE_INFINITY);
-        crowding.put(front.get(n - 1), Double.POSITIVE_INFINITY);
+        sortBy(front, size);
+        accumulateDistance(front, size);
 
-        double min1 = sizeFF.applyAsDouble(front.get(0));
-        double max1 = sizeFF.applyAsDouble(front.get(n - 1));
-        double range1 = max1 - min1;
+        // Objective 2: coverage (max) -> sort ascending still fine for distance, we use raw values
+        sortBy(front, coverage);
+        accumulateDistance(front, coverage);
+    }
+
+    private void accumulateDistance(int[] front, double[] objective) {
+        int n = front.length;
+        crowding[front[0]] = Double.POSITIVE_INFINITY;
+        crowding[front[n - 1]] = Double.POSITIVE_INFINITY;
 
-        if (range1 > 0) {
+        double range = objective[front[n - 1]] - objective[front[0]];
+        if (range > 0) {
             for (int i = 1; i < n - 1; i++) {
-                double prev = sizeFF.applyAsDouble(front.get(i - 1));
-                double next = sizeFF.applyAsDouble(front.get(i + 1));
-                crowding.put(front.get(i), crowding.get(front.get(i)) + (next - prev) / range1);
+                double prev = objective[front[i - 1]];
+                double next = objective[front[i + 1]];
+                crowding[front[i]] += (next - prev) / range;
             }
         }
+    }
 
-        // Objective 2: coverage (max) -> sort ascending still fine for distance, we use raw values
-        front.sort(Comparator.comparingDouble(c -> coverageFF.applyAsDouble(c)));
-        crowding.put(front.get(0), Double.POSITIVE_INFINITY);
-        crowding.put(front.get(n - 1), Double.POSITIVE_INFINITY);
-
-        double min2 = coverageFF.applyAsDouble(front.get(0));
-        double max2 = coverageFF.applyAsDouble(front.get(n - 1));
-        double range2 = max2 - min2;
-
-        if (range2 > 0) {
-            for (int i = 1; i < n - 1; i++) {
-                double prev = coverageFF.applyAsDouble(front.get(i - 1));
-                double next = coverageFF.applyAsDouble(front.get(i + 1));
-                crowding.put(front.get(i), crowding.get(front.get(i)) + (next - prev) / range2);
+    // Stable insertion sort of positions by ascending key; fronts are small.
+    private static void sortBy(int[] positions, double[] key) {
+        for (int i = 1; i < positions.length; i++) {
+            int p = positions[i];
+            int j = i - 1;
+            while (j >= 0 && key[positions[j]] > key[p]) {
+                positions[j + 1] = positions[j];
+                j--;
             }
+            positions[j + 1] = p;
         }
     }
 
     // ---------- survivor selection ----------
-    private List<TestSuiteChromosome> selectNextPopulation(List<List<TestSuiteChromosome>> fronts) {
+    // Rejected chromosomes are released to the pool: those of the split front beyond the cut and
+    // all of the following fronts.
+    private List<TestSuiteChromosome> selectNextPopulation(List<TestSuiteChromosome> combined, int[][] fronts) {
         List<TestSuiteChromosome> next = new ArrayList<>(populationSize);
 
-        for (List<TestSuiteChromosome> front : fronts) {
-            if (next.size() + front.size() <= populationSize) {
-                next.addAll(front);
-            } else {
+        for (int[] front : fronts) {
+            if (next.size() + front.length <= populationSize) {
+                for (int i : front) next.add(combined.get(i));
+            } else if (next.size() < populationSize) {
                 // fill remaining by descending crowding distance
-                front.sort((a, b) -> Double.compare(
-                        crowding.getOrDefault(b, 0.0),
-                        crowding.getOrDefault(a, 0.0)
-                ));
+                sortBy(front, negatedCrowding());
                 int remaining = populationSize - next.size();
-                next.addAll(front.subList(0, remaining));
-                break;
+                for (int k = 0; k < front.length; k++) {
+                    TestSuiteChromosome c = combined.get(front[k]);
+                    if (k < remaining) {
+                        next.add(c);
+                    } else {
+                        pool.release(c);
+                    }
+                }
+            } else {
+                for (int i : front) pool.release(combined.get(i));
             }
         }
 
         return next;
     }
 
-    // Expose comparator logic for tournament selection if you want to build it from here
+    private double[] negatedCrowding() {
+        double[] key = new double[crowding.length];
+        for (int i = 0; i < key.length; i++) key[i] = -crowding[i];
+        return key;
+    }
+
+    // Expose comparator logic on the last ranked population, e.g., for inspection; parent selection
+    // itself runs on the rank and crowding arrays
     public Comparator<TestSuiteChromosome> nsga2Comparator() {
         return (a, b) -> {
-            int ra = rank.getOrDefault(a, Integer.MAX_VALUE);
-            int rb = rank.getOrDefault(b, Integer.MAX_VALUE);
+            int ia = positionOf(a);
+            int ib = positionOf(b);
+            int ra = ia < 0 ? Integer.MAX_VALUE : rank[ia];
+            int rb = ib < 0 ? Integer.MAX_VALUE : rank[ib];
             if (ra != rb) return Integer.compare(rb, ra); // higher result => a better (smaller rank)
-            double ca = crowding.getOrDefault(a, 0.0);
-            double cb = crowding.getOrDefault(b, 0.0);
+            double ca = ia < 0 ? 0.0 : crowding[ia];
+            double cb = ib < 0 ? 0.0 : crowding[ib];
             return Double.compare(ca, cb); // higher crowding => better
         };
     }
+
+    private int positionOf(TestSuiteChromosome c) {
+        for (int i = 0; i < ranked.size(); i++) {
+            if (ranked.get(i) == c) return i;
+        }
+        return -1;
+    }
 }
@@ -0,0 +1,275 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.algorithms;
+
+import de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes.TestSuiteChromosome;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.crossover.Crossover;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.fitness_functions.FitnessFunction;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.mutation.Mutation;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.stopping_conditions.StoppingCondition;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.utils.ParetoArchive;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.utils.Randomness;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGenerator.SplittableGenerator;
+import java.util.stream.IntStream;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Population-based incremental learning (PBIL), an estimation-of-distribution algorithm for the
+ * test suite minimisation problem.
+ * <p>
+ * Instead of a population, the algorithm keeps the probability of every test to be included in a
+ * suite. Every generation samples suites from these independent probabilities, and moves every
+ * probability towards the frequency of its test among the non-dominated samples of the generation
+ * by the learning rate. A learning rate of 1 replaces the probabilities by the frequencies, which
+ * is the univariate marginal distribution algorithm (UMDA). Probabilities are kept within
+ * {@code [1/T, 1 - 1/T]}, or at 1/2 for a single test, so that no test is ever fixed. All
+ * non-dominated samples are collected in a {@link ParetoArchive}, which is the result of the
+ * search.
+ * <p>
+ * Suites are sampled 64 genes at a time directly into their packed genes. The probabilities are
+ * quantised to {@value #PRECISION} bits and stored as bit planes: plane {@code b} of a word holds
+ * bit {@code b} of the thresholds of its 64 tests, most significant first. A gene is selected iff
+ * a uniform random number is below its threshold, and the 64 comparisons of a word run in parallel
+ * on the planes, one random word per bit: lanes where the random bit is 0 and the threshold bit is
+ * 1 are selected, lanes with the opposite bits are rejected, and the remaining lanes proceed to the
+ * next bit. Half of the undecided lanes are decided by each random word, so a word of genes costs
+ * about eight random words, independently of the probabilities.
+ * <p>
+ * There is no crossover, so samples are independent of each other. Every generation first claims
+ * its evaluations from the stopping condition, then samples and evaluates them concurrently in
+ * chunks of {@value #CHUNK}. Every chunk runs with its own child stream of {@link Randomness}
+ * bound, split off the stream of the calling thread in chunk order, so every draw of the chunk,
+ * including the one that adds a test to an empty sample, comes from that stream and the result
+ * does not depend on the number of threads.
+ */
+public class PBIL implements GeneticAlgorithm<TestSuiteChromosome> {
+
+    /**
+     * The number of bits of the quantised inclusion probabilities.
+     */
+    static final int PRECISION = 16;
+
+    /**
+     * The number of suites sampled per parallel task.
+     */
+    static final int CHUNK = 8;
+
+    private final StoppingCondition stoppingCondition;
+
+    private final int populationSize;
+    private final int numberOfTests;
+    private final double learningRate;
+
+    private final FitnessFunction<TestSuiteChromosome> sizeFF;      // minimizing
+    private final FitnessFunction<TestSuiteChromosome> coverageFF;   // maximizing
+
+    private final Mutation<TestSuiteChromosome> mutation;
+    private final Crossover<TestSuiteChromosome> crossover;
+
+    private final ParetoArchive<TestSuiteChromosome> archive = new ParetoArchive<>();
+
+    /**
+     * The inclusion probability of every test.
+     */
+    private final double[] probabilities;
+
+    /**
+     * The bit planes of the quantised probabilities, {@value #PRECISION} per word of genes.
+     */
+    private final long[] planes;
+
+    private final int words;
+
+    public PBIL(
+            StoppingCondition stoppingCondition,
+            int populationSize,
+            int numberOfTests,
+            double learningRate,
+            FitnessFunction<TestSuiteChromosome> sizeFF,
+            FitnessFunction<TestSuiteChromosome> coverageFF,
+            Mutation<TestSuiteChromosome> mutation,
+            Crossover<TestSuiteChromosome> crossover
+    ) {
+        if (populationSize <= 0) {
+            throw new IllegalArgumentException("population size must be positive");
+        }
+        if (numberOfTests <= 0) {
+            throw new IllegalArgumentException("number of tests must be positive");
+        }
+        if (!(learningRate > 0.0 && learningRate <= 1.0)) {
+            throw new IllegalArgumentException("learning rate must be in (0, 1]: " + learningRate);
+        }
+
+        this.stoppingCondition = requireNonNull(stoppingCondition);
+        this.populationSize = populationSize;
+        this.numberOfTests = numberOfTests;
+        this.learningRate = learningRate;
+        this.sizeFF = requireNonNull(sizeFF);
+        this.coverageFF = requireNonNull(coverageFF);
+        this.mutation = requireNonNull(mutation);
+        this.crossover = requireNonNull(crossover);
+
+        this.probabilities = new double[numberOfTests];
+        this.words = TestSuiteChromosome.wordsFor(numberOfTests);
+        this.planes = new long[words * PRECISION];
+        reset();
+    }
+
+    @Override
+    public List<TestSuiteChromosome> findSolution() {
+        notifySearchStarted();
+        archive.clear();
+        reset();
+
+        final TestSuiteChromosome[] samples = new TestSuiteChromosome[populationSize];
+        final double[] size = new double[populationSize];
+        final double[] coverage = new double[populationSize];
+
+        while (true) {
+            int n = claimEvaluations();
+            if (n == 0) break;
+
+            final SplittableGenerator[] streams = new SplittableGenerator[(n + CHUNK - 1) / CHUNK];
+            for (int c = 0; c < streams.length; c++) {
+                streams[c] = Randomness.split();
+            }
+            IntStream.range(0, streams.length).parallel().forEach(c -> Randomness.runWithStream(streams[c], () -> {
+                for (int i = c * CHUNK; i < Math.min(n, (c + 1) * CHUNK); i++) {
+                    samples[i] = sample(Randomness.random());
+                    size[i] = sizeFF.applyAsDouble(samples[i]);
+                    coverage[i] = coverageFF.applyAsDouble(samples[i]);
+                }
+            }));
+
+            int[] front = nonDominated(size, coverage, n);
+            for (int i : front) {
+                archive.offer(samples[i], size[i], coverage[i]);
+            }
+            learn(samples, front);
+            Arrays.fill(samples, null);
+        }
+
+        return new ArrayList<>(archive.solutions());
+    }
+
+    @Override
+    public StoppingCondition getStoppingCondition() {
+        return stoppingCondition;
+    }
+
+    /**
+     * Charges up to one generation of evaluations to the stopping condition before sampling.
+     *
+     * @return the number of suites to sample
+     */
+    private int claimEvaluations() {
+        int n = 0;
+        while (n < populationSize && !searchMustStop()) {
+            notifyFitnessEvaluation();
+            n++;
+        }
+        return n;
+    }
+
+    /**
+     * Samples a suite from the quantised probabilities by bit-sliced comparison.
+     */
+    TestSuiteChromosome sample(RandomGenerator random) {
+        final long[] genes = new long[words];
+        for (int w = 0; w < words; w++) {
+            final int base = w * PRECISION;
+            long undecided = w == words - 1 && (numberOfTests & 63) != 0
+                    ? (1L << numberOfTests) - 1
+                    : -1L;
+            long selected = 0L;
+            for (int b = 0; b < PRECISION && undecided != 0; b++) {
+                long r = random.nextLong();
+                long threshold = planes[base + b];
+                long below = ~r & threshold;
+                long above = r & ~threshold;
+                selected |= undecided & below;
+                undecided &= ~(below | above);
+            }
+            genes[w] = selected;
+        }
+        return TestSuiteChromosome.ofWords(genes, numberOfTests, mutation, crossover);
+    }
+
+    /**
+     * Returns the positions of the non-dominated samples among the first {@code n}: after sorting
+     * by ascending size and descending coverage, a sample is non-dominated iff it covers more than
+     * every smaller one. Of samples with equal objectives, the first one is kept.
+     */
+    private static int[] nonDominated(double[] size, double[] coverage, int n) {
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> size[a] != size[b]
+                ? Double.compare(size[a], size[b])
+                : Double.compare(coverage[b], coverage[a]));
+
+        int[] front = new int[n];
+        int count = 0;
+        double best = Double.NEGATIVE_INFINITY;
+        for (int i : order) {
+            if (coverage[i] > best) {
+                best = coverage[i];
+                front[count++] = i;
+            }
+        }
+        return Arrays.copyOf(front, count);
+    }
+
+    /**
+     * Moves the probabilities towards the inclusion frequencies among the given samples.
+     */
+    private void learn(TestSuiteChromosome[] samples, int[] front) {
+        final int[] counts = new int[numberOfTests];
+        for (int i : front) {
+            for (int t : samples[i].getSelectedTestIndices()) {
+                counts[t]++;
+            }
+        }
+
+        final double min = 1.0 / Math.max(2, numberOfTests);
+        final double max = 1.0 - min;
+        for (int t = 0; t < numberOfTests; t++) {
+            double frequency = (double) counts[t] / front.length;
+            double p = (1.0 - learningRate) * probabilities[t] + learningRate * frequency;
+            probabilities[t] = Math.min(max, Math.max(min, p));
+        }
+        updatePlanes();
+    }
+
+    private void reset() {
+        Arrays.fill(probabilities, 0.5);
+        updatePlanes();
+    }
+
+    private void updatePlanes() {
+        Arrays.fill(planes, 0L);
+        for (int t = 0; t < numberOfTests; t++) {
+            long threshold = Math.round(probabilities[t] * (1L << PRECISION));
+            threshold = Math.min(threshold, (1L << PRECISION) - 1);
+            int base = (t >>> 6) * PRECISION;
+            for (int b = 0; b < PRECISION; b++) {
+                if ((threshold & (1L << (PRECISION - 1 - b))) != 0) {
+                    planes[base + b] |= 1L << t;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the current inclusion probability of the given test.
+     *
+     * @param test the index of the test
+     * @return its probability
+     */
+    double probability(int test) {
+        return probabilities[test];
+    }
+}
@@ -0,0 +1,143 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.algorithms;
+
+import de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes.TestSuiteChromosome;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.fitness_functions.FitnessFunction;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.stopping_conditions.SharedBudget;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.stopping_conditions.StoppingCondition;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.utils.ParetoArchive;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.utils.Randomness;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.random.RandomGenerator.SplittableGenerator;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Runs a portfolio of search algorithms concurrently and returns their merged Pareto front.
+ * <p>
+ * All members must have been built with the same {@link SharedBudget}, so they draw from one
+ * evaluation budget and stop together once it is exhausted or its deadline has passed. Members do
+ * not synchronise their check of the budget with the following evaluation, so the budget may be
+ * exceeded by at most one evaluation per member.
+ * <p>
+ * Members exchange solutions through a {@link ParetoArchive} while they run: the archive passed
+ * to the portfolio is meant to be shared with the members, which offer every suite they evaluate
+ * to it and may take in archived suites as immigrants (see
+ * {@link de.uni_passau.fim.se2.sbse.suite_minimisation.utils.AlgorithmBuilder}). Solutions a
+ * member discards later are thus kept. The final front of every member is offered as well, and
+ * the archive is returned once all members have stopped.
+ * <p>
+ * Every member runs in its own thread, bound to its own child stream of {@link Randomness} that is
+ * derived deterministically from the stream of the calling thread. The threads are scoped to a
+ * single call of {@link #findSolution()}: if a member fails, the budget is cancelled so that the
+ * others stop as well, and the failure is rethrown after all threads have terminated.
+ */
+public class Portfolio implements GeneticAlgorithm<TestSuiteChromosome> {
+
+    private final SharedBudget budget;
+    private final List<GeneticAlgorithm<TestSuiteChromosome>> members;
+
+    private final FitnessFunction<TestSuiteChromosome> sizeFF;      // minimizing
+    private final FitnessFunction<TestSuiteChromosome> coverageFF;   // maximizing
+
+    private final ParetoArchive<TestSuiteChromosome> archive;
+
+    public Portfolio(
+            SharedBudget budget,
+            List<GeneticAlgorithm<TestSuiteChromosome>> members,
+            FitnessFunction<TestSuiteChromosome> sizeFF,
+            FitnessFunction<TestSuiteChromosome> coverageFF
+    ) {
+        this(budget, new ParetoArchive<>(), members, sizeFF, coverageFF);
+    }
+
+    /**
+     * Creates a portfolio whose members share the given archive. The archive is cleared at the
+     * start of every search.
+     *
+     * @param budget     the budget all members must use
+     * @param archive    the archive shared with the members
+     * @param members    the members
+     * @param sizeFF     the size fitness function
+     * @param coverageFF the coverage fitness function
+     */
+    public Portfolio(
+            SharedBudget budget,
+            ParetoArchive<TestSuiteChromosome> archive,
+            List<GeneticAlgorithm<TestSuiteChromosome>> members,
+            FitnessFunction<TestSuiteChromosome> sizeFF,
+            FitnessFunction<TestSuiteChromosome> coverageFF
+    ) {
+        requireNonNull(budget);
+        if (members.isEmpty()) {
+            throw new IllegalArgumentException("portfolio must have at least one member");
+        }
+        for (GeneticAlgorithm<TestSuiteChromosome> member : members) {
+            if (member.getStoppingCondition() != budget) {
+                throw new IllegalArgumentException("portfolio members must use the shared budget");
+            }
+        }
+
+        this.budget = budget;
+        this.archive = requireNonNull(archive);
+        this.members = List.copyOf(members);
+        this.sizeFF = requireNonNull(sizeFF);
+        this.coverageFF = requireNonNull(coverageFF);
+    }
+
+    @Override
+    public List<TestSuiteChromosome> findSolution() {
+        archive.clear();
+        budget.start();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(members.size())) {
+            List<Future<?>> futures = new ArrayList<>(members.size());
+            for (GeneticAlgorithm<TestSuiteChromosome> member : members) {
+                SplittableGenerator stream = Randomness.split();
+                futures.add(executor.submit(
+                        () -> Randomness.runWithStream(stream, () -> publish(member.findSolution()))));
+            }
+
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    budget.cancel();
+                    throw new IllegalStateException("Portfolio member failed", e.getCause());
+                } catch (InterruptedException e) {
+                    budget.cancel();
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for portfolio members", e);
+                }
+            }
+        }
+
+        return new ArrayList<>(archive.solutions());
+    }
+
+    @Override
+    public StoppingCondition getStoppingCondition() {
+        return budget;
+    }
+
+    private void publish(List<TestSuiteChromosome> front) {
+        for (TestSuiteChromosome c : front) {
+            archive.offer(c, sizeFF.applyAsDouble(c), coverageFF.applyAsDouble(c));
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(getClass().getSimpleName()).append('[');
+        for (int i = 0; i < members.size(); i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(members.get(i).getClass().getSimpleName());
+        }
+        return sb.append(']').toString();
+    }
+}
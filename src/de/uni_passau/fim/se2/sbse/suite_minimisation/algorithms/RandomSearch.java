@@ -1,14 +1,17 @@
 package de.uni_passau.fim.se2.sbse.suite_minimisation.algorithms;
 
 import de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes.ChromosomeGenerator;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes.FloydChromosomeGenerator;
 import de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes.TestSuiteChromosome;
 import de.uni_passau.fim.se2.sbse.suite_minimisation.fitness_functions.FitnessFunction;
 import de.uni_passau.fim.se2.sbse.suite_minimisation.stopping_conditions.StoppingCondition;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.utils.CoverageIndex;
 import de.uni_passau.fim.se2.sbse.suite_minimisation.utils.Randomness;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.random.RandomGenerator;
 
 import static java.util.Objects.requireNonNull;
 
@@ -21,10 +24,16 @@ public class RandomSearch implements GeneticAlgorithm<TestSuiteChromosome> {
     private final FitnessFunction<TestSuiteChromosome> coverageFF;   // maximizing
 
     // Needed for greedy seed
-    private final boolean[][] coverageMatrix;
+    private final CoverageIndex coverageIndex;
     private final int numberTestCases;
     private final int numberLines;
 
+    private final SamplingType sampling;
+
+    // Quasi-random sampling state: the position in the van der Corput sequence and its random shift.
+    private long sequenceIndex;
+    private double sequenceShift;
+
     public RandomSearch(
             StoppingCondition stoppingCondition,
             ChromosomeGenerator<TestSuiteChromosome> generator,
@@ -33,21 +42,58 @@ public class RandomSearch implements GeneticAlgorithm<TestSuiteChromosome> {
             boolean[][] coverageMatrix,
             int numberTestCases,
             int numberLines
+    ) {
+        this(stoppingCondition, generator, sizeFF, coverageFF, coverageMatrix, numberTestCases, numberLines,
+                SamplingType.RANDOM);
+    }
+
+    public RandomSearch(
+            StoppingCondition stoppingCondition,
+            ChromosomeGenerator<TestSuiteChromosome> generator,
+            FitnessFunction<TestSuiteChromosome> sizeFF,
+            FitnessFunction<TestSuiteChromosome> coverageFF,
+            boolean[][] coverageMatrix,
+            int numberTestCases,
+            int numberLines,
+            SamplingType sampling
+    ) {
+        this(stoppingCondition, generator, sizeFF, coverageFF, packed(coverageMatrix, numberTestCases, numberLines),
+                sampling);
+    }
+
+    public RandomSearch(
+            StoppingCondition stoppingCondition,
+            ChromosomeGenerator<TestSuiteChromosome> generator,
+            FitnessFunction<TestSuiteChromosome> sizeFF,
+            FitnessFunction<TestSuiteChromosome> coverageFF,
+            CoverageIndex coverageIndex,
+            SamplingType sampling
     ) {
         this.stoppingCondition = requireNonNull(stoppingCondition);
         this.generator = requireNonNull(generator);
         this.sizeFF = requireNonNull(sizeFF);
         this.coverageFF = requireNonNull(coverageFF);
 
-        this.coverageMatrix = requireNonNull(coverageMatrix);
-        this.numberTestCases = numberTestCases;
-        this.numberLines = numberLines;
+        this.coverageIndex = requireNonNull(coverageIndex);
+        this.numberTestCases = coverageIndex.getNumberOfTests();
+        this.numberLines = coverageIndex.getNumberOfLines();
+        this.sampling = requireNonNull(sampling);
+    }
+
+    private static CoverageIndex packed(boolean[][] coverageMatrix, int numberTestCases, int numberLines) {
+        requireNonNull(coverageMatrix);
+        if (coverageMatrix.length != numberTestCases || coverageMatrix[0].length != numberLines) {
+            throw new IllegalArgumentException("Expected a " + numberTestCases + "x" + numberLines + " coverage matrix");
+        }
+        return new CoverageIndex(coverageMatrix);
     }
 
 
     @Override
     public List<TestSuiteChromosome> findSolution() {
         notifySearchStarted();
+        sequenceIndex = 0;
+        sequenceShift = sampling == SamplingType.QUASI_RANDOM ? Randomness.random().nextDouble() : 0.0;
 
         List<TestSuiteChromosome> paretoFront = new ArrayList<>();
         TestSuiteChromosome template = generator.get();
@@ -78,8 +124,8 @@ public class RandomSearch implements GeneticAlgorithm<TestSuiteChromosome> {
 
         // (D) Budget-efficient stratified random sampling until stop
         while (!searchMustStop()) {
-            boolean[] genes = sampleByTargetSize();
-            evaluateAndInsert(new TestSuiteChromosome(genes, template.getMutation(), template.getCrossover()), paretoFront);
+            long[] words = sampling == SamplingType.QUASI_RANDOM ? sampleQuasiRandom() : sampleByTargetSize();
+            evaluateAndInsert(TestSuiteChromosome.ofWords(words, numberTestCases, template.getMutation(), template.getCrossover()), paretoFront);
         }
 
         return paretoFront;
@@ -98,7 +144,7 @@ public class RandomSearch implements GeneticAlgorithm<TestSuiteChromosome> {
 
                 int gain = 0;
                 for (int line = 0; line < numberLines; line++) {
-                    if (!covered[line] && coverageMatrix[t][line]) gain++;
+                    if (!covered[line] && coverageIndex.covers(t, line)) gain++;
                 }
                 if (gain > bestGain) {
                     bestGain = gain;
@@ -110,7 +156,7 @@ public class RandomSearch implements GeneticAlgorithm<TestSuiteChromosome> {
 
             genes[bestTest] = true;
             for (int line = 0; line < numberLines; line++) {
-                covered[line] |= coverageMatrix[bestTest][line];
+                covered[line] |= coverageIndex.covers(bestTest, line);
             }
 
             // Evaluate current prefix suite (THIS is the key improvement)
@@ -129,11 +175,7 @@ public class RandomSearch implements GeneticAlgorithm<TestSuiteChromosome> {
         int n = numberTestCases;
         int[] cov = new int[n];
         for (int t = 0; t < n; t++) {
-            int c = 0;
-            for (int line = 0; line < numberLines; line++) {
-                if (coverageMatrix[t][line]) c++;
-            }
-            cov[t] = c;
+            cov[t] = coverageIndex.lineCount(t);
         }
 
         // Select top K indices by cov (simple partial selection)
@@ -146,25 +188,46 @@ public class RandomSearch implements GeneticAlgorithm<TestSuiteChromosome> {
         return Arrays.copyOf(idx, K);
     }
 
-    private boolean[] sampleByTargetSize() {
+    private long[] sampleByTargetSize() {
         int n = numberTestCases;
-        boolean[] genes = new boolean[n];
+        long[] words = new long[TestSuiteChromosome.wordsFor(n)];
 
         // Bias towards smaller suites: k = 1 + floor((r^2) * (n-1))
-        double r = Randomness.random().nextDouble();
+        RandomGenerator random = Randomness.random();
+        double r = random.nextDouble();
         int k = 1 + (int) Math.floor(r * r * (n - 1));
 
-        // Pick k distinct indices using a partial Fisher-Yates shuffle on an index array
-        int[] pool = new int[n];
-        for (int i = 0; i < n; i++) pool[i] = i;
+        // Pick k distinct indices with Floyd's algorithm, in O(k) without an index array
+        FloydChromosomeGenerator.sample(words, n, k, random);
 
-        for (int i = 0; i < k; i++) {
-            int j = i + Randomness.random().nextInt(n - i);
-            int tmp = pool[i]; pool[i] = pool[j]; pool[j] = tmp;
-            genes[pool[i]] = true;
-        }
+        return words;
+    }
 
-        return genes;
+    private long[] sampleQuasiRandom() {
+        long[] words = new long[TestSuiteChromosome.wordsFor(numberTestCases)];
+        FloydChromosomeGenerator.sample(words, numberTestCases, nextQuasiRandomSize(), Randomness.random());
+        return words;
+    }
+
+    /**
+     * Returns the next suite size, with the same quadratic bias towards small suites as
+     * {@link #sampleByTargetSize()}, but driven by the next point of the van der Corput sequence
+     * shifted by a random offset instead of an independent uniform number. Any run of consecutive
+     * points spreads evenly over the unit interval, so the sizes fill their range without the
+     * clusters and gaps of independent draws, and the shift keeps runs with different seeds apart.
+     */
+    private int nextQuasiRandomSize() {
+        double u = vanDerCorput(++sequenceIndex) + sequenceShift;
+        if (u >= 1.0) u -= 1.0;
+        return 1 + (int) Math.floor(u * u * (numberTestCases - 1));
+    }
+
+    /**
+     * Returns the i-th point of the base-2 van der Corput sequence, the bits of i mirrored at the
+     * binary point.
+     */
+    static double vanDerCorput(long i) {
+        return (Long.reverse(i) >>> 11) * 0x1.0p-53;
     }
 
 
@@ -220,7 +283,7 @@ public class RandomSearch implements GeneticAlgorithm<TestSuiteChromosome> {
 
                 int gain = 0;
                 for (int line = 0; line < numberLines; line++) {
-                    if (!covered[line] && coverageMatrix[t][line]) {
+                    if (!covered[line] && coverageIndex.covers(t, line)) {
                         gain++;
                     }
                 }
@@ -236,7 +299,7 @@ public class RandomSearch implements GeneticAlgorithm<TestSuiteChromosome> {
 
             genes[bestTest] = true;
             for (int line = 0; line < numberLines; line++) {
-                covered[line] |= coverageMatrix[bestTest][line];
+                covered[line] |= coverageIndex.covers(bestTest, line);
             }
 
             // Stop early if fully covered
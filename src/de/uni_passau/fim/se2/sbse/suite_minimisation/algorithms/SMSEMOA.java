@@ -0,0 +1,293 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.algorithms;
+
+import de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes.ChromosomeGenerator;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes.TestSuiteChromosome;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.fitness_functions.FitnessFunction;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.stopping_conditions.StoppingCondition;
+
+import java.util.*;
+import java.util.random.RandomGenerator;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * SMS-EMOA (S-metric selection evolutionary multi-objective algorithm) for the test suite
+ * minimisation problem.
+ * <p>
+ * SMS-EMOA is a steady-state (μ + 1) algorithm: every iteration creates a single offspring and then
+ * discards the individual of the worst non-domination rank that contributes the least hyper-volume
+ * to its front. It hence directly optimises the hyper-volume indicator, using the same reference
+ * point as {@link de.uni_passau.fim.se2.sbse.suite_minimisation.utils.Utils#computeHyperVolume}
+ * (coverage 0, size 1).
+ * <p>
+ * With two objectives, the exclusive contribution of a point only depends on its two neighbours in
+ * its front. Fronts are therefore kept sorted by their objectives, and contributions are kept in a
+ * second sorted set that is patched locally on every insertion and removal. Inserting an offspring
+ * moves the individuals it dominates down one front, cascading as necessary. An iteration thus
+ * costs {@code O(N log N)} in the worst case instead of a full non-dominated sort plus a
+ * hyper-volume recomputation.
+ */
+public class SMSEMOA implements GeneticAlgorithm<TestSuiteChromosome> {
+
+    // Reference point in minimisation form: (size, 1 - coverage).
+    private static final double REF_SIZE = 1.0;
+    private static final double REF_UNCOVERED = 1.0;
+
+    private static final Comparator<Individual> BY_OBJECTIVES = Comparator
+            .comparingDouble((Individual i) -> i.size)
+            .thenComparingDouble(i -> i.uncovered)
+            .thenComparingLong(i -> i.id);
+
+    private static final Comparator<Individual> BY_CONTRIBUTION = Comparator
+            .comparingDouble((Individual i) -> i.contribution)
+            .thenComparingLong(i -> i.id);
+
+    private final StoppingCondition stoppingCondition;
+    private final RandomGenerator random;
+
+    private final int populationSize;
+
+    private final ChromosomeGenerator<TestSuiteChromosome> generator;
+
+    private final FitnessFunction<TestSuiteChromosome> sizeFF;      // minimizing
+    private final FitnessFunction<TestSuiteChromosome> coverageFF;   // maximizing
+
+    private final List<Individual> population = new ArrayList<>();
+    private final List<Front> fronts = new ArrayList<>();
+    private long nextId;
+
+    /**
+     * An evaluated chromosome in minimisation form, together with its bookkeeping data.
+     */
+    private static final class Individual {
+        final TestSuiteChromosome chromosome;
+        final double size;
+        final double uncovered;
+        final long id;
+
+        double contribution;
+        int index; // position in the population list
+
+        Individual(TestSuiteChromosome chromosome, double size, double uncovered, long id) {
+            this.chromosome = chromosome;
+            this.size = size;
+            this.uncovered = uncovered;
+            this.id = id;
+        }
+    }
+
+    /**
+     * A set of mutually non-dominated individuals, sorted by objectives (ascending size implies
+     * descending {@code uncovered}) and by exclusive hyper-volume contribution.
+     */
+    private static final class Front {
+        final TreeSet<Individual> byObjectives = new TreeSet<>(BY_OBJECTIVES);
+        final TreeSet<Individual> byContribution = new TreeSet<>(BY_CONTRIBUTION);
+
+        boolean isEmpty() {
+            return byObjectives.isEmpty();
+        }
+
+        /**
+         * Tells whether some member of this front dominates the given individual. Only the member
+         * with the largest size not exceeding the individual's size needs to be checked, as it
+         * has the lowest {@code uncovered} value among all candidates.
+         */
+        boolean dominates(Individual q) {
+            Individual p = byObjectives.floor(probe(q.size, Double.POSITIVE_INFINITY, Long.MAX_VALUE));
+            return p != null && dominates(p, q);
+        }
+
+        /**
+         * Returns the members of this front dominated by the given individual. They form a
+         * contiguous run starting at the individual's size.
+         */
+        List<Individual> dominatedBy(Individual q) {
+            List<Individual> dominated = new ArrayList<>();
+            for (Individual p : byObjectives.tailSet(probe(q.size, Double.NEGATIVE_INFINITY, Long.MIN_VALUE))) {
+                if (p.uncovered < q.uncovered) break;
+                if (dominates(q, p)) dominated.add(p);
+            }
+            return dominated;
+        }
+
+        void add(Individual e) {
+            Individual lower = byObjectives.lower(e);
+            Individual higher = byObjectives.higher(e);
+            detach(lower);
+            detach(higher);
+            byObjectives.add(e);
+            attach(e);
+            attach(lower);
+            attach(higher);
+        }
+
+        void remove(Individual e) {
+            byContribution.remove(e);
+            byObjectives.remove(e);
+            Individual lower = byObjectives.lower(e);
+            Individual higher = byObjectives.higher(e);
+            detach(lower);
+            detach(higher);
+            attach(lower);
+            attach(higher);
+        }
+
+        Individual leastContributor() {
+            return byContribution.first();
+        }
+
+        private void detach(Individual e) {
+            if (e != null) byContribution.remove(e);
+        }
+
+        private void attach(Individual e) {
+            if (e != null) {
+                e.contribution = contribution(e);
+                byContribution.add(e);
+            }
+        }
+
+        /**
+         * Exclusive hyper-volume of the given member: the rectangle between the member, its right
+         * neighbour (or the reference point) and its left neighbour (or the reference point).
+         */
+        private double contribution(Individual e) {
+            Individual lower = byObjectives.lower(e);
+            Individual higher = byObjectives.higher(e);
+            double width = (higher != null ? higher.size : REF_SIZE) - e.size;
+            double height = (lower != null ? lower.uncovered : REF_UNCOVERED) - e.uncovered;
+            return Math.max(width, 0.0) * Math.max(height, 0.0);
+        }
+
+        private static Individual probe(double size, double uncovered, long id) {
+            return new Individual(null, size, uncovered, id);
+        }
+
+        private static boolean dominates(Individual a, Individual b) {
+            boolean notWorseAll = (a.size <= b.size) && (a.uncovered <= b.uncovered);
+            boolean betterOne = (a.size < b.size) || (a.uncovered < b.uncovered);
+            return notWorseAll && betterOne;
+        }
+    }
+
+    public SMSEMOA(
+            StoppingCondition stoppingCondition,
+            RandomGenerator random,
+            int populationSize,
+            ChromosomeGenerator<TestSuiteChromosome> generator,
+            FitnessFunction<TestSuiteChromosome> sizeFF,
+            FitnessFunction<TestSuiteChromosome> coverageFF
+    ) {
+        if (populationSize <= 0) {
+            throw new IllegalArgumentException("population size must be positive");
+        }
+
+        this.stoppingCondition = requireNonNull(stoppingCondition);
+        this.random = requireNonNull(random);
+        this.populationSize = populationSize;
+        this.generator = requireNonNull(generator);
+        this.sizeFF = requireNonNull(sizeFF);
+        this.coverageFF = requireNonNull(coverageFF);
+    }
+
+    @Override
+    public List<TestSuiteChromosome> findSolution() {
+        notifySearchStarted();
+        population.clear();
+        fronts.clear();
+        nextId = 0;
+
+        // 1) init population
+        while (population.size() < populationSize && !searchMustStop()) {
+            insert(evaluate(generator.get()));
+        }
+
+        // 2) steady-state iterations: one offspring in, one individual out
+        while (!searchMustStop()) {
+            TestSuiteChromosome p1 = randomMember();
+            TestSuiteChromosome p2 = randomMember();
+            TestSuiteChromosome child = p1.crossover(p2).getFst().mutate();
+
+            insert(evaluate(child));
+            reduce();
+        }
+
+        // return (duplicate-free) first Pareto front of final population
+        Set<TestSuiteChromosome> first = new LinkedHashSet<>();
+        if (!fronts.isEmpty()) {
+            for (Individual i : fronts.get(0).byObjectives) first.add(i.chromosome);
+        }
+        return new ArrayList<>(first);
+    }
+
+    @Override
+    public StoppingCondition getStoppingCondition() {
+        return stoppingCondition;
+    }
+
+    // ---------- evaluation ----------
+    private Individual evaluate(TestSuiteChromosome c) {
+        double size = sizeFF.applyAsDouble(c);
+        double coverage = coverageFF.applyAsDouble(c);
+        notifyFitnessEvaluation();
+        return new Individual(c, size, 1.0 - coverage, nextId++);
+    }
+
+    private TestSuiteChromosome randomMember() {
+        return population.get(random.nextInt(population.size())).chromosome;
+    }
+
+    // ---------- incremental non-dominated sorting ----------
+    private void insert(Individual q) {
+        q.index = population.size();
+        population.add(q);
+
+        int k = 0;
+        while (k < fronts.size() && fronts.get(k).dominates(q)) {
+            k++;
+        }
+        insertInto(k, q);
+    }
+
+    /**
+     * Inserts an individual that is not dominated by front {@code k} into that front. Members it
+     * dominates are moved to the next front; they cannot be dominated there, since no individual
+     * of a worse front dominates a member of a better one.
+     */
+    private void insertInto(int k, Individual q) {
+        if (k == fronts.size()) {
+            fronts.add(new Front());
+        }
+
+        Front front = fronts.get(k);
+        List<Individual> dominated = front.dominatedBy(q);
+        for (Individual d : dominated) {
+            front.remove(d);
+        }
+        front.add(q);
+
+        for (Individual d : dominated) {
+            insertInto(k + 1, d);
+        }
+    }
+
+    // ---------- survivor selection ----------
+    private void reduce() {
+        int last = fronts.size() - 1;
+        Front worst = fronts.get(last);
+        Individual loser = worst.leastContributor();
+
+        worst.remove(loser);
+        if (worst.isEmpty()) {
+            fronts.remove(last);
+        }
+
+        // swap-remove from the population list
+        Individual moved = population.remove(population.size() - 1);
+        if (moved != loser) {
+            moved.index = loser.index;
+            population.set(loser.index, moved);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.algorithms;
+
+/**
+ * Enum specifying how {@link RandomSearch} chooses the sizes of the suites it samples.
+ */
+public enum SamplingType {
+    /**
+     * Independent sizes, quadratically biased towards small suites.
+     */
+    RANDOM,
+
+    /**
+     * Sizes with the same bias, but driven by a randomly shifted van der Corput sequence, which
+     * spreads them evenly over their range.
+     */
+    QUASI_RANDOM,
+}
@@ -6,4 +6,10 @@ package de.uni_passau.fim.se2.sbse.suite_minimisation.algorithms;
 public enum SearchAlgorithmType {
     RANDOM_SEARCH,
     NSGA_II,
+    MEMETIC_NSGA_II,
+    MOEA_D,
+    SMS_EMOA,
+    MAX_K_COVERAGE,
+    PBIL,
+    PORTFOLIO,
 }
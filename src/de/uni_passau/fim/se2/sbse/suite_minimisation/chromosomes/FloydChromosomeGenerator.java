@@ -0,0 +1,90 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes;
+
+import de.uni_passau.fim.se2.sbse.suite_minimisation.crossover.Crossover;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.mutation.Mutation;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.utils.Randomness;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Generates random test suites like {@link TestSuiteChromosomeGenerator}, but draws the selected
+ * tests with Robert Floyd's sampling algorithm directly into the packed genes of the chromosome,
+ * instead of shuffling an index array of all tests.
+ * <p>
+ * Floyd's algorithm draws {@code k} distinct tests out of {@code T} with exactly {@code k} random
+ * numbers, and the genes double as the set of tests drawn so far. Sampling a suite thus costs
+ * {@code O(k)} time and no memory besides the genes themselves. If more than half of the tests are
+ * to be selected, the algorithm draws the {@code T - k} tests to leave out instead, so no sample
+ * takes more than {@code T / 2} draws.
+ */
+public class FloydChromosomeGenerator implements ChromosomeGenerator<TestSuiteChromosome> {
+
+    private final int numberOfTests;
+    private final Mutation<TestSuiteChromosome> mutation;
+    private final Crossover<TestSuiteChromosome> crossover;
+
+    /**
+     * @param numberOfTests full size of the available test suite
+     */
+    public FloydChromosomeGenerator(int numberOfTests,
+                                    Mutation<TestSuiteChromosome> mutation,
+                                    Crossover<TestSuiteChromosome> crossover) {
+        if (numberOfTests < 1) {
+            throw new IllegalArgumentException("Expected at least one test: " + numberOfTests);
+        }
+        this.numberOfTests = numberOfTests;
+        this.mutation = mutation;
+        this.crossover = crossover;
+    }
+
+    @Override
+    public TestSuiteChromosome get() {
+        RandomGenerator random = Randomness.random();
+
+        // Same size distribution as TestSuiteChromosomeGenerator: k in [1, numberOfTests],
+        // quadratically biased towards smaller suites.
+        double r = random.nextDouble();
+        int k = 1 + (int) Math.floor(r * r * (numberOfTests - 1));
+
+        long[] words = new long[TestSuiteChromosome.wordsFor(numberOfTests)];
+        sample(words, numberOfTests, k, random);
+        return TestSuiteChromosome.ofWords(words, numberOfTests, mutation, crossover);
+    }
+
+    /**
+     * Selects {@code k} distinct random tests out of {@code length} by setting their bits in the
+     * given packed genes, which must be all clear.
+     *
+     * @param words  the packed genes, all clear, of {@code wordsFor(length)} words at least
+     * @param length the number of tests
+     * @param k      the number of tests to select, between 0 and {@code length}
+     * @param random the source of randomness
+     * @throws IllegalArgumentException if {@code k} is out of range
+     */
+    public static void sample(long[] words, int length, int k, RandomGenerator random) {
+        if (k < 0 || k > length) {
+            throw new IllegalArgumentException("Cannot select " + k + " of " + length + " tests");
+        }
+
+        if (k <= length / 2) {
+            // Floyd: for j in [T-k, T), draw t in [0, j]; take j if t is already taken. Every
+            // k-subset is equally likely.
+            for (int j = length - k; j < length; j++) {
+                int t = random.nextInt(j + 1);
+                int chosen = (words[t >>> 6] & (1L << t)) == 0 ? t : j;
+                words[chosen >>> 6] |= 1L << chosen;
+            }
+        } else {
+            // Select everything, then drop T-k tests the same way.
+            int full = length >>> 6;
+            for (int w = 0; w < full; w++) words[w] = -1L;
+            if ((length & 63) != 0) words[full] = (1L << length) - 1;
+
+            for (int j = k; j < length; j++) {
+                int t = random.nextInt(j + 1);
+                int dropped = (words[t >>> 6] & (1L << t)) != 0 ? t : j;
+                words[dropped >>> 6] &= ~(1L << dropped);
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes;
+
+import de.uni_passau.fim.se2.sbse.suite_minimisation.crossover.InPlaceCrossover;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.mutation.InPlaceMutation;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.utils.Pair;
+
+import java.util.ArrayDeque;
+
+/**
+ * A free list of test suite chromosomes that are no longer used by a search algorithm, whose gene
+ * buffers are overwritten with new offspring instead of allocating new chromosomes.
+ * <p>
+ * An algorithm {@linkplain #release(TestSuiteChromosome) releases} chromosomes it discards, e.g.,
+ * those rejected by survivor selection, and {@linkplain #breed breeds} offspring into them. If
+ * the parents use an {@link InPlaceCrossover} and {@link InPlaceMutation}, the children are copied
+ * into recycled chromosomes, recombined and mutated in place, so a steady-state search that
+ * discards as many chromosomes as it breeds allocates neither chromosomes nor gene arrays nor
+ * intermediate pairs. Offspring are identical to the ones of {@code p1.crossover(p2)} followed by
+ * mutation of both children, including the random numbers drawn. A disabled pool never recycles,
+ * which is useful when debugging aliasing issues.
+ * <p>
+ * A released chromosome must not be referenced anywhere else anymore, since its genes will change.
+ * Pools are not thread-safe; every algorithm run uses its own pool.
+ */
+public final class GenomePool {
+
+    private final boolean enabled;
+
+    private final ArrayDeque<TestSuiteChromosome> free = new ArrayDeque<>();
+
+    /**
+     * Creates an empty pool.
+     *
+     * @param enabled whether released chromosomes are recycled
+     */
+    public GenomePool(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the number of chromosomes available for recycling.
+     *
+     * @return the size of the free list
+     */
+    public int available() {
+        return free.size();
+    }
+
+    /**
+     * Releases a chromosome that is no longer used by the caller. It is ignored if the pool is
+     * disabled.
+     *
+     * @param chromosome the chromosome, not referenced anywhere else
+     */
+    public void release(final TestSuiteChromosome chromosome) {
+        if (enabled) {
+            free.push(chromosome);
+        }
+    }
+
+    /**
+     * Applies the crossover operator of {@code parent1} to both parents, mutates both children
+     * with their own mutation operators, and stores them in {@code children[0]} and
+     * {@code children[1]}.
+     *
+     * @param parent1  a parent
+     * @param parent2  another parent
+     * @param children the array receiving the two children, of length 2 at least
+     * @throws IllegalArgumentException if the parents differ in length
+     */
+    public void breed(
+            final TestSuiteChromosome parent1,
+            final TestSuiteChromosome parent2,
+            final TestSuiteChromosome[] children
+    ) {
+        if (enabled
+                && parent1.getCrossover() instanceof InPlaceCrossover crossover
+                && parent1.getMutation() instanceof InPlaceMutation mutation1
+                && parent2.getMutation() instanceof InPlaceMutation mutation2) {
+            final int length = parent1.length();
+            if (parent2.length() != length) {
+                throw new IllegalArgumentException(
+                        "Parents differ in length: " + length + " != " + parent2.length());
+            }
+
+            final TestSuiteChromosome c1 = copyOf(parent1);
+            final TestSuiteChromosome c2 = copyOf(parent2);
+
+            // Normalise after every step like the allocating operators do in ofWords.
+            crossover.crossoverInPlace(c1.words(), c2.words(), length);
+            c1.normalise();
+            c2.normalise();
+            mutation1.mutateInPlace(c1.words(), length);
+            c1.normalise();
+            mutation2.mutateInPlace(c2.words(), length);
+            c2.normalise();
+
+            children[0] = c1;
+            children[1] = c2;
+        } else {
+            final Pair<TestSuiteChromosome> pair = parent1.crossover(parent2);
+            children[0] = pair.getFst().mutate();
+            children[1] = pair.getSnd().mutate();
+        }
+    }
+
+    /**
+     * Returns a recycled chromosome holding a copy of the given one, or a new copy if no
+     * compatible chromosome is available.
+     */
+    private TestSuiteChromosome copyOf(final TestSuiteChromosome original) {
+        final TestSuiteChromosome recycled = free.poll();
+        if (recycled == null
+                || recycled.length() != original.length()
+                || recycled.getMutation() != original.getMutation()
+                || recycled.getCrossover() != original.getCrossover()) {
+            return original.copy();
+        }
+
+        final long[] words = original.words();
+        System.arraycopy(words, 0, recycled.words(), 0, words.length);
+        return recycled;
+    }
+}
@@ -0,0 +1,16 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes;
+
+/**
+ * Enum specifying the available initialisation strategies of the population of NSGA-II.
+ */
+public enum InitialisationType {
+    /**
+     * {@link PopulationInitialiser#random}: every candidate comes from the chromosome generator.
+     */
+    RANDOM,
+
+    /**
+     * {@link SeededPopulationInitialiser}: heuristic seeds plus random suites of stratified sizes.
+     */
+    SEEDED,
+}
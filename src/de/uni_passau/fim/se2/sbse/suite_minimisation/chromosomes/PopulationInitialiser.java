@@ -0,0 +1,42 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Creates the candidates of the initial population of a population-based search algorithm.
+ *
+ * @param <C> the type of chromosomes
+ */
+@FunctionalInterface
+public interface PopulationInitialiser<C extends Chromosome<C>> {
+
+    /**
+     * An initialiser that draws every candidate from the given generator.
+     *
+     * @param generator the generator of random chromosomes
+     * @param <C>       the type of chromosomes
+     * @return the initialiser
+     */
+    static <C extends Chromosome<C>> PopulationInitialiser<C> random(final ChromosomeGenerator<C> generator) {
+        requireNonNull(generator);
+        return populationSize -> {
+            final List<C> population = new ArrayList<>(populationSize);
+            for (int i = 0; i < populationSize; i++) {
+                population.add(generator.get());
+            }
+            return population;
+        };
+    }
+
+    /**
+     * Creates the candidates of an initial population, in the order in which they should be
+     * evaluated. The caller may evaluate fewer candidates if its budget runs out.
+     *
+     * @param populationSize the number of candidates to create
+     * @return the candidates
+     */
+    List<C> initialise(int populationSize);
+}
@@ -0,0 +1,129 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes;
+
+import de.uni_passau.fim.se2.sbse.suite_minimisation.crossover.Crossover;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.mutation.Mutation;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.utils.CoverageIndex;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.utils.Randomness;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Initialises the population of the test suite minimisation problem with heuristic seeds that
+ * cover the whole range of suite sizes, instead of leaving the search to rediscover them.
+ * <p>
+ * The population starts with the following seeds, without duplicates:
+ * <ol>
+ *     <li>the full suite, which has maximum coverage;</li>
+ *     <li>up to a quarter of the population of prefixes of the {@linkplain
+ *     CoverageIndex#greedyOrder() greedy order}, at evenly spaced lengths up to the whole order,
+ *     which are good trade-offs for their sizes;</li>
+ *     <li>up to an eighth of the population of single tests covering the most lines, the smallest
+ *     suites with the best coverage.</li>
+ * </ol>
+ * The rest of the population consists of random suites whose sizes are stratified: the range
+ * {@code 1..T} is split into as many equally wide strata as suites remain, and every suite draws
+ * its size uniformly from its own stratum. This spreads the random suites over all sizes instead
+ * of concentrating them on small ones. Seeds come first, so they are evaluated even if the budget
+ * does not suffice for a whole population.
+ */
+public class SeededPopulationInitialiser implements PopulationInitialiser<TestSuiteChromosome> {
+
+    private final int numberOfTests;
+    private final Mutation<TestSuiteChromosome> mutation;
+    private final Crossover<TestSuiteChromosome> crossover;
+
+    /**
+     * The greedy order of the tests.
+     */
+    private final int[] greedy;
+
+    /**
+     * The tests by descending number of covered lines, the lowest index first on ties.
+     */
+    private final int[] byLineCount;
+
+    public SeededPopulationInitialiser(
+            CoverageIndex coverage,
+            Mutation<TestSuiteChromosome> mutation,
+            Crossover<TestSuiteChromosome> crossover
+    ) {
+        requireNonNull(coverage);
+        this.numberOfTests = coverage.getNumberOfTests();
+        this.mutation = requireNonNull(mutation);
+        this.crossover = requireNonNull(crossover);
+        this.greedy = coverage.greedyOrder();
+        // The sort is stable, so ties keep ascending index order.
+        this.byLineCount = IntStream.range(0, numberOfTests)
+                .boxed()
+                .sorted(Comparator.comparingInt(t -> -coverage.lineCount(t)))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    @Override
+    public List<TestSuiteChromosome> initialise(int populationSize) {
+        final List<TestSuiteChromosome> population = new ArrayList<>(populationSize);
+        final Set<TestSuiteChromosome> seeds = new HashSet<>();
+
+        // 1) full suite
+        final long[] all = new long[TestSuiteChromosome.wordsFor(numberOfTests)];
+        for (int t = 0; t < numberOfTests; t++) all[t >>> 6] |= 1L << t;
+        addSeed(all, population, seeds, populationSize);
+
+        // 2) greedy prefixes at evenly spaced lengths
+        final int prefixes = Math.min(greedy.length, populationSize / 4);
+        for (int i = 1; i <= prefixes; i++) {
+            int length = (int) Math.ceil((double) i * greedy.length / prefixes);
+            long[] words = new long[all.length];
+            for (int j = 0; j < length; j++) words[greedy[j] >>> 6] |= 1L << greedy[j];
+            addSeed(words, population, seeds, populationSize);
+        }
+
+        // 3) top single tests
+        final int singles = Math.min(numberOfTests, populationSize / 8);
+        for (int i = 0; i < singles; i++) {
+            long[] words = new long[all.length];
+            words[byLineCount[i] >>> 6] |= 1L << byLineCount[i];
+            addSeed(words, population, seeds, populationSize);
+        }
+
+        // 4) random suites of stratified sizes
+        final RandomGenerator random = Randomness.random();
+        final int strata = populationSize - population.size();
+        for (int i = 0; i < strata; i++) {
+            double position = (i + random.nextDouble()) / strata;
+            int size = 1 + (int) (position * numberOfTests);
+            population.add(randomSuite(Math.min(size, numberOfTests), random));
+        }
+
+        return population;
+    }
+
+    private void addSeed(
+            long[] words,
+            List<TestSuiteChromosome> population,
+            Set<TestSuiteChromosome> seeds,
+            int populationSize
+    ) {
+        if (population.size() >= populationSize) return;
+
+        TestSuiteChromosome seed = TestSuiteChromosome.ofWords(words, numberOfTests, mutation, crossover);
+        if (seeds.add(seed)) {
+            population.add(seed);
+        }
+    }
+
+    private TestSuiteChromosome randomSuite(int size, RandomGenerator random) {
+        long[] words = new long[TestSuiteChromosome.wordsFor(numberOfTests)];
+        FloydChromosomeGenerator.sample(words, numberOfTests, size, random);
+        return TestSuiteChromosome.ofWords(words, numberOfTests, mutation, crossover);
+    }
+}
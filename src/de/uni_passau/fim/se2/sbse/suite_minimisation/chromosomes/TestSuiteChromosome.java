@@ -10,16 +10,19 @@ import java.util.ArrayList;
 import java.util.Objects;
 
 /**
- * Chromosome representing a reduced test suite using a boolean gene array.
+ * Chromosome representing a reduced test suite using a packed bitset of genes.
  *
  * gene[i] = true  → test i included
  * gene[i] = false → test i excluded
  *
- * The chromosome always represents a valid test suite: at least one test case must be included.
+ * Gene {@code i} is bit {@code i % 64} of word {@code i / 64}; bits beyond the length are always
+ * zero. The chromosome always represents a valid test suite: at least one test case must be
+ * included.
  */
 public class TestSuiteChromosome extends Chromosome<TestSuiteChromosome> {
 
-    private final boolean[] genes;
+    private final long[] words;
+    private final int length;
 
     /**
      * Primary constructor used during evolutionary search.
@@ -35,7 +38,8 @@ public class TestSuiteChromosome extends Chromosome<TestSuiteChromosome> {
                 mutation != null ? mutation : Mutation.identity(),
                 crossover != null ? crossover : Crossover.identity()
         );
-        this.genes = Objects.requireNonNull(genes).clone();
+        this.length = genes.length;
+        this.words = pack(genes);
         ensureAtLeastOneTest();
     }
 
@@ -43,28 +47,113 @@ public class TestSuiteChromosome extends Chromosome<TestSuiteChromosome> {
     // 2) Copy constructor
     public TestSuiteChromosome(TestSuiteChromosome other) {
         super(other);
-        this.genes = other.genes.clone();
+        this.words = other.words.clone();
+        this.length = other.length;
     }
 
     // 3) TEST constructor
     public TestSuiteChromosome(boolean[] genes) {
         super(); // identity mutation & crossover
-        this.genes = Objects.requireNonNull(genes).clone();
+        this.length = genes.length;
+        this.words = pack(genes);
         ensureAtLeastOneTest();
     }
 
+    // 4) Adopting constructor, see ofWords
+    private TestSuiteChromosome(
+            long[] words,
+            int length,
+            Mutation<TestSuiteChromosome> mutation,
+            Crossover<TestSuiteChromosome> crossover
+    ) {
+        super(
+                mutation != null ? mutation : Mutation.identity(),
+                crossover != null ? crossover : Crossover.identity()
+        );
+        if (length < 0 || words.length != wordsFor(length)) {
+            throw new IllegalArgumentException(
+                    "Expected " + wordsFor(Math.max(length, 0)) + " words for " + length + " genes");
+        }
+        this.words = words;
+        this.length = length;
+        normalise();
+    }
+
+    /**
+     * Creates a chromosome from packed genes without copying them. The given array is adopted and
+     * must not be used by the caller afterwards. Bits beyond the length are cleared.
+     *
+     * @param words     the packed genes, {@code wordsFor(length)} words
+     * @param length    the number of genes
+     * @param mutation  the mutation operator
+     * @param crossover the crossover operator
+     * @return the chromosome
+     * @throws IllegalArgumentException if the number of words does not match the length
+     */
+    public static TestSuiteChromosome ofWords(
+            long[] words,
+            int length,
+            Mutation<TestSuiteChromosome> mutation,
+            Crossover<TestSuiteChromosome> crossover
+    ) {
+        return new TestSuiteChromosome(Objects.requireNonNull(words), length, mutation, crossover);
+    }
+
+    /**
+     * Returns the number of 64-bit words needed to pack the given number of genes.
+     */
+    public static int wordsFor(int length) {
+        return (length + 63) >>> 6;
+    }
+
+    private static long[] pack(boolean[] genes) {
+        long[] words = new long[wordsFor(genes.length)];
+        for (int i = 0; i < genes.length; i++) {
+            if (genes[i]) words[i >>> 6] |= 1L << i;
+        }
+        return words;
+    }
+
     /**
      * Returns the number of genes = number of tests.
      */
     public int length() {
-        return genes.length;
+        return length;
     }
 
     /**
      * Returns the underlying gene array (copy).
      */
     public boolean[] getGenes() {
-        return genes.clone();
+        boolean[] genes = new boolean[length];
+        for (int i = 0; i < length; i++) {
+            genes[i] = isSelected(i);
+        }
+        return genes;
+    }
+
+    /**
+     * Returns the packed genes (copy).
+     */
+    public long[] getWords() {
+        return words.clone();
+    }
+
+    /**
+     * Returns the packed genes {@code 64 * index} to {@code 64 * index + 63}.
+     */
+    public long getWord(int index) {
+        return words[index];
+    }
+
+    /**
+     * Tells whether the given test is included.
+     */
+    public boolean isSelected(int test) {
+        if (test < 0 || test >= length) {
+            throw new IndexOutOfBoundsException(test);
+        }
+        return (words[test >>> 6] & (1L << test)) != 0;
     }
 
     /**
@@ -72,9 +161,9 @@ public class TestSuiteChromosome extends Chromosome<TestSuiteChromosome> {
      */
     public List<Integer> getSelectedTestIndices() {
         List<Integer> list = new ArrayList<>();
-        for (int i = 0; i < genes.length; i++) {
-            if (genes[i]) {
-                list.add(i);
+        for (int w = 0; w < words.length; w++) {
+            for (long bits = words[w]; bits != 0; bits &= bits - 1) {
+                list.add((w << 6) + Long.numberOfTrailingZeros(bits));
             }
         }
         return list;
@@ -85,26 +174,45 @@ public class TestSuiteChromosome extends Chromosome<TestSuiteChromosome> {
      */
     public int getNumberOfSelectedTests() {
         int count = 0;
-        for (boolean g : genes) if (g) count++;
+        for (long w : words) count += Long.bitCount(w);
         return count;
     }
 
+    /**
+     * Returns the packed genes without copying them, for use by {@link GenomePool}, which
+     * overwrites the genes of recycled chromosomes that have not been published yet.
+     */
+    long[] words() {
+        return words;
+    }
+
+    /**
+     * Clears the bits beyond the length and ensures that at least one test is selected, after the
+     * genes have been written directly.
+     */
+    void normalise() {
+        if (length % 64 != 0) {
+            words[words.length - 1] &= -1L >>> (64 - length % 64);
+        }
+        ensureAtLeastOneTest();
+    }
+
     /**
      * Ensures the chromosome contains at least one selected test.
      * If all genes are false, randomly activates one.
      */
     private void ensureAtLeastOneTest() {
         boolean any = false;
-        for (boolean b : genes) {
-            if (b) {
+        for (long w : words) {
+            if (w != 0) {
                 any = true;
                 break;
             }
         }
         //A chromosome must represent a test suite with at least one test case
-        if (!any && genes.length > 0) {
-            int idx = Randomness.random().nextInt(genes.length);
-            genes[idx] = true;
+        if (!any && length > 0) {
+            int idx = Randomness.random().nextInt(length);
+            words[idx >>> 6] |= 1L << idx;
         }
     }
 
@@ -116,18 +224,18 @@ public class TestSuiteChromosome extends Chromosome<TestSuiteChromosome> {
     @Override
     public boolean equals(Object other) {
         if (!(other instanceof TestSuiteChromosome o)) return false;
-        return Arrays.equals(this.genes, o.genes);
+        return length == o.length && Arrays.equals(this.words, o.words);
     }
 
     @Override
     public int hashCode() {
-        return Arrays.hashCode(genes);
+        return 31 * length + Arrays.hashCode(words);
     }
 
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder("Chromosome(");
-        for (boolean g : genes) sb.append(g ? "1" : "0");
+        for (int i = 0; i < length; i++) sb.append(isSelected(i) ? "1" : "0");
         sb.append(")");
         return sb.toString();
     }
@@ -0,0 +1,71 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.crossover;
+
+import de.uni_passau.fim.se2.sbse.suite_minimisation.utils.CoverageIndex;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.utils.Randomness;
+
+import java.util.random.RandomGenerator;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Uniform crossover for test suite chromosomes that replaces subsumed tests the parents disagree
+ * on by their subsumers.
+ *
+ * Genes both parents agree on are inherited by both children. Of the genes the parents disagree
+ * on, each child receives a random half, like in {@link UniformCrossover}, except for subsumed
+ * tests: tests whose covered lines are also covered by a single other test (see
+ * {@link CoverageIndex#subsumedTests()}). The child receiving such a test gets its subsumer
+ * (see {@link CoverageIndex#subsumers()}) instead, which covers at least the same lines, so the
+ * test would only add size. Every child thus covers all lines of the genes it receives. The genes
+ * are distributed on whole words with masks; only the received subsumed tests are visited one by
+ * one.
+ */
+public class CoverageAwareUniformCrossover implements InPlaceCrossover {
+
+    private final CoverageIndex coverage;
+
+    public CoverageAwareUniformCrossover(CoverageIndex coverage) {
+        this.coverage = requireNonNull(coverage);
+    }
+
+    @Override
+    public void crossoverInPlace(long[] words1, long[] words2, int length) {
+        if (length != coverage.getNumberOfTests()) {
+            throw new IllegalArgumentException(
+                    "Expected " + coverage.getNumberOfTests() + " genes, got " + length);
+        }
+
+        RandomGenerator random = Randomness.random();
+        long[] subsumed = coverage.subsumedTests();
+        int[] subsumers = coverage.subsumers();
+
+        for (int w = 0; w < words1.length; w++) {
+            long common = words1[w] & words2[w];
+            long offered = words1[w] ^ words2[w];
+            long mask = random.nextLong();
+            words1[w] = common | (offered & mask);
+            words2[w] = common | (offered & ~mask);
+        }
+
+        // A subsumed test in only one child was received from the parents; subsumers are never
+        // subsumed themselves, so setting them cannot create more such tests.
+        replaceSubsumed(words1, words2, subsumed, subsumers);
+        replaceSubsumed(words2, words1, subsumed, subsumers);
+    }
+
+    private static void replaceSubsumed(long[] child, long[] other, long[] subsumed, int[] subsumers) {
+        for (int w = 0; w < child.length; w++) {
+            for (long received = child[w] & ~other[w] & subsumed[w]; received != 0; received &= received - 1) {
+                int test = (w << 6) + Long.numberOfTrailingZeros(received);
+                int subsumer = subsumers[test];
+                child[w] &= ~(1L << test);
+                child[subsumer >>> 6] |= 1L << subsumer;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Coverage-aware uniform crossover";
+    }
+}
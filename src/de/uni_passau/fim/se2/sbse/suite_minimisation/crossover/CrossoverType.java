@@ -0,0 +1,11 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.crossover;
+
+/**
+ * Enum specifying the available crossover operators for test suite chromosomes.
+ */
+public enum CrossoverType {
+    SINGLE_POINT,
+    TWO_POINT,
+    UNIFORM,
+    COVERAGE_AWARE_UNIFORM,
+}
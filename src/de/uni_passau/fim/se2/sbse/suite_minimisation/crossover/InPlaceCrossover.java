@@ -0,0 +1,47 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.crossover;
+
+import de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes.TestSuiteChromosome;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.utils.Pair;
+
+/**
+ * A crossover operator for test suite chromosomes that recombines packed genes in place. This
+ * allows callers to write the offspring into recycled gene buffers instead of allocating new ones,
+ * see {@link de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes.GenomePool}.
+ */
+public interface InPlaceCrossover extends Crossover<TestSuiteChromosome> {
+
+    /**
+     * Turns the packed genes of two parents into the packed genes of their offspring. On entry,
+     * both arrays hold a copy of the genes of one parent each; on return, they hold the genes of
+     * the respective child. Bits beyond the length are clear on entry and must be kept clear.
+     *
+     * @param words1 the genes of the first parent, overwritten with the first child
+     * @param words2 the genes of the second parent, overwritten with the second child
+     * @param length the number of genes
+     * @throws IllegalArgumentException if the operator does not support the length
+     */
+    void crossoverInPlace(long[] words1, long[] words2, int length);
+
+    /**
+     * Applies crossover to copies of the genes of both parents and wraps them into new chromosomes.
+     * Every child uses the operators of the parent it was copied from.
+     *
+     * @param parent1 a parent
+     * @param parent2 another parent
+     * @return the offspring
+     * @throws IllegalArgumentException if the parents differ in length
+     */
+    @Override
+    default Pair<TestSuiteChromosome> apply(TestSuiteChromosome parent1, TestSuiteChromosome parent2) {
+        int length = PackedGenes.commonLength(parent1, parent2);
+
+        long[] child1 = parent1.getWords();
+        long[] child2 = parent2.getWords();
+        crossoverInPlace(child1, child2, length);
+
+        return Pair.of(
+                TestSuiteChromosome.ofWords(child1, length, parent1.getMutation(), parent1.getCrossover()),
+                TestSuiteChromosome.ofWords(child2, length, parent2.getMutation(), parent2.getCrossover())
+        );
+    }
+}
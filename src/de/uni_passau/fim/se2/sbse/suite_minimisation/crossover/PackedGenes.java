@@ -0,0 +1,59 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.crossover;
+
+import de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes.TestSuiteChromosome;
+
+/**
+ * Word-level operations shared by the crossover operators on packed test suite chromosomes.
+ */
+final class PackedGenes {
+
+    private PackedGenes() {
+        // private constructor to prevent instantiation.
+    }
+
+    /**
+     * Checks that both parents have the same number of genes and returns it.
+     */
+    static int commonLength(TestSuiteChromosome parent1, TestSuiteChromosome parent2) {
+        if (parent1.length() != parent2.length()) {
+            throw new IllegalArgumentException(
+                    "Parents differ in length: " + parent1.length() + " != " + parent2.length());
+        }
+        return parent1.length();
+    }
+
+    /**
+     * Exchanges bits {@code from} (inclusive) to {@code to} (exclusive) between both arrays. Whole
+     * words are swapped, only the two boundary words are masked.
+     */
+    static void swapRange(long[] x, long[] y, int from, int to) {
+        if (from >= to) return;
+
+        int first = from >>> 6;
+        int last = (to - 1) >>> 6;
+        long firstMask = -1L << from;  // bits from % 64 and above
+        long lastMask = -1L >>> -to;   // bits below to % 64, or all bits if to % 64 == 0
+
+        if (first == last) {
+            swapMasked(x, y, first, firstMask & lastMask);
+            return;
+        }
+
+        swapMasked(x, y, first, firstMask);
+        for (int w = first + 1; w < last; w++) {
+            long tmp = x[w];
+            x[w] = y[w];
+            y[w] = tmp;
+        }
+        swapMasked(x, y, last, lastMask);
+    }
+
+    /**
+     * Exchanges the bits selected by the mask between word {@code w} of both arrays.
+     */
+    static void swapMasked(long[] x, long[] y, int w, long mask) {
+        long diff = (x[w] ^ y[w]) & mask;
+        x[w] ^= diff;
+        y[w] ^= diff;
+    }
+}
@@ -1,42 +1,21 @@
 package de.uni_passau.fim.se2.sbse.suite_minimisation.crossover;
 
-import de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes.TestSuiteChromosome;
-import de.uni_passau.fim.se2.sbse.suite_minimisation.utils.Pair;
 import de.uni_passau.fim.se2.sbse.suite_minimisation.utils.Randomness;
 
 /**
  * Single-point crossover for test suite chromosomes.
+ *
+ * The first child takes the genes before a random cut point from the first parent and the rest
+ * from the second parent, and vice versa. Works on the packed genes: the children start as copies
+ * of their parents, then whole words after the cut are swapped and only the word containing the
+ * cut is masked.
  */
-public class SinglePointCrossover implements Crossover<TestSuiteChromosome> {
+public class SinglePointCrossover implements InPlaceCrossover {
 
     @Override
-    public Pair<TestSuiteChromosome> apply(
-            TestSuiteChromosome parent1,
-            TestSuiteChromosome parent2) {
-
-        boolean[] g1 = parent1.getGenes();
-        boolean[] g2 = parent2.getGenes();
-
-        int length = g1.length;
+    public void crossoverInPlace(long[] words1, long[] words2, int length) {
         int cut = Randomness.random().nextInt(length);
-
-        boolean[] child1 = new boolean[length];
-        boolean[] child2 = new boolean[length];
-
-        for (int i = 0; i < length; i++) {
-            if (i < cut) {
-                child1[i] = g1[i];
-                child2[i] = g2[i];
-            } else {
-                child1[i] = g2[i];
-                child2[i] = g1[i];
-            }
-        }
-
-        return Pair.of(
-                new TestSuiteChromosome(child1, parent1.getMutation(), parent1.getCrossover()),
-                new TestSuiteChromosome(child2, parent2.getMutation(), parent2.getCrossover())
-        );
+        PackedGenes.swapRange(words1, words2, cut, length);
     }
 
     @Override
@@ -0,0 +1,28 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.crossover;
+
+import de.uni_passau.fim.se2.sbse.suite_minimisation.utils.Randomness;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Two-point crossover for test suite chromosomes.
+ *
+ * The children exchange the genes between two random cut points. Unlike single-point crossover,
+ * genes at both ends of the chromosome can stay together. Works on the packed genes like
+ * {@link SinglePointCrossover}.
+ */
+public class TwoPointCrossover implements InPlaceCrossover {
+
+    @Override
+    public void crossoverInPlace(long[] words1, long[] words2, int length) {
+        RandomGenerator random = Randomness.random();
+        int a = random.nextInt(length + 1);
+        int b = random.nextInt(length + 1);
+        PackedGenes.swapRange(words1, words2, Math.min(a, b), Math.max(a, b));
+    }
+
+    @Override
+    public String toString() {
+        return "Two-point crossover";
+    }
+}
@@ -0,0 +1,27 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.crossover;
+
+import de.uni_passau.fim.se2.sbse.suite_minimisation.utils.Randomness;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Uniform crossover for test suite chromosomes.
+ *
+ * Every gene is exchanged between the children with probability 1/2. A random 64-bit word serves
+ * as mask for 64 genes at once, so a crossover costs one random draw per word.
+ */
+public class UniformCrossover implements InPlaceCrossover {
+
+    @Override
+    public void crossoverInPlace(long[] words1, long[] words2, int length) {
+        RandomGenerator random = Randomness.random();
+        for (int w = 0; w < words1.length; w++) {
+            PackedGenes.swapMasked(words1, words2, w, random.nextLong());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Uniform crossover";
+    }
+}
@@ -1,6 +1,5 @@
 package de.uni_passau.fim.se2.sbse.suite_minimisation.mutation;
 
-import de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes.TestSuiteChromosome;
 import de.uni_passau.fim.se2.sbse.suite_minimisation.utils.Randomness;
 
 /**
@@ -8,26 +7,17 @@ import de.uni_passau.fim.se2.sbse.suite_minimisation.utils.Randomness;
  *
  * Each gene is flipped with probability 1 / n, where n is the number of tests.
  */
-public class BitFlipMutation implements Mutation<TestSuiteChromosome> {
+public class BitFlipMutation implements InPlaceMutation {
 
     @Override
-    public TestSuiteChromosome apply(TestSuiteChromosome parent) {
-        TestSuiteChromosome offspring = parent.copy();
-        boolean[] genes = offspring.getGenes();
+    public void mutateInPlace(long[] words, int length) {
+        double p = 1.0 / length;
 
-        double p = 1.0 / genes.length;
-
-        for (int i = 0; i < genes.length; i++) {
+        for (int i = 0; i < length; i++) {
             if (Randomness.random().nextDouble() < p) {
-                genes[i] = !genes[i];
+                words[i >>> 6] ^= 1L << i;
             }
         }
-
-        return new TestSuiteChromosome(
-                genes,
-                offspring.getMutation(),
-                offspring.getCrossover()
-        );
     }
 
     @Override
@@ -0,0 +1,161 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.mutation;
+
+import de.uni_passau.fim.se2.sbse.suite_minimisation.utils.CoverageIndex;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.utils.Randomness;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Mutation for test suite chromosomes that makes one coverage-aware move instead of blind flips.
+ *
+ * With equal probability, the operator either drops a redundant test, i.e., a selected test whose
+ * lines are all covered by other selected tests, or adds a test covering a line that no selected
+ * test covers. Dropping yields an offspring that dominates its parent, and adding one that is not
+ * dominated by it. Candidates are found by probing: a test drawn uniformly among the selected ones
+ * is redundant iff every one of its lines has another selected test in the inverted line-to-tests
+ * index of {@link CoverageIndex}, and a random coverable line is missed iff none of its tests is
+ * selected. Every probe visits only the lines of one test or the tests of one line and stops at
+ * the first witness, so no coverage of the whole suite is computed. If the chosen move finds no
+ * candidate within {@value #PROBES} probes, the other move is tried, and if that fails as well,
+ * the parent is mutated by a {@linkplain GeometricBitFlipMutation geometric bit-flip} so that the
+ * search can still escape local optima.
+ */
+public class CoverageGuidedMutation implements InPlaceMutation {
+
+    /**
+     * The maximum number of candidates probed per move.
+     */
+    static final int PROBES = 8;
+
+    private final CoverageIndex coverage;
+
+    /**
+     * The lines covered by at least one test; the others can never be added.
+     */
+    private final int[] coverableLines;
+
+    public CoverageGuidedMutation(CoverageIndex coverage) {
+        this.coverage = requireNonNull(coverage);
+
+        int n = 0;
+        int[] lines = new int[coverage.getNumberOfLines()];
+        for (int l = 0; l < lines.length; l++) {
+            if (coverage.testCount(l) > 0) lines[n++] = l;
+        }
+        this.coverableLines = Arrays.copyOf(lines, n);
+    }
+
+    @Override
+    public void mutateInPlace(long[] words, int length) {
+        if (length != coverage.getNumberOfTests()) {
+            throw new IllegalArgumentException(
+                    "Expected " + coverage.getNumberOfTests() + " genes, got " + length);
+        }
+
+        RandomGenerator random = Randomness.random();
+        boolean dropFirst = random.nextBoolean();
+        boolean moved = dropFirst
+                ? dropRedundantTest(words, random) || addMissedTest(words, random)
+                : addMissedTest(words, random) || dropRedundantTest(words, random);
+        if (!moved) {
+            GeometricBitFlipMutation.flip(words, length, random);
+        }
+    }
+
+    /**
+     * Deselects a random redundant test, keeping at least one test selected.
+     *
+     * @return {@code true} if a test has been deselected
+     */
+    private boolean dropRedundantTest(long[] words, RandomGenerator random) {
+        int selected = bitCount(words);
+        if (selected <= 1) {
+            return false;
+        }
+
+        for (int probe = 0; probe < PROBES; probe++) {
+            int test = selectedAt(words, random.nextInt(selected));
+            if (isRedundant(test, words)) {
+                words[test >>> 6] &= ~(1L << test);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Selects a random test covering a random missed line.
+     *
+     * @return {@code true} if a test has been selected
+     */
+    private boolean addMissedTest(long[] words, RandomGenerator random) {
+        if (coverableLines.length == 0) {
+            return false;
+        }
+
+        for (int probe = 0; probe < PROBES; probe++) {
+            int line = coverableLines[random.nextInt(coverableLines.length)];
+            if (firstSelectedTest(line, -1, words) < 0) {
+                int from = coverage.lineTestOffset(line);
+                int test = coverage.lineTest(from + random.nextInt(coverage.testCount(line)));
+                words[test >>> 6] |= 1L << test;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isRedundant(int test, long[] words) {
+        for (int k = coverage.testLineOffset(test); k < coverage.testLineOffset(test + 1); k++) {
+            if (firstSelectedTest(coverage.testLine(k), test, words) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the first selected test covering the given line other than {@code except}, or -1.
+     */
+    private int firstSelectedTest(int line, int except, long[] words) {
+        for (int k = coverage.lineTestOffset(line); k < coverage.lineTestOffset(line + 1); k++) {
+            int t = coverage.lineTest(k);
+            if (t != except && (words[t >>> 6] & (1L << t)) != 0) {
+                return t;
+            }
+        }
+        return -1;
+    }
+
+    private static int bitCount(long[] words) {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the selected test of the given rank, counting from zero in the order of the tests.
+     * More tests than the rank must be selected.
+     */
+    static int selectedAt(long[] words, int rank) {
+        int w = 0;
+        for (int n = Long.bitCount(words[0]); n <= rank; n = Long.bitCount(words[++w])) {
+            rank -= n;
+        }
+        long word = words[w];
+        for (; rank > 0; rank--) {
+            word &= word - 1;
+        }
+        return (w << 6) + Long.numberOfTrailingZeros(word);
+    }
+
+    @Override
+    public String toString() {
+        return "Coverage-guided mutation";
+    }
+}
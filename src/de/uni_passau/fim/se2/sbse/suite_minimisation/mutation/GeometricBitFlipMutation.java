@@ -0,0 +1,54 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.mutation;
+
+import de.uni_passau.fim.se2.sbse.suite_minimisation.utils.Randomness;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Bit-flip mutation for test suite chromosomes that samples the flipped genes directly.
+ *
+ * Like {@link BitFlipMutation}, each gene is flipped independently with probability 1 / n. Instead
+ * of drawing one random number per gene, the distance to the next flipped gene is drawn from the
+ * geometric distribution with success probability 1 / n, so a mutation costs one draw per flipped
+ * gene (one on average) plus one. Genes are flipped in place on a copy of the packed parent, which
+ * is the only array allocated for the offspring.
+ */
+public class GeometricBitFlipMutation implements InPlaceMutation {
+
+    @Override
+    public void mutateInPlace(long[] words, int length) {
+        if (length > 0) {
+            flip(words, length, Randomness.random());
+        }
+    }
+
+    /**
+     * Flips every one of the first {@code n} bits of the given words independently with
+     * probability 1 / n.
+     */
+    static void flip(long[] words, int n, RandomGenerator random) {
+        // log(1 - p) for p = 1/n; -infinity for n = 1, which makes every gene flip.
+        double logQ = Math.log1p(-1.0 / n);
+
+        long i = skip(random, logQ);
+        while (i < n) {
+            words[(int) (i >>> 6)] ^= 1L << i;
+            i += 1 + skip(random, logQ);
+        }
+    }
+
+    /**
+     * Samples the number of failures before the first success of a Bernoulli process, by inverting
+     * the distribution function of the geometric distribution.
+     */
+    private static long skip(RandomGenerator random, double logQ) {
+        double u = 1.0 - random.nextDouble(); // in (0, 1], avoids log(0)
+        double skip = Math.floor(Math.log(u) / logQ);
+        return skip < Integer.MAX_VALUE ? (long) skip : Integer.MAX_VALUE;
+    }
+
+    @Override
+    public String toString() {
+        return "Geometric bit-flip mutation (p = 1/n)";
+    }
+}
@@ -0,0 +1,34 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.mutation;
+
+import de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes.TestSuiteChromosome;
+
+/**
+ * A mutation operator for test suite chromosomes that mutates packed genes in place. This allows
+ * callers to write the offspring into recycled gene buffers instead of allocating new ones, see
+ * {@link de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes.GenomePool}.
+ */
+public interface InPlaceMutation extends Mutation<TestSuiteChromosome> {
+
+    /**
+     * Mutates the given packed genes in place. Bits beyond the length are clear on entry and must
+     * be kept clear.
+     *
+     * @param words  the genes of the parent, overwritten with the offspring
+     * @param length the number of genes
+     * @throws IllegalArgumentException if the operator does not support the length
+     */
+    void mutateInPlace(long[] words, int length);
+
+    /**
+     * Mutates a copy of the genes of the parent and wraps it into a new chromosome.
+     *
+     * @param parent the parent chromosome to mutate
+     * @return the offspring
+     */
+    @Override
+    default TestSuiteChromosome apply(TestSuiteChromosome parent) {
+        long[] words = parent.getWords();
+        mutateInPlace(words, parent.length());
+        return TestSuiteChromosome.ofWords(words, parent.length(), parent.getMutation(), parent.getCrossover());
+    }
+}
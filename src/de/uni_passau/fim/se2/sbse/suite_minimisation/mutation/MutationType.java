@@ -0,0 +1,21 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.mutation;
+
+/**
+ * Enum specifying the available mutation operators for test suite chromosomes.
+ */
+public enum MutationType {
+    /**
+     * {@link BitFlipMutation}: one random draw per gene.
+     */
+    BIT_FLIP,
+
+    /**
+     * {@link GeometricBitFlipMutation}: same distribution, one random draw per flipped gene.
+     */
+    GEOMETRIC_BIT_FLIP,
+
+    /**
+     * {@link CoverageGuidedMutation}: drops a redundant test or adds a test covering a missed line.
+     */
+    COVERAGE_GUIDED,
+}
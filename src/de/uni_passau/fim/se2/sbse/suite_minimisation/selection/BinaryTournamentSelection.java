@@ -4,6 +4,7 @@ package de.uni_passau.fim.se2.sbse.suite_minimisation.selection;
 import de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes.Chromosome;
 
 import java.util.*;
+import java.util.random.RandomGenerator;
 
 import static java.util.Objects.requireNonNull;
 
@@ -16,7 +17,7 @@ public class BinaryTournamentSelection<C extends Chromosome<C>> implements Selec
 
     private static final int TOURNAMENT_SIZE = 2;
 
-    private final Random random;
+    private final RandomGenerator random;
     private final Comparator<C> comparator;
 
     /**
@@ -29,7 +30,7 @@ public class BinaryTournamentSelection<C extends Chromosome<C>> implements Selec
      */
     public BinaryTournamentSelection(
             final Comparator<C> comparator,
-            final Random random)
+            final RandomGenerator random)
             throws NullPointerException, IllegalArgumentException {
         this.random = requireNonNull(random);
         this.comparator = requireNonNull(comparator);
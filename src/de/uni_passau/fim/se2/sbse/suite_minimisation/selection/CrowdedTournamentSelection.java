@@ -0,0 +1,167 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.selection;
+
+import de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes.Chromosome;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.utils.Randomness;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGenerator.SplittableGenerator;
+import java.util.stream.IntStream;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Implements k-ary tournament selection without replacement on the crowded-comparison order of
+ * NSGA-II: a lower non-domination rank wins, and of two candidates with equal rank the one with the
+ * larger crowding distance wins. Among equally good candidates, the one drawn first wins.
+ * <p>
+ * Instead of comparing chromosomes, the tournaments run over primitive arrays holding the rank and
+ * crowding distance of every member of the population by position, which the caller sets with
+ * {@link #setRanking(int[], double[])} before selecting from a population. With a tournament size
+ * of two, this is the binary tournament of NSGA-II.
+ * <p>
+ * If parallel selection is enabled, {@link #selectIndices(List, int)} runs the tournaments of
+ * batches of at least {@value #CHUNK} parents concurrently. Every chunk then draws from its own
+ * child stream of {@link Randomness}, split off the stream of the calling thread in chunk order,
+ * so the result is reproducible but differs from the one of a sequential selection.
+ *
+ * @param <C> the type of chromosomes
+ */
+public class CrowdedTournamentSelection<C extends Chromosome<C>> implements RankedSelection<C> {
+
+    /**
+     * The number of parents selected per parallel task.
+     */
+    static final int CHUNK = 1024;
+
+    private final int tournamentSize;
+    private final RandomGenerator random;
+    private final boolean parallel;
+
+    private int[] rank = new int[0];
+    private double[] crowding = new double[0];
+
+    /**
+     * Creates a new tournament selection operator.
+     *
+     * @param tournamentSize the number of candidates per tournament, at least 1
+     * @param random         the source of randomness of sequential selection
+     * @param parallel       whether large batches are selected concurrently
+     * @throws IllegalArgumentException if the tournament size is not positive
+     */
+    public CrowdedTournamentSelection(
+            final int tournamentSize,
+            final RandomGenerator random,
+            final boolean parallel) {
+        if (tournamentSize < 1) {
+            throw new IllegalArgumentException("Tournament size must be positive: " + tournamentSize);
+        }
+        this.tournamentSize = tournamentSize;
+        this.random = requireNonNull(random);
+        this.parallel = parallel;
+    }
+
+    @Override
+    public void setRanking(final int[] rank, final double[] crowding) {
+        if (rank.length != crowding.length) {
+            throw new IllegalArgumentException("Expected one crowding distance per rank");
+        }
+        this.rank = rank;
+        this.crowding = crowding;
+    }
+
+    public int getTournamentSize() {
+        return tournamentSize;
+    }
+
+    /**
+     * Runs one tournament on the given population.
+     *
+     * @param population of chromosomes from which to select
+     * @return the winner of the tournament
+     * @throws NullPointerException     if the population is {@code null}
+     * @throws NoSuchElementException   if the population is empty
+     * @throws IllegalArgumentException if the ranking does not match the population size
+     */
+    @Override
+    public C apply(final List<C> population) {
+        final int n = checkPopulation(population);
+        return population.get(tournament(random, n, new int[tournamentSize]));
+    }
+
+    @Override
+    public int[] selectIndices(final List<C> population, final int count) {
+        final int n = checkPopulation(population);
+        if (count < 0) {
+            throw new IllegalArgumentException("Negative count: " + count);
+        }
+
+        final int[] indices = new int[count];
+        if (!parallel || count < 2 * CHUNK) {
+            select(random, n, indices, 0, count);
+            return indices;
+        }
+
+        final int chunks = (count + CHUNK - 1) / CHUNK;
+        final SplittableGenerator[] streams = new SplittableGenerator[chunks];
+        for (int c = 0; c < chunks; c++) {
+            streams[c] = Randomness.split();
+        }
+        IntStream.range(0, chunks).parallel().forEach(c ->
+                select(streams[c], n, indices, c * CHUNK, Math.min(count, (c + 1) * CHUNK)));
+        return indices;
+    }
+
+    private void select(RandomGenerator random, int n, int[] indices, int from, int to) {
+        final int[] drawn = new int[tournamentSize];
+        for (int i = from; i < to; i++) {
+            indices[i] = tournament(random, n, drawn);
+        }
+    }
+
+    /**
+     * Draws {@code min(k, n)} distinct candidates and returns the best one.
+     */
+    private int tournament(RandomGenerator random, int n, int[] drawn) {
+        final int k = Math.min(tournamentSize, n);
+
+        int best = random.nextInt(n);
+        drawn[0] = best;
+        for (int d = 1; d < k; d++) {
+            int candidate = drawCandidate(random, n, drawn, d);
+            drawn[d] = candidate;
+            if (rank[candidate] < rank[best]
+                    || (rank[candidate] == rank[best] && crowding[candidate] > crowding[best])) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Draws a position that is not among the first {@code d} drawn ones.
+     */
+    private static int drawCandidate(RandomGenerator random, int n, int[] drawn, int d) {
+        while (true) {
+            int candidate = random.nextInt(n);
+            boolean fresh = true;
+            for (int j = 0; j < d && fresh; j++) {
+                fresh = drawn[j] != candidate;
+            }
+            if (fresh) return candidate;
+        }
+    }
+
+    private int checkPopulation(List<C> population) {
+        final int n = requireNonNull(population).size();
+        if (n == 0) {
+            throw new NoSuchElementException("Population is empty");
+        }
+        if (n != rank.length) {
+            throw new IllegalArgumentException(
+                    "Ranking covers " + rank.length + " chromosomes, population has " + n);
+        }
+        return n;
+    }
+}
@@ -0,0 +1,23 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.selection;
+
+import de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes.Chromosome;
+
+/**
+ * A selection operator that works on the non-domination rank and crowding distance of every
+ * member of the population instead of comparing chromosomes. NSGA-II sets the ranking of its
+ * population before every batch of selections.
+ *
+ * @param <C> the type of chromosomes supported by this selection operator
+ */
+public interface RankedSelection<C extends Chromosome<C>> extends Selection<C> {
+
+    /**
+     * Sets the rank and crowding distance of the members of the population to select from next,
+     * by position. The arrays are not copied and must not be modified while selecting.
+     *
+     * @param rank     the non-domination ranks, 0 for the first front
+     * @param crowding the crowding distances
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    void setRanking(int[] rank, double[] crowding);
+}
@@ -28,4 +28,40 @@ public interface Selection<C extends Chromosome<C>> extends Function<List<C>, C>
      */
     @Override
     C apply(List<C> population);
+
+    /**
+     * Selects the given number of parents from the given non-null and non-empty population at
+     * once, e.g., all parents of a generation, and returns their positions in the population.
+     * Positions may repeat.
+     * <p>
+     * The default implementation calls {@link #apply(List)} once per parent and locates the
+     * selected chromosome by identity, so {@code apply} must return elements of the population. Operators that work on precomputed fitness values should
+     * override it.
+     *
+     * @param population the population of chromosomes from which to select
+     * @param count      the number of parents to select
+     * @return the positions of the selected parents in the population
+     * @throws NoSuchElementException   if the population is empty
+     * @throws NullPointerException     if the population is {@code null}
+     * @throws IllegalArgumentException if the count is negative
+     */
+    default int[] selectIndices(final List<C> population, final int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Negative count: " + count);
+        }
+
+        final int[] indices = new int[count];
+        for (int i = 0; i < count; i++) {
+            final C selected = apply(population);
+            int position = 0;
+            while (position < population.size() && population.get(position) != selected) {
+                position++;
+            }
+            if (position == population.size()) {
+                throw new IllegalStateException("Selected chromosome is not part of the population");
+            }
+            indices[i] = position;
+        }
+        return indices;
+    }
 }
@@ -0,0 +1,119 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.stopping_conditions;
+
+import java.time.Duration;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A thread-safe stopping condition that lets several search algorithms draw from one budget, e.g.,
+ * the members of a portfolio running concurrently.
+ * <p>
+ * All notifications are forwarded to the wrapped stopping condition while holding the lock of this
+ * object, so the wrapped condition does not need to be thread-safe. Callers that need to check and
+ * charge the budget atomically may synchronise on this object as well. Since the members of a
+ * portfolio start their searches independently, {@link #notifySearchStarted()} is ignored; the
+ * owner of the budget calls {@link #start()} instead. In addition to the wrapped budget, the search
+ * must stop once an optional deadline has passed or the budget has been {@link #cancel() cancelled}.
+ */
+public final class SharedBudget implements StoppingCondition {
+
+    /**
+     * The wrapped stopping condition, only accessed while holding the lock of this object.
+     */
+    private final StoppingCondition delegate;
+
+    /**
+     * The time limit measured from {@link #start()}, or {@code null} if there is none.
+     */
+    private final Duration timeLimit;
+
+    private long startNanos;
+    private volatile long deadlineNanos;
+    private volatile boolean cancelled;
+
+    /**
+     * Creates a shared budget without time limit.
+     *
+     * @param delegate the stopping condition to share
+     */
+    public SharedBudget(final StoppingCondition delegate) {
+        this.delegate = requireNonNull(delegate);
+        this.timeLimit = null;
+    }
+
+    /**
+     * Creates a shared budget that additionally expires after the given time limit.
+     *
+     * @param delegate  the stopping condition to share
+     * @param timeLimit the time limit, must be positive
+     */
+    public SharedBudget(final StoppingCondition delegate, final Duration timeLimit) {
+        if (timeLimit.isNegative() || timeLimit.isZero()) {
+            throw new IllegalArgumentException("time limit must be positive");
+        }
+        this.delegate = requireNonNull(delegate);
+        this.timeLimit = timeLimit;
+    }
+
+    /**
+     * Starts the shared search: resets the wrapped stopping condition and arms the deadline.
+     */
+    public synchronized void start() {
+        delegate.notifySearchStarted();
+        cancelled = false;
+        startNanos = System.nanoTime();
+        deadlineNanos = timeLimit == null ? Long.MAX_VALUE : startNanos + timeLimit.toNanos();
+    }
+
+    /**
+     * Makes all searches drawing from this budget stop as soon as possible.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Ignored, see {@link #start()}.
+     */
+    @Override
+    public void notifySearchStarted() {
+        // The members of a portfolio must not reset the shared budget.
+    }
+
+    @Override
+    public synchronized void notifyFitnessEvaluation() {
+        delegate.notifyFitnessEvaluation();
+    }
+
+    @Override
+    public synchronized void notifyFitnessEvaluations(final int evaluations) throws IllegalArgumentException {
+        delegate.notifyFitnessEvaluations(evaluations);
+    }
+
+    @Override
+    public boolean searchMustStop() {
+        if (cancelled || System.nanoTime() - deadlineNanos >= 0) {
+            return true;
+        }
+        synchronized (this) {
+            return delegate.searchMustStop();
+        }
+    }
+
+    @Override
+    public synchronized double getProgress() {
+        double progress = delegate.getProgress();
+        if (timeLimit != null) {
+            double elapsed = (System.nanoTime() - startNanos) / (double) timeLimit.toNanos();
+            progress = Math.max(progress, Math.min(elapsed, 1.0));
+        }
+        return progress;
+    }
+
+    @Override
+    public String toString() {
+        return timeLimit == null
+                ? String.format("%s(%s)", getClass().getSimpleName(), delegate)
+                : String.format("%s(%s, %s)", getClass().getSimpleName(), delegate, timeLimit);
+    }
+}
@@ -1,52 +1,94 @@
 package de.uni_passau.fim.se2.sbse.suite_minimisation.utils;
 
 import de.uni_passau.fim.se2.sbse.suite_minimisation.algorithms.GeneticAlgorithm;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.algorithms.MOEAD;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.algorithms.MaxKCoverage;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.algorithms.MemeticNSGA2;
 import de.uni_passau.fim.se2.sbse.suite_minimisation.algorithms.NSGA2;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.algorithms.PBIL;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.algorithms.Portfolio;
 import de.uni_passau.fim.se2.sbse.suite_minimisation.algorithms.RandomSearch;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.algorithms.SMSEMOA;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.algorithms.SamplingType;
 import de.uni_passau.fim.se2.sbse.suite_minimisation.algorithms.SearchAlgorithmType;
 import de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes.Chromosome;
 import de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes.ChromosomeGenerator;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes.FloydChromosomeGenerator;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes.GenomePool;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes.InitialisationType;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes.PopulationInitialiser;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes.SeededPopulationInitialiser;
 import de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes.TestSuiteChromosome;
-import de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes.TestSuiteChromosomeGenerator;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.crossover.CoverageAwareUniformCrossover;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.crossover.Crossover;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.crossover.CrossoverType;
 import de.uni_passau.fim.se2.sbse.suite_minimisation.crossover.SinglePointCrossover;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.crossover.TwoPointCrossover;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.crossover.UniformCrossover;
 import de.uni_passau.fim.se2.sbse.suite_minimisation.fitness_functions.*;
 import de.uni_passau.fim.se2.sbse.suite_minimisation.mutation.BitFlipMutation;
-import de.uni_passau.fim.se2.sbse.suite_minimisation.selection.BinaryTournamentSelection;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.mutation.CoverageGuidedMutation;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.mutation.GeometricBitFlipMutation;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.mutation.Mutation;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.mutation.MutationType;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.selection.CrowdedTournamentSelection;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.stopping_conditions.SharedBudget;
 import de.uni_passau.fim.se2.sbse.suite_minimisation.stopping_conditions.StoppingCondition;
 
-import java.util.Random;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.random.RandomGenerator;
 
 public class AlgorithmBuilder {
 
     /**
-     * The default source randomness.
+     * The algorithms run concurrently by the portfolio.
      */
-    private final Random random;
+    private static final List<SearchAlgorithmType> PORTFOLIO_MEMBERS = List.of(
+            SearchAlgorithmType.RANDOM_SEARCH,
+            SearchAlgorithmType.NSGA_II,
+            SearchAlgorithmType.MOEA_D,
+            SearchAlgorithmType.MAX_K_COVERAGE
+    );
 
     /**
-     * The stopping condition to use.
+     * The share of the population size that portfolio members take in as immigrants from the
+     * shared archive every generation.
      */
-    private final StoppingCondition stoppingCondition;
+    private static final double IMMIGRATION_RATE = 0.1;
+
+    /**
+     * The default source randomness.
+     */
+    private final RandomGenerator random;
 
     /**
-     * The coverage matrix to use. Every row in the matrix represents a test case and every column
-     * represents a line in the CUT. An entry {@code matrix[i][j] == true} indicates that test case
-     * {@code i} covers line {@code j}. The matrix is rectangular.
+     * The stopping condition to use.
      */
-    private final boolean[][] coverageMatrix;
+    private final StoppingCondition stoppingCondition;
 
     /**
-     * The number of test cases in the test suite (corresponds to the number of rows in the {@code
-     * coverageMatrix} and the length of the {@code testCaseNames} array).
+     * The number of test cases in the test suite (corresponds to the number of rows in the
+     * coverage matrix and the length of the {@code testCaseNames} array).
      */
     private final int numberTestCases;
 
     /**
      * The number of lines in the system under test (corresponds to the number of columns in the
-     * {@code coverageMatrix}).
+     * coverage matrix).
      */
     private final int numberLines;
 
+    /**
+     * The coverage matrix to use, packed. Every row represents a test case and every column a line
+     * in the CUT; test case {@code i} covers line {@code j} if {@code coverageIndex.covers(i, j)}.
+     */
+    private final CoverageIndex coverageIndex;
+
     /**
      * A normalizing fitness function measuring the size of test suite chromosomes.
      */
@@ -57,16 +99,102 @@ public class AlgorithmBuilder {
      */
     private final MaximizingFitnessFunction<? extends Chromosome<?>> coverageFF;
 
-    public AlgorithmBuilder(final Random random,
+    /**
+     * The archive shared by the members of a portfolio, or {@code null} if the built algorithms
+     * are not portfolio members. Members offer every suite they evaluate to it and take in
+     * immigrants from it.
+     */
+    private final ParetoArchive<TestSuiteChromosome> sharedArchive;
+
+    /**
+     * The wall-clock deadline of portfolio searches, or {@code null} if there is none.
+     */
+    private Duration portfolioDeadline;
+
+    /**
+     * The mutation operator of the built algorithms.
+     */
+    private MutationType mutationType = MutationType.BIT_FLIP;
+
+    /**
+     * The crossover operator of the built algorithms.
+     */
+    private CrossoverType crossoverType = CrossoverType.SINGLE_POINT;
+
+    /**
+     * The population size of NSGA-II variants, MOEA/D and SMS-EMOA, and the number of samples per
+     * generation of PBIL.
+     */
+    private int populationSize = 50;
+
+    /**
+     * Whether NSGA-II variants recycle the chromosomes rejected by survivor selection.
+     */
+    private boolean pooling = true;
+
+    /**
+     * The tournament size of the parent selection of NSGA-II variants.
+     */
+    private int tournamentSize = 2;
+
+    /**
+     * Whether NSGA-II variants run the parent tournaments of a generation concurrently.
+     */
+    private boolean parallelSelection = false;
+
+    /**
+     * The initialisation of the population of NSGA-II variants.
+     */
+    private InitialisationType initialisationType = InitialisationType.RANDOM;
+
+    /**
+     * How random search chooses the sizes of the suites it samples.
+     */
+    private SamplingType samplingType = SamplingType.RANDOM;
+
+    public AlgorithmBuilder(final RandomGenerator random,
                             final StoppingCondition stoppingCondition,
                             final boolean[][] coverageMatrix) {
+        this(random, stoppingCondition, new CoverageIndex(coverageMatrix));
+    }
+
+    /**
+     * Creates a builder for the given packed coverage matrix, as returned by
+     * {@link CoverageTracker#getPackedCoverageMatrix()}, so that wide matrices need not be
+     * unpacked.
+     *
+     * @param random            the source of randomness
+     * @param stoppingCondition the stopping condition
+     * @param coverageRows      the packed coverage matrix
+     * @param numberLines       the number of lines (columns) of the matrix
+     */
+    public AlgorithmBuilder(final RandomGenerator random,
+                            final StoppingCondition stoppingCondition,
+                            final long[][] coverageRows,
+                            final int numberLines) {
+        this(random, stoppingCondition, new CoverageIndex(coverageRows, numberLines));
+    }
+
+    private AlgorithmBuilder(final RandomGenerator random,
+                             final StoppingCondition stoppingCondition,
+                             final CoverageIndex coverageIndex) {
+        this(random, stoppingCondition, coverageIndex, null);
+    }
+
+    private AlgorithmBuilder(final RandomGenerator random,
+                             final StoppingCondition stoppingCondition,
+                             final CoverageIndex coverageIndex,
+                             final ParetoArchive<TestSuiteChromosome> sharedArchive) {
         this.random = random;
         this.stoppingCondition = stoppingCondition;
-        this.coverageMatrix = coverageMatrix;
-        this.numberLines = coverageMatrix[0].length;
-        this.numberTestCases = coverageMatrix.length;
+        this.numberLines = coverageIndex.getNumberOfLines();
+        this.numberTestCases = coverageIndex.getNumberOfTests();
+        this.coverageIndex = coverageIndex;
+        this.sharedArchive = sharedArchive;
         this.sizeFF = makeTestSuiteSizeFitnessFunction();
-        this.coverageFF = makeTestSuiteCoverageFitnessFunction();
+        this.coverageFF = sharedArchive == null
+                ? makeTestSuiteCoverageFitnessFunction()
+                : makeSharingCoverageFitnessFunction();
     }
 
     /**
@@ -112,17 +240,18 @@ public class AlgorithmBuilder {
         return (MaximizingFitnessFunction<Chromosome<?>>) chromosome -> {
             TestSuiteChromosome c = (TestSuiteChromosome) chromosome;
 
-            boolean[] covered = new boolean[numberLines];
+            long[] covered = new long[CoverageIndex.wordsFor(numberLines)];
 
             for (int testIndex : c.getSelectedTestIndices()) {
-                for (int line = 0; line < numberLines; line++) {
-                    covered[line] |= coverageMatrix[testIndex][line];
+                long[] row = coverageIndex.row(testIndex);
+                for (int w = 0; w < covered.length; w++) {
+                    covered[w] |= row[w];
                 }
             }
 
             int coveredLines = 0;
-            for (boolean b : covered) {
-                if (b) coveredLines++;
+            for (long word : covered) {
+                coveredLines += Long.bitCount(word);
             }
 
             // Normalized to [0, 1]
@@ -130,6 +259,70 @@ public class AlgorithmBuilder {
         };
     }
 
+    /**
+     * Creates a coverage fitness function for portfolio members, which also offers every suite it
+     * measures to the shared archive. The archive copies a suite only if it is non-dominated, as
+     * members recycle their chromosomes.
+     *
+     * @return the sharing test suite coverage fitness function
+     */
+    @SuppressWarnings("unchecked")
+    private MaximizingFitnessFunction<? extends Chromosome<?>> makeSharingCoverageFitnessFunction() {
+        var coverage = (MaximizingFitnessFunction<TestSuiteChromosome>) makeTestSuiteCoverageFitnessFunction();
+        var size = (MinimizingFitnessFunction<TestSuiteChromosome>) sizeFF;
+
+        return (MaximizingFitnessFunction<Chromosome<?>>) chromosome -> {
+            TestSuiteChromosome c = (TestSuiteChromosome) chromosome;
+            double value = coverage.applyAsDouble(c);
+            sharedArchive.offer(c, size.applyAsDouble(c), value, TestSuiteChromosome::copy);
+            return value;
+        };
+    }
+
+    /**
+     * Returns a random sample of the suites in the shared archive, as immigrants for a portfolio
+     * member with a population of {@code populationSize}.
+     *
+     * @return the immigrants
+     */
+    private List<TestSuiteChromosome> immigrants() {
+        List<TestSuiteChromosome> archived = new ArrayList<>(sharedArchive.solutions());
+        int count = Math.min(archived.size(), Math.max(1, (int) (IMMIGRATION_RATE * populationSize)));
+
+        // partial Fisher-Yates shuffle
+        for (int i = 0; i < count; i++) {
+            Collections.swap(archived, i, i + random.nextInt(archived.size() - i));
+        }
+        return archived.subList(0, count);
+    }
+
+
+    /**
+     * Sets the wall-clock deadline of portfolio searches, in addition to the stopping condition.
+     *
+     * @param portfolioDeadline the deadline, or {@code null} for none
+     */
+    public void setPortfolioDeadline(final Duration portfolioDeadline) {
+        this.portfolioDeadline = portfolioDeadline;
+    }
+
+    /**
+     * Sets the mutation operator of the built algorithms.
+     *
+     * @param mutationType the mutation operator
+     */
+    public void setMutationType(final MutationType mutationType) {
+        this.mutationType = Objects.requireNonNull(mutationType);
+    }
+
+    /**
+     * Sets the crossover operator of the built algorithms.
+     *
+     * @param crossoverType the crossover operator
+     */
+    public void setCrossoverType(final CrossoverType crossoverType) {
+        this.crossoverType = Objects.requireNonNull(crossoverType);
+    }
 
     public MinimizingFitnessFunction<? extends Chromosome<?>> getSizeFF() {
         return sizeFF;
@@ -139,6 +332,119 @@ public class AlgorithmBuilder {
         return coverageFF;
     }
 
+    /**
+     * Sets whether NSGA-II variants recycle the chromosomes rejected by survivor selection as
+     * offspring, see {@link GenomePool}. Pooling is enabled by default; disabling it can help
+     * when debugging.
+     *
+     * @param pooling whether to recycle chromosomes
+     */
+    public void setPooling(final boolean pooling) {
+        this.pooling = pooling;
+    }
+
+    /**
+     * Sets the population size of NSGA-II variants, MOEA/D and SMS-EMOA, and the number of samples
+     * per generation of PBIL, 50 by default.
+     *
+     * @param populationSize the population size, at least 1
+     * @throws IllegalArgumentException if the population size is not positive
+     */
+    public void setPopulationSize(final int populationSize) {
+        if (populationSize < 1) {
+            throw new IllegalArgumentException("Population size must be positive: " + populationSize);
+        }
+        this.populationSize = populationSize;
+    }
+
+    /**
+     * Sets the parent selection of NSGA-II variants: tournaments of the given size on rank and
+     * crowding distance, optionally run concurrently for large populations.
+     *
+     * @param tournamentSize    the number of candidates per tournament, at least 1
+     * @param parallelSelection whether the tournaments of a generation may run concurrently
+     * @throws IllegalArgumentException if the tournament size is not positive
+     */
+    public void setSelection(final int tournamentSize, final boolean parallelSelection) {
+        if (tournamentSize < 1) {
+            throw new IllegalArgumentException("Tournament size must be positive: " + tournamentSize);
+        }
+        this.tournamentSize = tournamentSize;
+        this.parallelSelection = parallelSelection;
+    }
+
+    /**
+     * Sets the initialisation of the population of NSGA-II variants.
+     *
+     * @param initialisationType the initialisation strategy
+     */
+    public void setInitialisationType(final InitialisationType initialisationType) {
+        this.initialisationType = Objects.requireNonNull(initialisationType);
+    }
+
+    /**
+     * Sets how random search chooses the sizes of the suites it samples.
+     *
+     * @param samplingType the sampling strategy
+     */
+    public void setSamplingType(final SamplingType samplingType) {
+        this.samplingType = Objects.requireNonNull(samplingType);
+    }
+
+    /**
+     * Creates a new instance of the configured initialisation of the population.
+     *
+     * @param generator the generator of random chromosomes
+     * @param mutation  the mutation operator of seeded chromosomes
+     * @param crossover the crossover operator of seeded chromosomes
+     * @return the initialisation of the population
+     */
+    private PopulationInitialiser<TestSuiteChromosome> makeInitialiser(
+            final ChromosomeGenerator<TestSuiteChromosome> generator,
+            final Mutation<TestSuiteChromosome> mutation,
+            final Crossover<TestSuiteChromosome> crossover) {
+        return switch (initialisationType) {
+            case RANDOM -> PopulationInitialiser.random(generator);
+            case SEEDED -> new SeededPopulationInitialiser(coverageIndex, mutation, crossover);
+        };
+    }
+
+    /**
+     * Creates a new instance of the configured parent selection.
+     *
+     * @return the parent selection
+     */
+    private CrowdedTournamentSelection<TestSuiteChromosome> makeSelection() {
+        return new CrowdedTournamentSelection<>(tournamentSize, random, parallelSelection);
+    }
+
+    /**
+     * Creates a new instance of the configured mutation operator.
+     *
+     * @return the mutation operator
+     */
+    private Mutation<TestSuiteChromosome> makeMutation() {
+        return switch (mutationType) {
+            case BIT_FLIP -> new BitFlipMutation();
+            case GEOMETRIC_BIT_FLIP -> new GeometricBitFlipMutation();
+            case COVERAGE_GUIDED -> new CoverageGuidedMutation(coverageIndex);
+        };
+    }
+
+    /**
+     * Creates a new instance of the configured crossover operator.
+     *
+     * @return the crossover operator
+     */
+    private Crossover<TestSuiteChromosome> makeCrossover() {
+        return switch (crossoverType) {
+            case SINGLE_POINT -> new SinglePointCrossover();
+            case TWO_POINT -> new TwoPointCrossover();
+            case UNIFORM -> new UniformCrossover();
+            case COVERAGE_AWARE_UNIFORM -> new CoverageAwareUniformCrossover(coverageIndex);
+        };
+    }
+
     /**
      * Builds the specified search algorithm using the fields of this class.
      *
@@ -152,6 +458,12 @@ public class AlgorithmBuilder {
         return switch (algorithm) {
             case RANDOM_SEARCH -> buildRandomSearch();
             case NSGA_II -> buildNSGA2();
+            case MEMETIC_NSGA_II -> buildMemeticNSGA2();
+            case MOEA_D -> buildMOEAD();
+            case SMS_EMOA -> buildSMSEMOA();
+            case MAX_K_COVERAGE -> buildMaxKCoverage();
+            case PBIL -> buildPBIL();
+            case PORTFOLIO -> buildPortfolio();
         };
     }
 
@@ -172,36 +484,215 @@ public class AlgorithmBuilder {
     @SuppressWarnings("unchecked")
     private GeneticAlgorithm<? extends Chromosome<?>> buildNSGA2() {
 
-        var mutation = new BitFlipMutation();
-        var crossover = new SinglePointCrossover();
+        var mutation = makeMutation();
+        var crossover = makeCrossover();
 
         ChromosomeGenerator<TestSuiteChromosome> generator =
-                new TestSuiteChromosomeGenerator(numberTestCases, mutation, crossover);
+                new FloydChromosomeGenerator(numberTestCases, mutation, crossover);
 
         NSGA2 nsga2 = new NSGA2(
                 stoppingCondition,
                 random,
-                50,
+                populationSize,
                 generator,
                 (FitnessFunction<TestSuiteChromosome>) sizeFF,
-                (FitnessFunction<TestSuiteChromosome>) coverageFF
+                (FitnessFunction<TestSuiteChromosome>) coverageFF,
+                new GenomePool(pooling)
+        );
+        nsga2.setSelection(makeSelection());
+        nsga2.setInitialiser(makeInitialiser(generator, mutation, crossover));
+        if (sharedArchive != null) {
+            nsga2.setImmigrants(this::immigrants);
+        }
+        return nsga2;
+    }
+
+
+    /**
+     * Returns an instance of the memetic NSGA-II search algorithm, which applies redundancy
+     * removal and coverage-improving swaps to half of the offspring. The algorithm is constructed
+     * using the fields of this class.
+     *
+     * @return the search algorithm
+     * @apiNote The return type uses a wildcard type "{@code ?}". This is because your custom
+     * subclass of {@code Chromosome} has not existed yet at the time of writing this code, so I
+     * couldn't specify it.
+     */
+    @SuppressWarnings("unchecked")
+    private GeneticAlgorithm<? extends Chromosome<?>> buildMemeticNSGA2() {
+
+        var mutation = makeMutation();
+        var crossover = makeCrossover();
+
+        ChromosomeGenerator<TestSuiteChromosome> generator =
+                new FloydChromosomeGenerator(numberTestCases, mutation, crossover);
+
+        MemeticNSGA2 memetic = new MemeticNSGA2(
+                stoppingCondition,
+                random,
+                populationSize,
+                generator,
+                (FitnessFunction<TestSuiteChromosome>) sizeFF,
+                (FitnessFunction<TestSuiteChromosome>) coverageFF,
+                coverageIndex,
+                0.5,
+                true,
+                new GenomePool(pooling)
         );
+        memetic.setSelection(makeSelection());
+        memetic.setInitialiser(makeInitialiser(generator, mutation, crossover));
+        return memetic;
+    }
 
-        var selection = new BinaryTournamentSelection<TestSuiteChromosome>(
-                nsga2.nsga2Comparator(),
-                random
+    /**
+     * Returns an instance of the MOEA/D search algorithm to find a solution for the test suite
+     * minimization problem. The algorithm is constructed using the fields of this class and uses
+     * the same variation operators as NSGA-II, so that both algorithms only differ in how they
+     * select survivors.
+     *
+     * @return the search algorithm
+     * @apiNote The return type uses a wildcard type "{@code ?}". This is because your custom
+     * subclass of {@code Chromosome} has not existed yet at the time of writing this code, so I
+     * couldn't specify it.
+     */
+    @SuppressWarnings("unchecked")
+    private GeneticAlgorithm<? extends Chromosome<?>> buildMOEAD() {
+
+        var mutation = makeMutation();
+        var crossover = makeCrossover();
+
+        ChromosomeGenerator<TestSuiteChromosome> generator =
+                new FloydChromosomeGenerator(numberTestCases, mutation, crossover);
+
+        MOEAD moead = new MOEAD(
+                stoppingCondition,
+                random,
+                populationSize,
+                10,
+                MOEAD.Scalarisation.TCHEBYCHEFF,
+                generator,
+                (FitnessFunction<TestSuiteChromosome>) sizeFF,
+                (FitnessFunction<TestSuiteChromosome>) coverageFF
         );
+        if (sharedArchive != null) {
+            moead.setImmigrants(this::immigrants);
+        }
+        return moead;
+    }
+
+    /**
+     * Returns an instance of the SMS-EMOA search algorithm to find a solution for the test suite
+     * minimization problem. The algorithm is constructed using the fields of this class.
+     *
+     * @return the search algorithm
+     * @apiNote The return type uses a wildcard type "{@code ?}". This is because your custom
+     * subclass of {@code Chromosome} has not existed yet at the time of writing this code, so I
+     * couldn't specify it.
+     */
+    @SuppressWarnings("unchecked")
+    private GeneticAlgorithm<? extends Chromosome<?>> buildSMSEMOA() {
 
-        return new NSGA2(
+        var mutation = makeMutation();
+        var crossover = makeCrossover();
+
+        ChromosomeGenerator<TestSuiteChromosome> generator =
+                new FloydChromosomeGenerator(numberTestCases, mutation, crossover);
+
+        return new SMSEMOA(
                 stoppingCondition,
                 random,
-                50,
+                populationSize,
                 generator,
                 (FitnessFunction<TestSuiteChromosome>) sizeFF,
                 (FitnessFunction<TestSuiteChromosome>) coverageFF
         );
     }
 
+    /**
+     * Returns an instance of population-based incremental learning, an estimation-of-distribution
+     * algorithm that samples suites from per-test inclusion probabilities. It samples
+     * {@code populationSize} suites per generation and does not vary them, so the samples carry
+     * the identity operators.
+     *
+     * @return the search algorithm
+     * @apiNote The return type uses a wildcard type "{@code ?}". This is because your custom
+     * subclass of {@code Chromosome} has not existed yet at the time of writing this code, so I
+     * couldn't specify it.
+     */
+    @SuppressWarnings("unchecked")
+    private GeneticAlgorithm<? extends Chromosome<?>> buildPBIL() {
+        return new PBIL(
+                stoppingCondition,
+                populationSize,
+                numberTestCases,
+                0.3,
+                (FitnessFunction<TestSuiteChromosome>) sizeFF,
+                (FitnessFunction<TestSuiteChromosome>) coverageFF,
+                Mutation.identity(),
+                Crossover.identity()
+        );
+    }
+
+    /**
+     * Returns an instance of the max-k-coverage front builder, which runs a warm-started swap
+     * local search for every suite size. The sizes are split over all cores of the common pool.
+     *
+     * @return the search algorithm
+     * @apiNote The return type uses a wildcard type "{@code ?}". This is because your custom
+     * subclass of {@code Chromosome} has not existed yet at the time of writing this code, so I
+     * couldn't specify it.
+     */
+    private GeneticAlgorithm<? extends Chromosome<?>> buildMaxKCoverage() {
+        return new MaxKCoverage(
+                stoppingCondition,
+                coverageIndex,
+                makeMutation(),
+                makeCrossover(),
+                ForkJoinPool.getCommonPoolParallelism()
+        );
+    }
+
+    /**
+     * Returns a portfolio running Random Search, NSGA-II, MOEA/D and the max-k-coverage front
+     * builder concurrently. The members are built by a second builder whose stopping condition is
+     * a thread-safe {@link SharedBudget} around the stopping condition of this builder. Members
+     * offer every suite they evaluate to the archive of the portfolio, and NSGA-II and MOEA/D take
+     * in a sample of it as immigrants every generation.
+     *
+     * @return the search algorithm
+     * @apiNote The return type uses a wildcard type "{@code ?}". This is because your custom
+     * subclass of {@code Chromosome} has not existed yet at the time of writing this code, so I
+     * couldn't specify it.
+     */
+    @SuppressWarnings("unchecked")
+    private GeneticAlgorithm<? extends Chromosome<?>> buildPortfolio() {
+
+        SharedBudget budget = portfolioDeadline == null
+                ? new SharedBudget(stoppingCondition)
+                : new SharedBudget(stoppingCondition, portfolioDeadline);
+
+        ParetoArchive<TestSuiteChromosome> archive = new ParetoArchive<>();
+        AlgorithmBuilder memberBuilder = new AlgorithmBuilder(random, budget, coverageIndex, archive);
+        memberBuilder.setMutationType(mutationType);
+        memberBuilder.setCrossoverType(crossoverType);
+        memberBuilder.setPopulationSize(populationSize);
+        memberBuilder.setPooling(pooling);
+        memberBuilder.setSelection(tournamentSize, parallelSelection);
+        memberBuilder.setInitialisationType(initialisationType);
+        memberBuilder.setSamplingType(samplingType);
+        List<GeneticAlgorithm<TestSuiteChromosome>> members = new ArrayList<>();
+        for (SearchAlgorithmType member : PORTFOLIO_MEMBERS) {
+            members.add((GeneticAlgorithm<TestSuiteChromosome>) memberBuilder.buildAlgorithm(member));
+        }
+
+        return new Portfolio(
+                budget,
+                archive,
+                members,
+                (FitnessFunction<TestSuiteChromosome>) sizeFF,
+                (FitnessFunction<TestSuiteChromosome>) coverageFF
+        );
+    }
 
     /**
      * Returns an instance of the Random Search algorithm to find a solution for the test suite
@@ -229,20 +720,19 @@ public class AlgorithmBuilder {
     @SuppressWarnings("unchecked")
     private GeneticAlgorithm<? extends Chromosome<?>> buildRandomSearch() {
 
-        var mutation = new BitFlipMutation();
-        var crossover = new SinglePointCrossover();
+        var mutation = makeMutation();
+        var crossover = makeCrossover();
 
         ChromosomeGenerator<TestSuiteChromosome> generator =
-                new TestSuiteChromosomeGenerator(numberTestCases, mutation, crossover);
+                new FloydChromosomeGenerator(numberTestCases, mutation, crossover);
 
         return new RandomSearch(
                 stoppingCondition,
                 generator,
                 (FitnessFunction<TestSuiteChromosome>) sizeFF,
                 (FitnessFunction<TestSuiteChromosome>) coverageFF,
-                coverageMatrix,
-                numberTestCases,
-                numberLines
+                coverageIndex,
+                samplingType
         );
 
     }
@@ -0,0 +1,147 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.utils;
+
+import org.jacoco.core.data.ExecutionData;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The columns of one or more classes in a coverage matrix, and the {@link ProbeMap} of every
+ * class. The columns of the classes follow each other in the order in which the classes are
+ * given, and the columns of a class are ordered as by {@link ProbeMap#columnLines}.
+ * <p>
+ * The probe map of a class is derived from the first execution data mapped for it and shared by
+ * all threads, as the probes of a class only depend on its bytecode. Each class is thus analysed
+ * once for its columns and once for its probe map, however many test cases are mapped.
+ */
+final class ClassColumns {
+
+    /**
+     * The classes by VM name, such as {@code java/lang/Object}.
+     */
+    private final Map<String, ClassEntry> classes = new HashMap<>();
+
+    private final GranularityType granularity;
+    private final ModuleCoverageTracker.Column[] columns;
+    private final int[] lines;
+
+    /**
+     * Determines the columns of the given classes.
+     *
+     * @param bytecode    the original bytecode of the classes by name, in the order of their
+     *                    columns
+     * @param granularity the entities of the classes that form the columns
+     * @throws IOException if a class could not be analysed
+     */
+    ClassColumns(final Map<String, byte[]> bytecode, final GranularityType granularity) throws IOException {
+        this.granularity = granularity;
+        final List<ModuleCoverageTracker.Column> all = new ArrayList<>();
+        for (Map.Entry<String, byte[]> entry : bytecode.entrySet()) {
+            final String name = entry.getKey();
+            classes.put(name.replace('.', '/'), new ClassEntry(entry.getValue(), all.size()));
+            for (int line : ProbeMap.columnLines(entry.getValue(), name, granularity)) {
+                all.add(new ModuleCoverageTracker.Column(name, line));
+            }
+        }
+        this.columns = all.toArray(ModuleCoverageTracker.Column[]::new);
+        this.lines = Arrays.stream(columns).mapToInt(ModuleCoverageTracker.Column::line).toArray();
+    }
+
+    /**
+     * Returns the number of columns of all classes.
+     *
+     * @return the number of columns
+     */
+    int size() {
+        return columns.length;
+    }
+
+    /**
+     * Returns the (class, line) pair of every column.
+     *
+     * @return the columns
+     */
+    ModuleCoverageTracker.Column[] columns() {
+        return columns.clone();
+    }
+
+    /**
+     * Returns the source line of every column.
+     *
+     * @return the line numbers, one per column
+     */
+    int[] lines() {
+        return lines.clone();
+    }
+
+    /**
+     * Tells whether the class with the given VM name has columns here.
+     *
+     * @param vmName the VM name of the class
+     * @return {@code true} if the class is one of the classes
+     */
+    boolean contains(final String vmName) {
+        return classes.containsKey(vmName);
+    }
+
+    /**
+     * Returns a new row covering no column.
+     *
+     * @return the packed row
+     */
+    long[] newRow() {
+        return new long[CoverageIndex.wordsFor(columns.length)];
+    }
+
+    /**
+     * Adds the columns covered by the probes of the given execution data to the given row.
+     * Execution data of other classes is ignored.
+     *
+     * @param row  the packed row
+     * @param data the execution data, recorded for the bytecode of its class
+     * @throws IOException if the class could not be analysed
+     */
+    void add(final long[] row, final ExecutionData data) throws IOException {
+        final ClassEntry entry = classes.get(data.getName());
+        if (entry == null || !data.hasHits()) {
+            return;
+        }
+
+        // The columns of the class start at an arbitrary bit of the row.
+        final long[] covered = entry.probeMap(data).row(data.getProbes());
+        final int base = entry.offset >>> 6;
+        final int shift = entry.offset & 63;
+        for (int w = 0; w < covered.length; w++) {
+            row[base + w] |= covered[w] << shift;
+            if (shift != 0 && base + w + 1 < row.length) {
+                row[base + w + 1] |= covered[w] >>> (64 - shift);
+            }
+        }
+    }
+
+    /**
+     * The bytecode of a class, the position of its first column, and its probe map.
+     */
+    private final class ClassEntry {
+
+        private final byte[] bytecode;
+        private final int offset;
+        private ProbeMap probeMap;
+
+        ClassEntry(final byte[] bytecode, final int offset) {
+            this.bytecode = bytecode;
+            this.offset = offset;
+        }
+
+        synchronized ProbeMap probeMap(final ExecutionData data) throws IOException {
+            if (probeMap == null) {
+                probeMap = ProbeMap.of(bytecode, data, granularity);
+            }
+            return probeMap;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.utils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An on-disk cache of coverage matrices, addressed by the SHA-256 hash of the bytecode of the CUT,
+ * the names of the CUT and the test suite, and the settings of the {@link CoverageTracker} that
+ * affect the result.
+ * <p>
+ * Every matrix is stored in a file of its own, named after the hash, which holds the names and
+ * {@linkplain TestFingerprints fingerprints} of the test cases, the line numbers of the columns,
+ * the rows packed into 64 columns per word, and the {@linkplain TestCost costs} of the test cases
+ * if they were measured. A row remains valid for as long as the fingerprint of
+ * its test case does, so a changed test suite only requires measuring changed test cases. Files are
+ * written to a temporary file first and then moved into place, so concurrent runs never read a
+ * partial file. The cache is an optimisation only: files that cannot be read or written are
+ * ignored, and the matrix is measured instead.
+ */
+final class CoverageCache {
+
+    /**
+     * The first bytes of every cache file, "COVC".
+     */
+    private static final int MAGIC = 0x434F5643;
+
+    /**
+     * The version of the file format, which is part of the key.
+     */
+    private static final int VERSION = 4;
+
+    private final Path directory;
+
+    /**
+     * A packed coverage matrix together with its test cases and line numbers.
+     *
+     * @param testCases         the names of the test cases, one per row
+     * @param fingerprints      the fingerprints of the test cases, one per row
+     * @param sourceLineNumbers the line numbers of the CUT, one per column
+     * @param rows              the coverage matrix, every row packed into 64 columns per word
+     * @param costs             the costs of the test cases, one per row, or {@code null} if they
+     *                          were not measured
+     */
+    record Entry(String[] testCases, String[] fingerprints, int[] sourceLineNumbers, long[][] rows,
+            TestCost[] costs) {
+    }
+
+    /**
+     * Creates a cache that stores its files in the given directory, which is created when the
+     * first matrix is stored.
+     *
+     * @param directory the cache directory
+     */
+    CoverageCache(final Path directory) {
+        this.directory = requireNonNull(directory);
+    }
+
+    /**
+     * Computes the key of the coverage matrices of a CUT. The bytecode of the test suite is not
+     * part of the key, but the fingerprints of the test cases are stored with the matrix instead.
+     *
+     * @param classUnderTestName name of the class under test
+     * @param classUnderTest     bytecode of the class under test
+     * @param testSuiteName      name of the test suite
+     * @param settings           the settings of the tracker that affect the matrix
+     * @return the hexadecimal SHA-256 hash of all arguments
+     */
+    static String key(final String classUnderTestName,
+            final byte[] classUnderTest,
+            final String testSuiteName,
+            final String settings) {
+        final MessageDigest digest = TestFingerprints.sha256();
+        TestFingerprints.update(digest, Integer.toString(VERSION));
+        TestFingerprints.update(digest, classUnderTestName);
+        TestFingerprints.update(digest, classUnderTest);
+        TestFingerprints.update(digest, testSuiteName);
+        TestFingerprints.update(digest, settings);
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Returns the matrix stored under the given key, or {@code null} if there is none or its file
+     * cannot be read.
+     *
+     * @param key the key of the matrix
+     * @return the cached matrix, or {@code null}
+     */
+    Entry load(final String key) {
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file(key))))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return null;
+            }
+
+            final int tests = in.readInt();
+            if (tests < 0) {
+                return null;
+            }
+            final String[] testCases = new String[tests];
+            final String[] fingerprints = new String[tests];
+            for (int i = 0; i < testCases.length; i++) {
+                testCases[i] = in.readUTF();
+                fingerprints[i] = in.readUTF();
+            }
+
+            final int lines = in.readInt();
+            if (lines < 0) {
+                return null;
+            }
+            final int[] sourceLineNumbers = new int[lines];
+            for (int j = 0; j < sourceLineNumbers.length; j++) {
+                sourceLineNumbers[j] = in.readInt();
+            }
+
+            final long[][] rows = new long[testCases.length][CoverageIndex.wordsFor(lines)];
+            for (long[] row : rows) {
+                for (int w = 0; w < row.length; w++) {
+                    row[w] = in.readLong();
+                }
+            }
+            TestCost[] costs = null;
+            if (in.readBoolean()) {
+                costs = new TestCost[testCases.length];
+                for (int i = 0; i < costs.length; i++) {
+                    costs[i] = new TestCost(in.readLong(), in.readLong(), in.readLong());
+                }
+            }
+            return in.read() == -1 ? new Entry(testCases, fingerprints, sourceLineNumbers, rows, costs) : null;
+        } catch (IOException e) {
+            return null; // Missing, truncated or otherwise unreadable, so measure again.
+        }
+    }
+
+    /**
+     * Stores the given matrix under the given key, replacing any matrix stored before. The matrix
+     * must have one row per test case and one column per line number, packed into 64 columns per
+     * word.
+     *
+     * @param key   the key of the matrix
+     * @param entry the matrix to store
+     */
+    void store(final String key, final Entry entry) {
+        Path temporary = null;
+        try {
+            Files.createDirectories(directory);
+            temporary = Files.createTempFile(directory, key, ".tmp");
+            try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+
+                out.writeInt(entry.testCases().length);
+                for (int i = 0; i < entry.testCases().length; i++) {
+                    out.writeUTF(entry.testCases()[i]);
+                    out.writeUTF(entry.fingerprints()[i]);
+                }
+
+                out.writeInt(entry.sourceLineNumbers().length);
+                for (int line : entry.sourceLineNumbers()) {
+                    out.writeInt(line);
+                }
+
+                for (long[] row : entry.rows()) {
+                    for (long word : row) {
+                        out.writeLong(word);
+                    }
+                }
+
+                out.writeBoolean(entry.costs() != null);
+                if (entry.costs() != null) {
+                    for (TestCost cost : entry.costs()) {
+                        out.writeLong(cost.wallNanos());
+                        out.writeLong(cost.cpuNanos());
+                        out.writeLong(cost.allocatedBytes());
+                    }
+                }
+            }
+
+            try {
+                Files.move(temporary, file(key), StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, file(key), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            // The next run measures the matrix again.
+            if (temporary != null) {
+                try {
+                    Files.deleteIfExists(temporary);
+                } catch (IOException ignored) {
+                    // Nothing left to do.
+                }
+            }
+        }
+    }
+
+    private Path file(final String key) {
+        return directory.resolve(key + ".cov");
+    }
+}
@@ -0,0 +1,407 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.utils;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A read-only, compact view of a coverage matrix tailored to operators that reason about
+ * individual tests and lines instead of whole test suites.
+ * <p>
+ * Every row of the matrix is stored as a packed bitset of 64-bit words, which allows constant-time
+ * lookups of single entries with a fraction of the memory of a {@code boolean[][]}. In addition,
+ * the lines covered by every test are stored in compressed sparse row (CSR) format: the lines of
+ * test {@code t} are {@code testLine(k)} for {@code testLineOffset(t) <= k < testLineOffset(t + 1)},
+ * in ascending order. This makes it cheap to visit exactly the lines of one test. The inverted
+ * index, the tests covering every line, is stored in the same format (see
+ * {@link #lineTestOffset(int)}).
+ */
+public final class CoverageIndex {
+
+    private final int numberTests;
+    private final int numberLines;
+
+    /**
+     * Packed coverage rows: bit {@code l % 64} of {@code rows[t][l / 64]} is set iff test
+     * {@code t} covers line {@code l}.
+     */
+    private final long[][] rows;
+
+    /**
+     * CSR offsets into {@code testLines}, one per test plus a trailing sentinel.
+     */
+    private final int[] testLineOffsets;
+
+    /**
+     * The covered lines of all tests, concatenated in test order.
+     */
+    private final int[] testLines;
+
+    /**
+     * CSR offsets into {@code lineTests}, one per line plus a trailing sentinel.
+     */
+    private final int[] lineTestOffsets;
+
+    /**
+     * The covering tests of all lines, concatenated in line order.
+     */
+    private final int[] lineTests;
+
+    /**
+     * Packed set of subsumed tests, computed on first use.
+     */
+    private volatile long[] subsumed;
+
+    /**
+     * A non-subsumed subsumer of every test, computed on first use.
+     */
+    private volatile int[] subsumers;
+
+    /**
+     * Builds the index for the given rectangular coverage matrix, where {@code matrix[t][l]}
+     * tells whether test {@code t} covers line {@code l}.
+     *
+     * @param matrix the coverage matrix, not {@code null} and not empty
+     * @throws NullPointerException     if the matrix is {@code null}
+     * @throws IllegalArgumentException if the matrix is empty or not rectangular
+     */
+    public CoverageIndex(final boolean[][] matrix) {
+        this(pack(matrix), matrix[0].length);
+    }
+
+    /**
+     * Builds the index for the given packed coverage matrix, where bit {@code l % 64} of
+     * {@code rows[t][l / 64]} tells whether test {@code t} covers line {@code l}. Wide matrices,
+     * such as those of branches or instructions, can thus be indexed without unpacking them. The
+     * rows are copied.
+     *
+     * @param rows        the packed coverage matrix, not {@code null} and not empty
+     * @param numberLines the number of lines (columns) of the matrix
+     * @throws NullPointerException     if the matrix is {@code null}
+     * @throws IllegalArgumentException if the matrix is empty, if a row does not have
+     *                                  {@code wordsFor(numberLines)} words, or if a bit beyond the
+     *                                  last line is set
+     */
+    public CoverageIndex(final long[][] rows, final int numberLines) {
+        Objects.requireNonNull(rows);
+        if (rows.length == 0) {
+            throw new IllegalArgumentException("Expected a non-empty coverage matrix");
+        }
+
+        this.numberTests = rows.length;
+        this.numberLines = numberLines;
+        this.rows = new long[numberTests][];
+        this.testLineOffsets = new int[numberTests + 1];
+
+        final int words = wordsFor(numberLines);
+        final long last = (numberLines & 63) == 0 ? -1L : (1L << numberLines) - 1;
+        int entries = 0;
+        for (int t = 0; t < numberTests; t++) {
+            if (rows[t].length != words) {
+                throw new IllegalArgumentException("Coverage matrix is not rectangular");
+            }
+            if (words > 0 && (rows[t][words - 1] & ~last) != 0) {
+                throw new IllegalArgumentException("Coverage of test " + t + " exceeds " + numberLines + " lines");
+            }
+            this.rows[t] = rows[t].clone();
+            for (long word : rows[t]) {
+                entries += Long.bitCount(word);
+            }
+            testLineOffsets[t + 1] = entries;
+        }
+
+        this.testLines = new int[entries];
+        for (int t = 0, k = 0; t < numberTests; t++) {
+            for (int w = 0; w < words; w++) {
+                for (long word = rows[t][w]; word != 0; word &= word - 1) {
+                    testLines[k++] = (w << 6) + Long.numberOfTrailingZeros(word);
+                }
+            }
+        }
+
+        // Transpose the CSR: count the tests per line, then fill in test order, so the tests of
+        // every line end up in ascending order.
+        this.lineTestOffsets = new int[numberLines + 1];
+        for (int line : testLines) {
+            lineTestOffsets[line + 1]++;
+        }
+        for (int l = 0; l < numberLines; l++) {
+            lineTestOffsets[l + 1] += lineTestOffsets[l];
+        }
+        this.lineTests = new int[entries];
+        final int[] next = Arrays.copyOf(lineTestOffsets, numberLines);
+        for (int t = 0; t < numberTests; t++) {
+            for (int k = testLineOffsets[t]; k < testLineOffsets[t + 1]; k++) {
+                lineTests[next[testLines[k]]++] = t;
+            }
+        }
+    }
+
+    /**
+     * Packs the rows of the given rectangular coverage matrix into 64-bit words.
+     *
+     * @param matrix the coverage matrix
+     * @return the packed rows
+     * @throws NullPointerException     if the matrix is {@code null}
+     * @throws IllegalArgumentException if the matrix is empty or not rectangular
+     */
+    private static long[][] pack(final boolean[][] matrix) {
+        Objects.requireNonNull(matrix);
+        if (matrix.length == 0) {
+            throw new IllegalArgumentException("Expected a non-empty coverage matrix");
+        }
+
+        final int numberLines = matrix[0].length;
+        final long[][] rows = new long[matrix.length][wordsFor(numberLines)];
+        for (int t = 0; t < matrix.length; t++) {
+            if (matrix[t].length != numberLines) {
+                throw new IllegalArgumentException("Coverage matrix is not rectangular");
+            }
+            for (int l = 0; l < numberLines; l++) {
+                if (matrix[t][l]) {
+                    rows[t][l >>> 6] |= 1L << l;
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Unpacks the given packed coverage matrix, the inverse of packing it into 64-bit words.
+     *
+     * @param rows        the packed coverage matrix
+     * @param numberLines the number of lines (columns) of the matrix
+     * @return the rectangular coverage matrix
+     */
+    static boolean[][] unpack(final long[][] rows, final int numberLines) {
+        final boolean[][] matrix = new boolean[rows.length][numberLines];
+        for (int t = 0; t < rows.length; t++) {
+            for (int l = 0; l < numberLines; l++) {
+                matrix[t][l] = (rows[t][l >>> 6] & (1L << l)) != 0;
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Returns the number of 64-bit words needed to store the given number of bits.
+     *
+     * @param bits the number of bits
+     * @return the number of words
+     */
+    public static int wordsFor(final int bits) {
+        return (bits + 63) >>> 6;
+    }
+
+    public int getNumberOfTests() {
+        return numberTests;
+    }
+
+    public int getNumberOfLines() {
+        return numberLines;
+    }
+
+    /**
+     * Tells whether the given test covers the given line.
+     *
+     * @param test the index of the test
+     * @param line the index of the line
+     * @return {@code true} if the line is covered by the test
+     */
+    public boolean covers(final int test, final int line) {
+        return (rows[test][line >>> 6] & (1L << line)) != 0;
+    }
+
+    /**
+     * Returns the packed coverage row of the given test. The returned array must not be modified.
+     *
+     * @param test the index of the test
+     * @return the packed row
+     */
+    public long[] row(final int test) {
+        return rows[test];
+    }
+
+    /**
+     * Returns the number of lines covered by the given test.
+     *
+     * @param test the index of the test
+     * @return the number of covered lines
+     */
+    public int lineCount(final int test) {
+        return testLineOffsets[test + 1] - testLineOffsets[test];
+    }
+
+    /**
+     * Returns the CSR offset of the first line covered by the given test. The lines of the test
+     * end at {@code testLineOffset(test + 1)}.
+     *
+     * @param test the index of the test, or the number of tests for the end sentinel
+     * @return the offset
+     */
+    public int testLineOffset(final int test) {
+        return testLineOffsets[test];
+    }
+
+    /**
+     * Returns the line stored at the given CSR offset.
+     *
+     * @param offset the offset, see {@link #testLineOffset(int)}
+     * @return the line index
+     */
+    public int testLine(final int offset) {
+        return testLines[offset];
+    }
+
+    /**
+     * Returns the number of tests covering the given line.
+     *
+     * @param line the index of the line
+     * @return the number of covering tests
+     */
+    public int testCount(final int line) {
+        return lineTestOffsets[line + 1] - lineTestOffsets[line];
+    }
+
+    /**
+     * Returns the CSR offset of the first test covering the given line. The tests of the line end
+     * at {@code lineTestOffset(line + 1)}.
+     *
+     * @param line the index of the line, or the number of lines for the end sentinel
+     * @return the offset
+     */
+    public int lineTestOffset(final int line) {
+        return lineTestOffsets[line];
+    }
+
+    /**
+     * Returns the test stored at the given CSR offset.
+     *
+     * @param offset the offset, see {@link #lineTestOffset(int)}
+     * @return the test index
+     */
+    public int lineTest(final int offset) {
+        return lineTests[offset];
+    }
+
+    /**
+     * Computes the greedy order of the tests: starting from the empty suite, repeatedly picks the
+     * test that covers the most lines not covered yet (the lowest index on ties). Stops as soon as
+     * no remaining test adds coverage, so every prefix of the returned order covers strictly more
+     * lines than the previous one and the whole order reaches the coverage of the full suite.
+     *
+     * @return the indices of the tests in greedy order
+     */
+    public int[] greedyOrder() {
+        final int words = wordsFor(numberLines);
+        final long[] covered = new long[words];
+        final boolean[] used = new boolean[numberTests];
+        final int[] order = new int[numberTests];
+        int n = 0;
+
+        while (true) {
+            int best = -1;
+            int bestGain = 0;
+            for (int t = 0; t < numberTests; t++) {
+                if (used[t]) continue;
+                int gain = 0;
+                for (int w = 0; w < words; w++) {
+                    gain += Long.bitCount(rows[t][w] & ~covered[w]);
+                }
+                if (gain > bestGain) {
+                    bestGain = gain;
+                    best = t;
+                }
+            }
+
+            if (best < 0) break;
+
+            used[best] = true;
+            order[n++] = best;
+            for (int w = 0; w < words; w++) {
+                covered[w] |= rows[best][w];
+            }
+        }
+
+        return Arrays.copyOf(order, n);
+    }
+
+    /**
+     * Returns the packed set of subsumed tests: bit {@code t % 64} of word {@code t / 64} is set
+     * iff the lines covered by test {@code t} are a subset of the lines covered by some other test.
+     * Of several tests covering exactly the same lines, all but the one with the lowest index are
+     * subsumed, so every subsumed test has a non-subsumed subsumer. The set is computed on first
+     * use in {@code O(T^2)} subset checks, most of which fail at the first word. The returned array
+     * must not be modified.
+     *
+     * @return the subsumed tests
+     */
+    public long[] subsumedTests() {
+        long[] result = subsumed;
+        if (result == null) {
+            // Benign race: concurrent callers compute the same set.
+            result = computeSubsumedTests();
+            subsumed = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns, for every subsumed test (see {@link #subsumedTests()}), a test that covers all of
+     * its lines and is not subsumed itself, and {@code -1} for every other test. Such a test
+     * exists, as subsumption is transitive and ties are broken by index. The array is computed on
+     * first use and must not be modified.
+     *
+     * @return the subsumer of every test, or {@code -1}
+     */
+    public int[] subsumers() {
+        int[] result = subsumers;
+        if (result == null) {
+            // Benign race: concurrent callers compute the same array.
+            result = computeSubsumers(subsumedTests());
+            subsumers = result;
+        }
+        return result;
+    }
+
+    private int[] computeSubsumers(final long[] subsumed) {
+        final int words = wordsFor(numberLines);
+        final int[] result = new int[numberTests];
+        Arrays.fill(result, -1);
+
+        for (int t = 0; t < numberTests; t++) {
+            if ((subsumed[t >>> 6] & (1L << t)) == 0) continue;
+            for (int u = 0; u < numberTests; u++) {
+                if (u != t && (subsumed[u >>> 6] & (1L << u)) == 0 && isSubset(rows[t], rows[u], words)) {
+                    result[t] = u;
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    private long[] computeSubsumedTests() {
+        final int words = wordsFor(numberLines);
+        final long[] result = new long[wordsFor(numberTests)];
+
+        for (int t = 0; t < numberTests; t++) {
+            for (int u = 0; u < numberTests; u++) {
+                if (u == t || lineCount(u) < lineCount(t)) continue;
+                // Equal rows: only the higher index is subsumed.
+                if (lineCount(u) == lineCount(t) && u > t) continue;
+                if (isSubset(rows[t], rows[u], words)) {
+                    result[t >>> 6] |= 1L << t;
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static boolean isSubset(long[] a, long[] b, int words) {
+        for (int w = 0; w < words; w++) {
+            if ((a[w] & ~b[w]) != 0) return false;
+        }
+        return true;
+    }
+}
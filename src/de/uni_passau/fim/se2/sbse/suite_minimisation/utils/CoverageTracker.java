@@ -15,9 +15,7 @@
 
 package de.uni_passau.fim.se2.sbse.suite_minimisation.utils;
 
-import org.jacoco.core.analysis.Analyzer;
-import org.jacoco.core.analysis.CoverageBuilder;
-import org.jacoco.core.analysis.ICounter;
+import org.jacoco.core.data.ExecutionData;
 import org.jacoco.core.data.ExecutionDataStore;
 import org.jacoco.core.data.SessionInfoStore;
 import org.jacoco.core.instr.Instrumenter;
@@ -27,13 +25,23 @@ import org.jacoco.core.runtime.RuntimeData;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 
 /**
  * Measures code coverage of a class under test by a given test suite.
@@ -51,15 +59,21 @@ public final class CoverageTracker {
     private static final String DEFAULT_TEST_SUFFIX = "Test";
 
     /**
-     * The class under test (often abbreviated as "CUT").
+     * Default time after which a test case running in a child JVM is aborted.
      */
-    private final Class<?> classUnderTest;
+    public static final Duration DEFAULT_TEST_TIMEOUT = Duration.ofSeconds(10);
 
     /**
-     * Name of the class under test.
+     * Name of the class under test (often abbreviated as "CUT").
      */
     private final String classUnderTestName;
 
+    /**
+     * The original bytecode of the classes under test by name, in the order of their columns, or
+     * {@code null} if the CUT alone is measured, whose bytecode is then read from the class path.
+     */
+    private final Map<String, byte[]> classesUnderTest;
+
     /**
      * The test suite. Consists of test cases.
      */
@@ -76,22 +90,83 @@ public final class CoverageTracker {
     private final String[] testCases;
 
     /**
-     * The coverage matrix. Lazily instantiated and cached. Every line corresponds to a test case.
-     * Every row corresponds to a line in the source code of the CUT. An entry in the matrix is
-     * {@code true} if the corresponding test covers the corresponding line.
+     * The packed coverage matrix. Lazily instantiated and cached. Every row corresponds to a test
+     * case, and every bit of a row to a column of the matrix, 64 columns per word. A bit is set if
+     * the corresponding test covers the corresponding line, branch or instruction.
      */
-    private final boolean[][] coverageMatrix;
+    private final long[][] coverageRows;
 
     /**
-     * The line numbers in the source code. Lazily instantiated and cached.
+     * The unpacked coverage matrix. Lazily instantiated from the packed one and cached.
+     */
+    private boolean[][] coverageMatrix;
+
+    /**
+     * The line numbers in the source code, one per column. Lazily instantiated and cached.
      */
     private int[] sourceLineNumbers;
 
+    /**
+     * What the columns of the coverage matrix are.
+     */
+    private GranularityType granularity = GranularityType.LINE;
+
+    /**
+     * The columns of the classes under test and the columns covered by their probes. Lazily
+     * instantiated and cached.
+     */
+    private ClassColumns classColumns;
+
     /**
      * Whether coverage has already been measured. Used for caching.
      */
     private boolean cached;
 
+    /**
+     * Whether every test case runs on freshly loaded copies of the CUT and the test suite.
+     */
+    private final boolean isolateTests;
+
+    /**
+     * The number of threads measuring the coverage of test cases concurrently.
+     */
+    private int workers = 1;
+
+    /**
+     * Whether test cases run in child JVMs instead of the current one.
+     */
+    private boolean forked;
+
+    /**
+     * The time after which a test case running in a child JVM is aborted.
+     */
+    private Duration testTimeout = DEFAULT_TEST_TIMEOUT;
+
+    /**
+     * The test cases that crashed or timed out in a child JVM.
+     */
+    private final List<String> failedTestCases = Collections.synchronizedList(new ArrayList<>());
+
+    /**
+     * The cache of coverage matrices, or {@code null} if matrices are always measured.
+     */
+    private CoverageCache cache;
+
+    /**
+     * The number of unmeasured runs of every test case before its cost is measured.
+     */
+    private int profileWarmups;
+
+    /**
+     * The number of measured runs of every test case, or 0 if costs are not measured.
+     */
+    private int profileRuns;
+
+    /**
+     * The cost of every test case, in the order of the test cases. Measured with the coverage.
+     */
+    private final TestCost[] testCosts;
+
     /**
      * Creates a new instance for tracking the coverage of the given class under test by the
      * specified test suite.
@@ -100,14 +175,56 @@ public final class CoverageTracker {
      * @param testSuite      corresponding test suite
      */
     public CoverageTracker(final Class<?> classUnderTest, final Class<?> testSuite) {
-        this.classUnderTest = Objects.requireNonNull(classUnderTest);
+        this(classUnderTest, testSuite, false);
+    }
+
+    /**
+     * Creates a new instance for tracking the coverage of the given class under test by the
+     * specified test suite.
+     *
+     * @param classUnderTest class whose coverage to measure
+     * @param testSuite      corresponding test suite
+     * @param isolateTests   whether every test case runs on freshly loaded copies of the CUT and
+     *                       the test suite, which is slower but keeps static state from leaking
+     *                       from one test case into the next
+     */
+    public CoverageTracker(final Class<?> classUnderTest, final Class<?> testSuite,
+            final boolean isolateTests) {
         this.classUnderTestName = classUnderTest.getName();
+        this.classesUnderTest = null;
+        this.testSuite = Objects.requireNonNull(testSuite);
+        this.testSuiteName = testSuite.getName();
+        this.testCases = getTestCases(testSuite);
+        this.coverageRows = new long[testCases.length][];
+        this.testCosts = new TestCost[testCases.length];
+        this.sourceLineNumbers = null;
+        this.cached = false;
+        this.isolateTests = isolateTests;
+    }
+
+    /**
+     * Creates a new instance for tracking the coverage of several classes under test by the
+     * specified test suite, as one matrix whose columns are those of the classes in turn. All
+     * classes are instrumented for the same runtime and loaded by the same class loader as the test
+     * suite. Test cases cannot run in child JVMs, and their coverage is not cached.
+     *
+     * @param classesUnderTest the original bytecode of the classes under test by name, in the
+     *                         order of their columns
+     * @param testSuite        the test suite
+     * @param isolateTests     whether every test case runs on freshly loaded copies of all classes
+     */
+    CoverageTracker(final Map<String, byte[]> classesUnderTest, final Class<?> testSuite,
+            final boolean isolateTests) {
+        this.classUnderTestName = String.join(", ", classesUnderTest.keySet());
+        this.classesUnderTest = classesUnderTest;
         this.testSuite = Objects.requireNonNull(testSuite);
         this.testSuiteName = testSuite.getName();
         this.testCases = getTestCases(testSuite);
-        this.coverageMatrix = new boolean[testCases.length][];
+        this.coverageRows = new long[testCases.length][];
+        this.testCosts = new TestCost[testCases.length];
         this.sourceLineNumbers = null;
         this.cached = false;
+        this.isolateTests = isolateTests;
     }
 
     /**
@@ -118,7 +235,21 @@ public final class CoverageTracker {
      * @throws ClassNotFoundException if a class could not be found
      */
     public CoverageTracker(final String classUnderTestName) throws ClassNotFoundException {
-        this(load(classUnderTestName), load(getTestSuiteName(classUnderTestName)));
+        this(classUnderTestName, false);
+    }
+
+    /**
+     * Creates a new instance for tracking the coverage of the given class under test, attempting
+     * to determine the corresponding test suite automatically.
+     *
+     * @param classUnderTestName fully-qualified name of the class whose coverage to measure
+     * @param isolateTests       whether every test case runs on freshly loaded copies of the CUT
+     *                           and the test suite
+     * @throws ClassNotFoundException if a class could not be found
+     */
+    public CoverageTracker(final String classUnderTestName, final boolean isolateTests)
+            throws ClassNotFoundException {
+        this(load(classUnderTestName), load(getTestSuiteName(classUnderTestName)), isolateTests);
     }
 
     /**
@@ -148,7 +279,7 @@ public final class CoverageTracker {
      * @param testSuite a test suite
      * @return test cases
      */
-    private static String[] getTestCases(final Class<?> testSuite) {
+    static String[] getTestCases(final Class<?> testSuite) {
         final Method[] declaredMethods = testSuite.getDeclaredMethods();
         return Arrays.stream(declaredMethods)
                 .filter(CoverageTracker::isTestCase)
@@ -168,6 +299,149 @@ public final class CoverageTracker {
         return testCases;
     }
 
+    /**
+     * Sets the number of threads that measure the coverage of test cases concurrently. Every
+     * thread instruments and loads its own copies of the CUT and the test suite, so the matrix is
+     * the same as with a single thread, unless test cases depend on static state left behind by
+     * other test cases; isolated tests never do.
+     *
+     * @param workers the number of threads, at least 1
+     * @throws IllegalArgumentException if {@code workers} is not positive
+     * @throws IllegalStateException    if coverage has already been measured
+     */
+    public void setWorkers(final int workers) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("Number of workers must be positive: " + workers);
+        }
+        if (cached) {
+            throw new IllegalStateException("Coverage has already been measured");
+        }
+        this.workers = workers;
+    }
+
+    /**
+     * Sets whether test cases run in a pool of child JVMs, one per worker, instead of the current
+     * JVM. A child JVM runs test cases until one of them crashes it, calls {@code System.exit} or
+     * exceeds the timeout; such a test case is recorded as failed and as covering nothing, and the
+     * child JVM is replaced by a new one for the remaining test cases.
+     *
+     * @param forked whether test cases run in child JVMs
+     * @throws IllegalStateException if coverage has already been measured
+     */
+    public void setForked(final boolean forked) {
+        if (cached) {
+            throw new IllegalStateException("Coverage has already been measured");
+        }
+        this.forked = forked;
+    }
+
+    /**
+     * Sets the time after which a test case running in a child JVM is aborted. Has no effect
+     * unless test cases run in child JVMs.
+     *
+     * @param testTimeout the timeout, positive
+     * @throws IllegalArgumentException if the timeout is not positive
+     * @throws IllegalStateException    if coverage has already been measured
+     */
+    public void setTestTimeout(final Duration testTimeout) {
+        if (testTimeout.isNegative() || testTimeout.isZero()) {
+            throw new IllegalArgumentException("Timeout must be positive: " + testTimeout);
+        }
+        if (cached) {
+            throw new IllegalStateException("Coverage has already been measured");
+        }
+        this.testTimeout = testTimeout;
+    }
+
+    /**
+     * Sets the columns of the coverage matrix: the non-empty lines of the CUT (the default), its
+     * branches, or its instructions. Branch and instruction matrices are much wider, but a
+     * minimised suite that keeps their coverage also keeps the branch or instruction coverage of
+     * the whole suite, whereas a partially covered line counts as covered. On the few lines whose
+     * branches or instructions the probes cannot tell apart, such as finally blocks sharing a line
+     * with their try block, the columns stand for the distinct sets of them single probes cover;
+     * see {@link ProbeMap}.
+     *
+     * @param granularity the granularity of the columns
+     * @throws IllegalStateException if coverage has already been measured
+     */
+    public void setGranularity(final GranularityType granularity) {
+        if (cached) {
+            throw new IllegalStateException("Coverage has already been measured");
+        }
+        this.granularity = Objects.requireNonNull(granularity);
+    }
+
+    /**
+     * Sets whether and how the cost of every test case is measured while measuring its coverage.
+     * After the run that measures its coverage, every test case runs {@code warmups} more times,
+     * and then {@code runs} times measuring its wall time, CPU time and allocated bytes, of which
+     * the medians are its {@linkplain #getTestCosts() cost}. Isolated test cases use the same fresh
+     * copies of the CUT and the test suite for all these runs. With test cases in child JVMs, the
+     * timeout covers all runs of a test case.
+     *
+     * @param warmups the number of unmeasured runs, at least 0
+     * @param runs    the number of measured runs, or 0 to not measure costs
+     * @throws IllegalArgumentException if a number is negative
+     * @throws IllegalStateException    if coverage has already been measured
+     */
+    public void setProfiling(final int warmups, final int runs) {
+        if (warmups < 0 || runs < 0) {
+            throw new IllegalArgumentException("Number of runs must not be negative: " + warmups + ", " + runs);
+        }
+        if (cached) {
+            throw new IllegalStateException("Coverage has already been measured");
+        }
+        this.profileWarmups = warmups;
+        this.profileRuns = runs;
+    }
+
+    /**
+     * Sets the directory in which coverage matrices are cached across runs. A matrix is cached
+     * under the SHA-256 hash of the bytecode of the CUT and of the settings that affect it, so it
+     * is measured again as soon as the CUT changes. If only the test suite changes, only test
+     * cases that are new or whose fingerprints changed are measured again.
+     *
+     * @param directory the cache directory, or {@code null} to always measure coverage
+     * @throws IllegalStateException if coverage has already been measured
+     */
+    public void setCacheDirectory(final Path directory) {
+        if (cached) {
+            throw new IllegalStateException("Coverage has already been measured");
+        }
+        this.cache = directory == null ? null : new CoverageCache(directory);
+    }
+
+    /**
+     * Returns the test cases whose coverage could not be measured because they crashed their child
+     * JVM or timed out, in no particular order. Their rows in the coverage matrix are all
+     * {@code false}.
+     *
+     * @return the failed test cases
+     */
+    public String[] getFailedTestCases() {
+        return failedTestCases.toArray(String[]::new);
+    }
+
+    /**
+     * Returns the cost of every test case, in the order of {@link #getTestCases()}, measuring it
+     * together with the coverage matrix if necessary. Test cases that crashed or timed out in a
+     * child JVM have no cost, as they did not finish; their entries are {@code null}. Costs are
+     * cached together with the coverage matrix, so a cached cost was measured in an earlier run.
+     *
+     * @return the cost vector of the test suite
+     * @throws IllegalStateException if costs are not measured, see
+     *                               {@link #setProfiling(int, int)}
+     * @throws Exception             if an error occurred
+     */
+    public TestCost[] getTestCosts() throws Exception {
+        if (profileRuns == 0) {
+            throw new IllegalStateException("Costs of test cases are not measured");
+        }
+        getPackedCoverageMatrix();
+        return testCosts.clone();
+    }
+
     /**
      * Determines whether the given method is a unit test.
      *
@@ -182,19 +456,62 @@ public final class CoverageTracker {
      * Returns line coverage of the CUT as coverage matrix. Hereby, every row in the matrix
      * represents a test case and every column represents a line in the CUT. An entry {@code
      * matrix[i][j] == true} indicates that test case {@code i} covers line {@code j}. The matrix is
-     * rectangular.
+     * rectangular. At a finer {@linkplain #setGranularity(GranularityType) granularity}, every
+     * column represents a branch or an instruction instead.
      *
      * @return coverage matrix as described above
      * @throws Exception if an error occurred
      */
     public boolean[][] getCoverageMatrix() throws Exception {
+        final long[][] rows = getPackedCoverageMatrix();
+        if (coverageMatrix == null) {
+            coverageMatrix = CoverageIndex.unpack(rows, sourceLineNumbers.length);
+        }
+
+        return coverageMatrix;
+    }
+
+    /**
+     * Returns the coverage matrix of {@link #getCoverageMatrix()} with every row packed into
+     * 64-bit words: bit {@code j % 64} of {@code rows[i][j / 64]} is set iff test case {@code i}
+     * covers column {@code j}. The rows are measured in this form, so wide branch and instruction
+     * matrices are never held unpacked unless requested. The returned rows must not be modified.
+     *
+     * @return the packed coverage matrix
+     * @throws Exception if an error occurred
+     */
+    public long[][] getPackedCoverageMatrix() throws Exception {
         if (!cached) {
             measureCoverage();
             assert isRectangularMatrix() : "coverage matrix is not rectangular";
             cached = true;
         }
 
-        return coverageMatrix;
+        return coverageRows;
+    }
+
+    /**
+     * Returns the source line of every column of the coverage matrix. At line granularity, these
+     * are the non-empty lines of the CUT; otherwise, a line appears once per branch or instruction
+     * on it.
+     *
+     * @return the line numbers, one per column
+     * @throws Exception if an error occurred
+     */
+    public int[] getSourceLineNumbers() throws Exception {
+        getPackedCoverageMatrix();
+        return sourceLineNumbers.clone();
+    }
+
+    /**
+     * Returns the (class, line) pair of every column of the coverage matrix.
+     *
+     * @return the columns
+     * @throws Exception if an error occurred
+     */
+    ModuleCoverageTracker.Column[] getColumns() throws Exception {
+        getPackedCoverageMatrix();
+        return classColumns.columns();
     }
 
     /**
@@ -204,243 +521,404 @@ public final class CoverageTracker {
      */
     private boolean isRectangularMatrix() {
         boolean rectangular = true;
-        for (int i = 0; rectangular && i < coverageMatrix.length - 1; ) {
-            // All rows in the matrix must have the same length.
-            rectangular = coverageMatrix[i++].length == coverageMatrix[i].length;
+        for (int i = 0; rectangular && i < coverageRows.length; i++) {
+            // All rows in the matrix must have one word per 64 columns.
+            rectangular = coverageRows[i].length == CoverageIndex.wordsFor(sourceLineNumbers.length);
         }
         return rectangular;
     }
 
     /**
-     * Measures the line coverage of the CUT achieved by all unit tests in the test suite.
+     * Measures the coverage of the CUT achieved by all unit tests in the test suite.
+     * <p>
+     * Every {@linkplain Worker worker} instruments and loads its own copies of the CUT and the
+     * test suite. With more than one worker, the workers run on a fixed thread pool and take the
+     * next test case from a shared counter, storing its coverage in the pre-allocated row of the
+     * matrix. If test cases run in child JVMs, every worker drives its own child JVM instead.
+     * <p>
+     * If a cache directory is set, the rows cached for the same CUT and settings are reused for
+     * all test cases whose {@linkplain TestFingerprints fingerprints} did not change, and only the
+     * remaining test cases are measured. The resulting matrix is stored again, without the rows of
+     * failed test cases.
      *
      * @throws Exception if some error occurred
      */
     private void measureCoverage() throws Exception {
-        for (int i = 0; i < testCases.length; i++) {
-            final String testCase = testCases[i];
-            final boolean[] coverage = measureCoverage(testCase);
-            coverageMatrix[i] = coverage;
+        // We keep the original bytecode of the CUT for the analysis, and the one of the test suite
+        // to load it next to the instrumented CUT.
+        final Map<String, byte[]> originalCut = readClassesUnderTest();
+        final byte[] originalSuite = readSuite();
+        classColumns = new ClassColumns(originalCut, granularity);
+        sourceLineNumbers = classColumns.lines();
+        if (cache == null) {
+            measureCoverage(originalCut, originalSuite, IntStream.range(0, testCases.length).toArray());
+            return;
         }
-    }
-
-    /**
-     * Measures the line coverage of the CUT achieved by the specified unit test and returns a
-     * boolean array. An entry in the array is {@code true} if the corresponding line was covered.
-     *
-     * @param testCase for which to measure coverage
-     * @throws Exception if an error occurred
-     */
-    private boolean[] measureCoverage(final String testCase) throws Exception {
-        // For instrumentation and runtime we need an IRuntime instance to collect execution data.
-        final var coverageReporter = new LoggerRuntime();
-
-        // The instrumenter creates a modified version of our class under test that contains
-        // additional probes for execution data recording.
-        final var coverageInstrumenter = new Instrumenter(coverageReporter);
 
-        // We use a special class loader to directly load the instrumented class definitions from
-        // byte[] instances.
-        final var loader = new MemoryClassLoader();
-        instrumentAndLoad(classUnderTest, coverageInstrumenter, loader);
-
-        // Now we're ready to run our instrumented class and need to start the runtime first.
-        final var runtimeData = new RuntimeData();
-        coverageReporter.startup(runtimeData);
-
-        // We execute the test case via Java reflection. The test suite must have benn loaded with
-        // the same class loader as the class under test.
-        execute(testCase, addDefinitionAndLoad(testSuite, loader));
-
-        // At the end of test execution we collect execution data and shutdown the runtime.
-        final var executionData = new ExecutionDataStore();
-        runtimeData.collect(executionData, new SessionInfoStore(), false);
-        coverageReporter.shutdown();
-
-        // Together with the original class definition we can calculate coverage information.
-        final var coverageBuilder = new CoverageBuilder();
-        final var analyzer = new Analyzer(executionData, coverageBuilder);
-        try (final InputStream originalCut = getClassStream(classUnderTestName)) {
-            analyzer.analyzeClass(originalCut, classUnderTestName);
+        // Rows of test cases whose fingerprints did not change are reused, the others measured.
+        final String key = CoverageCache.key(classUnderTestName, originalCut.get(classUnderTestName), testSuiteName,
+                "isolateTests=" + isolateTests + ",forked=" + forked + ",granularity=" + granularity
+                        + ",profiling=" + profileWarmups + "/" + profileRuns);
+        final String[] fingerprints = TestFingerprints.of(originalSuite, testCases);
+        final Map<String, Integer> cachedRows = new HashMap<>();
+        final CoverageCache.Entry entry = cache.load(key);
+        if (entry != null && entry.testCases().length > 0) {
+            for (int row = 0; row < entry.fingerprints().length; row++) {
+                cachedRows.put(entry.fingerprints()[row], row);
+            }
         }
 
-        // (Just for debugging purposes: record the original line numbers of the source file.)
-        if (sourceLineNumbers == null) {
-            sourceLineNumbers = getNonEmptyLines(coverageBuilder);
+        final int[] pending = IntStream.range(0, testCases.length)
+                .filter(i -> !cachedRows.containsKey(fingerprints[i]))
+                .toArray();
+        for (int i = 0; i < testCases.length; i++) {
+            final Integer row = cachedRows.get(fingerprints[i]);
+            if (row != null) {
+                coverageRows[i] = entry.rows()[row];
+                testCosts[i] = entry.costs() != null ? entry.costs()[row] : null;
+            }
+        }
+        if (pending.length == 0) {
+            return;
         }
 
-        // Finally, we build and return the coverage array.
-        return getCoverageArray(coverageBuilder);
+        measureCoverage(originalCut, originalSuite, pending);
+
+        // Crashes and timeouts may not recur, so the rows of failed test cases are not stored.
+        final int[] stored = IntStream.range(0, testCases.length)
+                .filter(i -> !failedTestCases.contains(testCases[i]))
+                .toArray();
+        cache.store(key, new CoverageCache.Entry(
+                Arrays.stream(stored).mapToObj(i -> testCases[i]).toArray(String[]::new),
+                Arrays.stream(stored).mapToObj(i -> fingerprints[i]).toArray(String[]::new),
+                sourceLineNumbers,
+                Arrays.stream(stored).mapToObj(i -> coverageRows[i]).toArray(long[][]::new),
+                profileRuns > 0 ? Arrays.stream(stored).mapToObj(i -> testCosts[i]).toArray(TestCost[]::new) : null));
     }
 
     /**
-     * Executes the test case part of the given test suite.
+     * Measures the coverage of the CUT achieved by the given unit tests, without consulting the
+     * cache.
      *
-     * @param testCase  the test case to execute
-     * @param testSuite the test suite containing the test case
-     * @throws NoSuchMethodException     if no test case with the given name or no default
-     *                                   constructor for the test suite exists
-     * @throws IllegalAccessException    if the test case or constructor of the test suite is
-     *                                   inaccessible
-     * @throws InstantiationException    if the test suite could not be instantiated
-     * @throws InvocationTargetException if the constructor throws an exception
+     * @param originalCut   the original bytecode of the classes under test by name
+     * @param originalSuite the bytecode of the test suite
+     * @param pending       the indices of the test cases to measure
+     * @throws Exception if some error occurred
      */
-    private void execute(final String testCase, final Class<?> testSuite)
-            throws NoSuchMethodException, IllegalAccessException, InstantiationException,
-            InvocationTargetException {
-        execute(testSuite.getDeclaredMethod(testCase), newInstanceOf(testSuite));
+    private void measureCoverage(final Map<String, byte[]> originalCut, final byte[] originalSuite,
+            final int[] pending)
+            throws Exception {
+        final AtomicInteger nextTestCase = new AtomicInteger();
+        WorkerPool.run(workers, pending.length, nextTestCase, () -> {
+            if (forked) {
+                measureForked(pending, nextTestCase);
+            } else {
+                measureCoverage(originalCut, originalSuite, pending, nextTestCase);
+            }
+            return null;
+        });
     }
 
     /**
-     * Returns a new instance of the give class.
+     * Runs pending test cases taken from the shared counter until all have been taken, and stores
+     * their coverage in the corresponding rows of the matrix. Every call has its own runtime, probe
+     * store and class loaders, so concurrent calls do not share any state.
      *
-     * @param clazz the class to instantiate
-     * @return new instance of {@code clazz}
-     * @throws NoSuchMethodException     if no default constructor was found
-     * @throws IllegalAccessException    if the constructor is inaccessible
-     * @throws InvocationTargetException if the constructor throws an exception
-     * @throws InstantiationException    if the class could not be instantiated
+     * @param originalCut   the original bytecode of the classes under test by name
+     * @param originalSuite the bytecode of the test suite
+     * @param pending       the indices of the test cases to measure
+     * @param nextTestCase  the position of the next pending test case to run
+     * @throws Exception if some error occurred
      */
-    private Object newInstanceOf(final Class<?> clazz)
-            throws NoSuchMethodException, IllegalAccessException, InvocationTargetException,
-            InstantiationException {
-        // We just assume there's a default constructor that doesn't require parameters.
-        final Constructor<?> ctor = clazz.getDeclaredConstructor();
-        ctor.setAccessible(true);
-        return ctor.newInstance();
+    private void measureCoverage(final Map<String, byte[]> originalCut,
+            final byte[] originalSuite,
+            final int[] pending,
+            final AtomicInteger nextTestCase) throws Exception {
+        try (Worker worker = new Worker(originalCut, originalSuite)) {
+            for (int k = nextTestCase.getAndIncrement(); k < pending.length; k = nextTestCase.getAndIncrement()) {
+                coverageRows[pending[k]] = worker.measure(pending[k]);
+                if (profileRuns > 0) {
+                    testCosts[pending[k]] = worker.profile(pending[k]);
+                }
+            }
+        }
     }
 
     /**
-     * Executes a test case on the given instance of the test suite.
+     * Like {@link #measureCoverage(Map, byte[], int[], AtomicInteger)}, but runs the test cases
+     * in a child JVM, which is restarted whenever a test case crashes it or exceeds the timeout.
+     * Such test cases are recorded as failed and as covering nothing.
      *
-     * @param testCase  the test case to execute
-     * @param testSuite the instance of the test suite on which to invoke the test case
-     * @throws IllegalAccessException    if the test case is inaccessible
+     * @param pending      the indices of the test cases to measure
+     * @param nextTestCase the position of the next pending test case to run
+     * @throws Exception if the child JVM could not be started, or some error occurred in it
      */
-    private void execute(final Method testCase, final Object testSuite)
-            throws IllegalAccessException {
-        testCase.setAccessible(true); // Make non-public tests accessible.
-        try {
-            testCase.invoke(testSuite);
-        } catch (InvocationTargetException e) {
-            // Swallow exceptions thrown by the class under test.
+    private void measureForked(final int[] pending, final AtomicInteger nextTestCase) throws Exception {
+        try (var worker = new ForkedCoverageWorker(classUnderTestName, testSuiteName, isolateTests,
+                granularity, profileWarmups, profileRuns, testTimeout)) {
+            for (int k = nextTestCase.getAndIncrement(); k < pending.length; k = nextTestCase.getAndIncrement()) {
+                final int i = pending[k];
+                final ForkedCoverageWorker.Result result = worker.measure(i, sourceLineNumbers.length);
+                if (result == null) {
+                    failedTestCases.add(testCases[i]);
+                    coverageRows[i] = new long[CoverageIndex.wordsFor(sourceLineNumbers.length)];
+                } else {
+                    coverageRows[i] = result.row();
+                    testCosts[i] = result.cost();
+                }
+            }
         }
     }
 
     /**
-     * Instruments the given class using the specified instrumenter and loads the instrumented class
-     * using the specified class loader.
+     * Reads the bytecode of the CUT and the test suite, and returns a new worker for measuring the
+     * coverage of single test cases in the current JVM.
      *
-     * @param clazz        to load
-     * @param instrumenter with which to instrument
-     * @param loader       with which to load the instrumented class
-     * @throws IOException            if instrumentation failed
-     * @throws ClassNotFoundException if the class was not found
+     * @return the worker, to be closed after use
+     * @throws Exception if the classes could not be read, instrumented or loaded
      */
-    private void instrumentAndLoad(final Class<?> clazz,
-            final Instrumenter instrumenter,
-            final MemoryClassLoader loader)
-            throws IOException, ClassNotFoundException {
-        final String className = clazz.getName();
-        final byte[] instrumentedBytecode = instrument(className, instrumenter);
-        addDefinitionAndLoad(className, instrumentedBytecode, loader);
+    Worker newWorker() throws Exception {
+        final Map<String, byte[]> originalCut = readClassesUnderTest();
+        classColumns = new ClassColumns(originalCut, granularity);
+        sourceLineNumbers = classColumns.lines();
+        return new Worker(originalCut, readSuite());
     }
 
     /**
-     * Reloads a class using the given class loader.
+     * Measures the coverage of single test cases with its own runtime, probe store and class
+     * loaders.
+     * <p>
+     * The CUT is instrumented only once, and the runtime collects the execution data of all test
+     * cases; its probes are reset before every test case. Unless tests are isolated, the
+     * instrumented CUT and the test suite are loaded and initialised only once as well, and the
+     * coverage of the static initialiser of a class under test is attributed to every test case
+     * that executes code of the class, like with isolated tests. Isolated tests run on fresh
+     * copies of all classes, defined from the cached bytecode, so static state cannot leak from
+     * one test case into the next.
+     */
+    final class Worker implements AutoCloseable {
+
+        private final byte[] originalSuite;
+        private final LoggerRuntime coverageReporter;
+        private final Map<String, byte[]> instrumentedCut;
+        private final RuntimeData runtimeData;
+        private final LoadedSuite shared;
+        private final ExecutionDataStore initialisation;
+
+        private Worker(final Map<String, byte[]> originalCut, final byte[] originalSuite) throws Exception {
+            this.originalSuite = originalSuite;
+
+            // For instrumentation and runtime we need an IRuntime instance to collect execution
+            // data. The instrumenter creates a modified version of our class under test that
+            // contains additional probes for execution data recording.
+            this.coverageReporter = new LoggerRuntime();
+            final var instrumenter = new Instrumenter(coverageReporter);
+            this.instrumentedCut = new LinkedHashMap<>();
+            for (Map.Entry<String, byte[]> entry : originalCut.entrySet()) {
+                instrumentedCut.put(entry.getKey(), instrumenter.instrument(entry.getValue(), entry.getKey()));
+            }
+
+            // Now we're ready to run our instrumented class and need to start the runtime first.
+            this.runtimeData = new RuntimeData();
+            coverageReporter.startup(runtimeData);
+            try {
+                this.shared = isolateTests ? null : new LoadedSuite(instrumentedCut, originalSuite, true);
+                this.initialisation = isolateTests ? null : snapshot(runtimeData);
+            } catch (Exception e) {
+                coverageReporter.shutdown();
+                throw e;
+            }
+        }
+
+        /**
+         * Runs the test case with the given index and returns its packed coverage row.
+         *
+         * @param testCase the index of the test case
+         * @return the packed coverage row
+         * @throws Exception if the test case could not be run or the CUT could not be analysed
+         */
+        long[] measure(final int testCase) throws Exception {
+            runtimeData.reset();
+            final LoadedSuite suite = isolateTests
+                    ? new LoadedSuite(instrumentedCut, originalSuite, false)
+                    : shared;
+            suite.execute(testCase);
+            return row(runtimeData, initialisation);
+        }
+
+        /**
+         * Runs the test case with the given index as many times as set by
+         * {@link #setProfiling(int, int)} and returns its cost. Its coverage is not affected, as
+         * the probes are reset before the next test case is measured.
+         *
+         * @param testCase the index of the test case
+         * @return the cost of the test case
+         * @throws Exception if the test case could not be run
+         */
+        TestCost profile(final int testCase) throws Exception {
+            final LoadedSuite suite = isolateTests
+                    ? new LoadedSuite(instrumentedCut, originalSuite, false)
+                    : shared;
+            return TestCost.measure(() -> suite.execute(testCase), profileWarmups, profileRuns);
+        }
+
+        @Override
+        public void close() {
+            coverageReporter.shutdown();
+        }
+    }
+
+    /**
+     * Collects the execution data of the test case that has just run and returns its packed
+     * coverage row, the union of the columns of all probes of the classes under test it hit. A
+     * test case covers nothing of a class it never reached, not even its static initialiser.
      *
-     * @param clazz the class to reload
-     * @return the reloaded class
-     * @throws ClassNotFoundException if the class was not found
-     * @throws IOException            if an I/O error occurs
+     * @param runtimeData    the execution data recorded since the last reset
+     * @param initialisation the execution data of the static initialisers to add, or {@code null}
+     * @return the packed coverage row
+     * @throws IOException if a class under test could not be analysed
      */
-    private Class<?> addDefinitionAndLoad(final Class<?> clazz, final MemoryClassLoader loader)
-            throws ClassNotFoundException, IOException {
-        final String className = clazz.getName();
-        final InputStream targetClass = getClassStream(className);
-        return addDefinitionAndLoad(className, targetClass.readAllBytes(), loader);
+    private long[] row(final RuntimeData runtimeData, final ExecutionDataStore initialisation)
+            throws IOException {
+        final var executionData = new ExecutionDataStore();
+        runtimeData.collect(executionData, new SessionInfoStore(), false);
+
+        final long[] row = classColumns.newRow();
+        for (ExecutionData data : executionData.getContents()) {
+            if (!data.hasHits()) {
+                continue;
+            }
+            final ExecutionData initialised = initialisation == null ? null : initialisation.get(data.getId());
+            if (initialised != null) {
+                // Merges into the live probes, which are reset before the next test case anyway.
+                data.merge(initialised);
+            }
+            classColumns.add(row, data);
+        }
+        return row;
     }
 
     /**
-     * Defines and loads a class with the given name using the specified bytecode and classloader.
+     * Returns a copy of the execution data recorded so far, which is not affected by later resets.
      *
-     * @param className name of the class to load
-     * @param bytecode  class definition to load
-     * @param loader    with which to load the class definition
-     * @return the loaded class
-     * @throws ClassNotFoundException if the class was not found
+     * @param runtimeData the runtime data to copy
+     * @return the copied execution data
      */
-    private Class<?> addDefinitionAndLoad(final String className,
-            final byte[] bytecode,
-            final MemoryClassLoader loader)
-            throws ClassNotFoundException {
-        loader.addDefinition(className, bytecode);
-        return loader.loadClass(className);
+    private static ExecutionDataStore snapshot(final RuntimeData runtimeData) {
+        final var live = new ExecutionDataStore();
+        runtimeData.collect(live, new SessionInfoStore(), false);
+        final var copy = new ExecutionDataStore();
+        for (ExecutionData data : live.getContents()) {
+            copy.put(new ExecutionData(data.getId(), data.getName(), data.getProbes().clone()));
+        }
+        return copy;
     }
 
     /**
-     * Instruments the class with the given name using the given instrumenter.
+     * Returns the original bytecode of the classes under test, reading the one of the CUT from
+     * the class path if it was not given.
      *
-     * @param className    name of the class to instrument
-     * @param instrumenter with which to instrument
-     * @return instrumented byte code of the class
-     * @throws IOException if instrumentation failed
+     * @return the bytecode of the classes under test by name, in the order of their columns
+     * @throws IOException if the CUT could not be read
      */
-    private byte[] instrument(final String className, final Instrumenter instrumenter)
-            throws IOException {
-        final byte[] instrumentedBytecode;
-        try (final InputStream originalCut = getClassStream(className)) {
-            instrumentedBytecode = instrumenter.instrument(originalCut, className);
+    private Map<String, byte[]> readClassesUnderTest() throws IOException {
+        if (classesUnderTest != null) {
+            return classesUnderTest;
+        }
+        try (final InputStream in = getClassStream(classUnderTestName)) {
+            if (in == null) {
+                throw new IOException("Class file not found: " + classUnderTestName);
+            }
+            return Map.of(classUnderTestName, in.readAllBytes());
         }
-        return instrumentedBytecode;
     }
 
     /**
-     * Gathers line coverage data from the given coverage builder and returns a boolean array where
-     * every entry {@code array[i] == true} indicates that line {@code i} was covered.
+     * Reads the bytecode of the test suite from the class path of its class loader.
      *
-     * @param builder from which to gather information
-     * @return coverage array as described above
+     * @return the class definition
+     * @throws IOException if the test suite could not be read
      */
-    private boolean[] getCoverageArray(final CoverageBuilder builder) {
-        final var classes = builder.getClasses();
-        assert classes.size() == 1 : "There should only be coverage information about the CUT";
-        final var classCoverage = classes.iterator().next();
+    private byte[] readSuite() throws IOException {
+        final String resource = testSuiteName.replace('.', '/') + ".class";
+        try (final InputStream in = testSuite.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IOException("Class file not found: " + testSuiteName);
+            }
+            return in.readAllBytes();
+        }
+    }
 
-        final int firstLine = classCoverage.getFirstLine();
-        final int lastLine = classCoverage.getLastLine();
-        assert firstLine != -1 && lastLine != -1 : "no coverage information is present";
+    /**
+     * The instrumented classes under test and the test suite, loaded by their own class loader,
+     * with method handles of the test cases that are resolved on first use.
+     */
+    private final class LoadedSuite {
 
-        final int lines = classCoverage.getLineCounter().getTotalCount(); // # of non-empty lines
-        assert lines > 0 : "no coverage information is present";
-        final boolean[] coverage = new boolean[lines];
+        private final Class<?> suite;
+        private final MethodHandle constructor;
+        private final MethodHandle[] handles = new MethodHandle[testCases.length];
 
-        // For every non-empty line in the CUT, check if it was covered or not.
-        for (int i = firstLine, j = 0; i <= lastLine && j < lines; i++) {
-            final int status = classCoverage.getLine(i).getStatus();
-            if (status != ICounter.EMPTY) {
-                coverage[j++] = status != ICounter.NOT_COVERED;
+        /**
+         * Defines the instrumented classes under test and the test suite in a new class loader.
+         *
+         * @param instrumentedCut the instrumented bytecode of the classes under test by name
+         * @param originalSuite   the bytecode of the test suite
+         * @param initialise      whether all classes are initialised right away, the classes
+         *                        under test in order
+         * @throws ReflectiveOperationException if the test suite has no accessible default
+         *                                      constructor or a class could not be loaded
+         */
+        LoadedSuite(final Map<String, byte[]> instrumentedCut, final byte[] originalSuite,
+                final boolean initialise) throws ReflectiveOperationException {
+            // We use a special class loader to directly load the instrumented class definitions
+            // from byte[] instances. The test suite must be loaded with the same class loader as
+            // the classes under test.
+            final var loader = new MemoryClassLoader();
+            instrumentedCut.forEach(loader::addDefinition);
+            loader.addDefinition(testSuiteName, originalSuite);
+            for (String name : instrumentedCut.keySet()) {
+                try {
+                    Class.forName(name, initialise, loader);
+                } catch (LinkageError e) {
+                    // Test cases that use the class fail just the same.
+                }
             }
+            this.suite = Class.forName(testSuiteName, initialise, loader);
+
+            // We just assume there's a default constructor that doesn't require parameters.
+            final Constructor<?> ctor = suite.getDeclaredConstructor();
+            ctor.setAccessible(true);
+            this.constructor = MethodHandles.lookup().unreflectConstructor(ctor);
         }
 
-        return coverage;
-    }
+        /**
+         * Executes the test case with the given index on a new instance of the test suite.
+         *
+         * @param testCase the index of the test case
+         * @throws ReflectiveOperationException if the test case could not be found, or the
+         *                                      constructor of the test suite threw an exception
+         */
+        void execute(final int testCase) throws ReflectiveOperationException {
+            if (handles[testCase] == null) {
+                final Method method = suite.getDeclaredMethod(testCases[testCase]);
+                method.setAccessible(true); // Make non-public tests accessible.
+                handles[testCase] = MethodHandles.lookup().unreflect(method);
+            }
 
-    private int[] getNonEmptyLines(final CoverageBuilder builder) {
-        final var classCoverage = builder.getClasses().iterator().next();
-        final int lines = classCoverage.getLineCounter().getTotalCount();
-        final int[] nonEmptyLines = new int[lines];
+            final Object instance;
+            try {
+                instance = constructor.invoke();
+            } catch (Throwable e) {
+                throw new InvocationTargetException(e);
+            }
 
-        final int firstLine = classCoverage.getFirstLine();
-        final int lastLine = classCoverage.getLastLine();
-        for (int i = firstLine, j = 0; i <= lastLine && j < lines; i++) {
-            final int status = classCoverage.getLine(i).getStatus();
-            if (status != ICounter.EMPTY) {
-                nonEmptyLines[j++] = i;
+            try {
+                handles[testCase].invoke(instance);
+            } catch (Throwable e) {
+                // Swallow exceptions thrown by the test case or the class under test.
             }
         }
-
-        return nonEmptyLines;
     }
 
     private String dumpCoverageInfo() {
@@ -456,9 +934,9 @@ public final class CoverageTracker {
             final String testCase = testCases[i];
             sb.append(String.format(" * %s%n", testCase));
 
-            final boolean[] coverage = coverageMatrix[i];
-            for (int j = 0; j < coverage.length; j++) {
-                final boolean c = coverage[j];
+            final long[] coverage = coverageRows[i];
+            for (int j = 0; j < sourceLineNumbers.length; j++) {
+                final boolean c = (coverage[j >>> 6] & (1L << j)) != 0;
                 final int line = sourceLineNumbers[j];
                 sb.append(String.format("    > line %d: %s%n", line, c ? "covered" : "MISSED"));
             }
@@ -505,7 +983,10 @@ public final class CoverageTracker {
                 throws ClassNotFoundException {
             final byte[] bytes = definitions.get(name);
             if (bytes != null) {
-                return defineClass(name, bytes, 0, bytes.length);
+                synchronized (getClassLoadingLock(name)) {
+                    final Class<?> loaded = findLoadedClass(name);
+                    return loaded != null ? loaded : defineClass(name, bytes, 0, bytes.length);
+                }
             }
             return super.loadClass(name, resolve);
         }
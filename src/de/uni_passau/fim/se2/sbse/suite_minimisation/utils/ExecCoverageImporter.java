@@ -0,0 +1,283 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.utils;
+
+import org.jacoco.core.analysis.Analyzer;
+import org.jacoco.core.analysis.CoverageBuilder;
+import org.jacoco.core.data.ExecutionData;
+import org.jacoco.core.data.ExecutionDataReader;
+import org.jacoco.core.data.ExecutionDataStore;
+import org.jacoco.core.data.SessionInfo;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Imports a coverage matrix from JaCoCo execution data recorded elsewhere, such as by the JaCoCo
+ * agent in CI, with one session per test case. Nothing is run: every session is a row of the
+ * matrix named after its session ID, and the columns are the lines, branches or instructions of a
+ * set of classes, ordered by class name and then as in {@link CoverageTracker}. Sessions with the
+ * same ID, in one file or in several, are merged into one row.
+ * <p>
+ * The {@code .exec} files are streamed: every class in a session is mapped to its packed columns
+ * as soon as it is read, by a {@link ProbeMap} derived once per class from its bytecode, so only
+ * the packed rows are held in memory, however large the files. Execution data of classes that
+ * are not imported is skipped, and so is execution data recorded for different bytecode than the
+ * one imported, whose probes cannot be mapped; such classes are reported by
+ * {@link #getMismatchedClasses()}.
+ */
+public final class ExecCoverageImporter {
+
+    /**
+     * The bytecode of the classes, ordered by name.
+     */
+    private final Map<String, byte[]> classes;
+
+    private GranularityType granularity = GranularityType.LINE;
+
+    /**
+     * The columns and probe maps of the classes, created on the first read.
+     */
+    private ClassColumns columns;
+
+    /**
+     * The id JaCoCo assigns to the bytecode of every class, by VM name.
+     */
+    private Map<String, Long> classIds;
+
+    /**
+     * The row of every session ID, in the order the sessions were first read.
+     */
+    private final Map<String, Integer> rowsBySession = new LinkedHashMap<>();
+    private final List<long[]> rows = new ArrayList<>();
+    private final Set<String> mismatchedClasses = new TreeSet<>();
+
+    /**
+     * Creates a new importer for the coverage of the given classes.
+     *
+     * @param classes the bytecode of the classes by name
+     * @throws IllegalArgumentException if there are no classes
+     */
+    public ExecCoverageImporter(final Map<String, byte[]> classes) {
+        if (classes.isEmpty()) {
+            throw new IllegalArgumentException("No classes to import");
+        }
+        this.classes = new TreeMap<>(classes);
+    }
+
+    /**
+     * Creates a new importer for the coverage of the classes in the given package, directory or
+     * jar. Classes that declare JUnit 5 test cases are left out.
+     *
+     * @param classes the name of a package on the class path of the given class loader, or the
+     *                path of a directory of class files or of a jar
+     * @param loader  the class loader whose class path contains the package
+     * @return the importer
+     * @throws IOException              if the classes could not be read
+     * @throws IllegalArgumentException if there are no classes
+     */
+    public static ExecCoverageImporter of(final String classes, final ClassLoader loader) throws IOException {
+        return new ExecCoverageImporter(ModuleCoverageTracker.readClasses(classes, loader));
+    }
+
+    /**
+     * Creates a new importer for the coverage of the given class alone.
+     *
+     * @param classUnderTest the class
+     * @return the importer
+     * @throws IOException if the class could not be read
+     */
+    public static ExecCoverageImporter of(final Class<?> classUnderTest) throws IOException {
+        final String resource = '/' + classUnderTest.getName().replace('.', '/') + ".class";
+        try (final InputStream in = classUnderTest.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IOException("Class file not found: " + classUnderTest.getName());
+            }
+            return new ExecCoverageImporter(Map.of(classUnderTest.getName(), in.readAllBytes()));
+        }
+    }
+
+    /**
+     * Sets the entities of the classes that form the columns of the coverage matrix, lines by
+     * default.
+     *
+     * @param granularity the granularity
+     * @throws IllegalStateException if execution data has already been read, or the columns have
+     *                               been requested
+     */
+    public void setGranularity(final GranularityType granularity) {
+        if (columns != null) {
+            throw new IllegalStateException("Columns have already been determined");
+        }
+        this.granularity = requireNonNull(granularity);
+    }
+
+    /**
+     * Reads the execution data in the given {@code .exec} file and adds its sessions to the
+     * matrix.
+     *
+     * @param file the file
+     * @throws IOException if the file could not be read, or is not a valid {@code .exec} file
+     */
+    public void read(final Path file) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            read(in);
+        }
+    }
+
+    /**
+     * Reads the execution data in the given stream, in the format of JaCoCo's {@code .exec}
+     * files, and adds its sessions to the matrix. The stream is not closed.
+     *
+     * @param in the stream
+     * @throws IOException if the stream could not be read, contains execution data outside of a
+     *                     session, or is not in the format of {@code .exec} files
+     */
+    public void read(final InputStream in) throws IOException {
+        prepareColumns();
+        final var reader = new ExecutionDataReader(in);
+        final long[][] row = {null};
+        reader.setSessionInfoVisitor(info -> row[0] = rowOf(info));
+        reader.setExecutionDataVisitor(data -> {
+            if (row[0] == null) {
+                throw new UncheckedIOException(new IOException("Execution data of " + data.getName()
+                        + " outside of a session"));
+            }
+            try {
+                add(row[0], data);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        try {
+            reader.read();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Returns the session IDs in the order of the rows of the coverage matrix.
+     *
+     * @return the test cases
+     */
+    public String[] getTestCases() {
+        return rowsBySession.keySet().toArray(String[]::new);
+    }
+
+    /**
+     * Returns the (class, line) pairs in the order of the columns of the coverage matrix. At a
+     * finer granularity than lines, a pair appears once per branch or instruction on the line.
+     *
+     * @return the columns
+     * @throws IOException if a class could not be analysed
+     */
+    public ModuleCoverageTracker.Column[] getColumns() throws IOException {
+        prepareColumns();
+        return columns.columns();
+    }
+
+    /**
+     * Returns the classes whose execution data was skipped because it was recorded for different
+     * bytecode than the one imported.
+     *
+     * @return the names of the classes, ordered by name
+     */
+    public String[] getMismatchedClasses() {
+        return mismatchedClasses.toArray(String[]::new);
+    }
+
+    /**
+     * Returns the coverage matrix of the sessions read so far with every row packed into 64-bit
+     * words, as in {@link CoverageTracker#getPackedCoverageMatrix()}. The returned rows must not
+     * be modified.
+     *
+     * @return the packed coverage matrix
+     * @throws IOException if a class could not be analysed
+     */
+    public long[][] getPackedCoverageMatrix() throws IOException {
+        prepareColumns();
+        return rows.toArray(long[][]::new);
+    }
+
+    /**
+     * Returns the coverage matrix of the sessions read so far, where every row represents a
+     * session as returned by {@link #getTestCases()} and every column an entity of a class as
+     * returned by {@link #getColumns()}. The matrix is rectangular.
+     *
+     * @return the coverage matrix
+     * @throws IOException if a class could not be analysed
+     */
+    public boolean[][] getCoverageMatrix() throws IOException {
+        prepareColumns();
+        return CoverageIndex.unpack(rows.toArray(long[][]::new), columns.size());
+    }
+
+    /**
+     * Analyses every class once to determine its id and columns, unless this has been done
+     * already.
+     *
+     * @throws IOException if a class could not be analysed
+     */
+    private void prepareColumns() throws IOException {
+        if (columns != null) {
+            return;
+        }
+        final Map<String, Long> ids = new HashMap<>();
+        for (Map.Entry<String, byte[]> entry : classes.entrySet()) {
+            ids.put(entry.getKey().replace('.', '/'), classId(entry.getValue(), entry.getKey()));
+        }
+        this.classIds = ids;
+        this.columns = new ClassColumns(classes, granularity);
+    }
+
+    /**
+     * Returns the id JaCoCo assigns to the given class, a checksum of its bytecode.
+     */
+    private static long classId(final byte[] bytecode, final String name) throws IOException {
+        final var coverageBuilder = new CoverageBuilder();
+        new Analyzer(new ExecutionDataStore(), coverageBuilder).analyzeClass(bytecode, name);
+        return coverageBuilder.getClasses().iterator().next().getId();
+    }
+
+    /**
+     * Returns the row of the given session, adding an empty row for a new session ID.
+     */
+    private long[] rowOf(final SessionInfo info) {
+        final Integer row = rowsBySession.get(info.getId());
+        if (row != null) {
+            return rows.get(row);
+        }
+        rowsBySession.put(info.getId(), rows.size());
+        rows.add(columns.newRow());
+        return rows.get(rows.size() - 1);
+    }
+
+    /**
+     * Adds the columns covered by the given execution data to the given row, unless it was
+     * recorded for other bytecode.
+     */
+    private void add(final long[] row, final ExecutionData data) throws IOException {
+        final Long id = classIds.get(data.getName());
+        if (id == null || !data.hasHits()) {
+            return;
+        }
+        if (data.getId() != id) {
+            mismatchedClasses.add(data.getName().replace('/', '.'));
+            return;
+        }
+        columns.add(row, data);
+    }
+}
@@ -0,0 +1,290 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.utils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the coverage of single test cases in a long-lived child JVM, which runs the
+ * {@link #main(String[])} method of this class on the class path of the current JVM.
+ * <p>
+ * The child JVM reads the indices of the test cases to run from its standard input, and answers
+ * every index on its standard output with the index, a status and, on success, the coverage row
+ * packed into 64 columns per word, followed by the cost of the test case if costs are measured.
+ * Whatever the test cases print to the standard output goes to the standard error instead, which
+ * the child JVM shares with the current one.
+ * <p>
+ * If the child JVM dies while running a test case, because the test case crashed it, called
+ * {@code System.exit} or exceeded the timeout and was killed, the test case is reported as failed,
+ * and the next test case starts a new child JVM.
+ */
+final class ForkedCoverageWorker implements AutoCloseable {
+
+    /**
+     * Written by the child JVM once it is ready to run test cases.
+     */
+    private static final int READY = 0x434F5652;
+
+    /**
+     * Status of a test case whose coverage follows.
+     */
+    private static final int OK = 0;
+
+    /**
+     * Status of a test case that could not be run, followed by the error message.
+     */
+    private static final int ERROR = 1;
+
+    /**
+     * The time a child JVM may take to start, load and instrument the classes.
+     */
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(60);
+
+    private final List<String> command;
+    private final boolean profiling;
+    private final Duration timeout;
+
+    /**
+     * Kills the child JVM when a test case exceeds the timeout.
+     */
+    private final ScheduledExecutorService watchdog;
+
+    private Process process;
+    private DataOutputStream requests;
+    private DataInputStream responses;
+
+    /**
+     * The coverage of a test case, and its cost if costs are measured.
+     *
+     * @param row  the packed coverage row
+     * @param cost the cost, or {@code null} if costs are not measured
+     */
+    record Result(long[] row, TestCost cost) {
+    }
+
+    /**
+     * Creates a new worker, which starts its child JVM when the first test case is run.
+     *
+     * @param classUnderTestName name of the class under test
+     * @param testSuiteName      name of the test suite
+     * @param isolateTests       whether every test case runs on freshly loaded copies of the CUT
+     *                           and the test suite
+     * @param granularity        the granularity of the columns
+     * @param profileWarmups     the number of unmeasured runs before the cost is measured
+     * @param profileRuns        the number of measured runs, or 0 to not measure costs
+     * @param timeout            the time after which a test case is aborted
+     */
+    ForkedCoverageWorker(final String classUnderTestName,
+            final String testSuiteName,
+            final boolean isolateTests,
+            final GranularityType granularity,
+            final int profileWarmups,
+            final int profileRuns,
+            final Duration timeout) {
+        this.command = List.of(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"),
+                ForkedCoverageWorker.class.getName(),
+                classUnderTestName, testSuiteName, Boolean.toString(isolateTests), granularity.name(),
+                Integer.toString(profileWarmups), Integer.toString(profileRuns));
+        this.profiling = profileRuns > 0;
+        this.timeout = timeout;
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final var thread = new Thread(runnable, "coverage-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Runs the test case with the given index in the child JVM and returns its packed coverage
+     * row and its cost, or {@code null} if the test case crashed the child JVM or timed out.
+     *
+     * @param testCase the index of the test case
+     * @param columns  the number of columns of the coverage matrix
+     * @return the coverage and cost, or {@code null} if the test case failed
+     * @throws IOException if the child JVM could not be started, or could not run the test case
+     */
+    Result measure(final int testCase, final int columns) throws IOException {
+        if (process == null) {
+            start();
+        }
+
+        final Process child = process;
+        final ScheduledFuture<?> kill =
+                watchdog.schedule(child::destroyForcibly, timeout.toMillis(), TimeUnit.MILLISECONDS);
+        final int index;
+        final int status;
+        final String message;
+        final long[] words;
+        final TestCost cost;
+        try {
+            requests.writeInt(testCase);
+            requests.flush();
+
+            index = responses.readInt();
+            status = responses.readInt();
+            if (status == OK) {
+                words = new long[responses.readInt()];
+                for (int w = 0; w < words.length; w++) {
+                    words[w] = responses.readLong();
+                }
+                cost = profiling
+                        ? new TestCost(responses.readLong(), responses.readLong(), responses.readLong())
+                        : null;
+                message = null;
+            } else {
+                words = null;
+                cost = null;
+                message = responses.readUTF();
+            }
+        } catch (IOException e) {
+            // The child JVM died: the test case crashed it, exited or was killed by the watchdog.
+            stop();
+            return null;
+        } finally {
+            if (!kill.cancel(false)) {
+                stop(); // The watchdog fired after all, so the child JVM cannot be reused.
+            }
+        }
+
+        if (index != testCase) {
+            throw new IOException("Expected coverage of test case " + testCase + ", got " + index);
+        }
+        if (status != OK) {
+            throw new IOException("Could not run test case " + testCase + ": " + message);
+        }
+        if (words.length != CoverageIndex.wordsFor(columns)) {
+            throw new IOException("Expected coverage of " + columns + " columns, got " + words.length + " words");
+        }
+        return new Result(words, cost);
+    }
+
+    /**
+     * Starts a new child JVM and waits until it is ready.
+     *
+     * @throws IOException if the child JVM could not be started
+     */
+    private void start() throws IOException {
+        process = new ProcessBuilder(command)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        requests = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+        responses = new DataInputStream(new BufferedInputStream(process.getInputStream()));
+
+        final Process child = process;
+        final ScheduledFuture<?> kill = watchdog.schedule(
+                child::destroyForcibly, STARTUP_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        try {
+            if (responses.readInt() != READY) {
+                throw new IOException("Unexpected output of coverage worker");
+            }
+        } catch (IOException e) {
+            stop();
+            throw new IOException("Coverage worker failed to start", e);
+        } finally {
+            kill.cancel(false);
+        }
+    }
+
+    /**
+     * Kills the child JVM, if any.
+     */
+    private void stop() {
+        if (process != null) {
+            process.destroyForcibly();
+            process = null;
+        }
+    }
+
+    /**
+     * Lets the child JVM exit after the last test case, and kills it if it does not.
+     */
+    @Override
+    public void close() {
+        try {
+            if (process != null) {
+                requests.close(); // The child JVM exits at the end of its input.
+                if (!process.waitFor(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                    stop();
+                }
+            }
+        } catch (IOException e) {
+            stop();
+        } catch (InterruptedException e) {
+            stop();
+            Thread.currentThread().interrupt();
+        } finally {
+            watchdog.shutdownNow();
+        }
+        process = null;
+    }
+
+    /**
+     * Runs test cases in a child JVM until the end of the standard input.
+     *
+     * @param args the name of the class under test, the name of the test suite, whether test
+     *             cases are isolated, the granularity of the columns, and the numbers of
+     *             unmeasured and measured runs for the costs of test cases
+     * @throws Exception if the classes could not be loaded or instrumented
+     */
+    public static void main(final String[] args) throws Exception {
+        final var responses = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)));
+        System.setOut(System.err); // Keeps the output of test cases out of the responses.
+        final var requests = new DataInputStream(new BufferedInputStream(System.in));
+
+        final var tracker = new CoverageTracker(
+                Class.forName(args[0]), Class.forName(args[1]), Boolean.parseBoolean(args[2]));
+        tracker.setGranularity(GranularityType.valueOf(args[3]));
+        final int profileRuns = Integer.parseInt(args[5]);
+        tracker.setProfiling(Integer.parseInt(args[4]), profileRuns);
+        try (CoverageTracker.Worker worker = tracker.newWorker()) {
+            responses.writeInt(READY);
+            responses.flush();
+
+            while (true) {
+                final int testCase;
+                try {
+                    testCase = requests.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+
+                responses.writeInt(testCase);
+                try {
+                    final long[] words = worker.measure(testCase);
+                    final TestCost cost = profileRuns > 0 ? worker.profile(testCase) : null;
+                    responses.writeInt(OK);
+                    responses.writeInt(words.length);
+                    for (long word : words) {
+                        responses.writeLong(word);
+                    }
+                    if (cost != null) {
+                        responses.writeLong(cost.wallNanos());
+                        responses.writeLong(cost.cpuNanos());
+                        responses.writeLong(cost.allocatedBytes());
+                    }
+                } catch (Exception e) {
+                    responses.writeInt(ERROR);
+                    responses.writeUTF(String.valueOf(e));
+                }
+                responses.flush();
+            }
+        }
+
+        System.exit(0); // Test cases may have left non-daemon threads behind.
+    }
+}
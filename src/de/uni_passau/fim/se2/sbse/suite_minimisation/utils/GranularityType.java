@@ -0,0 +1,25 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.utils;
+
+/**
+ * The entities of the class under test that form the columns of a coverage matrix, following the
+ * counters of JaCoCo.
+ */
+public enum GranularityType {
+
+    /**
+     * Every non-empty source line is a column, covered if any of its instructions is executed.
+     * A partially covered line counts as covered.
+     */
+    LINE,
+
+    /**
+     * Every outcome of every instruction with two or more outcomes, such as conditional jumps and
+     * switches, is a column. Its line is the line of the instruction.
+     */
+    BRANCH,
+
+    /**
+     * Every bytecode instruction is a column. Its line is the line of the instruction.
+     */
+    INSTRUCTION
+}
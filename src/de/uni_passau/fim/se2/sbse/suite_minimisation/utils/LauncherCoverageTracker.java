@@ -0,0 +1,527 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.utils;
+
+import org.jacoco.core.data.ExecutionData;
+import org.jacoco.core.data.ExecutionDataStore;
+import org.jacoco.core.data.SessionInfoStore;
+import org.jacoco.core.instr.Instrumenter;
+import org.jacoco.core.runtime.LoggerRuntime;
+import org.jacoco.core.runtime.RuntimeData;
+import org.junit.platform.engine.DiscoverySelector;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.Launcher;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+import org.junit.platform.launcher.core.LauncherConfig;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.core.LauncherFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.requireNonNull;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectUniqueId;
+
+/**
+ * Measures code coverage of a class under test by a test suite that is run through the JUnit
+ * Platform Launcher, so the test suite runs as it would in a build: with its lifecycle methods and
+ * extensions, nested test classes, repeated and parameterised test cases, and test factories.
+ * <p>
+ * Every test reported by the launcher is a row of the coverage matrix, including every invocation
+ * of a test template and every dynamic test, named after its unique identifier without the engine
+ * and the test suite, such as {@code adds()/#2} or {@code Empty/isZero()}. A row covers what the
+ * test executed, including its {@code @BeforeEach} and {@code @AfterEach} methods, together with
+ * what the {@code @BeforeAll} methods of its enclosing containers and the static initialiser of
+ * the CUT executed. Skipped tests have no row.
+ * <p>
+ * The tests share one runtime per worker, so a worker runs them one at a time, with parallel
+ * execution of the platform disabled. With more than one worker, or with isolated tests, the
+ * suite is split into units, that is tests and test templates, which the workers take from a
+ * shared counter; every worker instruments and loads its own copies of the CUT and the test suite,
+ * and isolated units run on fresh copies of both. The rows keep the order of the units and, within
+ * a unit, the order of execution.
+ */
+public final class LauncherCoverageTracker {
+
+    /**
+     * The configuration parameter of the Jupiter engine that enables parallel execution.
+     */
+    private static final String PARALLEL_EXECUTION = "junit.jupiter.execution.parallel.enabled";
+
+    private final String classUnderTestName;
+    private final Class<?> testSuite;
+    private final String testSuiteName;
+    private final boolean isolateTests;
+
+    private int workers = 1;
+    private GranularityType granularity = GranularityType.LINE;
+
+    private boolean cached = false;
+    private String[] testCases;
+    private String[] uniqueIds;
+    private long[][] coverageRows;
+    private boolean[][] coverageMatrix;
+    private int[] sourceLineNumbers;
+    private ClassColumns classColumns;
+
+    /**
+     * Creates a new instance for tracking the coverage of the given class under test by the
+     * given test suite.
+     *
+     * @param classUnderTest class whose coverage to measure
+     * @param testSuite      the test suite, a test class of the JUnit Platform
+     * @param isolateTests   whether every unit runs on freshly loaded copies of the CUT and the
+     *                       test suite
+     */
+    public LauncherCoverageTracker(final Class<?> classUnderTest,
+            final Class<?> testSuite,
+            final boolean isolateTests) {
+        this.classUnderTestName = classUnderTest.getName();
+        this.testSuite = requireNonNull(testSuite);
+        this.testSuiteName = testSuite.getName();
+        this.isolateTests = isolateTests;
+    }
+
+    /**
+     * Sets the number of threads that run the units of the test suite concurrently, each with its
+     * own runtime and copies of the CUT and the test suite.
+     *
+     * @param workers the number of threads, at least 1
+     * @throws IllegalArgumentException if {@code workers} is not positive
+     * @throws IllegalStateException    if coverage has already been measured
+     */
+    public void setWorkers(final int workers) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("Number of workers must be positive: " + workers);
+        }
+        if (cached) {
+            throw new IllegalStateException("Coverage has already been measured");
+        }
+        this.workers = workers;
+    }
+
+    /**
+     * Sets the entities of the CUT that form the columns of the coverage matrix, lines by default.
+     *
+     * @param granularity the granularity
+     * @throws IllegalStateException if coverage has already been measured
+     */
+    public void setGranularity(final GranularityType granularity) {
+        if (cached) {
+            throw new IllegalStateException("Coverage has already been measured");
+        }
+        this.granularity = requireNonNull(granularity);
+    }
+
+    /**
+     * Returns the names of the tests that were run, in the order of the rows of the coverage
+     * matrix. Unlike with the other trackers, the tests are only known once they have run.
+     *
+     * @return the test cases
+     * @throws Exception if an error occurred while measuring coverage
+     */
+    public String[] getTestCases() throws Exception {
+        getPackedCoverageMatrix();
+        return testCases;
+    }
+
+    /**
+     * Returns the unique identifiers of the tests that were run, in the order of the rows of the
+     * coverage matrix.
+     *
+     * @return the unique identifiers
+     * @throws Exception if an error occurred while measuring coverage
+     */
+    public String[] getUniqueIds() throws Exception {
+        getPackedCoverageMatrix();
+        return uniqueIds;
+    }
+
+    /**
+     * Returns the coverage of the CUT as coverage matrix, where every row represents a test as
+     * returned by {@link #getTestCases()} and every column a line, a branch or an instruction of
+     * the CUT, as returned by {@link #getSourceLineNumbers()}. The matrix is rectangular.
+     *
+     * @return the coverage matrix
+     * @throws Exception if an error occurred
+     */
+    public boolean[][] getCoverageMatrix() throws Exception {
+        final long[][] rows = getPackedCoverageMatrix();
+        if (coverageMatrix == null) {
+            coverageMatrix = CoverageIndex.unpack(rows, sourceLineNumbers.length);
+        }
+        return coverageMatrix;
+    }
+
+    /**
+     * Returns the coverage matrix of {@link #getCoverageMatrix()} with every row packed into
+     * 64-bit words, as in {@link CoverageTracker#getPackedCoverageMatrix()}. The returned rows
+     * must not be modified.
+     *
+     * @return the packed coverage matrix
+     * @throws Exception if an error occurred
+     */
+    public long[][] getPackedCoverageMatrix() throws Exception {
+        if (!cached) {
+            measureCoverage();
+            cached = true;
+        }
+        return coverageRows;
+    }
+
+    /**
+     * Returns the source line of every column of the coverage matrix.
+     *
+     * @return the line numbers, one per column
+     * @throws Exception if an error occurred
+     */
+    public int[] getSourceLineNumbers() throws Exception {
+        getPackedCoverageMatrix();
+        return sourceLineNumbers.clone();
+    }
+
+    /**
+     * Discovers the units of the test suite, runs them on the workers and assembles the rows of
+     * all units in their order.
+     *
+     * @throws Exception if some error occurred
+     */
+    private void measureCoverage() throws Exception {
+        final byte[] originalCut = readClass(classUnderTestName);
+        classColumns = new ClassColumns(Map.of(classUnderTestName, originalCut), granularity);
+        sourceLineNumbers = classColumns.lines();
+
+        final List<String> units = discoverUnits();
+        final List<List<Row>> results = new ArrayList<>(units.size());
+        for (int u = 0; u < units.size(); u++) {
+            results.add(null);
+        }
+
+        final AtomicInteger nextUnit = new AtomicInteger();
+        WorkerPool.run(workers, units.size(), nextUnit, () -> {
+            try (Worker w = new Worker(originalCut)) {
+                for (int u = nextUnit.getAndIncrement(); u < units.size(); u = nextUnit.getAndIncrement()) {
+                    results.set(u, w.execute(units.get(u)));
+                }
+            }
+            return null;
+        });
+
+        final List<Row> rows = results.stream().flatMap(List::stream).toList();
+        this.testCases = rows.stream().map(Row::name).toArray(String[]::new);
+        this.uniqueIds = rows.stream().map(Row::uniqueId).toArray(String[]::new);
+        this.coverageRows = rows.stream().map(Row::coverage).toArray(long[][]::new);
+    }
+
+    /**
+     * Discovers the test suite and returns the unique identifiers of the units to execute one at
+     * a time: the test suite itself if a single worker runs all tests on shared classes, and its
+     * tests and test templates otherwise.
+     *
+     * @return the unique identifiers of the units
+     */
+    private List<String> discoverUnits() {
+        final TestPlan plan = newLauncher().discover(request(selectClass(testSuite)));
+        final List<String> units = new ArrayList<>();
+        for (TestIdentifier root : plan.getRoots()) {
+            for (TestIdentifier container : plan.getChildren(root)) {
+                if (workers == 1 && !isolateTests) {
+                    units.add(container.getUniqueId());
+                } else {
+                    collectUnits(plan, container, units);
+                }
+            }
+        }
+        return units;
+    }
+
+    /**
+     * Adds the tests below the given identifier to the given units. Test templates and test
+     * factories have no children before they run and form a unit of their own.
+     */
+    private static void collectUnits(final TestPlan plan, final TestIdentifier identifier, final List<String> units) {
+        final var children = plan.getChildren(identifier);
+        if (identifier.isTest()
+                || (children.isEmpty() && identifier.getSource().orElse(null) instanceof MethodSource)) {
+            units.add(identifier.getUniqueId());
+        } else {
+            for (TestIdentifier child : children) {
+                collectUnits(plan, child, units);
+            }
+        }
+    }
+
+    /**
+     * Returns a launcher that only knows the test engines on the class path, without the test
+     * execution listeners registered there, which might report to the outside world.
+     *
+     * @return the launcher
+     */
+    private static Launcher newLauncher() {
+        return LauncherFactory.create(LauncherConfig.builder()
+                .enableTestExecutionListenerAutoRegistration(false)
+                .build());
+    }
+
+    /**
+     * Returns a discovery request for the given selector, with parallel execution disabled.
+     *
+     * @param selector the selector
+     * @return the request
+     */
+    private static LauncherDiscoveryRequest request(final DiscoverySelector selector) {
+        return LauncherDiscoveryRequestBuilder.request()
+                .selectors(selector)
+                .configurationParameter(PARALLEL_EXECUTION, "false")
+                .build();
+    }
+
+    /**
+     * Returns the name of the given test: the values of the segments of its unique identifier
+     * after the engine and the test suite, joined by slashes.
+     *
+     * @param identifier the test
+     * @return the name
+     */
+    static String nameOf(final TestIdentifier identifier) {
+        final List<UniqueId.Segment> segments = identifier.getUniqueIdObject().getSegments();
+        return segments.stream()
+                .skip(Math.min(2, segments.size() - 1))
+                .map(UniqueId.Segment::getValue)
+                .collect(Collectors.joining("/"));
+    }
+
+    /**
+     * Reads the bytecode of the class with the given name from the class path of the test suite.
+     *
+     * @param className name of the class
+     * @return the class definition
+     * @throws IOException if the class could not be read
+     */
+    private byte[] readClass(final String className) throws IOException {
+        final String resource = className.replace('.', '/') + ".class";
+        try (final InputStream in = testSuite.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IOException("Class file not found: " + className);
+            }
+            return in.readAllBytes();
+        }
+    }
+
+    /**
+     * Adds copies of the execution data recorded since the last reset to the given store.
+     *
+     * @param runtimeData the runtime data to copy
+     * @param store       the store to merge the copies into
+     * @return the store
+     */
+    private static ExecutionDataStore collect(final RuntimeData runtimeData, final ExecutionDataStore store) {
+        final var live = new ExecutionDataStore();
+        runtimeData.collect(live, new SessionInfoStore(), false);
+        return merge(live, store);
+    }
+
+    /**
+     * Adds copies of the execution data in {@code from} to {@code into}, merging the probes of
+     * classes that are in both.
+     *
+     * @param from the execution data to add
+     * @param into the store to merge the copies into
+     * @return {@code into}
+     */
+    private static ExecutionDataStore merge(final ExecutionDataStore from, final ExecutionDataStore into) {
+        for (ExecutionData data : from.getContents()) {
+            into.put(new ExecutionData(data.getId(), data.getName(), data.getProbes().clone()));
+        }
+        return into;
+    }
+
+    /**
+     * A row of the coverage matrix.
+     *
+     * @param uniqueId the unique identifier of the test
+     * @param name     the name of the test
+     * @param coverage the packed coverage row
+     */
+    private record Row(String uniqueId, String name, long[] coverage) {
+    }
+
+    /**
+     * Runs units of the test suite with its own runtime, launcher and class loaders.
+     */
+    private final class Worker implements AutoCloseable {
+
+        private final LoggerRuntime coverageReporter;
+        private final byte[] instrumentedCut;
+        private final RuntimeData runtimeData;
+        private final Launcher launcher = newLauncher();
+        private final SuiteClassLoader shared;
+        private final ExecutionDataStore initialisation;
+
+        private Worker(final byte[] originalCut) throws Exception {
+            this.coverageReporter = new LoggerRuntime();
+            this.instrumentedCut =
+                    new Instrumenter(coverageReporter).instrument(originalCut, classUnderTestName);
+            this.runtimeData = new RuntimeData();
+            coverageReporter.startup(runtimeData);
+            this.shared = isolateTests ? null : new SuiteClassLoader(instrumentedCut);
+            this.initialisation = isolateTests ? null : initialise(shared);
+        }
+
+        /**
+         * Initialises the CUT in the given class loader and returns the execution data of its
+         * static initialiser.
+         *
+         * @param loader the class loader
+         * @return the execution data of the static initialiser
+         */
+        private ExecutionDataStore initialise(final SuiteClassLoader loader) {
+            runtimeData.reset();
+            try {
+                Class.forName(classUnderTestName, true, loader);
+            } catch (ClassNotFoundException | LinkageError e) {
+                // Tests that use the CUT fail just the same.
+            }
+            return collect(runtimeData, new ExecutionDataStore());
+        }
+
+        /**
+         * Runs the unit with the given unique identifier and returns the rows of its tests.
+         *
+         * @param unit the unique identifier of the unit
+         * @return the rows, in the order of execution
+         */
+        List<Row> execute(final String unit) {
+            final SuiteClassLoader loader = isolateTests ? new SuiteClassLoader(instrumentedCut) : shared;
+            final ExecutionDataStore base = isolateTests ? initialise(loader) : initialisation;
+            final var listener = new RowListener(base);
+
+            final Thread thread = Thread.currentThread();
+            final ClassLoader context = thread.getContextClassLoader();
+            thread.setContextClassLoader(loader);
+            try {
+                runtimeData.reset();
+                launcher.execute(request(selectUniqueId(unit)), listener);
+            } finally {
+                thread.setContextClassLoader(context);
+            }
+            if (listener.failure != null) {
+                throw new IllegalStateException("Could not analyse " + unit, listener.failure);
+            }
+            return listener.rows;
+        }
+
+        @Override
+        public void close() {
+            coverageReporter.shutdown();
+        }
+
+        /**
+         * Turns the execution data recorded between the events of the launcher into rows. The
+         * probes hit while a container starts, such as by its {@code @BeforeAll} methods, are
+         * attributed to all tests in it, and the probes hit while a test runs to the test alone.
+         */
+        private final class RowListener implements TestExecutionListener {
+
+            /**
+             * The execution data attributed to every test of the enclosing containers.
+             */
+            private final Deque<ExecutionDataStore> ambient = new ArrayDeque<>();
+            private final List<Row> rows = new ArrayList<>();
+            private IOException failure;
+
+            RowListener(final ExecutionDataStore base) {
+                ambient.push(base);
+            }
+
+            @Override
+            public void executionStarted(final TestIdentifier identifier) {
+                if (identifier.isTest()) {
+                    // Whatever ran since the container started belongs to all of its tests.
+                    collect(runtimeData, ambient.element());
+                } else {
+                    ambient.push(merge(ambient.element(), new ExecutionDataStore()));
+                }
+                runtimeData.reset();
+            }
+
+            @Override
+            public void executionFinished(final TestIdentifier identifier,
+                    final TestExecutionResult result) {
+                if (identifier.isTest()) {
+                    final ExecutionDataStore store = collect(runtimeData, new ExecutionDataStore());
+                    merge(ambient.element(), store);
+                    try {
+                        rows.add(new Row(identifier.getUniqueId(), nameOf(identifier), row(store)));
+                    } catch (IOException e) {
+                        failure = e;
+                    }
+                } else {
+                    ambient.pop();
+                }
+                runtimeData.reset();
+            }
+
+            /**
+             * Returns the packed coverage row of the given execution data.
+             */
+            private long[] row(final ExecutionDataStore store) throws IOException {
+                final long[] row = classColumns.newRow();
+                for (ExecutionData data : store.getContents()) {
+                    classColumns.add(row, data);
+                }
+                return row;
+            }
+        }
+    }
+
+    /**
+     * A class loader that defines the instrumented CUT, and loads the test suite and the nested
+     * classes of both from the class path of the test suite, so the launcher finds a test suite
+     * that uses the instrumented CUT. All other classes are loaded by the class loader of the test
+     * suite.
+     */
+    private final class SuiteClassLoader extends ClassLoader {
+
+        private final byte[] instrumentedCut;
+
+        SuiteClassLoader(final byte[] instrumentedCut) {
+            super(testSuite.getClassLoader());
+            this.instrumentedCut = instrumentedCut;
+        }
+
+        @Override
+        protected Class<?> loadClass(final String name, final boolean resolve)
+                throws ClassNotFoundException {
+            final boolean own = name.equals(classUnderTestName) || name.startsWith(classUnderTestName + '$')
+                    || name.equals(testSuiteName) || name.startsWith(testSuiteName + '$');
+            if (!own) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                final Class<?> loaded = findLoadedClass(name);
+                if (loaded != null) {
+                    return loaded;
+                }
+                final byte[] bytes;
+                try {
+                    bytes = name.equals(classUnderTestName) ? instrumentedCut : readClass(name);
+                } catch (IOException e) {
+                    throw new ClassNotFoundException(name, e);
+                }
+                return defineClass(name, bytes, 0, bytes.length);
+            }
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.utils;
+
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.JarURLConnection;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Measures the coverage of a set of classes under test, such as a package, a directory of class
+ * files or a jar, by a given test suite. The columns of the coverage matrix are the lines,
+ * branches or instructions of all classes, ordered by class name and then as in
+ * {@link CoverageTracker}.
+ * <p>
+ * The test cases are run by a {@link CoverageTracker} for all classes, with its workers: every
+ * worker instruments all classes for its own runtime and loads them together with the test suite
+ * by one class loader, and every test case is mapped to its packed row as soon as it has run, by
+ * a {@link ProbeMap} derived once per class. Test cases cannot run in child JVMs, and their
+ * coverage is not cached.
+ * <p>
+ * Unless tests are isolated, all classes under test are initialised before the first test case,
+ * in the order of their names, and the coverage of the static initialiser of a class is
+ * attributed to every test case that executes code of the class. Isolated tests run on fresh
+ * copies of all classes, which are initialised on first use only.
+ */
+public final class ModuleCoverageTracker {
+
+    /**
+     * The descriptor of the annotation with which a JUnit 5 test case is marked.
+     */
+    private static final String JUNIT5_TEST = "Lorg/junit/jupiter/api/Test;";
+
+    /**
+     * A column of the coverage matrix.
+     *
+     * @param className the name of the class
+     * @param line      the line number in the source file of the class
+     */
+    public record Column(String className, int line) {
+    }
+
+    /**
+     * The names of the classes under test, ordered by name.
+     */
+    private final String[] classesUnderTest;
+
+    /**
+     * Runs the test cases and maps their probes to the columns of all classes.
+     */
+    private final CoverageTracker tracker;
+
+    /**
+     * Creates a new instance for tracking the coverage of the given classes by the given test
+     * suite.
+     *
+     * @param classesUnderTest the bytecode of the classes under test by name
+     * @param testSuite        the test suite
+     * @param isolateTests     whether every test case runs on freshly loaded copies of all classes
+     * @throws IllegalArgumentException if there are no classes under test
+     */
+    public ModuleCoverageTracker(final Map<String, byte[]> classesUnderTest,
+            final Class<?> testSuite,
+            final boolean isolateTests) {
+        if (classesUnderTest.isEmpty()) {
+            throw new IllegalArgumentException("No classes under test");
+        }
+        final Map<String, byte[]> sorted = new TreeMap<>(classesUnderTest);
+        this.classesUnderTest = sorted.keySet().toArray(String[]::new);
+        this.tracker = new CoverageTracker(sorted, requireNonNull(testSuite), isolateTests);
+    }
+
+    /**
+     * Creates a new instance for tracking the coverage of the classes in the given package,
+     * directory or jar by the given test suite. Classes that declare JUnit 5 test cases, such as
+     * the test suite itself, are not classes under test.
+     *
+     * @param classes      the name of a package on the class path, or the path of a directory of
+     *                     class files or of a jar
+     * @param testSuite    the test suite
+     * @param isolateTests whether every test case runs on freshly loaded copies of all classes
+     * @return the tracker
+     * @throws IOException              if the classes could not be read
+     * @throws IllegalArgumentException if there are no classes under test
+     */
+    public static ModuleCoverageTracker of(final String classes,
+            final Class<?> testSuite,
+            final boolean isolateTests) throws IOException {
+        return new ModuleCoverageTracker(readClasses(classes, testSuite.getClassLoader()), testSuite, isolateTests);
+    }
+
+    /**
+     * Reads the classes in the given package, directory or jar, except for classes that declare
+     * JUnit 5 test cases.
+     *
+     * @param classes the name of a package on the class path of the given class loader, or the
+     *                path of a directory of class files or of a jar
+     * @param loader  the class loader whose class path contains the package
+     * @return the bytecode of the classes by name
+     * @throws IOException if the classes could not be read
+     */
+    static Map<String, byte[]> readClasses(final String classes, final ClassLoader loader) throws IOException {
+        final Path path = Path.of(classes);
+        final Map<String, byte[]> bytecode;
+        if (Files.isDirectory(path)) {
+            bytecode = readDirectory(path);
+        } else if (Files.isRegularFile(path)) {
+            bytecode = readJar(path);
+        } else {
+            bytecode = readPackage(classes, loader);
+        }
+        bytecode.values().removeIf(ModuleCoverageTracker::declaresTestCases);
+        return bytecode;
+    }
+
+    /**
+     * Sets the number of threads that measure the coverage of test cases concurrently, as in
+     * {@link CoverageTracker#setWorkers(int)}.
+     *
+     * @param workers the number of threads, at least 1
+     * @throws IllegalArgumentException if {@code workers} is not positive
+     * @throws IllegalStateException    if coverage has already been measured
+     */
+    public void setWorkers(final int workers) {
+        tracker.setWorkers(workers);
+    }
+
+    /**
+     * Sets the entities of the classes under test that form the columns of the coverage matrix,
+     * lines by default.
+     *
+     * @param granularity the granularity
+     * @throws IllegalStateException if coverage has already been measured
+     */
+    public void setGranularity(final GranularityType granularity) {
+        tracker.setGranularity(granularity);
+    }
+
+    /**
+     * Returns the test cases in the order of the rows of the coverage matrix.
+     *
+     * @return the test cases
+     */
+    public String[] getTestCases() {
+        return tracker.getTestCases();
+    }
+
+    /**
+     * Returns the classes under test, ordered by name.
+     *
+     * @return the names of the classes under test
+     */
+    public String[] getClassesUnderTest() {
+        return classesUnderTest.clone();
+    }
+
+    /**
+     * Returns the (class, line) pairs in the order of the columns of the coverage matrix. At a
+     * finer granularity than lines, a pair appears once per branch or instruction on the line.
+     *
+     * @return the columns
+     * @throws Exception if an error occurred while measuring coverage
+     */
+    public Column[] getColumns() throws Exception {
+        return tracker.getColumns();
+    }
+
+    /**
+     * Returns the coverage of all classes under test as coverage matrix, where every row
+     * represents a test case and every column an entity of some class, as returned by
+     * {@link #getColumns()}. The matrix is rectangular.
+     *
+     * @return the coverage matrix
+     * @throws Exception if an error occurred
+     */
+    public boolean[][] getCoverageMatrix() throws Exception {
+        return tracker.getCoverageMatrix();
+    }
+
+    /**
+     * Returns the coverage matrix of {@link #getCoverageMatrix()} with every row packed into
+     * 64-bit words, as in {@link CoverageTracker#getPackedCoverageMatrix()}. The returned rows
+     * must not be modified.
+     *
+     * @return the packed coverage matrix
+     * @throws Exception if an error occurred
+     */
+    public long[][] getPackedCoverageMatrix() throws Exception {
+        return tracker.getPackedCoverageMatrix();
+    }
+
+    /**
+     * Tells whether the given class declares JUnit 5 test cases.
+     */
+    private static boolean declaresTestCases(final byte[] bytecode) {
+        final boolean[] found = {false};
+        new ClassReader(bytecode).accept(new ClassVisitor(Opcodes.ASM9) {
+            @Override
+            public MethodVisitor visitMethod(int access, String name, String descriptor,
+                    String signature, String[] exceptions) {
+                return new MethodVisitor(Opcodes.ASM9) {
+                    @Override
+                    public AnnotationVisitor visitAnnotation(String annotation, boolean visible) {
+                        found[0] |= annotation.equals(JUNIT5_TEST);
+                        return null;
+                    }
+                };
+            }
+        }, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+        return found[0];
+    }
+
+    /**
+     * Reads all class files in the given directory and its subdirectories, whose names follow
+     * from their paths relative to the directory.
+     */
+    static Map<String, byte[]> readDirectory(final Path directory) throws IOException {
+        return readDirectory(directory, "");
+    }
+
+    private static Map<String, byte[]> readDirectory(final Path directory, final String packagePrefix)
+            throws IOException {
+        final Map<String, byte[]> classes = new TreeMap<>();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                final String relative = directory.relativize(file).toString().replace('\\', '/');
+                if (isClassFile(relative)) {
+                    classes.put(packagePrefix + className(relative), Files.readAllBytes(file));
+                }
+            }
+        }
+        return classes;
+    }
+
+    /**
+     * Reads all class files in the given jar.
+     */
+    static Map<String, byte[]> readJar(final Path jar) throws IOException {
+        final Map<String, byte[]> classes = new TreeMap<>();
+        try (var file = new JarFile(jar.toFile())) {
+            for (JarEntry entry : Collections.list(file.entries())) {
+                if (!entry.isDirectory() && isClassFile(entry.getName())) {
+                    try (InputStream in = file.getInputStream(entry)) {
+                        classes.put(className(entry.getName()), in.readAllBytes());
+                    }
+                }
+            }
+        }
+        return classes;
+    }
+
+    /**
+     * Reads the class files of the given package, but not of its subpackages, from all
+     * directories and jars on the class path of the given class loader.
+     */
+    static Map<String, byte[]> readPackage(final String packageName, final ClassLoader loader)
+            throws IOException {
+        final Map<String, byte[]> classes = new TreeMap<>();
+        for (URL root : Collections.list(loader.getResources(packageName.replace('.', '/')))) {
+            final Map<String, byte[]> found = root.getProtocol().equals("jar")
+                    ? readJar(Path.of(toUri(((JarURLConnection) root.openConnection()).getJarFileURL())))
+                    : readDirectory(Path.of(toUri(root)), packageName + '.');
+            found.forEach((name, bytes) -> {
+                final int dot = name.lastIndexOf('.');
+                if (dot == packageName.length() && name.startsWith(packageName)) {
+                    classes.putIfAbsent(name, bytes);
+                }
+            });
+        }
+        if (classes.isEmpty()) {
+            throw new IOException("No classes found in package " + packageName);
+        }
+        return classes;
+    }
+
+    private static boolean isClassFile(final String path) {
+        return path.endsWith(".class")
+                && !path.endsWith("module-info.class")
+                && !path.endsWith("package-info.class");
+    }
+
+    private static String className(final String path) {
+        return path.substring(0, path.length() - ".class".length()).replace('/', '.');
+    }
+
+    private static URI toUri(final URL url) throws IOException {
+        try {
+            return url.toURI();
+        } catch (URISyntaxException e) {
+            throw new IOException("Invalid class path entry: " + url, e);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.utils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A lock-free archive of mutually non-dominated solutions for the bi-objective test suite
+ * minimisation problem (size minimising, coverage maximising).
+ * <p>
+ * The archive is an immutable list that is replaced with compare-and-set on every successful
+ * insertion (copy-on-write). Readers thus always see a consistent front without blocking, and
+ * concurrent writers only retry when another insertion happened in between. Fronts of this problem
+ * hold at most one solution per suite size, so copying is cheap. Of several solutions with equal
+ * objective values, only the first one offered is kept.
+ *
+ * @param <C> the type of the archived solutions
+ */
+public final class ParetoArchive<C> {
+
+    private record Entry<C>(C solution, double size, double coverage) {
+    }
+
+    private final AtomicReference<List<Entry<C>>> front = new AtomicReference<>(List.of());
+
+    /**
+     * Offers a solution to the archive. The solution is added unless it is dominated by or has the
+     * same objective values as an archived solution; archived solutions it dominates are removed.
+     *
+     * @param solution the solution, not {@code null}
+     * @param size     the normalised size of the solution
+     * @param coverage the normalised coverage of the solution
+     * @return {@code true} if the solution has been added
+     */
+    public boolean offer(final C solution, final double size, final double coverage) {
+        return offer(solution, size, coverage, UnaryOperator.identity());
+    }
+
+    /**
+     * Offers a solution to the archive, which archives a copy of it if it is added. The copy is
+     * only made once the solution has been found to be non-dominated, so searches may offer every
+     * solution they evaluate, even ones they are going to modify or recycle afterwards.
+     *
+     * @param solution the solution, not {@code null}
+     * @param size     the normalised size of the solution
+     * @param coverage the normalised coverage of the solution
+     * @param copy     makes the copy to archive
+     * @return {@code true} if the copy has been added
+     */
+    public boolean offer(final C solution, final double size, final double coverage, final UnaryOperator<C> copy) {
+        requireNonNull(solution);
+        requireNonNull(copy);
+        Entry<C> candidate = null;
+
+        while (true) {
+            final List<Entry<C>> current = front.get();
+            final List<Entry<C>> next = new ArrayList<>(current.size() + 1);
+            for (Entry<C> e : current) {
+                if (e.size() <= size && e.coverage() >= coverage) {
+                    return false; // dominated or equal
+                }
+                if (!(size <= e.size() && coverage >= e.coverage())) {
+                    next.add(e);
+                }
+            }
+            if (candidate == null) {
+                candidate = new Entry<>(requireNonNull(copy.apply(solution)), size, coverage);
+            }
+            next.add(candidate);
+
+            if (front.compareAndSet(current, List.copyOf(next))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns the archived solutions, ordered by ascending size.
+     *
+     * @return a snapshot of the archived solutions
+     */
+    public List<C> solutions() {
+        return front.get().stream()
+                .sorted(Comparator.comparingDouble(Entry::size))
+                .map(Entry::solution)
+                .toList();
+    }
+
+    public int size() {
+        return front.get().size();
+    }
+
+    /**
+     * Removes all archived solutions.
+     */
+    public void clear() {
+        front.set(List.of());
+    }
+}
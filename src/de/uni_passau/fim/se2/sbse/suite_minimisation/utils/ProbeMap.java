@@ -0,0 +1,491 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.utils;
+
+import org.jacoco.core.analysis.Analyzer;
+import org.jacoco.core.analysis.CoverageBuilder;
+import org.jacoco.core.analysis.IClassCoverage;
+import org.jacoco.core.analysis.ICounter;
+import org.jacoco.core.analysis.ILine;
+import org.jacoco.core.analysis.IMethodCoverage;
+import org.jacoco.core.data.ExecutionData;
+import org.jacoco.core.data.ExecutionDataStore;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Maps the probes JaCoCo inserts into a class to the columns of its coverage matrix at a given
+ * {@linkplain GranularityType granularity}, so the coverage row of a test case is the union of the
+ * packed columns of the probes it hit, without analysing the class for every test case.
+ * <p>
+ * JaCoCo's public API only reports how many instructions and branches of every line are covered,
+ * not which ones. The map is therefore derived from analyses of the class with chosen probes. An
+ * instruction hit by a probe marks its chain of predecessors as covered, so the instructions and
+ * branches covered by a probe form a path to the root of a tree, and on every line those of two
+ * probes agree on the instructions closest to the root. Analysing every probe alone yields how
+ * many instructions (or branches) of every line of a method it covers; analysing pairs of probes
+ * that touch the same line yields how many of them they share. Pairs touching disjoint lines are
+ * analysed together, so the number of analyses grows with the probes per line, not with the square
+ * of all probes. Instructions and branches no probe covers still get a column, which is never
+ * covered. At line granularity, a line is simply covered by every probe that covers any of its
+ * instructions.
+ * <p>
+ * JaCoCo merges the coverage of duplicated instructions, such as those of finally blocks, which
+ * are then covered by several chains. The map is checked against the pairs and against analyses
+ * of random probes. On the lines where it fails, the columns stand for the distinct sets of
+ * instructions or branches single probes cover there instead: probes covering the same set share
+ * a column. The number of covered columns of such a line may then differ from JaCoCo's counters,
+ * but tests covering different instructions or branches of it still differ in their rows, unless
+ * the line has more such sets than columns, whose surplus shares the last column. Either way,
+ * every row is the union of the masks of its probes.
+ */
+final class ProbeMap {
+
+    /**
+     * The number of analyses with random probes that check the map.
+     */
+    private static final int CHECKS = 16;
+
+    private final byte[] classBytes;
+    private final ExecutionData sample;
+    private final Units units;
+
+    /**
+     * The first column of every unit, and the number of columns at the end.
+     */
+    private final int[] offsets;
+
+    /**
+     * The packed columns covered by every probe.
+     */
+    private final long[][] masks;
+
+    /**
+     * The units whose columns stand for the sets of instructions or branches single probes cover.
+     */
+    private final BitSet inexact = new BitSet();
+
+    private ProbeMap(final byte[] classBytes, final ExecutionData sample, final GranularityType granularity)
+            throws IOException {
+        this.classBytes = classBytes;
+        this.sample = sample;
+        this.units = new Units(analyse(new ExecutionDataStore(), classBytes, className(sample)), granularity);
+        this.offsets = new int[units.size() + 1];
+        for (int u = 0; u < units.size(); u++) {
+            offsets[u + 1] = offsets[u] + units.total[u];
+        }
+        this.masks = new long[sample.getProbes().length][CoverageIndex.wordsFor(offsets[units.size()])];
+        final Analyses analyses = derive();
+        check();
+        for (int u = inexact.nextSetBit(0); u >= 0; u = inexact.nextSetBit(u + 1)) {
+            mapFootprints(u, analyses);
+        }
+    }
+
+    /**
+     * Returns the source line of every column of the given class at the given granularity. At
+     * line granularity, these are the non-empty lines; otherwise, every line appears once per
+     * instruction or branch, ordered by line and then by method.
+     *
+     * @param classBytes  the original bytecode of the class
+     * @param className   the name of the class
+     * @param granularity the granularity of the columns
+     * @return the line numbers, one per column
+     * @throws IOException if the class could not be analysed
+     */
+    static int[] columnLines(final byte[] classBytes, final String className, final GranularityType granularity)
+            throws IOException {
+        final var units = new Units(analyse(new ExecutionDataStore(), classBytes, className), granularity);
+        final int[] lines = new int[units.columns()];
+        for (int u = 0, j = 0; u < units.size(); u++) {
+            Arrays.fill(lines, j, j += units.total[u], units.line[u]);
+        }
+        return lines;
+    }
+
+    /**
+     * Derives the probe map of the given class from its analyses with chosen probes.
+     *
+     * @param classBytes  the original bytecode of the class
+     * @param sample      execution data of the class, which provides its id, name and number of
+     *                    probes
+     * @param granularity the granularity of the columns
+     * @return the probe map
+     * @throws IOException if the class could not be analysed
+     */
+    static ProbeMap of(final byte[] classBytes, final ExecutionData sample, final GranularityType granularity)
+            throws IOException {
+        return new ProbeMap(classBytes, sample, granularity);
+    }
+
+    /**
+     * Sets the masks of all probes, and marks the units on which the analyses contradict the
+     * chains of predecessors as inexact.
+     *
+     * @return the analyses of single probes and of pairs of probes
+     * @throws IOException if the class could not be analysed
+     */
+    private Analyses derive() throws IOException {
+        final int probes = masks.length;
+
+        // How many instructions or branches of every unit each probe covers on its own.
+        final List<Map<Integer, Integer>> single = new ArrayList<>(probes);
+        for (int p = 0; p < probes; p++) {
+            single.add(units.covered(analyse(List.of(p))));
+        }
+
+        if (units.granularity == GranularityType.LINE) {
+            for (int p = 0; p < probes; p++) {
+                for (int u : single.get(p).keySet()) {
+                    masks[p][offsets[u] >>> 6] |= 1L << offsets[u];
+                }
+            }
+            return new Analyses(single, Map.of());
+        }
+
+        // The probes touching every unit, and how many instructions every pair of them shares.
+        final List<List<Integer>> touching = new ArrayList<>(units.size());
+        for (int u = 0; u < units.size(); u++) {
+            touching.add(new ArrayList<>());
+        }
+        for (int p = 0; p < probes; p++) {
+            for (int u : single.get(p).keySet()) {
+                touching.get(u).add(p);
+            }
+        }
+        final Map<Long, Map<Integer, Integer>> shared = new LinkedHashMap<>();
+        for (List<Integer> ps : touching) {
+            for (int a = 0; a < ps.size(); a++) {
+                for (int b = a + 1; b < ps.size(); b++) {
+                    shared.put(pair(ps.get(a), ps.get(b)), null);
+                }
+            }
+        }
+
+        // Pairs whose units are disjoint are measured by the same analysis.
+        final List<List<Long>> rounds = new ArrayList<>();
+        final List<BitSet> busy = new ArrayList<>();
+        for (long pair : shared.keySet()) {
+            final var pairUnits = new BitSet();
+            single.get((int) (pair / probes)).keySet().forEach(pairUnits::set);
+            single.get((int) (pair % probes)).keySet().forEach(pairUnits::set);
+            int r = 0;
+            while (r < rounds.size() && busy.get(r).intersects(pairUnits)) {
+                r++;
+            }
+            if (r == rounds.size()) {
+                rounds.add(new ArrayList<>());
+                busy.add(new BitSet());
+            }
+            rounds.get(r).add(pair);
+            busy.get(r).or(pairUnits);
+        }
+        for (List<Long> round : rounds) {
+            final List<Integer> hit = new ArrayList<>();
+            for (long pair : round) {
+                hit.add((int) (pair / probes));
+                hit.add((int) (pair % probes));
+            }
+            final Map<Integer, Integer> together = units.covered(analyse(hit));
+            for (long pair : round) {
+                final Map<Integer, Integer> p = single.get((int) (pair / probes));
+                final Map<Integer, Integer> q = single.get((int) (pair % probes));
+                final Map<Integer, Integer> common = new LinkedHashMap<>();
+                for (var entry : p.entrySet()) {
+                    final Integer other = q.get(entry.getKey());
+                    if (other != null) {
+                        common.put(entry.getKey(), entry.getValue() + other - together.get(entry.getKey()));
+                    }
+                }
+                shared.put(pair, common);
+            }
+        }
+
+        // On every unit, the d-th instruction (counted from the root) of two probes is the same iff
+        // they share at least d instructions there. Every class of such pairs is a column.
+        for (int u = 0; u < units.size(); u++) {
+            final List<Integer> ps = touching.get(u);
+            final int[] first = new int[ps.size() + 1];
+            for (int a = 0; a < ps.size(); a++) {
+                first[a + 1] = first[a] + single.get(ps.get(a)).get(u);
+            }
+            final int[] parent = new int[first[ps.size()]];
+            Arrays.setAll(parent, i -> i);
+            for (int a = 0; a < ps.size(); a++) {
+                for (int b = a + 1; b < ps.size(); b++) {
+                    final int common = shared.get(pair(ps.get(a), ps.get(b))).get(u);
+                    for (int d = 0; d < common && first[a] + d < first[a + 1] && first[b] + d < first[b + 1]; d++) {
+                        parent[find(parent, first[a] + d)] = find(parent, first[b] + d);
+                    }
+                }
+            }
+
+            // Merged duplicates of instructions, as of finally blocks, are covered by several
+            // chains, which shows as pairs sharing more than they should.
+            for (int a = 0; a < ps.size(); a++) {
+                for (int b = a + 1; b < ps.size(); b++) {
+                    int common = 0;
+                    for (int d = 0; first[a] + d < first[a + 1] && first[b] + d < first[b + 1]; d++) {
+                        if (find(parent, first[a] + d) == find(parent, first[b] + d)) {
+                            common++;
+                        }
+                    }
+                    if (common != shared.get(pair(ps.get(a), ps.get(b))).get(u)) {
+                        inexact.set(u);
+                    }
+                }
+            }
+
+            final Map<Integer, Integer> column = new LinkedHashMap<>();
+            for (int a = 0; a < ps.size(); a++) {
+                for (int i = first[a]; i < first[a + 1]; i++) {
+                    final int c = column.computeIfAbsent(find(parent, i), root -> column.size());
+                    if (c < units.total[u]) {
+                        final int j = offsets[u] + c;
+                        masks[ps.get(a)][j >>> 6] |= 1L << j;
+                    } else {
+                        inexact.set(u);
+                    }
+                }
+            }
+        }
+        return new Analyses(single, shared);
+    }
+
+    /**
+     * Replaces the masks of the given inexact unit: every distinct set of instructions or
+     * branches that single probes cover on it gets a column, in the order of the probes, and
+     * sets beyond the columns of the unit share its last one. Two probes cover the same set iff
+     * they cover as many as they share.
+     *
+     * @param u        the unit
+     * @param analyses the analyses of single probes and of pairs of probes
+     */
+    private void mapFootprints(final int u, final Analyses analyses) {
+        final List<Integer> representatives = new ArrayList<>();
+        for (int p = 0; p < masks.length; p++) {
+            for (int j = offsets[u]; j < offsets[u + 1]; j++) {
+                masks[p][j >>> 6] &= ~(1L << j);
+            }
+            final Integer count = analyses.single().get(p).get(u);
+            if (count == null) {
+                continue;
+            }
+            int c = 0;
+            while (c < representatives.size() && !sameFootprint(analyses, representatives.get(c), p, u, count)) {
+                c++;
+            }
+            if (c == representatives.size()) {
+                representatives.add(p);
+            }
+            final int j = offsets[u] + Math.min(c, units.total[u] - 1);
+            masks[p][j >>> 6] |= 1L << j;
+        }
+    }
+
+    private boolean sameFootprint(final Analyses analyses, final int r, final int p, final int u, final int count) {
+        final Map<Integer, Integer> common = analyses.shared().get(pair(r, p));
+        return analyses.single().get(r).get(u) == count && common != null
+                && Integer.valueOf(count).equals(common.get(u));
+    }
+
+    /**
+     * Compares the masks with analyses of random sets of probes, and marks the units on which
+     * they disagree as inexact. The seed is fixed, so the same class yields the same map.
+     *
+     * @throws IOException if the class could not be analysed
+     */
+    private void check() throws IOException {
+        final var random = new Random(0);
+        for (int k = 0; k < CHECKS; k++) {
+            final boolean[] probes = new boolean[masks.length];
+            final List<Integer> hit = new ArrayList<>();
+            for (int p = 0; p < probes.length; p++) {
+                if (random.nextInt(k % 4 + 2) == 0) {
+                    probes[p] = true;
+                    hit.add(p);
+                }
+            }
+            final Map<Integer, Integer> expected = units.covered(analyse(hit));
+            final long[] row = masked(probes);
+            for (int u = 0; u < units.size(); u++) {
+                int covered = 0;
+                for (int j = offsets[u]; j < offsets[u + 1]; j++) {
+                    if ((row[j >>> 6] & (1L << j)) != 0) {
+                        covered++;
+                    }
+                }
+                if (covered != expected.getOrDefault(u, 0)) {
+                    inexact.set(u);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of columns.
+     *
+     * @return the number of columns
+     */
+    int getNumberOfColumns() {
+        return offsets[units.size()];
+    }
+
+    /**
+     * Tells whether the given column stands for a single instruction or branch, as opposed to a
+     * set of them that some probe covers on a line where the probes cannot tell them apart.
+     *
+     * @param column the index of the column
+     * @return {@code true} if the number of covered columns of its line follows JaCoCo's counters
+     */
+    boolean isExact(final int column) {
+        for (int u = inexact.nextSetBit(0); u >= 0; u = inexact.nextSetBit(u + 1)) {
+            if (offsets[u] <= column && column < offsets[u + 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the packed coverage row of a test case that hit the given probes, the union of the
+     * masks of these probes.
+     *
+     * @param probes the probes of the class, {@code true} if hit
+     * @return the packed row, bit {@code j % 64} of word {@code j / 64} set iff column {@code j}
+     *         is covered
+     */
+    long[] row(final boolean[] probes) {
+        return masked(probes);
+    }
+
+    private long[] masked(final boolean[] probes) {
+        final long[] row = new long[CoverageIndex.wordsFor(getNumberOfColumns())];
+        for (int p = 0; p < probes.length; p++) {
+            if (probes[p]) {
+                final long[] mask = masks[p];
+                for (int w = 0; w < row.length; w++) {
+                    row[w] |= mask[w];
+                }
+            }
+        }
+        return row;
+    }
+
+    private long pair(final int p, final int q) {
+        return (long) p * masks.length + q;
+    }
+
+    /**
+     * How many instructions or branches of every unit each probe covers on its own, and every
+     * pair of probes touching the same unit shares there.
+     *
+     * @param single the covered instructions or branches by unit, for every probe
+     * @param shared the shared instructions or branches by unit, for every pair of probes
+     */
+    private record Analyses(List<Map<Integer, Integer>> single, Map<Long, Map<Integer, Integer>> shared) {
+    }
+
+    private static String className(final ExecutionData data) {
+        return data.getName().replace('/', '.');
+    }
+
+    private static int find(final int[] parent, int i) {
+        while (parent[i] != i) {
+            i = parent[i] = parent[parent[i]];
+        }
+        return i;
+    }
+
+    private IClassCoverage analyse(final List<Integer> hit) throws IOException {
+        final boolean[] probes = new boolean[masks.length];
+        for (int p : hit) {
+            probes[p] = true;
+        }
+        final var executionData = new ExecutionDataStore();
+        executionData.put(new ExecutionData(sample.getId(), sample.getName(), probes));
+        return analyse(executionData, classBytes, className(sample));
+    }
+
+    private static IClassCoverage analyse(final ExecutionDataStore executionData,
+            final byte[] classBytes,
+            final String className) throws IOException {
+        final var coverageBuilder = new CoverageBuilder();
+        new Analyzer(executionData, coverageBuilder).analyzeClass(classBytes, className);
+        return coverageBuilder.getClasses().iterator().next();
+    }
+
+    /**
+     * The units of a class whose instructions or branches are counted together: its non-empty
+     * lines at line granularity, and the non-empty lines of every method otherwise, since lines
+     * may be shared by several methods, such as lambdas.
+     */
+    private static final class Units {
+
+        private final GranularityType granularity;
+        private final int[] method;
+        private final int[] line;
+        private final int[] total;
+
+        Units(final IClassCoverage classCoverage, final GranularityType granularity) {
+            this.granularity = granularity;
+            final List<int[]> units = new ArrayList<>();
+            final List<IMethodCoverage> methods = new ArrayList<>(classCoverage.getMethods());
+            for (int l = classCoverage.getFirstLine(); l <= classCoverage.getLastLine() && l >= 0; l++) {
+                if (granularity == GranularityType.LINE) {
+                    if (classCoverage.getLine(l).getStatus() != ICounter.EMPTY) {
+                        units.add(new int[]{-1, l, 1});
+                    }
+                    continue;
+                }
+                for (int m = 0; m < methods.size(); m++) {
+                    final int count = counter(methods.get(m).getLine(l)).getTotalCount();
+                    if (count > 0) {
+                        units.add(new int[]{m, l, count});
+                    }
+                }
+            }
+            this.method = units.stream().mapToInt(unit -> unit[0]).toArray();
+            this.line = units.stream().mapToInt(unit -> unit[1]).toArray();
+            this.total = units.stream().mapToInt(unit -> unit[2]).toArray();
+        }
+
+        int size() {
+            return line.length;
+        }
+
+        int columns() {
+            return Arrays.stream(total).sum();
+        }
+
+        /**
+         * Returns how many instructions or branches of every unit are covered in the given
+         * analysis, leaving out units with none.
+         */
+        Map<Integer, Integer> covered(final IClassCoverage classCoverage) {
+            final List<IMethodCoverage> methods = new ArrayList<>(classCoverage.getMethods());
+            final Map<Integer, Integer> covered = new LinkedHashMap<>();
+            for (int u = 0; u < line.length; u++) {
+                final ILine l = method[u] < 0
+                        ? classCoverage.getLine(line[u])
+                        : methods.get(method[u]).getLine(line[u]);
+                final int count = granularity == GranularityType.LINE
+                        ? (l.getStatus() == ICounter.NOT_COVERED ? 0 : 1)
+                        : counter(l).getCoveredCount();
+                if (count > 0) {
+                    covered.put(u, count);
+                }
+            }
+            return covered;
+        }
+
+        private ICounter counter(final ILine l) {
+            return granularity == GranularityType.BRANCH ? l.getBranchCounter() : l.getInstructionCounter();
+        }
+    }
+}
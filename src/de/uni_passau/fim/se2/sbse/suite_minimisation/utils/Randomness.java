@@ -1,23 +1,160 @@
 package de.uni_passau.fim.se2.sbse.suite_minimisation.utils;
 
-import java.util.Random;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGenerator.SplittableGenerator;
+import java.util.random.RandomGeneratorFactory;
 
-// This class is a utility class that provides a single source of randomness for the entire application.
-public class Randomness {
+import static java.util.Objects.requireNonNull;
 
-    // Internal source of randomness.
-    private static final Random random = new Random();
+/**
+ * This class is a utility class that provides the sources of randomness for the entire
+ * application.
+ * <p>
+ * Every thread draws from its own stream of a splittable generator, so threads never contend for a
+ * shared generator. The stream of the current thread is obtained via {@link #random()}. For
+ * reproducible parallel runs, the thread that distributes work derives one child stream per task
+ * with {@link #split()} (deterministically, given the seed) and each task binds its child stream
+ * with {@link #withStream(SplittableGenerator, Supplier)}. Threads that never had a stream bound
+ * receive a fresh child of the root generator on first use.
+ */
+public final class Randomness {
+
+    /**
+     * The algorithm of all streams, a fast generator with good statistical quality whose split
+     * streams are statistically independent.
+     */
+    private static final RandomGeneratorFactory<SplittableGenerator> FACTORY =
+            RandomGeneratorFactory.of("L64X128MixRandom");
+
+    /**
+     * The generator from which threads without bound stream receive their stream, only accessed
+     * while holding the lock of this class.
+     */
+    private static SplittableGenerator root = FACTORY.create();
+
+    private static final ThreadLocal<SplittableGenerator> stream =
+            ThreadLocal.withInitial(Randomness::splitRoot);
+
+    private static final RandomGenerator view = new CurrentStream();
 
     private Randomness() {
         // private constructor to prevent instantiation.
     }
 
     /**
-     * Returns the source of randomness.
+     * Returns the source of randomness. The returned generator always delegates to the stream of
+     * the calling thread, so it may be stored and shared between threads.
      *
      * @return randomness
      */
-    public static Random random() {
-        return random;
+    public static RandomGenerator random() {
+        return view;
+    }
+
+    /**
+     * Re-seeds the root generator and gives the calling thread a fresh stream derived from it.
+     * Streams already bound to other threads are not affected.
+     *
+     * @param seed the seed
+     */
+    public static void setSeed(final long seed) {
+        synchronized (Randomness.class) {
+            root = FACTORY.create(seed);
+        }
+        stream.set(splitRoot());
+    }
+
+    /**
+     * Derives a new, statistically independent stream from the stream of the calling thread.
+     *
+     * @return the child stream
+     */
+    public static SplittableGenerator split() {
+        return stream.get().split();
+    }
+
+    /**
+     * Runs the given task with the given stream bound to the calling thread, and restores the
+     * previous stream afterwards.
+     *
+     * @param child the stream to bind, typically obtained from {@link #split()}
+     * @param task  the task to run
+     * @param <T>   the result type of the task
+     * @return the result of the task
+     */
+    public static <T> T withStream(final SplittableGenerator child, final Supplier<T> task) {
+        requireNonNull(child);
+        final SplittableGenerator previous = stream.get();
+        stream.set(child);
+        try {
+            return task.get();
+        } finally {
+            stream.set(previous);
+        }
+    }
+
+    /**
+     * Runs the given task with the given stream bound to the calling thread, and restores the
+     * previous stream afterwards.
+     *
+     * @param child the stream to bind, typically obtained from {@link #split()}
+     * @param task  the task to run
+     */
+    public static void runWithStream(final SplittableGenerator child, final Runnable task) {
+        withStream(child, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    private static synchronized SplittableGenerator splitRoot() {
+        return root.split();
+    }
+
+    /**
+     * A generator delegating to the stream of the calling thread.
+     */
+    private static final class CurrentStream implements RandomGenerator {
+
+        @Override
+        public long nextLong() {
+            return stream.get().nextLong();
+        }
+
+        @Override
+        public long nextLong(final long bound) {
+            return stream.get().nextLong(bound);
+        }
+
+        @Override
+        public int nextInt() {
+            return stream.get().nextInt();
+        }
+
+        @Override
+        public int nextInt(final int bound) {
+            return stream.get().nextInt(bound);
+        }
+
+        @Override
+        public int nextInt(final int origin, final int bound) {
+            return stream.get().nextInt(origin, bound);
+        }
+
+        @Override
+        public double nextDouble() {
+            return stream.get().nextDouble();
+        }
+
+        @Override
+        public boolean nextBoolean() {
+            return stream.get().nextBoolean();
+        }
+
+        @Override
+        public double nextGaussian() {
+            return stream.get().nextGaussian();
+        }
     }
 }
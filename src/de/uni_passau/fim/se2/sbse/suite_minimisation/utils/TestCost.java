@@ -0,0 +1,80 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.utils;
+
+import com.sun.management.ThreadMXBean;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+/**
+ * The cost of running a single test case, measured on the thread that runs it: the median of the
+ * wall time, the CPU time and the bytes allocated over several runs after a warm-up. Since the
+ * test case runs against the instrumented CUT, the numbers include the overhead of the coverage
+ * probes, which is the same for all test cases of a CUT.
+ *
+ * @param wallNanos      the elapsed time in nanoseconds
+ * @param cpuNanos       the CPU time in nanoseconds, or {@code -1} if the JVM cannot measure it
+ * @param allocatedBytes the bytes allocated on the heap, or {@code -1} if the JVM cannot measure
+ *                       them
+ */
+public record TestCost(long wallNanos, long cpuNanos, long allocatedBytes) {
+
+    private static final ThreadMXBean THREADS = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /**
+     * Runs the given action {@code warmups} times without measuring it, then {@code runs} times
+     * measuring every run, and returns the median of every measure.
+     *
+     * @param action  the action to measure, such as a test case
+     * @param warmups the number of runs to discard, at least 0
+     * @param runs    the number of runs to measure, at least 1
+     * @return the median cost of a run
+     * @throws Exception if the action threw an exception
+     */
+    static TestCost measure(final Action action, final int warmups, final int runs) throws Exception {
+        for (int w = 0; w < warmups; w++) {
+            action.run();
+        }
+
+        final boolean cpu = THREADS.isCurrentThreadCpuTimeSupported() && THREADS.isThreadCpuTimeEnabled();
+        final boolean memory = THREADS.isThreadAllocatedMemorySupported() && THREADS.isThreadAllocatedMemoryEnabled();
+        final long[] wallNanos = new long[runs];
+        final long[] cpuNanos = new long[runs];
+        final long[] allocatedBytes = new long[runs];
+        for (int r = 0; r < runs; r++) {
+            final long bytes = memory ? THREADS.getCurrentThreadAllocatedBytes() : 0L;
+            final long time = cpu ? THREADS.getCurrentThreadCpuTime() : 0L;
+            final long start = System.nanoTime();
+            action.run();
+            wallNanos[r] = System.nanoTime() - start;
+            cpuNanos[r] = cpu ? THREADS.getCurrentThreadCpuTime() - time : -1L;
+            allocatedBytes[r] = memory ? THREADS.getCurrentThreadAllocatedBytes() - bytes : -1L;
+        }
+        return new TestCost(median(wallNanos), median(cpuNanos), median(allocatedBytes));
+    }
+
+    /**
+     * Returns the median of the given values, the lower one of the two middle values for an even
+     * number of values.
+     *
+     * @param values the values, not empty; sorted in place
+     * @return the median
+     */
+    static long median(final long[] values) {
+        Arrays.sort(values);
+        return values[(values.length - 1) / 2];
+    }
+
+    /**
+     * An action whose cost is measured.
+     */
+    @FunctionalInterface
+    interface Action {
+
+        /**
+         * Runs the action once.
+         *
+         * @throws Exception if the action failed
+         */
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,135 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.utils;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Computes a fingerprint of every test case of a test suite from its bytecode, which changes iff
+ * the test case or anything it may share with other test cases changes.
+ * <p>
+ * The fingerprint of a test case is the SHA-256 hash of its own method and of the rest of the test
+ * suite: its super class, interfaces, fields, and all methods that are not test cases, such as
+ * constructors, static initialisers, helpers and the bodies of lambdas. Every method is hashed in
+ * the form of a class file containing nothing but that method, so it does not depend on the
+ * constant pool of the test suite, and debug information such as line numbers is left out. Editing
+ * one test case thus changes only its own fingerprint, while editing shared code changes all of
+ * them. Nested and other classes the test suite uses are not part of the fingerprints.
+ */
+final class TestFingerprints {
+
+    private TestFingerprints() {
+        // private constructor to prevent instantiation.
+    }
+
+    /**
+     * Computes the fingerprints of the given test cases.
+     *
+     * @param testSuite the bytecode of the test suite
+     * @param testCases the names of the test cases, which take no parameters
+     * @return the hexadecimal fingerprints, in the order of the test cases
+     */
+    static String[] of(final byte[] testSuite, final String[] testCases) {
+        final Set<String> names = new HashSet<>(Arrays.asList(testCases));
+        final Map<String, byte[]> tests = new HashMap<>();
+        final MessageDigest shared = sha256();
+
+        new ClassReader(testSuite).accept(new ClassVisitor(Opcodes.ASM9) {
+
+            @Override
+            public void visit(int version, int access, String name, String signature,
+                    String superName, String[] interfaces) {
+                update(shared, name + ' ' + superName + ' ' + Arrays.toString(interfaces));
+            }
+
+            @Override
+            public FieldVisitor visitField(int access, String name, String descriptor,
+                    String signature, Object value) {
+                update(shared, access + " " + name + ' ' + descriptor + ' ' + value);
+                return null;
+            }
+
+            @Override
+            public MethodVisitor visitMethod(int access, String name, String descriptor,
+                    String signature, String[] exceptions) {
+                final var writer = new ClassWriter(0);
+                writer.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC, "Fingerprint", null,
+                        "java/lang/Object", null);
+                final MethodVisitor method =
+                        writer.visitMethod(access, name, descriptor, signature, exceptions);
+                return new MethodVisitor(Opcodes.ASM9, method) {
+                    @Override
+                    public void visitEnd() {
+                        super.visitEnd();
+                        writer.visitEnd();
+                        final byte[] bytes = writer.toByteArray();
+                        if (names.contains(name) && descriptor.equals("()V")) {
+                            tests.put(name, bytes);
+                        } else {
+                            update(shared, bytes);
+                        }
+                    }
+                };
+            }
+        }, ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+
+        final byte[] rest = shared.digest();
+        final String[] fingerprints = new String[testCases.length];
+        for (int i = 0; i < testCases.length; i++) {
+            final MessageDigest digest = sha256();
+            update(digest, rest);
+            update(digest, tests.getOrDefault(testCases[i], new byte[0]));
+            fingerprints[i] = HexFormat.of().formatHex(digest.digest());
+        }
+        return fingerprints;
+    }
+
+    /**
+     * Returns a new SHA-256 message digest.
+     *
+     * @return the digest
+     */
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required by every Java platform", e);
+        }
+    }
+
+    /**
+     * Hashes the length of the given bytes before the bytes, so no two sequences of arguments
+     * hash the same concatenation.
+     *
+     * @param digest the digest to update
+     * @param bytes  the bytes to hash
+     */
+    static void update(final MessageDigest digest, final byte[] bytes) {
+        final int length = bytes.length;
+        digest.update(new byte[]{(byte) (length >>> 24), (byte) (length >>> 16), (byte) (length >>> 8), (byte) length});
+        digest.update(bytes);
+    }
+
+    /**
+     * Hashes the given text like its bytes in UTF-8.
+     *
+     * @param digest the digest to update
+     * @param text   the text to hash
+     */
+    static void update(final MessageDigest digest, final String text) {
+        update(digest, text.getBytes(StandardCharsets.UTF_8));
+    }
+}
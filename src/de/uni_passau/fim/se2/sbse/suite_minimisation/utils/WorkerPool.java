@@ -0,0 +1,55 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the workers of the coverage trackers, which take the next of a number of tasks from a
+ * shared counter until all have been taken.
+ */
+final class WorkerPool {
+
+    private WorkerPool() {
+    }
+
+    /**
+     * Runs the given worker on as many threads as requested, but not more than there are tasks.
+     * A single worker runs on the current thread. If a worker fails, the counter is moved past the
+     * last task, so the other workers stop after their current task, and the failure is rethrown.
+     *
+     * @param workers the number of threads, at least 1
+     * @param tasks   the number of tasks
+     * @param next    the position of the next task, shared by all workers
+     * @param worker  the worker, taking tasks from {@code next} until all have been taken
+     * @throws Exception if a worker failed
+     */
+    static void run(final int workers, final int tasks, final AtomicInteger next, final Callable<Void> worker)
+            throws Exception {
+        final int threads = Math.min(workers, tasks);
+        if (threads <= 1) {
+            worker.call();
+            return;
+        }
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            final List<Future<Void>> futures = new ArrayList<>(threads);
+            for (int w = 0; w < threads; w++) {
+                futures.add(executor.submit(worker));
+            }
+            for (Future<Void> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    next.set(tasks); // let the other workers stop early
+                    throw e.getCause() instanceof Exception cause ? cause : e;
+                }
+            }
+        }
+    }
+}
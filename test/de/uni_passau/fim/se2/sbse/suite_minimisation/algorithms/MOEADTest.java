@@ -0,0 +1,112 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.algorithms;
+
+import de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes.*;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.crossover.Crossover;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.crossover.SinglePointCrossover;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.fitness_functions.*;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.mutation.BitFlipMutation;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.mutation.Mutation;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.stopping_conditions.MaxFitnessEvaluations;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MOEADTest {
+
+    private ChromosomeGenerator<TestSuiteChromosome> generator() {
+        return () -> new TestSuiteChromosome(
+                new boolean[]{true, false, true, false},
+                new BitFlipMutation(),
+                new SinglePointCrossover()
+        );
+    }
+
+    private FitnessFunction<TestSuiteChromosome> sizeFF() {
+        return (MinimizingFitnessFunction<TestSuiteChromosome>)
+                c -> c.getNumberOfSelectedTests() / 4.0;
+    }
+
+    private FitnessFunction<TestSuiteChromosome> coverageFF() {
+        return (MaximizingFitnessFunction<TestSuiteChromosome>)
+                c -> Math.min(1.0, c.getNumberOfSelectedTests() / 3.0);
+    }
+
+    private MOEAD moead(MaxFitnessEvaluations sc, MOEAD.Scalarisation scalarisation) {
+        return new MOEAD(sc, new Random(1), 6, 3, scalarisation, generator(), sizeFF(), coverageFF());
+    }
+
+    @Test
+    void moeadProducesNonDominatedFront() {
+        List<TestSuiteChromosome> result =
+                moead(new MaxFitnessEvaluations(100), MOEAD.Scalarisation.TCHEBYCHEFF).findSolution();
+
+        assertFalse(result.isEmpty());
+        for (TestSuiteChromosome a : result) {
+            for (TestSuiteChromosome b : result) {
+                boolean dominates = sizeFF().applyAsDouble(a) <= sizeFF().applyAsDouble(b)
+                        && coverageFF().applyAsDouble(a) >= coverageFF().applyAsDouble(b)
+                        && !a.equals(b)
+                        && (sizeFF().applyAsDouble(a) < sizeFF().applyAsDouble(b)
+                        || coverageFF().applyAsDouble(a) > coverageFF().applyAsDouble(b));
+                assertFalse(dominates, a + " dominates " + b);
+            }
+        }
+    }
+
+    @Test
+    void immigrantsReplaceWorseSubproblemSolutions() {
+        // Without variation the subproblems keep their initial suite, which the immigrant dominates.
+        ChromosomeGenerator<TestSuiteChromosome> generator = () -> new TestSuiteChromosome(
+                new boolean[]{true, false, true, false}, Mutation.identity(), Crossover.identity());
+        TestSuiteChromosome immigrant = new TestSuiteChromosome(
+                new boolean[]{true, false, false, false}, Mutation.identity(), Crossover.identity());
+        FitnessFunction<TestSuiteChromosome> coverageFF = (MaximizingFitnessFunction<TestSuiteChromosome>)
+                c -> c.isSelected(0) ? 1.0 : 0.0;
+        MOEAD moead = new MOEAD(new MaxFitnessEvaluations(30), new Random(1), 6, 3,
+                MOEAD.Scalarisation.TCHEBYCHEFF, generator, sizeFF(), coverageFF);
+        moead.setImmigrants(() -> List.of(immigrant));
+
+        assertEquals(List.of(immigrant), moead.findSolution());
+    }
+
+    @Test
+    void moeadSupportsPbiScalarisation() {
+        List<TestSuiteChromosome> result =
+                moead(new MaxFitnessEvaluations(60), MOEAD.Scalarisation.PBI).findSolution();
+
+        assertFalse(result.isEmpty());
+    }
+
+    @Test
+    void moeadNeverExceedsBudget() {
+        MaxFitnessEvaluations sc = new MaxFitnessEvaluations(25);
+
+        moead(sc, MOEAD.Scalarisation.TCHEBYCHEFF).findSolution();
+
+        assertTrue(sc.searchMustStop());
+        assertEquals(1.0, sc.getProgress(), 1e-9);
+    }
+
+    @Test
+    void moeadReturnsPartialPopulationIfBudgetIsTiny() {
+        MaxFitnessEvaluations sc = new MaxFitnessEvaluations(2);
+
+        List<TestSuiteChromosome> result = moead(sc, MOEAD.Scalarisation.TCHEBYCHEFF).findSolution();
+
+        assertFalse(result.isEmpty());
+        assertTrue(result.size() <= 2);
+    }
+
+    @Test
+    void constructorRejectsInvalidSizes() {
+        assertThrows(IllegalArgumentException.class, () -> new MOEAD(
+                new MaxFitnessEvaluations(1), new Random(), 0, 1,
+                MOEAD.Scalarisation.TCHEBYCHEFF, generator(), sizeFF(), coverageFF()));
+        assertThrows(IllegalArgumentException.class, () -> new MOEAD(
+                new MaxFitnessEvaluations(1), new Random(), 1, 0,
+                MOEAD.Scalarisation.TCHEBYCHEFF, generator(), sizeFF(), coverageFF()));
+    }
+}
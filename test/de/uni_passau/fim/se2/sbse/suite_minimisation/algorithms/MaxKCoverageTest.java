@@ -0,0 +1,82 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.algorithms;
+
+import de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes.TestSuiteChromosome;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.crossover.SinglePointCrossover;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.mutation.BitFlipMutation;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.stopping_conditions.MaxFitnessEvaluations;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.utils.CoverageIndex;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MaxKCoverageTest {
+
+    // Greedy picks test 0 first, but tests 1 and 2 together cover all lines.
+    private static final boolean[][] MATRIX = {
+            {true, true, true, true, false, false},
+            {true, true, false, false, true, false},
+            {false, false, true, true, false, true},
+    };
+
+    private MaxKCoverage maxK(MaxFitnessEvaluations sc, boolean[][] matrix, int parallelism) {
+        return new MaxKCoverage(sc, new CoverageIndex(matrix), new BitFlipMutation(),
+                new SinglePointCrossover(), parallelism);
+    }
+
+    @Test
+    void swapsEscapeGreedyChoice() {
+        List<TestSuiteChromosome> front = maxK(new MaxFitnessEvaluations(100), MATRIX, 1).findSolution();
+
+        assertEquals(2, front.size());
+        assertArrayEquals(new boolean[]{true, false, false}, front.get(0).getGenes());
+        assertArrayEquals(new boolean[]{false, true, true}, front.get(1).getGenes());
+    }
+
+    @Test
+    void frontHasStrictlyIncreasingSizeAndCoverage() {
+        Random random = new Random(3);
+        boolean[][] matrix = new boolean[40][150];
+        for (boolean[] row : matrix) {
+            for (int l = 0; l < row.length; l++) row[l] = random.nextDouble() < 0.05;
+        }
+        CoverageIndex index = new CoverageIndex(matrix);
+
+        List<TestSuiteChromosome> front = maxK(new MaxFitnessEvaluations(10_000), matrix, 4).findSolution();
+
+        assertFalse(front.isEmpty());
+        int previousSize = 0;
+        int previousCovered = -1;
+        for (TestSuiteChromosome c : front) {
+            boolean[] covered = new boolean[150];
+            for (int t : c.getSelectedTestIndices()) {
+                for (int l = 0; l < 150; l++) covered[l] |= index.covers(t, l);
+            }
+            int count = 0;
+            for (boolean b : covered) if (b) count++;
+
+            assertTrue(c.getNumberOfSelectedTests() > previousSize);
+            assertTrue(count > previousCovered);
+            previousSize = c.getNumberOfSelectedTests();
+            previousCovered = count;
+        }
+    }
+
+    @Test
+    void budgetIsNeverExceeded() {
+        MaxFitnessEvaluations sc = new MaxFitnessEvaluations(1);
+
+        List<TestSuiteChromosome> front = maxK(sc, MATRIX, 2).findSolution();
+
+        assertTrue(front.size() <= 1);
+        assertEquals(1.0, sc.getProgress(), 1e-9);
+    }
+
+    @Test
+    void rejectsNonPositiveParallelism() {
+        assertThrows(IllegalArgumentException.class,
+                () -> maxK(new MaxFitnessEvaluations(1), MATRIX, 0));
+    }
+}
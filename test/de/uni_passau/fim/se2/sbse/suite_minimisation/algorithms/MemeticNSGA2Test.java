@@ -0,0 +1,140 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.algorithms;
+
+import de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes.*;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.crossover.SinglePointCrossover;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.fitness_functions.*;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.mutation.BitFlipMutation;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.stopping_conditions.MaxFitnessEvaluations;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.utils.CoverageIndex;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MemeticNSGA2Test {
+
+    // Test 2 covers everything tests 0 and 1 cover; test 3 is the only one covering line 3.
+    private static final boolean[][] MATRIX = {
+            {true, false, false, false},
+            {false, true, false, false},
+            {true, true, true, false},
+            {false, false, false, true},
+    };
+
+    private FitnessFunction<TestSuiteChromosome> sizeFF() {
+        return (MinimizingFitnessFunction<TestSuiteChromosome>)
+                c -> c.getNumberOfSelectedTests() / (double) MATRIX.length;
+    }
+
+    private FitnessFunction<TestSuiteChromosome> coverageFF() {
+        return (MaximizingFitnessFunction<TestSuiteChromosome>) c -> {
+            boolean[] covered = new boolean[4];
+            for (int t : c.getSelectedTestIndices()) {
+                for (int l = 0; l < 4; l++) covered[l] |= MATRIX[t][l];
+            }
+            int count = 0;
+            for (boolean b : covered) if (b) count++;
+            return count / 4.0;
+        };
+    }
+
+    private MemeticNSGA2 memetic(MaxFitnessEvaluations sc, boolean[][] matrix, double rate, boolean swaps) {
+        ChromosomeGenerator<TestSuiteChromosome> generator = () -> new TestSuiteChromosome(
+                new boolean[matrix.length], new BitFlipMutation(), new SinglePointCrossover());
+        return new MemeticNSGA2(sc, new Random(1), 4, generator, sizeFF(), coverageFF(),
+                new CoverageIndex(matrix), rate, swaps);
+    }
+
+    @Test
+    void improveRemovesRedundantTests() {
+        MemeticNSGA2 nsga2 = memetic(new MaxFitnessEvaluations(10), MATRIX, 1.0, false);
+
+        TestSuiteChromosome improved =
+                nsga2.improve(new TestSuiteChromosome(new boolean[]{true, true, true, false}));
+
+        assertArrayEquals(new boolean[]{false, false, true, false}, improved.getGenes());
+    }
+
+    @Test
+    void hitCountsDoNotLeakIntoTheNextImprovement() {
+        MemeticNSGA2 nsga2 = memetic(new MaxFitnessEvaluations(10), MATRIX, 1.0, false);
+        nsga2.improve(new TestSuiteChromosome(new boolean[]{true, true, true, false}));
+        TestSuiteChromosome offspring = new TestSuiteChromosome(new boolean[]{true, true, false, false});
+
+        // Tests 0 and 1 each cover a line no other selected test covers.
+        assertSame(offspring, nsga2.improve(offspring));
+    }
+
+    @Test
+    void improveOnlyTriesToCoverCoverableLines() {
+        MaxFitnessEvaluations sc = new MaxFitnessEvaluations(10);
+        sc.notifySearchStarted();
+        boolean[][] matrix = new boolean[2][200];
+        matrix[0][0] = true;
+        matrix[1][0] = true;
+        matrix[1][199] = true;
+        MemeticNSGA2 nsga2 = memetic(sc, matrix, 1.0, true);
+
+        TestSuiteChromosome improved = nsga2.improve(new TestSuiteChromosome(new boolean[]{true, false}));
+
+        // Line 199 is the only missed line some test covers, although most lines are missed.
+        assertArrayEquals(new boolean[]{false, true}, improved.getGenes());
+        assertEquals(0.1, sc.getProgress(), 1e-9);
+    }
+
+    @Test
+    void improveSwapsInTestCoveringMissedLineAndChargesBudget() {
+        MaxFitnessEvaluations sc = new MaxFitnessEvaluations(10);
+        sc.notifySearchStarted();
+        boolean[][] matrix = {
+                {true, false, false},
+                {true, true, true},
+        };
+        MemeticNSGA2 nsga2 = memetic(sc, matrix, 1.0, true);
+
+        TestSuiteChromosome improved = nsga2.improve(new TestSuiteChromosome(new boolean[]{true, false}));
+
+        // Test 1 is the only one covering the missed lines and loses nothing when swapped in.
+        assertArrayEquals(new boolean[]{false, true}, improved.getGenes());
+        assertEquals(0.1, sc.getProgress(), 1e-9);
+    }
+
+    @Test
+    void improveDoesNotSwapOnceBudgetIsExhausted() {
+        MaxFitnessEvaluations sc = new MaxFitnessEvaluations(1);
+        sc.notifySearchStarted();
+        sc.notifyFitnessEvaluation();
+        MemeticNSGA2 nsga2 = memetic(sc, MATRIX, 1.0, true);
+        TestSuiteChromosome offspring = new TestSuiteChromosome(new boolean[]{true, false, false, false});
+
+        assertSame(offspring, nsga2.improve(offspring));
+        assertEquals(1.0, sc.getProgress(), 1e-9);
+    }
+
+    @Test
+    void improveLeavesOffspringAloneWhenRateIsZero() {
+        MemeticNSGA2 nsga2 = memetic(new MaxFitnessEvaluations(10), MATRIX, 0.0, true);
+        TestSuiteChromosome offspring = new TestSuiteChromosome(new boolean[]{true, true, true, false});
+
+        assertSame(offspring, nsga2.improve(offspring));
+    }
+
+    @Test
+    void memeticSearchRespectsBudget() {
+        MaxFitnessEvaluations sc = new MaxFitnessEvaluations(41);
+
+        List<TestSuiteChromosome> result =
+                memetic(sc, MATRIX, 1.0, true).findSolution();
+
+        assertFalse(result.isEmpty());
+        assertEquals(1.0, sc.getProgress(), 1e-9);
+    }
+
+    @Test
+    void constructorRejectsInvalidRate() {
+        assertThrows(IllegalArgumentException.class,
+                () -> memetic(new MaxFitnessEvaluations(1), MATRIX, 1.5, true));
+    }
+}
@@ -1,12 +1,18 @@
 package de.uni_passau.fim.se2.sbse.suite_minimisation.algorithms;
 
 import de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes.*;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.crossover.Crossover;
 import de.uni_passau.fim.se2.sbse.suite_minimisation.crossover.SinglePointCrossover;
 import de.uni_passau.fim.se2.sbse.suite_minimisation.fitness_functions.*;
 import de.uni_passau.fim.se2.sbse.suite_minimisation.mutation.BitFlipMutation;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.mutation.Mutation;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.selection.BinaryTournamentSelection;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.selection.Selection;
 import de.uni_passau.fim.se2.sbse.suite_minimisation.stopping_conditions.MaxFitnessEvaluations;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.utils.Randomness;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 
@@ -88,4 +94,75 @@ class NSGA2Test {
         assertDoesNotThrow(() -> nsga2.nsga2Comparator().compare(a, b));
     }
 
+    @Test
+    void poolingDoesNotChangeTheResult() {
+        List<List<TestSuiteChromosome>> fronts = new ArrayList<>();
+        for (boolean pooling : new boolean[]{false, true}) {
+            ChromosomeGenerator<TestSuiteChromosome> generator = new TestSuiteChromosomeGenerator(
+                    40, new BitFlipMutation(), new SinglePointCrossover());
+            FitnessFunction<TestSuiteChromosome> coverageFF = (MaximizingFitnessFunction<TestSuiteChromosome>)
+                    c -> Long.bitCount(c.getWord(0) & 0x5555_5555_5555L);
+            NSGA2 nsga2 = new NSGA2(new MaxFitnessEvaluations(500), new Random(1), 10, generator,
+                    sizeFF(), coverageFF, new GenomePool(pooling));
+
+            Randomness.setSeed(3);
+            fronts.add(nsga2.findSolution());
+        }
+
+        assertEquals(fronts.get(0), fronts.get(1));
+    }
+
+    @Test
+    void immigrantsCompeteInSurvivorSelection() {
+        // Without variation the population never leaves the suite {0}, which the immigrant {1} dominates.
+        ChromosomeGenerator<TestSuiteChromosome> generator = () -> new TestSuiteChromosome(
+                new boolean[]{true, false}, Mutation.identity(), Crossover.identity());
+        FitnessFunction<TestSuiteChromosome> coverageFF = (MaximizingFitnessFunction<TestSuiteChromosome>)
+                c -> c.isSelected(1) ? 1.0 : 0.5;
+        TestSuiteChromosome immigrant = new TestSuiteChromosome(
+                new boolean[]{false, true}, Mutation.identity(), Crossover.identity());
+        NSGA2 nsga2 = new NSGA2(new MaxFitnessEvaluations(20), new Random(1), 4, generator,
+                sizeFF(), coverageFF, new GenomePool(true));
+        nsga2.setImmigrants(() -> List.of(immigrant));
+
+        List<TestSuiteChromosome> result = nsga2.findSolution();
+
+        assertFalse(result.isEmpty());
+        for (TestSuiteChromosome c : result) {
+            assertEquals(immigrant, c);
+            assertNotSame(immigrant, c);
+        }
+    }
+
+    @Test
+    void otherSelectionsSelectAllParentsOfAGenerationAtOnce() {
+        NSGA2 nsga2 = new NSGA2(
+                new MaxFitnessEvaluations(40),
+                new Random(1),
+                4,
+                generator(),
+                sizeFF(),
+                coverageFF()
+        );
+        var tournament = new BinaryTournamentSelection<>(nsga2.nsga2Comparator(), new Random(1));
+        List<Integer> batches = new ArrayList<>();
+        nsga2.setSelection(new Selection<>() {
+            @Override
+            public TestSuiteChromosome apply(List<TestSuiteChromosome> population) {
+                return tournament.apply(population);
+            }
+
+            @Override
+            public int[] selectIndices(List<TestSuiteChromosome> population, int count) {
+                batches.add(count);
+                return Selection.super.selectIndices(population, count);
+            }
+        });
+
+        List<TestSuiteChromosome> result = nsga2.findSolution();
+
+        assertFalse(result.isEmpty());
+        assertFalse(batches.isEmpty());
+        assertTrue(batches.stream().allMatch(count -> count == 4));
+    }
 }
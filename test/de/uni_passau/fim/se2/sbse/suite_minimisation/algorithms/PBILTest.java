@@ -0,0 +1,154 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.algorithms;
+
+import de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes.TestSuiteChromosome;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.crossover.Crossover;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.fitness_functions.*;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.mutation.Mutation;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.stopping_conditions.MaxFitnessEvaluations;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.utils.Randomness;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PBILTest {
+
+    private static final boolean[][] MATRIX = {
+            {true, true, false, false},
+            {false, false, true, false},
+            {false, false, false, true},
+            {true, false, true, false},
+            {false, true, false, true},
+    };
+
+    private FitnessFunction<TestSuiteChromosome> sizeFF() {
+        return (MinimizingFitnessFunction<TestSuiteChromosome>)
+                c -> c.getNumberOfSelectedTests() / (double) c.length();
+    }
+
+    private FitnessFunction<TestSuiteChromosome> coverageFF() {
+        return (MaximizingFitnessFunction<TestSuiteChromosome>) c -> {
+            boolean[] covered = new boolean[4];
+            for (int t : c.getSelectedTestIndices()) {
+                for (int l = 0; l < 4; l++) covered[l] |= MATRIX[t][l];
+            }
+            int count = 0;
+            for (boolean b : covered) if (b) count++;
+            return count / 4.0;
+        };
+    }
+
+    private PBIL pbil(MaxFitnessEvaluations budget, int numberOfTests) {
+        return new PBIL(budget, 10, numberOfTests, 0.3, sizeFF(), coverageFF(),
+                Mutation.identity(), Crossover.identity());
+    }
+
+    private boolean dominates(TestSuiteChromosome a, TestSuiteChromosome b) {
+        double as = sizeFF().applyAsDouble(a), bs = sizeFF().applyAsDouble(b);
+        double ac = coverageFF().applyAsDouble(a), bc = coverageFF().applyAsDouble(b);
+        return as <= bs && ac >= bc && (as < bs || ac > bc);
+    }
+
+    @Test
+    void pbilReturnsMutuallyNonDominatedSolutions() {
+        List<TestSuiteChromosome> front = pbil(new MaxFitnessEvaluations(200), MATRIX.length).findSolution();
+
+        assertFalse(front.isEmpty());
+        for (TestSuiteChromosome a : front) {
+            for (TestSuiteChromosome b : front) {
+                assertFalse(dominates(a, b));
+            }
+        }
+    }
+
+    @Test
+    void pbilFindsTheOptimalFrontOfASmallProblem() {
+        List<TestSuiteChromosome> front = pbil(new MaxFitnessEvaluations(500), MATRIX.length).findSolution();
+
+        // Optimal: one test covers 2 lines, two tests cover all 4.
+        assertEquals(2, front.size());
+        assertEquals(0.5, coverageFF().applyAsDouble(front.get(0)));
+        assertEquals(1.0, coverageFF().applyAsDouble(front.get(1)));
+        assertEquals(2, front.get(1).getNumberOfSelectedTests());
+    }
+
+    @Test
+    void pbilStopsExactlyAtTheBudget() {
+        // 23 is not a multiple of the population size, so the last generation is partial.
+        MaxFitnessEvaluations budget = new MaxFitnessEvaluations(23);
+
+        pbil(budget, MATRIX.length).findSolution();
+
+        assertEquals(1.0, budget.getProgress());
+    }
+
+    @Test
+    void samplesFollowTheInitialProbabilities() {
+        int tests = 130;
+        PBIL pbil = pbil(new MaxFitnessEvaluations(1), tests);
+        Random random = new Random(5);
+
+        int runs = 4000;
+        int[] hits = new int[tests];
+        for (int run = 0; run < runs; run++) {
+            TestSuiteChromosome c = pbil.sample(random);
+            assertEquals(tests, c.length());
+            for (int t : c.getSelectedTestIndices()) hits[t]++;
+        }
+
+        for (int t = 0; t < tests; t++) {
+            assertEquals(0.5, hits[t] / (double) runs, 0.05, "test " + t);
+        }
+    }
+
+    @Test
+    void resultDoesNotDependOnScheduling() {
+        Randomness.setSeed(11);
+        List<TestSuiteChromosome> first = pbil(new MaxFitnessEvaluations(300), MATRIX.length).findSolution();
+        Randomness.setSeed(11);
+        List<TestSuiteChromosome> second = pbil(new MaxFitnessEvaluations(300), MATRIX.length).findSolution();
+
+        assertEquals(first, second);
+    }
+
+    @Test
+    void emptySamplesAreRepairedReproducibly() {
+        // With two tests, a quarter of all samples is empty and gets a random test added.
+        List<String> first = evaluatedSamples();
+        List<String> second = evaluatedSamples();
+
+        assertEquals(64 * 20, first.size());
+        assertEquals(first, second);
+    }
+
+    /**
+     * Returns every suite a seeded run of PBIL on two tests evaluated, in sorted order, as the
+     * order of evaluation depends on the scheduling of the chunks.
+     */
+    private List<String> evaluatedSamples() {
+        List<String> samples = Collections.synchronizedList(new ArrayList<>());
+        FitnessFunction<TestSuiteChromosome> coverageFF = (MaximizingFitnessFunction<TestSuiteChromosome>) c -> {
+            samples.add(c.toString());
+            return c.isSelected(0) ? 1.0 : 0.0;
+        };
+        Randomness.setSeed(3);
+        new PBIL(new MaxFitnessEvaluations(64 * 20), 64, 2, 0.3, sizeFF(), coverageFF,
+                Mutation.identity(), Crossover.identity()).findSolution();
+
+        List<String> sorted = new ArrayList<>(samples);
+        Collections.sort(sorted);
+        return sorted;
+    }
+
+    @Test
+    void invalidLearningRateIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new PBIL(new MaxFitnessEvaluations(1), 10,
+                MATRIX.length, 0.0, sizeFF(), coverageFF(), Mutation.identity(), Crossover.identity()));
+        assertThrows(IllegalArgumentException.class, () -> new PBIL(new MaxFitnessEvaluations(1), 10,
+                MATRIX.length, 1.5, sizeFF(), coverageFF(), Mutation.identity(), Crossover.identity()));
+    }
+}
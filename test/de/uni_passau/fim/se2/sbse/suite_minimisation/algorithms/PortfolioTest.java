@@ -0,0 +1,151 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.algorithms;
+
+import de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes.TestSuiteChromosome;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.crossover.SinglePointCrossover;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.fitness_functions.*;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.mutation.BitFlipMutation;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.stopping_conditions.MaxFitnessEvaluations;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.stopping_conditions.SharedBudget;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.stopping_conditions.StoppingCondition;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.utils.ParetoArchive;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PortfolioTest {
+
+    private static final FitnessFunction<TestSuiteChromosome> SIZE =
+            (MinimizingFitnessFunction<TestSuiteChromosome>) c -> c.getNumberOfSelectedTests() / 3.0;
+
+    // Coverage is simply the index of the first selected test, so suites can be told apart.
+    private static final FitnessFunction<TestSuiteChromosome> COVERAGE =
+            (MaximizingFitnessFunction<TestSuiteChromosome>) c -> c.getSelectedTestIndices().get(0) / 3.0;
+
+    private static TestSuiteChromosome suite(boolean... genes) {
+        return new TestSuiteChromosome(genes, new BitFlipMutation(), new SinglePointCrossover());
+    }
+
+    /**
+     * A member that consumes the given number of evaluations and then returns a fixed front.
+     */
+    private static GeneticAlgorithm<TestSuiteChromosome> member(
+            SharedBudget budget, int evaluations, TestSuiteChromosome... front) {
+        return new GeneticAlgorithm<>() {
+            @Override
+            public List<TestSuiteChromosome> findSolution() {
+                notifySearchStarted();
+                for (int i = 0; i < evaluations; i++) {
+                    // check and charge atomically, so the members never exceed the budget together
+                    synchronized (budget) {
+                        if (searchMustStop()) break;
+                        notifyFitnessEvaluation();
+                    }
+                }
+                return List.of(front);
+            }
+
+            @Override
+            public StoppingCondition getStoppingCondition() {
+                return budget;
+            }
+        };
+    }
+
+    @Test
+    void mergesFrontsOfAllMembers() {
+        MaxFitnessEvaluations evaluations = MaxFitnessEvaluations.of(100);
+        SharedBudget budget = new SharedBudget(evaluations);
+        TestSuiteChromosome small = suite(false, true, false);     // size 1/3, coverage 1/3
+        TestSuiteChromosome dominated = suite(true, true, false);  // size 2/3, coverage 0
+        TestSuiteChromosome large = suite(false, true, true);      // size 2/3, coverage 1/3
+        TestSuiteChromosome best = suite(false, false, true);      // size 1/3, coverage 2/3
+
+        Portfolio portfolio = new Portfolio(budget, List.of(
+                member(budget, 30, small, dominated),
+                member(budget, 30, large, best)
+        ), SIZE, COVERAGE);
+
+        List<TestSuiteChromosome> front = portfolio.findSolution();
+
+        assertEquals(List.of(best), front);
+        assertEquals(0.6, evaluations.getProgress(), 1e-9);
+    }
+
+    @Test
+    void returnsSolutionsMembersSharedDuringTheSearch() {
+        SharedBudget budget = new SharedBudget(MaxFitnessEvaluations.of(10));
+        ParetoArchive<TestSuiteChromosome> archive = new ParetoArchive<>();
+        archive.offer(suite(true, false, false), 1.0 / 3, 0.0); // left over from an earlier search
+        TestSuiteChromosome best = suite(false, false, true);
+
+        // The member offers a suite while it searches, but discards it before it finishes.
+        GeneticAlgorithm<TestSuiteChromosome> discarding = new GeneticAlgorithm<>() {
+            @Override
+            public List<TestSuiteChromosome> findSolution() {
+                archive.offer(best, SIZE.applyAsDouble(best), COVERAGE.applyAsDouble(best));
+                return List.of();
+            }
+
+            @Override
+            public StoppingCondition getStoppingCondition() {
+                return budget;
+            }
+        };
+
+        Portfolio portfolio = new Portfolio(budget, archive,
+                List.of(discarding, member(budget, 5, suite(false, true, true))), SIZE, COVERAGE);
+
+        assertEquals(List.of(best), portfolio.findSolution());
+    }
+
+    @Test
+    void membersShareOneBudget() {
+        MaxFitnessEvaluations evaluations = MaxFitnessEvaluations.of(50);
+        SharedBudget budget = new SharedBudget(evaluations);
+
+        Portfolio portfolio = new Portfolio(budget, List.of(
+                member(budget, 1_000, suite(true, false, false)),
+                member(budget, 1_000, suite(false, true, false)),
+                member(budget, 1_000, suite(false, false, true))
+        ), SIZE, COVERAGE);
+
+        portfolio.findSolution();
+
+        assertTrue(budget.searchMustStop());
+        assertEquals(1.0, evaluations.getProgress(), 1e-9);
+    }
+
+    @Test
+    void failingMemberIsReported() {
+        SharedBudget budget = new SharedBudget(MaxFitnessEvaluations.of(10));
+        GeneticAlgorithm<TestSuiteChromosome> failing = new GeneticAlgorithm<>() {
+            @Override
+            public List<TestSuiteChromosome> findSolution() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public StoppingCondition getStoppingCondition() {
+                return budget;
+            }
+        };
+
+        Portfolio portfolio = new Portfolio(budget, List.of(failing), SIZE, COVERAGE);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, portfolio::findSolution);
+        assertInstanceOf(UnsupportedOperationException.class, e.getCause());
+    }
+
+    @Test
+    void rejectsMembersWithOtherStoppingCondition() {
+        SharedBudget budget = new SharedBudget(MaxFitnessEvaluations.of(10));
+        SharedBudget other = new SharedBudget(MaxFitnessEvaluations.of(10));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new Portfolio(budget, List.of(member(other, 1)), SIZE, COVERAGE));
+        assertThrows(IllegalArgumentException.class,
+                () -> new Portfolio(budget, List.of(), SIZE, COVERAGE));
+    }
+}
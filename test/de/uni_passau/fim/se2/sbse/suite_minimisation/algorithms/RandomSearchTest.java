@@ -104,4 +104,47 @@ class RandomSearchTest {
             assertTrue(c.getNumberOfSelectedTests() >= 1);
         }
     }
+
+    @Test
+    void quasiRandomSamplingReturnsValidFrontWithinBudget() {
+        MaxFitnessEvaluations sc = new MaxFitnessEvaluations(40);
+        RandomSearch rs = new RandomSearch(
+                sc,
+                generator(),
+                sizeFF(),
+                coverageFF(),
+                coverageMatrix(),
+                3,
+                2,
+                SamplingType.QUASI_RANDOM
+        );
+
+        List<TestSuiteChromosome> result = rs.findSolution();
+
+        assertFalse(result.isEmpty());
+        for (TestSuiteChromosome c : result) {
+            assertTrue(c.getNumberOfSelectedTests() >= 1);
+        }
+        assertEquals(1.0, sc.getProgress());
+    }
+
+    @Test
+    void vanDerCorputMirrorsTheBitsOfTheIndex() {
+        assertEquals(0.5, RandomSearch.vanDerCorput(1));
+        assertEquals(0.25, RandomSearch.vanDerCorput(2));
+        assertEquals(0.75, RandomSearch.vanDerCorput(3));
+        assertEquals(0.125, RandomSearch.vanDerCorput(4));
+        assertEquals(0.625, RandomSearch.vanDerCorput(5));
+    }
+
+    @Test
+    void vanDerCorputFillsEveryStratum() {
+        // The first 2^m points hit each of the 2^m strata of the unit interval exactly once.
+        boolean[] hit = new boolean[64];
+        for (int i = 0; i < 64; i++) {
+            int stratum = (int) (RandomSearch.vanDerCorput(i) * 64);
+            assertFalse(hit[stratum], "stratum " + stratum);
+            hit[stratum] = true;
+        }
+    }
 }
@@ -0,0 +1,110 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.algorithms;
+
+import de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes.*;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.crossover.SinglePointCrossover;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.fitness_functions.*;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.mutation.BitFlipMutation;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.stopping_conditions.MaxFitnessEvaluations;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SMSEMOATest {
+
+    private static final boolean[][] MATRIX = {
+            {true, true, false, false},
+            {false, false, true, false},
+            {false, false, false, true},
+            {true, false, true, false},
+            {false, true, false, true},
+    };
+
+    private ChromosomeGenerator<TestSuiteChromosome> generator() {
+        Random random = new Random(3);
+        return () -> {
+            boolean[] genes = new boolean[MATRIX.length];
+            genes[random.nextInt(genes.length)] = true;
+            return new TestSuiteChromosome(genes, new BitFlipMutation(), new SinglePointCrossover());
+        };
+    }
+
+    private FitnessFunction<TestSuiteChromosome> sizeFF() {
+        return (MinimizingFitnessFunction<TestSuiteChromosome>)
+                c -> c.getNumberOfSelectedTests() / (double) MATRIX.length;
+    }
+
+    private FitnessFunction<TestSuiteChromosome> coverageFF() {
+        return (MaximizingFitnessFunction<TestSuiteChromosome>) c -> {
+            boolean[] covered = new boolean[4];
+            for (int t : c.getSelectedTestIndices()) {
+                for (int l = 0; l < 4; l++) covered[l] |= MATRIX[t][l];
+            }
+            int count = 0;
+            for (boolean b : covered) if (b) count++;
+            return count / 4.0;
+        };
+    }
+
+    private boolean dominates(TestSuiteChromosome a, TestSuiteChromosome b) {
+        double as = sizeFF().applyAsDouble(a), bs = sizeFF().applyAsDouble(b);
+        double ac = coverageFF().applyAsDouble(a), bc = coverageFF().applyAsDouble(b);
+        return as <= bs && ac >= bc && (as < bs || ac > bc);
+    }
+
+    @Test
+    void smsEmoaReturnsMutuallyNonDominatedSolutions() {
+        SMSEMOA sms = new SMSEMOA(new MaxFitnessEvaluations(300), new Random(1), 6,
+                generator(), sizeFF(), coverageFF());
+
+        List<TestSuiteChromosome> result = sms.findSolution();
+
+        assertFalse(result.isEmpty());
+        for (TestSuiteChromosome a : result) {
+            for (TestSuiteChromosome b : result) {
+                assertFalse(dominates(a, b), a + " dominates " + b);
+            }
+        }
+    }
+
+    @Test
+    void smsEmoaReturnsNoDuplicates() {
+        SMSEMOA sms = new SMSEMOA(new MaxFitnessEvaluations(200), new Random(2), 8,
+                generator(), sizeFF(), coverageFF());
+
+        List<TestSuiteChromosome> result = sms.findSolution();
+
+        assertEquals(result.size(), new HashSet<>(result).size());
+    }
+
+    @Test
+    void smsEmoaFindsOptimalTradeOffsOnSmallProblem() {
+        SMSEMOA sms = new SMSEMOA(new MaxFitnessEvaluations(2000), new Random(4), 10,
+                generator(), sizeFF(), coverageFF());
+
+        List<TestSuiteChromosome> result = sms.findSolution();
+
+        // Tests 3 and 4 together cover all lines.
+        assertTrue(result.stream().anyMatch(c ->
+                c.getNumberOfSelectedTests() == 2 && coverageFF().applyAsDouble(c) == 1.0));
+    }
+
+    @Test
+    void smsEmoaRespectsStoppingCondition() {
+        MaxFitnessEvaluations sc = new MaxFitnessEvaluations(7);
+
+        new SMSEMOA(sc, new Random(1), 4, generator(), sizeFF(), coverageFF()).findSolution();
+
+        assertTrue(sc.searchMustStop());
+        assertEquals(1.0, sc.getProgress(), 1e-9);
+    }
+
+    @Test
+    void constructorRejectsNonPositivePopulationSize() {
+        assertThrows(IllegalArgumentException.class, () -> new SMSEMOA(
+                new MaxFitnessEvaluations(1), new Random(), 0, generator(), sizeFF(), coverageFF()));
+    }
+}
@@ -0,0 +1,82 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes;
+
+import de.uni_passau.fim.se2.sbse.suite_minimisation.crossover.Crossover;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.mutation.Mutation;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.random.RandomGenerator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FloydChromosomeGeneratorTest {
+
+    @Test
+    void sampleSelectsExactlyKTestsWithinLength() {
+        RandomGenerator random = new Random(3);
+        int length = 130;
+        for (int k = 0; k <= length; k++) {
+            long[] words = new long[TestSuiteChromosome.wordsFor(length)];
+            FloydChromosomeGenerator.sample(words, length, k, random);
+
+            int count = 0;
+            for (long word : words) count += Long.bitCount(word);
+            assertEquals(k, count, "k = " + k);
+            assertEquals(0, words[words.length - 1] >>> (length & 63), "bits beyond the length");
+        }
+    }
+
+    @Test
+    void sampleIsUniformForSmallAndLargeK() {
+        RandomGenerator random = new Random(7);
+        int length = 10;
+        int runs = 20_000;
+        for (int k : new int[]{3, 8}) {
+            int[] hits = new int[length];
+            for (int run = 0; run < runs; run++) {
+                long[] words = new long[1];
+                FloydChromosomeGenerator.sample(words, length, k, random);
+                for (int t = 0; t < length; t++) {
+                    if ((words[0] & (1L << t)) != 0) hits[t]++;
+                }
+            }
+
+            double expected = (double) runs * k / length;
+            for (int t = 0; t < length; t++) {
+                assertEquals(expected, hits[t], expected * 0.05, "k = " + k + ", test " + t);
+            }
+        }
+    }
+
+    @Test
+    void sampleRejectsInvalidK() {
+        long[] words = new long[1];
+        RandomGenerator random = new Random(1);
+        assertThrows(IllegalArgumentException.class,
+                () -> FloydChromosomeGenerator.sample(words, 10, 11, random));
+        assertThrows(IllegalArgumentException.class,
+                () -> FloydChromosomeGenerator.sample(words, 10, -1, random));
+    }
+
+    @Test
+    void generatorProducesNonEmptySuitesOfCorrectLength() {
+        FloydChromosomeGenerator gen = new FloydChromosomeGenerator(70, null, null);
+
+        for (int i = 0; i < 100; i++) {
+            TestSuiteChromosome c = gen.get();
+            assertEquals(70, c.length());
+            assertTrue(c.getNumberOfSelectedTests() >= 1);
+        }
+    }
+
+    @Test
+    void generatorUsesProvidedOperators() {
+        Mutation<TestSuiteChromosome> m = Mutation.identity();
+        Crossover<TestSuiteChromosome> x = Crossover.identity();
+
+        TestSuiteChromosome c = new FloydChromosomeGenerator(10, m, x).get();
+
+        assertSame(m, c.getMutation());
+        assertSame(x, c.getCrossover());
+    }
+}
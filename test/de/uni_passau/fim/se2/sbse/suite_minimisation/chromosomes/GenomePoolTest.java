@@ -0,0 +1,91 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes;
+
+import de.uni_passau.fim.se2.sbse.suite_minimisation.crossover.Crossover;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.crossover.SinglePointCrossover;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.mutation.GeometricBitFlipMutation;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.mutation.Mutation;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.utils.Pair;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.utils.Randomness;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GenomePoolTest {
+
+    private final Mutation<TestSuiteChromosome> mutation = new GeometricBitFlipMutation();
+    private final Crossover<TestSuiteChromosome> crossover = new SinglePointCrossover();
+
+    private TestSuiteChromosome chromosome(int length, int selectedEvery) {
+        boolean[] genes = new boolean[length];
+        for (int i = 0; i < length; i += selectedEvery) genes[i] = true;
+        return new TestSuiteChromosome(genes, mutation, crossover);
+    }
+
+    @Test
+    void breedsIntoReleasedChromosomes() {
+        GenomePool pool = new GenomePool(true);
+        TestSuiteChromosome released1 = chromosome(100, 3);
+        TestSuiteChromosome released2 = chromosome(100, 5);
+        pool.release(released1);
+        pool.release(released2);
+
+        TestSuiteChromosome[] children = new TestSuiteChromosome[2];
+        pool.breed(chromosome(100, 2), chromosome(100, 7), children);
+
+        assertEquals(0, pool.available());
+        assertSame(released2, children[0]);
+        assertSame(released1, children[1]);
+    }
+
+    @Test
+    void breedsSameOffspringAsAllocatingOperators() {
+        TestSuiteChromosome p1 = chromosome(130, 2);
+        TestSuiteChromosome p2 = chromosome(130, 3);
+        GenomePool pool = new GenomePool(true);
+        TestSuiteChromosome[] children = new TestSuiteChromosome[2];
+
+        for (int run = 0; run < 20; run++) {
+            Randomness.setSeed(run);
+            Pair<TestSuiteChromosome> expected = p1.crossover(p2);
+            TestSuiteChromosome expected1 = expected.getFst().mutate();
+            TestSuiteChromosome expected2 = expected.getSnd().mutate();
+
+            Randomness.setSeed(run);
+            pool.breed(p1, p2, children);
+
+            assertEquals(expected1, children[0]);
+            assertEquals(expected2, children[1]);
+
+            pool.release(children[0]);
+            pool.release(children[1]);
+        }
+    }
+
+    @Test
+    void disabledPoolNeverRecycles() {
+        GenomePool pool = new GenomePool(false);
+        TestSuiteChromosome released = chromosome(10, 2);
+        pool.release(released);
+
+        TestSuiteChromosome[] children = new TestSuiteChromosome[2];
+        pool.breed(chromosome(10, 1), chromosome(10, 3), children);
+
+        assertEquals(0, pool.available());
+        assertNotSame(released, children[0]);
+        assertNotSame(released, children[1]);
+    }
+
+    @Test
+    void doesNotRecycleChromosomesWithOtherOperators() {
+        GenomePool pool = new GenomePool(true);
+        TestSuiteChromosome foreign = new TestSuiteChromosome(
+                new boolean[]{true, false}, new GeometricBitFlipMutation(), crossover);
+        pool.release(foreign);
+
+        TestSuiteChromosome[] children = new TestSuiteChromosome[2];
+        pool.breed(chromosome(2, 1), chromosome(2, 2), children);
+
+        assertNotSame(foreign, children[0]);
+        assertSame(mutation, children[0].getMutation());
+    }
+}
@@ -0,0 +1,71 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes;
+
+import de.uni_passau.fim.se2.sbse.suite_minimisation.crossover.Crossover;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.mutation.Mutation;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.utils.CoverageIndex;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeededPopulationInitialiserTest {
+
+    // Greedy order: 2 (3 lines), 0 (1 new line); test 1 adds nothing.
+    private static final CoverageIndex INDEX = new CoverageIndex(new boolean[][]{
+            {true, false, false, false},
+            {false, true, false, false},
+            {false, true, true, true},
+    });
+
+    private static SeededPopulationInitialiser initialiser() {
+        return new SeededPopulationInitialiser(INDEX, Mutation.identity(), Crossover.identity());
+    }
+
+    @Test
+    void startsWithFullSuiteGreedyPrefixesAndTopSingles() {
+        List<TestSuiteChromosome> population = initialiser().initialise(16);
+
+        assertEquals(16, population.size());
+        assertArrayEquals(new boolean[]{true, true, true}, population.get(0).getGenes());
+        assertArrayEquals(new boolean[]{false, false, true}, population.get(1).getGenes());
+        assertArrayEquals(new boolean[]{true, false, true}, population.get(2).getGenes());
+        // The best single test equals the first greedy prefix, so the next-best one follows.
+        assertArrayEquals(new boolean[]{true, false, false}, population.get(3).getGenes());
+    }
+
+    @Test
+    void seedsAreDistinct() {
+        List<TestSuiteChromosome> population = initialiser().initialise(16);
+
+        assertEquals(4, new HashSet<>(population.subList(0, 4)).size());
+    }
+
+    @Test
+    void randomSuitesSpreadOverAllSizes() {
+        int tests = 200;
+        boolean[][] matrix = new boolean[tests][1];
+        matrix[0][0] = true;
+        var initialiser = new SeededPopulationInitialiser(
+                new CoverageIndex(matrix), Mutation.identity(), Crossover.identity());
+
+        List<TestSuiteChromosome> population = initialiser.initialise(100);
+
+        // Seeds: the full suite, the greedy prefix {0}, and the single tests 1..11.
+        List<TestSuiteChromosome> random = population.subList(13, population.size());
+        assertEquals(87, random.size());
+        for (int i = 0; i < random.size(); i++) {
+            int size = random.get(i).getNumberOfSelectedTests();
+            int lower = 1 + (int) ((double) i / random.size() * tests);
+            int upper = 1 + (int) ((double) (i + 1) / random.size() * tests);
+            assertTrue(lower <= size && size <= Math.min(upper, tests), i + ": " + size);
+        }
+    }
+
+    @Test
+    void smallPopulationsKeepTheirSize() {
+        assertEquals(1, initialiser().initialise(1).size());
+        assertEquals(3, initialiser().initialise(3).size());
+    }
+}
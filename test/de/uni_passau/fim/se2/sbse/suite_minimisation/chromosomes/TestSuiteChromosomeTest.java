@@ -215,6 +215,45 @@ class TestSuiteChromosomeTest {
         assertSame(c, c.self());
     }
 
+    @Test
+    void ofWordsAdoptsArrayAndClearsBitsBeyondLength() {
+        long[] words = {-1L, -1L};
+
+        TestSuiteChromosome c = TestSuiteChromosome.ofWords(words, 70, null, null);
+
+        assertEquals(70, c.getNumberOfSelectedTests());
+        assertEquals(0x3FL, c.getWord(1));
+        assertEquals(c, new TestSuiteChromosome(c.getGenes()));
+    }
+
+    @Test
+    void ofWordsRejectsWrongNumberOfWords() {
+        assertThrows(IllegalArgumentException.class,
+                () -> TestSuiteChromosome.ofWords(new long[1], 65, null, null));
+    }
+
+    @Test
+    void selectedTestIndicesSpanWords() {
+        boolean[] genes = new boolean[130];
+        genes[0] = genes[63] = genes[64] = genes[129] = true;
+
+        TestSuiteChromosome c = new TestSuiteChromosome(genes);
+
+        assertEquals(java.util.List.of(0, 63, 64, 129), c.getSelectedTestIndices());
+        assertArrayEquals(genes, c.getGenes());
+        assertTrue(c.isSelected(64));
+        assertFalse(c.isSelected(65));
+    }
+
+    @Test
+    void getWordsReturnsDefensiveCopy() {
+        TestSuiteChromosome c = new TestSuiteChromosome(new boolean[]{true, false});
+
+        c.getWords()[0] = 0L;
+
+        assertEquals(1, c.getNumberOfSelectedTests());
+    }
+
 
 
 }
@@ -0,0 +1,116 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.crossover;
+
+import de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes.TestSuiteChromosome;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.utils.CoverageIndex;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.utils.Pair;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoverageAwareUniformCrossoverTest {
+
+    // Test 1 is subsumed by test 2; tests 0 and 3 are not subsumed.
+    private static final boolean[][] MATRIX = {
+            {true, false, false, false},
+            {false, true, false, false},
+            {false, true, true, false},
+            {false, false, false, true},
+    };
+
+    @Test
+    void commonGenesAreKeptAndSubsumedDifferencesReplaced() {
+        var crossover = new CoverageAwareUniformCrossover(new CoverageIndex(MATRIX));
+        TestSuiteChromosome p1 = new TestSuiteChromosome(new boolean[]{true, true, false, false});
+        TestSuiteChromosome p2 = new TestSuiteChromosome(new boolean[]{true, false, true, true});
+
+        for (int run = 0; run < 50; run++) {
+            Pair<TestSuiteChromosome> children = crossover.apply(p1, p2);
+            boolean[] c1 = children.getFst().getGenes();
+            boolean[] c2 = children.getSnd().getGenes();
+
+            assertTrue(c1[0] && c2[0]);
+            assertFalse(c1[1] || c2[1]);
+            assertTrue(c1[2] || c2[2]);
+            assertNotEquals(c1[3], c2[3]);
+        }
+    }
+
+    @Test
+    void subsumerReplacesSubsumedTestNeitherParentCovers() {
+        var crossover = new CoverageAwareUniformCrossover(new CoverageIndex(MATRIX));
+        TestSuiteChromosome p1 = new TestSuiteChromosome(new boolean[]{true, true, false, false});
+        TestSuiteChromosome p2 = new TestSuiteChromosome(new boolean[]{true, false, false, true});
+
+        for (int run = 0; run < 50; run++) {
+            Pair<TestSuiteChromosome> children = crossover.apply(p1, p2);
+            boolean[] c1 = children.getFst().getGenes();
+            boolean[] c2 = children.getSnd().getGenes();
+
+            // Line 1 of test 1 stays covered by its subsumer, test 2, in exactly one child.
+            assertFalse(c1[1] || c2[1]);
+            assertNotEquals(c1[2], c2[2]);
+        }
+    }
+
+    @Test
+    void childrenCoverAllLinesOfTheGenesTheyReceive() {
+        Random random = new Random(7);
+        for (int run = 0; run < 200; run++) {
+            int tests = 8 + random.nextInt(70);
+            boolean[][] matrix = new boolean[tests][12];
+            for (boolean[] row : matrix) {
+                for (int l = 0; l < row.length; l++) {
+                    row[l] = random.nextInt(4) == 0;
+                }
+            }
+            CoverageIndex index = new CoverageIndex(matrix);
+            var crossover = new CoverageAwareUniformCrossover(index);
+            boolean[] g1 = new boolean[tests];
+            boolean[] g2 = new boolean[tests];
+            for (int t = 0; t < tests; t++) {
+                g1[t] = random.nextInt(4) == 0;
+                g2[t] = random.nextInt(4) == 0;
+            }
+
+            Pair<TestSuiteChromosome> children =
+                    crossover.apply(new TestSuiteChromosome(g1), new TestSuiteChromosome(g2));
+            boolean[] c1 = covered(matrix, children.getFst().getGenes());
+            boolean[] c2 = covered(matrix, children.getSnd().getGenes());
+
+            // Shared genes reach both children, every other gene at least one of them.
+            for (int t = 0; t < tests; t++) {
+                if (!g1[t] && !g2[t]) continue;
+                boolean in1 = coversRow(c1, matrix[t]);
+                boolean in2 = coversRow(c2, matrix[t]);
+                assertTrue(g1[t] && g2[t] ? in1 && in2 : in1 || in2, "test " + t);
+            }
+        }
+    }
+
+    private static boolean[] covered(boolean[][] matrix, boolean[] genes) {
+        boolean[] covered = new boolean[matrix[0].length];
+        for (int t = 0; t < genes.length; t++) {
+            for (int l = 0; genes[t] && l < covered.length; l++) {
+                covered[l] |= matrix[t][l];
+            }
+        }
+        return covered;
+    }
+
+    private static boolean coversRow(boolean[] covered, boolean[] row) {
+        for (int l = 0; l < row.length; l++) {
+            if (row[l] && !covered[l]) return false;
+        }
+        return true;
+    }
+
+    @Test
+    void rejectsChromosomesNotMatchingIndex() {
+        var crossover = new CoverageAwareUniformCrossover(new CoverageIndex(MATRIX));
+        TestSuiteChromosome p = new TestSuiteChromosome(new boolean[]{true, false});
+
+        assertThrows(IllegalArgumentException.class, () -> crossover.apply(p, p));
+    }
+}
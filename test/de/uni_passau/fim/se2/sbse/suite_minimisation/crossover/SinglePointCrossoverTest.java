@@ -97,4 +97,32 @@ class SinglePointCrossoverTest {
         SinglePointCrossover crossover = new SinglePointCrossover();
         assertTrue(crossover.toString().toLowerCase().contains("single"));
     }
+
+    @Test
+    void childrenArePrefixAndSuffixAcrossWordBoundaries() {
+        boolean[] ones = new boolean[130];
+        java.util.Arrays.fill(ones, true);
+        boolean[] zeros = new boolean[130];
+        zeros[129] = true;
+
+        for (int run = 0; run < 50; run++) {
+            boolean[] child = new SinglePointCrossover()
+                    .apply(new TestSuiteChromosome(ones), new TestSuiteChromosome(zeros))
+                    .getFst().getGenes();
+
+            // A run of genes from the first parent, followed by genes from the second.
+            int cut = 0;
+            while (cut < 130 && child[cut]) cut++;
+            for (int i = cut; i < 129; i++) {
+                assertFalse(child[i]);
+            }
+        }
+    }
+
+    @Test
+    void parentsOfDifferentLengthAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new SinglePointCrossover().apply(
+                new TestSuiteChromosome(new boolean[]{true}),
+                new TestSuiteChromosome(new boolean[]{true, false})));
+    }
 }
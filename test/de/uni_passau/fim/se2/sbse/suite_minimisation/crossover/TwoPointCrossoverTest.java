@@ -0,0 +1,36 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.crossover;
+
+import de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes.TestSuiteChromosome;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.utils.Pair;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TwoPointCrossoverTest {
+
+    @Test
+    void childrenExchangeOneContiguousSegment() {
+        boolean[] ones = new boolean[200];
+        Arrays.fill(ones, true);
+        boolean[] zeros = new boolean[200];
+        zeros[0] = true;
+        zeros[199] = true;
+
+        for (int run = 0; run < 100; run++) {
+            Pair<TestSuiteChromosome> children = new TwoPointCrossover()
+                    .apply(new TestSuiteChromosome(ones), new TestSuiteChromosome(zeros));
+            boolean[] c1 = children.getFst().getGenes();
+            boolean[] c2 = children.getSnd().getGenes();
+
+            // The genes of the second parent in the first child form a single run.
+            int switches = 0;
+            for (int i = 1; i < 199; i++) {
+                if (c1[i] != c1[i - 1]) switches++;
+                assertNotEquals(c1[i], c2[i]);
+            }
+            assertTrue(switches <= 2);
+        }
+    }
+}
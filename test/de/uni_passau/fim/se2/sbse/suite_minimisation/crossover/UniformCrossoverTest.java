@@ -0,0 +1,42 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.crossover;
+
+import de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes.TestSuiteChromosome;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.utils.Pair;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UniformCrossoverTest {
+
+    @Test
+    void childrenPartitionParentGenes() {
+        boolean[] ones = new boolean[1000];
+        Arrays.fill(ones, true);
+        boolean[] zeros = new boolean[1000];
+        zeros[0] = true;
+
+        Pair<TestSuiteChromosome> children = new UniformCrossover()
+                .apply(new TestSuiteChromosome(ones), new TestSuiteChromosome(zeros));
+        boolean[] c1 = children.getFst().getGenes();
+        boolean[] c2 = children.getSnd().getGenes();
+
+        int fromFirst = 0;
+        for (int i = 1; i < 1000; i++) {
+            assertNotEquals(c1[i], c2[i]);
+            if (c1[i]) fromFirst++;
+        }
+        // Each gene is exchanged with probability 1/2.
+        assertTrue(400 < fromFirst && fromFirst < 600, "got " + fromFirst);
+    }
+
+    @Test
+    void childrenHaveParentLength() {
+        Pair<TestSuiteChromosome> children = new UniformCrossover().apply(
+                new TestSuiteChromosome(new boolean[70]), new TestSuiteChromosome(new boolean[70]));
+
+        assertEquals(70, children.getFst().length());
+        assertEquals(70, children.getSnd().length());
+    }
+}
@@ -0,0 +1,67 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.fitness_functions;
+
+import de.uni_passau.fim.se2.sbse.suite_minimisation.stopping_conditions.MaxFitnessEvaluations;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.stopping_conditions.SharedBudget;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SharedBudgetTest {
+
+    @Test
+    void memberStartsDoNotResetBudget() {
+        SharedBudget budget = new SharedBudget(MaxFitnessEvaluations.of(2));
+        budget.start();
+
+        budget.notifyFitnessEvaluation();
+        budget.notifySearchStarted();
+        budget.notifyFitnessEvaluation();
+
+        assertTrue(budget.searchMustStop());
+    }
+
+    @Test
+    void concurrentEvaluationsAreAllCounted() {
+        MaxFitnessEvaluations delegate = MaxFitnessEvaluations.of(10_000);
+        SharedBudget budget = new SharedBudget(delegate);
+        budget.start();
+
+        IntStream.range(0, 10_000).parallel().forEach(i -> budget.notifyFitnessEvaluation());
+
+        assertEquals(1.0, delegate.getProgress(), 1e-9);
+        assertTrue(budget.searchMustStop());
+    }
+
+    @Test
+    void deadlineStopsSearch() throws InterruptedException {
+        SharedBudget budget = new SharedBudget(MaxFitnessEvaluations.of(1_000), Duration.ofMillis(20));
+        budget.start();
+        assertFalse(budget.searchMustStop());
+
+        Thread.sleep(50);
+
+        assertTrue(budget.searchMustStop());
+        assertEquals(1.0, budget.getProgress(), 1e-9);
+    }
+
+    @Test
+    void cancelStopsSearchUntilRestarted() {
+        SharedBudget budget = new SharedBudget(MaxFitnessEvaluations.of(1_000));
+        budget.start();
+
+        budget.cancel();
+        assertTrue(budget.searchMustStop());
+
+        budget.start();
+        assertFalse(budget.searchMustStop());
+    }
+
+    @Test
+    void rejectsNonPositiveTimeLimit() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new SharedBudget(MaxFitnessEvaluations.of(1), Duration.ZERO));
+    }
+}
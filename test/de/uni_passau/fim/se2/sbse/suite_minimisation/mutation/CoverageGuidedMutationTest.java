@@ -0,0 +1,95 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.mutation;
+
+import de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes.TestSuiteChromosome;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.crossover.Crossover;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.utils.CoverageIndex;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoverageGuidedMutationTest {
+
+    // Test 1 covers nothing beyond test 0; test 2 covers line 3 only; line 4 is never covered.
+    private static final CoverageIndex INDEX = new CoverageIndex(new boolean[][]{
+            {true, true, true, false, false},
+            {true, false, false, false, false},
+            {false, false, false, true, false},
+    });
+
+    private static TestSuiteChromosome suite(boolean... genes) {
+        return new TestSuiteChromosome(genes, new CoverageGuidedMutation(INDEX), Crossover.identity());
+    }
+
+    @Test
+    void dropsRedundantTestOrAddsTestCoveringMissedLine() {
+        TestSuiteChromosome parent = suite(true, true, false);
+
+        for (int run = 0; run < 100; run++) {
+            boolean[] genes = parent.mutate().getGenes();
+
+            boolean dropped = genes[0] && !genes[1] && !genes[2];
+            boolean added = genes[0] && genes[1] && genes[2];
+            assertTrue(dropped || added);
+        }
+    }
+
+    @Test
+    void fallsBackToBitFlipWhenNoMoveApplies() {
+        // Every coverable line is covered and no selected test is redundant.
+        TestSuiteChromosome parent = suite(true, false, true);
+
+        boolean changed = false;
+        for (int run = 0; run < 100; run++) {
+            changed |= !parent.mutate().equals(parent);
+        }
+        assertTrue(changed);
+    }
+
+    @Test
+    void rejectsChromosomesNotMatchingIndex() {
+        var mutation = new CoverageGuidedMutation(INDEX);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> mutation.apply(new TestSuiteChromosome(new boolean[]{true})));
+    }
+
+    @Test
+    void dropsEveryRedundantTestWithTheSameProbability() {
+        // All 70 tests cover the only line, so every selected test is redundant and nothing is missed.
+        boolean[][] matrix = new boolean[70][1];
+        for (boolean[] row : matrix) {
+            row[0] = true;
+        }
+        var mutation = new CoverageGuidedMutation(new CoverageIndex(matrix));
+        int[] selected = {0, 1, 60, 61, 62, 69};
+        long[] parent = new long[2];
+        for (int t : selected) {
+            parent[t >>> 6] |= 1L << t;
+        }
+
+        int runs = 6000;
+        int[] dropped = new int[70];
+        for (int run = 0; run < runs; run++) {
+            long[] words = parent.clone();
+            mutation.mutateInPlace(words, 70);
+            for (int t : selected) {
+                if ((words[t >>> 6] & (1L << t)) == 0) {
+                    dropped[t]++;
+                }
+            }
+        }
+
+        for (int t : selected) {
+            assertEquals(runs / selected.length, dropped[t], runs / 20.0, "test " + t);
+        }
+    }
+
+    @Test
+    void selectedAtCountsSelectedTestsInOrder() {
+        long[] words = {0b1010L, 0L, 1L << 63 | 1L};
+        assertEquals(1, CoverageGuidedMutation.selectedAt(words, 0));
+        assertEquals(3, CoverageGuidedMutation.selectedAt(words, 1));
+        assertEquals(128, CoverageGuidedMutation.selectedAt(words, 2));
+        assertEquals(191, CoverageGuidedMutation.selectedAt(words, 3));
+    }
+}
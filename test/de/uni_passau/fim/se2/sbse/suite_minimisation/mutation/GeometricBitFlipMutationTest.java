@@ -0,0 +1,66 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.mutation;
+
+import de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes.TestSuiteChromosome;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.crossover.SinglePointCrossover;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeometricBitFlipMutationTest {
+
+    @Test
+    void flipsOneGenePerMutationOnAverage() {
+        Random random = new Random(1);
+        int n = 1000;
+        int trials = 20_000;
+
+        long flips = 0;
+        for (int t = 0; t < trials; t++) {
+            long[] words = new long[TestSuiteChromosome.wordsFor(n)];
+            GeometricBitFlipMutation.flip(words, n, random);
+            for (long w : words) flips += Long.bitCount(w);
+        }
+
+        assertEquals(1.0, flips / (double) trials, 0.05);
+    }
+
+    @Test
+    void neverFlipsBitsBeyondLength() {
+        Random random = new Random(2);
+        for (int t = 0; t < 10_000; t++) {
+            long[] words = new long[2];
+            GeometricBitFlipMutation.flip(words, 70, random);
+            assertEquals(0L, words[1] & ~0x3FL);
+        }
+    }
+
+    @Test
+    void singleGeneIsAlwaysFlipped() {
+        Random random = new Random(3);
+        for (int t = 0; t < 100; t++) {
+            long[] words = new long[1];
+            GeometricBitFlipMutation.flip(words, 1, random);
+            assertEquals(1L, words[0]);
+        }
+    }
+
+    @Test
+    void applyKeepsParentAndOperators() {
+        var mutation = new GeometricBitFlipMutation();
+        var crossover = new SinglePointCrossover();
+        boolean[] genes = new boolean[200];
+        genes[5] = true;
+        TestSuiteChromosome parent = new TestSuiteChromosome(genes, mutation, crossover);
+
+        TestSuiteChromosome offspring = mutation.apply(parent);
+
+        assertNotSame(parent, offspring);
+        assertArrayEquals(genes, parent.getGenes());
+        assertEquals(200, offspring.length());
+        assertTrue(offspring.getNumberOfSelectedTests() >= 1);
+        assertSame(mutation, offspring.getMutation());
+        assertSame(crossover, offspring.getCrossover());
+    }
+}
@@ -206,4 +206,23 @@ class BinaryTournamentSelectionTest {
 
         assertNotNull(result);
     }
+
+    // --------------------------------------------------
+    // Batch selection (default implementation)
+    // --------------------------------------------------
+
+    @Test
+    void selectIndicesReturnsPositionsOfSelectedChromosomes() {
+        DummyChromosome worse = new DummyChromosome(1);
+        DummyChromosome better = new DummyChromosome(10);
+
+        BinaryTournamentSelection<DummyChromosome> sel =
+                new BinaryTournamentSelection<>(
+                        Comparator.comparingInt(DummyChromosome::value),
+                        new Random(1)
+                );
+
+        // With two candidates drawn without replacement, the better one always wins.
+        assertArrayEquals(new int[]{1, 1, 1, 1, 1}, sel.selectIndices(List.of(worse, better), 5));
+    }
 }
@@ -0,0 +1,101 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.selection;
+
+import de.uni_passau.fim.se2.sbse.suite_minimisation.selection.BinaryTournamentSelectionTest.DummyChromosome;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.utils.Randomness;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CrowdedTournamentSelectionTest {
+
+    private static List<DummyChromosome> population(int size) {
+        List<DummyChromosome> population = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) population.add(new DummyChromosome(i));
+        return population;
+    }
+
+    @Test
+    void lowerRankWins() {
+        var sel = new CrowdedTournamentSelection<DummyChromosome>(2, new Random(1), false);
+        sel.setRanking(new int[]{1, 0}, new double[]{Double.POSITIVE_INFINITY, 0.0});
+
+        for (int index : sel.selectIndices(population(2), 100)) {
+            assertEquals(1, index);
+        }
+    }
+
+    @Test
+    void largerCrowdingDistanceBreaksRankTies() {
+        var sel = new CrowdedTournamentSelection<DummyChromosome>(2, new Random(1), false);
+        sel.setRanking(new int[]{0, 0}, new double[]{0.5, 0.2});
+
+        List<DummyChromosome> population = population(2);
+        assertSame(population.get(0), sel.apply(population));
+    }
+
+    @Test
+    void tournamentOfWholePopulationPicksBest() {
+        var sel = new CrowdedTournamentSelection<DummyChromosome>(5, new Random(1), false);
+        sel.setRanking(new int[]{2, 1, 0, 1, 0}, new double[]{9, 9, 1, 9, 3});
+
+        for (int index : sel.selectIndices(population(5), 50)) {
+            assertEquals(4, index);
+        }
+    }
+
+    @Test
+    void tournamentSizeOneSelectsUniformly() {
+        var sel = new CrowdedTournamentSelection<DummyChromosome>(1, new Random(1), false);
+        sel.setRanking(new int[]{1, 0}, new double[]{0, 0});
+
+        int worse = 0;
+        for (int index : sel.selectIndices(population(2), 1000)) {
+            if (index == 0) worse++;
+        }
+        assertTrue(400 < worse && worse < 600, "got " + worse);
+    }
+
+    @Test
+    void parallelSelectionIsReproducible() {
+        int n = 100;
+        int[] rank = new int[n];
+        double[] crowding = new double[n];
+        for (int i = 0; i < n; i++) {
+            rank[i] = i % 7;
+            crowding[i] = i;
+        }
+        var sel = new CrowdedTournamentSelection<DummyChromosome>(3, new Random(1), true);
+        sel.setRanking(rank, crowding);
+        int count = 5 * CrowdedTournamentSelection.CHUNK + 3;
+
+        Randomness.setSeed(42);
+        int[] first = sel.selectIndices(population(n), count);
+        Randomness.setSeed(42);
+        int[] second = sel.selectIndices(population(n), count);
+
+        assertArrayEquals(first, second);
+        for (int index : first) {
+            assertTrue(0 <= index && index < n);
+        }
+    }
+
+    @Test
+    void rejectsRankingOfOtherPopulation() {
+        var sel = new CrowdedTournamentSelection<DummyChromosome>(2, new Random(1), false);
+        sel.setRanking(new int[]{0, 0, 0}, new double[3]);
+
+        assertThrows(IllegalArgumentException.class, () -> sel.apply(population(2)));
+        assertThrows(NoSuchElementException.class, () -> sel.apply(List.of()));
+    }
+
+    @Test
+    void rejectsNonPositiveTournamentSize() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new CrowdedTournamentSelection<DummyChromosome>(0, new Random(1), false));
+    }
+}
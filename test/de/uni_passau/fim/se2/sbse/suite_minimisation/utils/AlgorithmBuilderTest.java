@@ -2,10 +2,18 @@ package de.uni_passau.fim.se2.sbse.suite_minimisation.utils;
 
 import de.uni_passau.fim.se2.sbse.suite_minimisation.algorithms.*;
 import de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes.Chromosome;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes.InitialisationType;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.chromosomes.TestSuiteChromosome;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.crossover.CoverageAwareUniformCrossover;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.crossover.CrossoverType;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.fitness_functions.FitnessFunction;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.mutation.GeometricBitFlipMutation;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.mutation.MutationType;
 import de.uni_passau.fim.se2.sbse.suite_minimisation.stopping_conditions.MaxFitnessEvaluations;
 import de.uni_passau.fim.se2.sbse.suite_minimisation.stopping_conditions.StoppingCondition;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
 import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -54,6 +62,134 @@ class AlgorithmBuilderTest {
         assertTrue(algo instanceof NSGA2);
     }
 
+    @Test
+    void builderCreatesMOEADAlgorithm() {
+        AlgorithmBuilder builder = new AlgorithmBuilder(
+                new Random(1),
+                stoppingCondition(),
+                smallCoverageMatrix()
+        );
+
+        GeneticAlgorithm<? extends Chromosome<?>> algo =
+                builder.buildAlgorithm(SearchAlgorithmType.MOEA_D);
+
+        assertNotNull(algo);
+        assertTrue(algo instanceof MOEAD);
+    }
+
+    @Test
+    void builderCreatesSMSEMOAAlgorithm() {
+        AlgorithmBuilder builder = new AlgorithmBuilder(
+                new Random(1),
+                stoppingCondition(),
+                smallCoverageMatrix()
+        );
+
+        GeneticAlgorithm<? extends Chromosome<?>> algo =
+                builder.buildAlgorithm(SearchAlgorithmType.SMS_EMOA);
+
+        assertNotNull(algo);
+        assertTrue(algo instanceof SMSEMOA);
+    }
+
+    @Test
+    void builderCreatesMemeticNSGA2Algorithm() {
+        AlgorithmBuilder builder = new AlgorithmBuilder(
+                new Random(1),
+                stoppingCondition(),
+                smallCoverageMatrix()
+        );
+
+        GeneticAlgorithm<? extends Chromosome<?>> algo =
+                builder.buildAlgorithm(SearchAlgorithmType.MEMETIC_NSGA_II);
+
+        assertNotNull(algo);
+        assertTrue(algo instanceof MemeticNSGA2);
+    }
+
+    @Test
+    void builderCreatesMaxKCoverageAlgorithm() {
+        AlgorithmBuilder builder = new AlgorithmBuilder(
+                new Random(1),
+                stoppingCondition(),
+                smallCoverageMatrix()
+        );
+
+        GeneticAlgorithm<? extends Chromosome<?>> algo =
+                builder.buildAlgorithm(SearchAlgorithmType.MAX_K_COVERAGE);
+
+        assertNotNull(algo);
+        assertTrue(algo instanceof MaxKCoverage);
+    }
+
+    @Test
+    void builderCreatesPortfolio() {
+        AlgorithmBuilder builder = new AlgorithmBuilder(
+                new Random(1),
+                stoppingCondition(),
+                smallCoverageMatrix()
+        );
+
+        GeneticAlgorithm<? extends Chromosome<?>> algo =
+                builder.buildAlgorithm(SearchAlgorithmType.PORTFOLIO);
+
+        assertNotNull(algo);
+        assertTrue(algo instanceof Portfolio);
+    }
+
+    @Test
+    void builderUsesConfiguredMutation() {
+        AlgorithmBuilder builder = new AlgorithmBuilder(
+                new Random(1),
+                stoppingCondition(),
+                smallCoverageMatrix()
+        );
+        builder.setMutationType(MutationType.GEOMETRIC_BIT_FLIP);
+
+        List<? extends Chromosome<?>> front =
+                builder.buildAlgorithm(SearchAlgorithmType.NSGA_II).findSolution();
+
+        assertFalse(front.isEmpty());
+        for (Chromosome<?> c : front) {
+            assertInstanceOf(GeometricBitFlipMutation.class, c.getMutation());
+        }
+    }
+
+    @Test
+    void builderUsesConfiguredCrossover() {
+        AlgorithmBuilder builder = new AlgorithmBuilder(
+                new Random(1),
+                stoppingCondition(),
+                smallCoverageMatrix()
+        );
+        builder.setCrossoverType(CrossoverType.COVERAGE_AWARE_UNIFORM);
+
+        List<? extends Chromosome<?>> front =
+                builder.buildAlgorithm(SearchAlgorithmType.NSGA_II).findSolution();
+
+        assertFalse(front.isEmpty());
+        for (Chromosome<?> c : front) {
+            assertInstanceOf(CoverageAwareUniformCrossover.class, c.getCrossover());
+        }
+    }
+
+    @Test
+    void seededInitialisationEvaluatesTheFullSuiteFirst() {
+        AlgorithmBuilder builder = new AlgorithmBuilder(
+                new Random(1),
+                MaxFitnessEvaluations.of(1),
+                smallCoverageMatrix()
+        );
+        builder.setInitialisationType(InitialisationType.SEEDED);
+
+        @SuppressWarnings("unchecked")
+        List<TestSuiteChromosome> front = (List<TestSuiteChromosome>)
+                builder.buildAlgorithm(SearchAlgorithmType.NSGA_II).findSolution();
+
+        assertEquals(1, front.size());
+        assertEquals(2, front.get(0).getNumberOfSelectedTests());
+    }
+
     @Test
     void sizeFitnessFunctionIsNotNull() {
         AlgorithmBuilder builder = new AlgorithmBuilder(
@@ -75,4 +211,50 @@ class AlgorithmBuilderTest {
 
         assertNotNull(builder.getCoverageFF());
     }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void packedMatrixGivesTheSameFitnessAsTheUnpackedOne() {
+        Random random = new Random(7);
+        boolean[][] matrix = new boolean[5][130];
+        long[][] rows = new long[5][CoverageIndex.wordsFor(130)];
+        for (int t = 0; t < matrix.length; t++) {
+            for (int l = 0; l < 130; l++) {
+                if (random.nextInt(3) == 0) {
+                    matrix[t][l] = true;
+                    rows[t][l >>> 6] |= 1L << l;
+                }
+            }
+        }
+        var unpacked = (FitnessFunction<TestSuiteChromosome>)
+                new AlgorithmBuilder(new Random(1), stoppingCondition(), matrix).getCoverageFF();
+        var packed = (FitnessFunction<TestSuiteChromosome>)
+                new AlgorithmBuilder(new Random(1), stoppingCondition(), rows, 130).getCoverageFF();
+
+        for (int i = 0; i < 20; i++) {
+            boolean[] genes = new boolean[5];
+            for (int t = 0; t < genes.length; t++) {
+                genes[t] = random.nextBoolean();
+            }
+            TestSuiteChromosome suite = new TestSuiteChromosome(genes);
+            assertEquals(unpacked.applyAsDouble(suite), packed.applyAsDouble(suite));
+        }
+    }
+
+    @Test
+    void parallelSelectionRunsWithLargePopulations() {
+        AlgorithmBuilder builder = new AlgorithmBuilder(
+                new Random(1),
+                MaxFitnessEvaluations.of(3 * 2048),
+                smallCoverageMatrix()
+        );
+        builder.setPopulationSize(2048);
+        builder.setSelection(3, true);
+
+        List<? extends Chromosome<?>> front =
+                builder.buildAlgorithm(SearchAlgorithmType.NSGA_II).findSolution();
+
+        assertFalse(front.isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> builder.setPopulationSize(0));
+    }
 }
@@ -0,0 +1,65 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoverageCacheTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void storedMatricesAreLoadedUnchanged() {
+        long[][] rows = new long[3][2];
+        rows[0][0] = 1L;
+        rows[1][0] = 1L << 63;
+        rows[1][1] = 1L;
+        rows[2][1] = 1L << 5;
+        CoverageCache.Entry entry = new CoverageCache.Entry(
+                new String[]{"a", "b", "c"}, new String[]{"fa", "fb", "fc"}, IntStream.range(10, 80).toArray(), rows,
+                new TestCost[]{new TestCost(1, 2, 3), new TestCost(4, -1, -1), new TestCost(7, 8, 9)});
+
+        CoverageCache cache = new CoverageCache(directory);
+        cache.store("key", entry);
+        CoverageCache.Entry loaded = cache.load("key");
+
+        assertNotNull(loaded);
+        assertArrayEquals(entry.testCases(), loaded.testCases());
+        assertArrayEquals(entry.fingerprints(), loaded.fingerprints());
+        assertArrayEquals(entry.sourceLineNumbers(), loaded.sourceLineNumbers());
+        assertArrayEquals(rows, loaded.rows());
+        assertArrayEquals(entry.costs(), loaded.costs());
+
+        CoverageCache.Entry withoutCosts = new CoverageCache.Entry(
+                entry.testCases(), entry.fingerprints(), entry.sourceLineNumbers(), rows, null);
+        cache.store("key", withoutCosts);
+        assertNull(cache.load("key").costs());
+    }
+
+    @Test
+    void missingAndCorruptFilesAreIgnored() throws IOException {
+        CoverageCache cache = new CoverageCache(directory);
+        assertNull(cache.load("missing"));
+
+        Files.write(directory.resolve("corrupt.cov"), new byte[]{0x43, 0x4F, 0x56, 0x43, 0, 0, 0, 1, 0, 0});
+        assertNull(cache.load("corrupt"));
+    }
+
+    @Test
+    void keysDependOnBytecodeAndSettings() {
+        byte[] cut = {1, 2, 3};
+        String key = CoverageCache.key("A", cut, "ATest", "x");
+
+        assertEquals(key, CoverageCache.key("A", cut.clone(), "ATest", "x"));
+        assertNotEquals(key, CoverageCache.key("A", new byte[]{1, 2, 4}, "ATest", "x"));
+        assertNotEquals(key, CoverageCache.key("A", cut, "ATest", "y"));
+        assertNotEquals(key, CoverageCache.key("A", cut, "BTest", "x"));
+    }
+}
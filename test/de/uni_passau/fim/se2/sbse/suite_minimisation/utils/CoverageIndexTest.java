@@ -0,0 +1,152 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoverageIndexTest {
+
+    private static boolean[][] matrix() {
+        boolean[][] m = new boolean[3][70];
+        m[0][0] = true;
+        m[0][69] = true;
+        m[1][64] = true;
+        return m;
+    }
+
+    @Test
+    void coversMatchesMatrixAcrossWordBoundaries() {
+        boolean[][] m = matrix();
+        CoverageIndex index = new CoverageIndex(m);
+
+        for (int t = 0; t < m.length; t++) {
+            for (int l = 0; l < m[t].length; l++) {
+                assertEquals(m[t][l], index.covers(t, l), "test " + t + ", line " + l);
+            }
+        }
+    }
+
+    @Test
+    void csrListsLinesOfEachTestInOrder() {
+        CoverageIndex index = new CoverageIndex(matrix());
+
+        assertEquals(2, index.lineCount(0));
+        assertEquals(0, index.testLine(index.testLineOffset(0)));
+        assertEquals(69, index.testLine(index.testLineOffset(0) + 1));
+
+        assertEquals(1, index.lineCount(1));
+        assertEquals(64, index.testLine(index.testLineOffset(1)));
+
+        assertEquals(0, index.lineCount(2));
+        assertEquals(index.testLineOffset(2), index.testLineOffset(3));
+    }
+
+    @Test
+    void invertedCsrListsTestsOfEachLineInOrder() {
+        CoverageIndex index = new CoverageIndex(new boolean[][]{
+                {true, false, true},
+                {true, false, false},
+                {false, false, true},
+        });
+
+        assertEquals(2, index.testCount(0));
+        assertEquals(0, index.lineTest(index.lineTestOffset(0)));
+        assertEquals(1, index.lineTest(index.lineTestOffset(0) + 1));
+
+        assertEquals(0, index.testCount(1));
+
+        assertEquals(2, index.testCount(2));
+        assertEquals(0, index.lineTest(index.lineTestOffset(2)));
+        assertEquals(2, index.lineTest(index.lineTestOffset(2) + 1));
+        assertEquals(4, index.lineTestOffset(3));
+    }
+
+    @Test
+    void rowsArePacked() {
+        CoverageIndex index = new CoverageIndex(matrix());
+
+        assertEquals(2, index.row(0).length);
+        assertEquals(1L, index.row(0)[0]);
+        assertEquals(1L << 5, index.row(0)[1]);
+    }
+
+    @Test
+    void packedRowsBuildTheSameIndex() {
+        CoverageIndex expected = new CoverageIndex(matrix());
+        CoverageIndex index = new CoverageIndex(new long[][]{{1L, 1L << 5}, {0L, 1L}, {0L, 0L}}, 70);
+
+        assertEquals(70, index.getNumberOfLines());
+        for (int t = 0; t < 3; t++) {
+            assertArrayEquals(expected.row(t), index.row(t));
+            assertEquals(expected.lineCount(t), index.lineCount(t));
+        }
+        for (int l = 0; l <= 70; l++) {
+            assertEquals(expected.lineTestOffset(l), index.lineTestOffset(l));
+        }
+        assertEquals(69, index.testLine(index.testLineOffset(0) + 1));
+        assertArrayEquals(expected.greedyOrder(), index.greedyOrder());
+    }
+
+    @Test
+    void unpackInvertsPacking() {
+        boolean[][] matrix = matrix();
+        CoverageIndex index = new CoverageIndex(matrix);
+        long[][] rows = {index.row(0), index.row(1), index.row(2)};
+
+        assertArrayEquals(matrix, CoverageIndex.unpack(rows, 70));
+    }
+
+    @Test
+    void dimensionsAreExposed() {
+        CoverageIndex index = new CoverageIndex(matrix());
+
+        assertEquals(3, index.getNumberOfTests());
+        assertEquals(70, index.getNumberOfLines());
+    }
+
+    @Test
+    void wordsForRoundsUp() {
+        assertEquals(0, CoverageIndex.wordsFor(0));
+        assertEquals(1, CoverageIndex.wordsFor(1));
+        assertEquals(1, CoverageIndex.wordsFor(64));
+        assertEquals(2, CoverageIndex.wordsFor(65));
+    }
+
+    @Test
+    void greedyOrderStopsWhenNoTestAddsCoverage() {
+        CoverageIndex index = new CoverageIndex(new boolean[][]{
+                {true, false, false},
+                {true, true, false},
+                {false, false, false},
+                {false, true, true},
+        });
+
+        // Test 1 and 3 tie on the first pick, the lower index wins; test 0 is then redundant.
+        assertArrayEquals(new int[]{1, 3}, index.greedyOrder());
+    }
+
+    @Test
+    void subsumedTestsAreStrictSubsetsOrLaterDuplicates() {
+        CoverageIndex index = new CoverageIndex(new boolean[][]{
+                {true, true, false},
+                {true, false, false},
+                {false, false, true},
+                {true, true, false},
+                {false, false, false},
+        });
+
+        // Test 1 is a strict subset of test 0, test 3 duplicates test 0, test 4 covers nothing.
+        assertArrayEquals(new long[]{0b11010L}, index.subsumedTests());
+        assertArrayEquals(new int[]{-1, 0, -1, 0, 0}, index.subsumers());
+    }
+
+    @Test
+    void rejectsInvalidMatrices() {
+        assertThrows(NullPointerException.class, () -> new CoverageIndex(null));
+        assertThrows(IllegalArgumentException.class, () -> new CoverageIndex(new boolean[0][]));
+        assertThrows(IllegalArgumentException.class,
+                () -> new CoverageIndex(new boolean[][]{{true}, {true, false}}));
+        assertThrows(IllegalArgumentException.class, () -> new CoverageIndex(new long[][]{{1L}, {}}, 3));
+        assertThrows(IllegalArgumentException.class, () -> new CoverageIndex(new long[][]{{0b1000L}}, 3));
+    }
+}
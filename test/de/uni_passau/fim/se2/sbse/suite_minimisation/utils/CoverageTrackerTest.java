@@ -0,0 +1,292 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.utils;
+
+import de.uni_passau.fim.se2.sbse.suite_minimisation.examples.Lift;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.examples.LiftTest;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoverageTrackerTest {
+
+    @Test
+    void testCasesAreSortedByName() {
+        String[] testCases = new CoverageTracker(Lift.class, LiftTest.class).getTestCases();
+
+        assertTrue(testCases.length > 0);
+        for (int i = 1; i < testCases.length; i++) {
+            assertTrue(testCases[i - 1].compareTo(testCases[i]) < 0);
+        }
+    }
+
+    @Test
+    void matrixHasOneRowPerTestCase() throws Exception {
+        CoverageTracker tracker = new CoverageTracker(Lift.class, LiftTest.class);
+
+        boolean[][] matrix = tracker.getCoverageMatrix();
+
+        assertEquals(tracker.getTestCases().length, matrix.length);
+        for (boolean[] row : matrix) {
+            assertEquals(matrix[0].length, row.length);
+        }
+    }
+
+    @Test
+    void sharedAndIsolatedTestsMeasureTheSameCoverage() throws Exception {
+        boolean[][] shared = new CoverageTracker(Lift.class, LiftTest.class, false).getCoverageMatrix();
+        boolean[][] isolated = new CoverageTracker(Lift.class, LiftTest.class, true).getCoverageMatrix();
+
+        assertArrayEquals(isolated, shared);
+    }
+
+    @Test
+    void concurrentWorkersMeasureTheSameCoverage() throws Exception {
+        for (boolean isolate : new boolean[]{false, true}) {
+            boolean[][] sequential = new CoverageTracker(Lift.class, LiftTest.class, isolate).getCoverageMatrix();
+
+            CoverageTracker tracker = new CoverageTracker(Lift.class, LiftTest.class, isolate);
+            tracker.setWorkers(4);
+
+            assertArrayEquals(sequential, tracker.getCoverageMatrix());
+        }
+    }
+
+    @Test
+    void workersMustBePositive() {
+        CoverageTracker tracker = new CoverageTracker(Lift.class, LiftTest.class);
+
+        assertThrows(IllegalArgumentException.class, () -> tracker.setWorkers(0));
+    }
+
+    @Test
+    void forkedWorkersMeasureTheSameCoverage() throws Exception {
+        boolean[][] inProcess = new CoverageTracker(Lift.class, LiftTest.class).getCoverageMatrix();
+
+        CoverageTracker tracker = new CoverageTracker(Lift.class, LiftTest.class);
+        tracker.setForked(true);
+        tracker.setWorkers(2);
+
+        assertArrayEquals(inProcess, tracker.getCoverageMatrix());
+        assertEquals(0, tracker.getFailedTestCases().length);
+    }
+
+    @Test
+    void forkedWorkersSurviveCrashingAndHangingTests() throws Exception {
+        CoverageTracker tracker = new CoverageTracker(Fragile.class, FragileTest.class);
+        tracker.setForked(true);
+        tracker.setTestTimeout(Duration.ofSeconds(1));
+
+        boolean[][] matrix = tracker.getCoverageMatrix();
+        List<String> testCases = List.of(tracker.getTestCases());
+        String[] failed = tracker.getFailedTestCases();
+        Arrays.sort(failed);
+
+        assertArrayEquals(new String[]{"exits", "loops"}, failed);
+        assertArrayEquals(new boolean[matrix[0].length], matrix[testCases.indexOf("exits")]);
+        assertArrayEquals(new boolean[matrix[0].length], matrix[testCases.indexOf("loops")]);
+        // The test case after the crashes runs in a new child JVM.
+        assertTrue(Arrays.toString(matrix[testCases.indexOf("adds")]).contains("true"));
+        assertTrue(Arrays.toString(matrix[testCases.indexOf("subtracts")]).contains("true"));
+    }
+
+    @Test
+    void cachedMatricesAreReused(@TempDir Path cache) throws Exception {
+        boolean[][] measured = new CoverageTracker(Lift.class, LiftTest.class).getCoverageMatrix();
+
+        CoverageTracker first = new CoverageTracker(Lift.class, LiftTest.class);
+        first.setCacheDirectory(cache);
+        assertArrayEquals(measured, first.getCoverageMatrix());
+        try (var files = Files.list(cache)) {
+            assertEquals(1, files.count());
+        }
+
+        CoverageTracker second = new CoverageTracker(Lift.class, LiftTest.class);
+        second.setCacheDirectory(cache);
+        assertArrayEquals(measured, second.getCoverageMatrix());
+        assertEquals(first.toString(), second.toString());
+
+        CoverageTracker isolated = new CoverageTracker(Lift.class, LiftTest.class, true);
+        isolated.setCacheDirectory(cache);
+        isolated.getCoverageMatrix();
+        try (var files = Files.list(cache)) {
+            assertEquals(2, files.count());
+        }
+    }
+
+    @Test
+    void onlyTestCasesWithChangedFingerprintsAreMeasuredAgain(@TempDir Path cache) throws Exception {
+        CoverageTracker first = new CoverageTracker(Lift.class, LiftTest.class);
+        first.setCacheDirectory(cache);
+        boolean[][] measured = first.getCoverageMatrix();
+
+        // Tamper with two cached rows, and make the fingerprint of the second one stale.
+        String key;
+        try (var files = Files.list(cache)) {
+            key = files.findFirst().orElseThrow().getFileName().toString().replace(".cov", "");
+        }
+        CoverageCache store = new CoverageCache(cache);
+        CoverageCache.Entry entry = store.load(key);
+        String[] fingerprints = entry.fingerprints().clone();
+        fingerprints[1] = "stale";
+        long[][] rows = entry.rows().clone();
+        rows[0] = new long[rows[0].length];
+        rows[1] = new long[rows[1].length];
+        store.store(key, new CoverageCache.Entry(
+                entry.testCases(), fingerprints, entry.sourceLineNumbers(), rows, entry.costs()));
+
+        CoverageTracker second = new CoverageTracker(Lift.class, LiftTest.class);
+        second.setCacheDirectory(cache);
+        boolean[][] matrix = second.getCoverageMatrix();
+
+        assertArrayEquals(new boolean[entry.sourceLineNumbers().length], matrix[0]);
+        assertArrayEquals(measured[1], matrix[1]);
+        assertArrayEquals(entry.fingerprints(), store.load(key).fingerprints());
+    }
+
+    @Test
+    void instructionsAndBranchesRefineLines() throws Exception {
+        CoverageTracker lines = new CoverageTracker(Lift.class, LiftTest.class);
+        boolean[][] lineMatrix = lines.getCoverageMatrix();
+        List<Integer> lineNumbers = Arrays.stream(lines.getSourceLineNumbers()).boxed().toList();
+
+        for (GranularityType granularity : List.of(GranularityType.INSTRUCTION, GranularityType.BRANCH)) {
+            CoverageTracker tracker = new CoverageTracker(Lift.class, LiftTest.class);
+            tracker.setGranularity(granularity);
+            boolean[][] matrix = tracker.getCoverageMatrix();
+            int[] columnLines = tracker.getSourceLineNumbers();
+
+            assertEquals(lineMatrix.length, matrix.length);
+            assertEquals(columnLines.length, matrix[0].length);
+            assertTrue(columnLines.length > 0);
+            for (int i = 0; i < matrix.length; i++) {
+                assertEquals(CoverageIndex.wordsFor(columnLines.length), tracker.getPackedCoverageMatrix()[i].length);
+                boolean[] anyCovered = new boolean[lineNumbers.size()];
+                for (int j = 0; j < columnLines.length; j++) {
+                    if (matrix[i][j]) {
+                        anyCovered[lineNumbers.indexOf(columnLines[j])] = true;
+                    }
+                }
+                for (int l = 0; l < anyCovered.length; l++) {
+                    // A line is covered iff any of its instructions is; covering a branch requires
+                    // covering its line.
+                    if (granularity == GranularityType.INSTRUCTION || anyCovered[l]) {
+                        assertEquals(lineMatrix[i][l], anyCovered[l]);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void forkedWorkersMeasureTheSameBranchCoverage() throws Exception {
+        CoverageTracker inProcess = new CoverageTracker(Lift.class, LiftTest.class);
+        inProcess.setGranularity(GranularityType.BRANCH);
+
+        CoverageTracker tracker = new CoverageTracker(Lift.class, LiftTest.class);
+        tracker.setGranularity(GranularityType.BRANCH);
+        tracker.setForked(true);
+
+        assertArrayEquals(inProcess.getPackedCoverageMatrix(), tracker.getPackedCoverageMatrix());
+    }
+
+    @Test
+    void costsAreMeasuredWithoutChangingCoverage() throws Exception {
+        boolean[][] measured = new CoverageTracker(Lift.class, LiftTest.class).getCoverageMatrix();
+
+        for (boolean forked : new boolean[]{false, true}) {
+            CoverageTracker tracker = new CoverageTracker(Lift.class, LiftTest.class);
+            tracker.setForked(forked);
+            tracker.setProfiling(1, 3);
+
+            assertArrayEquals(measured, tracker.getCoverageMatrix());
+            TestCost[] costs = tracker.getTestCosts();
+            assertEquals(tracker.getTestCases().length, costs.length);
+            for (TestCost cost : costs) {
+                assertTrue(cost.wallNanos() > 0);
+                assertTrue(cost.cpuNanos() >= -1);
+                assertTrue(cost.allocatedBytes() >= -1);
+            }
+        }
+
+        CoverageTracker unprofiled = new CoverageTracker(Lift.class, LiftTest.class);
+        assertThrows(IllegalStateException.class, unprofiled::getTestCosts);
+        assertThrows(IllegalArgumentException.class, () -> unprofiled.setProfiling(0, -1));
+    }
+
+    @Test
+    void cachedCostsAreReused(@TempDir Path cache) throws Exception {
+        CoverageTracker first = new CoverageTracker(Lift.class, LiftTest.class);
+        first.setCacheDirectory(cache);
+        first.setProfiling(0, 1);
+        TestCost[] costs = first.getTestCosts();
+
+        CoverageTracker second = new CoverageTracker(Lift.class, LiftTest.class);
+        second.setCacheDirectory(cache);
+        second.setProfiling(0, 1);
+
+        assertArrayEquals(costs, second.getTestCosts());
+    }
+
+    @Test
+    void everyTestCaseCoversSomeLines() throws Exception {
+        boolean[][] matrix = new CoverageTracker(Lift.class, LiftTest.class).getCoverageMatrix();
+
+        for (boolean[] row : matrix) {
+            boolean any = false;
+            for (boolean covered : row) any |= covered;
+            assertTrue(any);
+        }
+    }
+
+    static class Fragile {
+
+        static int add(int a, int b) {
+            return a + b;
+        }
+
+        static int subtract(int a, int b) {
+            return a - b;
+        }
+
+        static void exit() {
+            System.exit(3);
+        }
+
+        static void loop() {
+            while (true) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    @Disabled("Only run in child JVMs by forkedWorkersSurviveCrashingAndHangingTests")
+    static class FragileTest {
+
+        @Test
+        void adds() {
+            Fragile.add(1, 2);
+        }
+
+        @Test
+        void exits() {
+            Fragile.exit();
+        }
+
+        @Test
+        void loops() {
+            Fragile.loop();
+        }
+
+        @Test
+        void subtracts() {
+            Fragile.subtract(2, 1);
+        }
+    }
+}
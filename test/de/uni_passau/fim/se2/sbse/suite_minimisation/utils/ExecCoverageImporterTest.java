@@ -0,0 +1,165 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.utils;
+
+import de.uni_passau.fim.se2.sbse.suite_minimisation.examples.Lift;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.examples.LiftTest;
+import org.jacoco.core.data.ExecutionData;
+import org.jacoco.core.data.ExecutionDataWriter;
+import org.jacoco.core.data.SessionInfo;
+import org.jacoco.core.instr.Instrumenter;
+import org.jacoco.core.runtime.LoggerRuntime;
+import org.jacoco.core.runtime.RuntimeData;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExecCoverageImporterTest {
+
+    /**
+     * Runs every test case of LiftTest on fresh copies of the instrumented Lift, like the JaCoCo
+     * agent does in CI with one session per test case, and writes the sessions of the test cases
+     * with the given indices to the given stream.
+     */
+    private static void record(String[] testCases, int from, int to, OutputStream out) throws Exception {
+        byte[] lift = readClass(Lift.class);
+        byte[] suite = readClass(LiftTest.class);
+        LoggerRuntime runtime = new LoggerRuntime();
+        byte[] instrumented = new Instrumenter(runtime).instrument(lift, Lift.class.getName());
+        RuntimeData data = new RuntimeData();
+        runtime.startup(data);
+        try {
+            ExecutionDataWriter writer = new ExecutionDataWriter(out);
+            for (int i = from; i < to; i++) {
+                CoverageTracker.MemoryClassLoader loader = new CoverageTracker.MemoryClassLoader();
+                loader.addDefinition(Lift.class.getName(), instrumented);
+                loader.addDefinition(LiftTest.class.getName(), suite);
+                Class<?> test = loader.loadClass(LiftTest.class.getName());
+                Method method = test.getDeclaredMethod(testCases[i]);
+                try {
+                    method.invoke(test.getDeclaredConstructor().newInstance());
+                } catch (ReflectiveOperationException e) {
+                    // Failing test cases are recorded just the same.
+                }
+                data.setSessionId(testCases[i]);
+                data.collect(writer, writer, true);
+            }
+        } finally {
+            runtime.shutdown();
+        }
+    }
+
+    private static byte[] readClass(Class<?> type) throws IOException {
+        try (InputStream in = type.getResourceAsStream('/' + type.getName().replace('.', '/') + ".class")) {
+            return in.readAllBytes();
+        }
+    }
+
+    @Test
+    void sessionsFromSeveralFilesMatchTheTrackedMatrix(@TempDir Path dir) throws Exception {
+        String[] testCases = new CoverageTracker(Lift.class, LiftTest.class).getTestCases();
+        int half = testCases.length / 2;
+        Path first = dir.resolve("first.exec");
+        Path second = dir.resolve("second.exec");
+        try (OutputStream out = Files.newOutputStream(first)) {
+            record(testCases, 0, half, out);
+        }
+        try (OutputStream out = Files.newOutputStream(second)) {
+            record(testCases, half, testCases.length, out);
+        }
+
+        for (GranularityType granularity : GranularityType.values()) {
+            CoverageTracker tracker = new CoverageTracker(Lift.class, LiftTest.class, true);
+            tracker.setGranularity(granularity);
+            ExecCoverageImporter importer = ExecCoverageImporter.of(Lift.class);
+            importer.setGranularity(granularity);
+            importer.read(first);
+            importer.read(second);
+
+            assertArrayEquals(testCases, importer.getTestCases());
+            assertArrayEquals(tracker.getCoverageMatrix(), importer.getCoverageMatrix(), granularity.name());
+            assertArrayEquals(tracker.getSourceLineNumbers(),
+                    Arrays.stream(importer.getColumns()).mapToInt(ModuleCoverageTracker.Column::line).toArray());
+            assertEquals(0, importer.getMismatchedClasses().length);
+        }
+    }
+
+    @Test
+    void columnsOfOtherClassesStayUncovered() throws Exception {
+        String[] testCases = new CoverageTracker(Lift.class, LiftTest.class).getTestCases();
+        ByteArrayOutputStream exec = new ByteArrayOutputStream();
+        record(testCases, 0, testCases.length, exec);
+
+        ExecCoverageImporter importer =
+                ExecCoverageImporter.of("de.uni_passau.fim.se2.sbse.suite_minimisation.examples", getClass().getClassLoader());
+        importer.read(new ByteArrayInputStream(exec.toByteArray()));
+
+        boolean[][] expected = new CoverageTracker(Lift.class, LiftTest.class, true).getCoverageMatrix();
+        ModuleCoverageTracker.Column[] columns = importer.getColumns();
+        boolean[][] matrix = importer.getCoverageMatrix();
+        assertEquals(testCases.length, matrix.length);
+        for (int i = 0; i < matrix.length; i++) {
+            int lift = 0;
+            for (int j = 0; j < columns.length; j++) {
+                if (columns[j].className().equals(Lift.class.getName())) {
+                    assertEquals(expected[i][lift++], matrix[i][j]);
+                } else {
+                    assertFalse(matrix[i][j], columns[j].toString());
+                }
+            }
+            assertEquals(expected[i].length, lift);
+        }
+    }
+
+    @Test
+    void repeatedSessionsAreMergedAndForeignBytecodeIsSkipped() throws Exception {
+        String[] testCases = new CoverageTracker(Lift.class, LiftTest.class).getTestCases();
+        ByteArrayOutputStream exec = new ByteArrayOutputStream();
+        record(testCases, 0, 2, exec);
+
+        // The same session again, with the probes of Lift recorded for other bytecode.
+        ExecutionDataWriter writer = new ExecutionDataWriter(exec);
+        writer.visitSessionInfo(new SessionInfo(testCases[0], 0, 0));
+        boolean[] probes = new boolean[8];
+        Arrays.fill(probes, true);
+        writer.visitClassExecution(new ExecutionData(42, Lift.class.getName().replace('.', '/'), probes));
+
+        ExecCoverageImporter importer = ExecCoverageImporter.of(Lift.class);
+        importer.read(new ByteArrayInputStream(exec.toByteArray()));
+        boolean[][] expected = new CoverageTracker(Lift.class, LiftTest.class, true).getCoverageMatrix();
+
+        assertEquals(List.of(testCases[0], testCases[1]), List.of(importer.getTestCases()));
+        assertArrayEquals(new boolean[][]{expected[0], expected[1]}, importer.getCoverageMatrix());
+        assertArrayEquals(new String[]{Lift.class.getName()}, importer.getMismatchedClasses());
+
+        // Reading another session with the same ID merges it into the existing row.
+        ByteArrayOutputStream again = new ByteArrayOutputStream();
+        record(testCases, 1, 2, again);
+        ExecCoverageImporter merged = ExecCoverageImporter.of(Lift.class);
+        merged.read(new ByteArrayInputStream(exec.toByteArray()));
+        merged.read(new ByteArrayInputStream(again.toByteArray()));
+        assertEquals(2, merged.getTestCases().length);
+        assertArrayEquals(expected[1], merged.getCoverageMatrix()[1]);
+    }
+
+    @Test
+    void executionDataOutsideOfSessionsIsRejected() throws Exception {
+        ByteArrayOutputStream exec = new ByteArrayOutputStream();
+        ExecutionDataWriter writer = new ExecutionDataWriter(exec);
+        writer.visitClassExecution(new ExecutionData(42, "Foo", new boolean[]{true}));
+
+        ExecCoverageImporter importer = ExecCoverageImporter.of(Lift.class);
+        assertThrows(IOException.class, () -> importer.read(new ByteArrayInputStream(exec.toByteArray())));
+        assertThrows(IllegalStateException.class, () -> importer.setGranularity(GranularityType.BRANCH));
+    }
+}
@@ -0,0 +1,145 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.utils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.DynamicTest.dynamicTest;
+
+class LauncherCoverageTrackerTest {
+
+    private static final List<String> TESTS = List.of(
+            "increments()",
+            "adds()/#1", "adds()/#2", "adds()/#3",
+            "rejectsNegative()/#1", "rejectsNegative()/#2",
+            "Empty/isZero()");
+
+    static class Counter {
+
+        private int value;
+
+        void increment() {
+            value++;
+        }
+
+        void add(int n) {
+            if (n < 0) {
+                throw new IllegalArgumentException("Negative: " + n);
+            }
+            value += n;
+        }
+
+        int get() {
+            return value;
+        }
+
+        void reset() {
+            value = 0;
+        }
+    }
+
+    static class CounterTest {
+
+        Counter counter;
+
+        @BeforeEach
+        void setUp() {
+            counter = new Counter();
+            counter.reset();
+        }
+
+        @Test
+        void increments() {
+            counter.increment();
+            assertEquals(1, counter.get());
+        }
+
+        @RepeatedTest(3)
+        void adds() {
+            counter.add(2);
+            assertEquals(2, counter.get());
+        }
+
+        @TestFactory
+        Stream<DynamicTest> rejectsNegative() {
+            return Stream.of(-1, -2).map(n -> dynamicTest("add(" + n + ")",
+                    () -> assertThrows(IllegalArgumentException.class, () -> counter.add(n))));
+        }
+
+        @Nested
+        class Empty {
+
+            @Test
+            void isZero() {
+                assertEquals(0, counter.get());
+            }
+        }
+    }
+
+    @Test
+    void everyInvocationIsARow() throws Exception {
+        LauncherCoverageTracker tracker = new LauncherCoverageTracker(Counter.class, CounterTest.class, false);
+        boolean[][] matrix = tracker.getCoverageMatrix();
+
+        List<String> tests = List.of(tracker.getTestCases());
+        assertEquals(Set.copyOf(TESTS), Set.copyOf(tests));
+        assertEquals(TESTS.size(), tests.size());
+        assertEquals(TESTS.size(), tracker.getUniqueIds().length);
+        assertEquals(TESTS.size(), matrix.length);
+
+        boolean[] adds = matrix[tests.indexOf("adds()/#1")];
+        boolean[] rejects = matrix[tests.indexOf("rejectsNegative()/#1")];
+        assertArrayEquals(adds, matrix[tests.indexOf("adds()/#3")]);
+        assertArrayEquals(rejects, matrix[tests.indexOf("rejectsNegative()/#2")]);
+        assertFalse(Arrays.equals(adds, rejects));
+
+        // The constructor and reset() run in @BeforeEach, so every row covers their lines,
+        // even the one of a test that only reads the counter.
+        for (int j = 0; j < matrix[0].length; j++) {
+            boolean all = true;
+            for (boolean[] row : matrix) {
+                all &= row[j];
+            }
+            if (all) {
+                return;
+            }
+        }
+        fail("No line is covered by all tests");
+    }
+
+    @Test
+    void workersAndIsolationMeasureTheSameMatrix() throws Exception {
+        LauncherCoverageTracker reference = new LauncherCoverageTracker(Counter.class, CounterTest.class, false);
+        reference.setGranularity(GranularityType.BRANCH);
+
+        for (boolean isolate : new boolean[]{false, true}) {
+            LauncherCoverageTracker tracker = new LauncherCoverageTracker(Counter.class, CounterTest.class, isolate);
+            tracker.setGranularity(GranularityType.BRANCH);
+            tracker.setWorkers(3);
+
+            assertArrayEquals(reference.getTestCases(), tracker.getTestCases());
+            assertArrayEquals(reference.getSourceLineNumbers(), tracker.getSourceLineNumbers());
+            assertArrayEquals(reference.getCoverageMatrix(), tracker.getCoverageMatrix());
+        }
+    }
+
+    @Test
+    void settingsAreRejectedOnceMeasured() throws Exception {
+        LauncherCoverageTracker tracker = new LauncherCoverageTracker(Counter.class, CounterTest.class, false);
+        assertThrows(IllegalArgumentException.class, () -> tracker.setWorkers(0));
+
+        tracker.getCoverageMatrix();
+
+        assertThrows(IllegalStateException.class, () -> tracker.setWorkers(2));
+        assertThrows(IllegalStateException.class, () -> tracker.setGranularity(GranularityType.LINE));
+    }
+}
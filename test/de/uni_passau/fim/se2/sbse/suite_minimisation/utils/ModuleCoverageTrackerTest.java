@@ -0,0 +1,76 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.utils;
+
+import de.uni_passau.fim.se2.sbse.suite_minimisation.examples.Lift;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.examples.LiftTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ModuleCoverageTrackerTest {
+
+    private static final String EXAMPLES = "de.uni_passau.fim.se2.sbse.suite_minimisation.examples";
+
+    @Test
+    void singleClassMatchesCoverageTracker() throws Exception {
+        boolean[][] expected = new CoverageTracker(Lift.class, LiftTest.class).getCoverageMatrix();
+        Map<String, byte[]> lift = ModuleCoverageTracker.readPackage(EXAMPLES, getClass().getClassLoader());
+        lift.keySet().retainAll(List.of(Lift.class.getName()));
+
+        ModuleCoverageTracker tracker = new ModuleCoverageTracker(lift, LiftTest.class, false);
+
+        assertArrayEquals(expected, tracker.getCoverageMatrix());
+        assertTrue(Arrays.stream(tracker.getColumns()).allMatch(c -> c.className().equals(Lift.class.getName())));
+    }
+
+    @Test
+    void workersAndGranularityMatchCoverageTracker() throws Exception {
+        CoverageTracker reference = new CoverageTracker(Lift.class, LiftTest.class, true);
+        reference.setGranularity(GranularityType.BRANCH);
+        Map<String, byte[]> lift = ModuleCoverageTracker.readPackage(EXAMPLES, getClass().getClassLoader());
+        lift.keySet().retainAll(List.of(Lift.class.getName()));
+
+        ModuleCoverageTracker tracker = new ModuleCoverageTracker(lift, LiftTest.class, true);
+        tracker.setGranularity(GranularityType.BRANCH);
+        tracker.setWorkers(3);
+
+        assertArrayEquals(reference.getPackedCoverageMatrix(), tracker.getPackedCoverageMatrix());
+        assertArrayEquals(reference.getSourceLineNumbers(),
+                Arrays.stream(tracker.getColumns()).mapToInt(ModuleCoverageTracker.Column::line).toArray());
+        assertThrows(IllegalStateException.class, () -> tracker.setWorkers(1));
+    }
+
+    @Test
+    void packageColumnsSpanAllClassesButTestSuites() throws Exception {
+        boolean[][] expected = new CoverageTracker(Lift.class, LiftTest.class).getCoverageMatrix();
+
+        for (boolean isolate : new boolean[]{false, true}) {
+            ModuleCoverageTracker tracker = ModuleCoverageTracker.of(EXAMPLES, LiftTest.class, isolate);
+            List<String> classes = List.of(tracker.getClassesUnderTest());
+            ModuleCoverageTracker.Column[] columns = tracker.getColumns();
+            boolean[][] matrix = tracker.getCoverageMatrix();
+
+            assertTrue(classes.contains(Lift.class.getName()));
+            assertTrue(classes.contains(EXAMPLES + ".Rational"));
+            assertFalse(classes.contains(LiftTest.class.getName()));
+            assertFalse(classes.stream().anyMatch(c -> c.startsWith(EXAMPLES + ".dependencies.")));
+            assertEquals(tracker.getTestCases().length, matrix.length);
+
+            // Lift's columns hold the single-class matrix, and LiftTest covers no other class.
+            for (int i = 0; i < matrix.length; i++) {
+                int lift = 0;
+                for (int j = 0; j < columns.length; j++) {
+                    if (columns[j].className().equals(Lift.class.getName())) {
+                        assertEquals(expected[i][lift++], matrix[i][j]);
+                    } else {
+                        assertFalse(matrix[i][j], columns[j].toString());
+                    }
+                }
+                assertEquals(expected[i].length, lift);
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParetoArchiveTest {
+
+    @Test
+    void keepsOnlyNonDominatedSolutionsSortedBySize() {
+        ParetoArchive<String> archive = new ParetoArchive<>();
+
+        assertTrue(archive.offer("b", 0.5, 0.5));
+        assertTrue(archive.offer("a", 0.2, 0.4));
+        assertFalse(archive.offer("dominated", 0.6, 0.5));
+        assertFalse(archive.offer("equal", 0.5, 0.5));
+        assertTrue(archive.offer("c", 0.5, 0.9));
+
+        assertEquals(List.of("a", "c"), archive.solutions());
+    }
+
+    @Test
+    void copiesOnlyAddedSolutions() {
+        ParetoArchive<StringBuilder> archive = new ParetoArchive<>();
+        List<StringBuilder> copied = new ArrayList<>();
+        UnaryOperator<StringBuilder> copy = s -> {
+            copied.add(s);
+            return new StringBuilder(s);
+        };
+        StringBuilder a = new StringBuilder("a");
+
+        assertTrue(archive.offer(a, 0.2, 0.4, copy));
+        assertFalse(archive.offer(new StringBuilder("dominated"), 0.6, 0.3, copy));
+        a.append("-recycled");
+
+        assertEquals(List.of(a), copied);
+        assertEquals("a", archive.solutions().get(0).toString());
+    }
+
+    @Test
+    void clearEmptiesArchive() {
+        ParetoArchive<String> archive = new ParetoArchive<>();
+        archive.offer("a", 0.1, 0.1);
+
+        archive.clear();
+
+        assertEquals(0, archive.size());
+        assertTrue(archive.solutions().isEmpty());
+    }
+
+    @Test
+    void concurrentOffersYieldTheSameFrontAsSequentialOnes() {
+        ParetoArchive<Integer> archive = new ParetoArchive<>();
+
+        // Solution i has size i / 100 and coverage (i / 10) / 10, so only multiples of 10 survive.
+        IntStream.range(0, 100).parallel().forEach(i -> archive.offer(i, i / 100.0, (i / 10) / 10.0));
+
+        assertEquals(List.of(0, 10, 20, 30, 40, 50, 60, 70, 80, 90), archive.solutions());
+    }
+}
@@ -0,0 +1,239 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.utils;
+
+import org.jacoco.core.analysis.Analyzer;
+import org.jacoco.core.analysis.CoverageBuilder;
+import org.jacoco.core.analysis.IClassCoverage;
+import org.jacoco.core.analysis.ICounter;
+import org.jacoco.core.analysis.ILine;
+import org.jacoco.core.data.ExecutionData;
+import org.jacoco.core.data.ExecutionDataStore;
+import org.jacoco.core.data.SessionInfoStore;
+import org.jacoco.core.instr.Instrumenter;
+import org.jacoco.core.runtime.LoggerRuntime;
+import org.jacoco.core.runtime.RuntimeData;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProbeMapTest {
+
+    @Test
+    void rowsMatchTheCountersOfJaCoCo() throws Exception {
+        byte[] bytes = read(Branchy.class);
+        ExecutionData sample = sample(bytes);
+        Random random = new Random(42);
+
+        for (GranularityType granularity : GranularityType.values()) {
+            ProbeMap map = ProbeMap.of(bytes, sample, granularity);
+            int[] lines = ProbeMap.columnLines(bytes, Branchy.class.getName(), granularity);
+            assertEquals(lines.length, map.getNumberOfColumns());
+
+            for (int k = 0; k < 100; k++) {
+                boolean[] probes = new boolean[sample.getProbes().length];
+                for (int p = 0; p < probes.length; p++) {
+                    probes[p] = random.nextInt(k % 5 + 2) == 0;
+                }
+
+                long[] row = map.row(probes);
+                Map<Integer, Integer> actual = new HashMap<>();
+                Set<Integer> inexact = new HashSet<>();
+                for (int j = 0; j < lines.length; j++) {
+                    if ((row[j >>> 6] & (1L << j)) != 0) {
+                        actual.merge(lines[j], 1, Integer::sum);
+                    }
+                    if (!map.isExact(j)) {
+                        inexact.add(lines[j]);
+                    }
+                }
+
+                // Lines whose columns stand for sets of instructions are only covered or not.
+                Map<Integer, Integer> expected = counters(bytes, sample, probes, granularity);
+                assertEquals(expected.keySet(), actual.keySet(), granularity + " " + k);
+                for (int line : expected.keySet()) {
+                    if (!inexact.contains(line)) {
+                        assertEquals(expected.get(line), actual.get(line), granularity + " " + k + " line " + line);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void rowsAreUnionsOfTheRowsOfTheirProbes() throws Exception {
+        byte[] bytes = read(Branchy.class);
+        ExecutionData sample = sample(bytes);
+        Random random = new Random(7);
+
+        for (GranularityType granularity : GranularityType.values()) {
+            ProbeMap map = ProbeMap.of(bytes, sample, granularity);
+            for (int k = 0; k < 100; k++) {
+                boolean[] a = new boolean[sample.getProbes().length];
+                boolean[] b = new boolean[a.length];
+                boolean[] union = new boolean[a.length];
+                for (int p = 0; p < a.length; p++) {
+                    a[p] = random.nextInt(k % 5 + 2) == 0;
+                    b[p] = random.nextInt(k % 5 + 2) == 0;
+                    union[p] = a[p] || b[p];
+                }
+
+                long[] rowA = map.row(a);
+                long[] rowB = map.row(b);
+                long[] expected = new long[rowA.length];
+                Arrays.setAll(expected, w -> rowA[w] | rowB[w]);
+                assertArrayEquals(expected, map.row(union), granularity + " " + k);
+            }
+        }
+    }
+
+    @Test
+    void oppositeBranchesInFinallyBlocksGetDifferentRows() throws Exception {
+        byte[] bytes = read(Branchy.class);
+        ExecutionData sample = sample(bytes);
+        ProbeMap map = ProbeMap.of(bytes, sample, GranularityType.BRANCH);
+
+        // Both calls return from the try block, and take opposite branches in the finally block,
+        // on a line whose columns stand for sets of branches.
+        long[] low = map.row(run(bytes, "compact", 1).getProbes());
+        long[] high = map.row(run(bytes, "compact", 10).getProbes());
+
+        assertFalse(Arrays.equals(low, high));
+        for (int j = 0; j < map.getNumberOfColumns(); j++) {
+            if ((low[j >>> 6] & (1L << j)) != (high[j >>> 6] & (1L << j))) {
+                assertFalse(map.isExact(j));
+            }
+        }
+    }
+
+    @Test
+    void columnsFollowTheCountersOfJaCoCo() throws IOException {
+        byte[] bytes = read(Branchy.class);
+        IClassCoverage coverage = analyse(bytes, new ExecutionDataStore());
+
+        assertEquals(coverage.getLineCounter().getTotalCount(),
+                ProbeMap.columnLines(bytes, Branchy.class.getName(), GranularityType.LINE).length);
+        assertEquals(coverage.getBranchCounter().getTotalCount(),
+                ProbeMap.columnLines(bytes, Branchy.class.getName(), GranularityType.BRANCH).length);
+        assertEquals(coverage.getInstructionCounter().getTotalCount(),
+                ProbeMap.columnLines(bytes, Branchy.class.getName(), GranularityType.INSTRUCTION).length);
+    }
+
+    /**
+     * Returns the number of covered columns of every line according to JaCoCo, leaving out lines
+     * with none.
+     */
+    private static Map<Integer, Integer> counters(byte[] bytes, ExecutionData sample, boolean[] probes,
+            GranularityType granularity) throws IOException {
+        ExecutionDataStore store = new ExecutionDataStore();
+        store.put(new ExecutionData(sample.getId(), sample.getName(), probes));
+        IClassCoverage coverage = analyse(bytes, store);
+
+        Map<Integer, Integer> counters = new HashMap<>();
+        for (int l = coverage.getFirstLine(); l <= coverage.getLastLine(); l++) {
+            ILine line = coverage.getLine(l);
+            int covered = switch (granularity) {
+                case LINE -> line.getStatus() == ICounter.PARTLY_COVERED || line.getStatus() == ICounter.FULLY_COVERED ? 1 : 0;
+                case BRANCH -> line.getBranchCounter().getCoveredCount();
+                case INSTRUCTION -> line.getInstructionCounter().getCoveredCount();
+            };
+            if (covered > 0) {
+                counters.put(l, covered);
+            }
+        }
+        return counters;
+    }
+
+    private static IClassCoverage analyse(byte[] bytes, ExecutionDataStore store) throws IOException {
+        CoverageBuilder builder = new CoverageBuilder();
+        new Analyzer(store, builder).analyzeClass(bytes, Branchy.class.getName());
+        return builder.getClasses().iterator().next();
+    }
+
+    /**
+     * Runs the instrumented class once, so the runtime registers its probes.
+     */
+    private static ExecutionData sample(byte[] bytes) throws Exception {
+        return run(bytes, "guarded", 1);
+    }
+
+    /**
+     * Runs the given method with argument {@code x} on the instrumented class and returns the
+     * probes it hit.
+     */
+    private static ExecutionData run(byte[] bytes, String method, int x) throws Exception {
+        LoggerRuntime runtime = new LoggerRuntime();
+        RuntimeData data = new RuntimeData();
+        runtime.startup(data);
+        try {
+            CoverageTracker.MemoryClassLoader loader = new CoverageTracker.MemoryClassLoader();
+            loader.addDefinition(Branchy.class.getName(),
+                    new Instrumenter(runtime).instrument(bytes, Branchy.class.getName()));
+            Method guarded = Class.forName(Branchy.class.getName(), true, loader).getDeclaredMethod(method, int.class);
+            guarded.setAccessible(true);
+            guarded.invoke(null, x);
+
+            ExecutionDataStore store = new ExecutionDataStore();
+            data.collect(store, new SessionInfoStore(), false);
+            return store.getContents().iterator().next();
+        } finally {
+            runtime.shutdown();
+        }
+    }
+
+    private static byte[] read(Class<?> type) throws IOException {
+        try (InputStream in = type.getResourceAsStream('/' + type.getName().replace('.', '/') + ".class")) {
+            return in.readAllBytes();
+        }
+    }
+
+    static class Branchy {
+
+        static int guarded(int x) {
+            try {
+                if (x > 0) return 1;
+                x++;
+            } finally {
+                if (x < 5) x--; else x++;
+            }
+            return x;
+        }
+
+        // On a single line, the duplicated finally blocks cannot be told apart by their probes.
+        static int compact(int x) { try { if (x > 0) return 1; x++; } finally { if (x < 5) x--; else x++; } return x; }
+
+        static String first(String s) throws java.io.IOException {
+            try (var in = new java.io.StringReader(s); var lines = new java.io.BufferedReader(in)) { return lines.readLine(); }
+        }
+
+        static int select(String s) {
+            switch (s) {
+                case "a": return 1;
+                case "Aa": return 2;
+                case "BB": return 3;
+                default: return 0;
+            }
+        }
+
+        static int sum(int[] values) {
+            int sum = 0;
+            for (int v : values) {
+                if (v % 2 == 0 && v > 2 || v < -5) continue;
+                sum += v > 10 ? v : -v;
+            }
+            return sum;
+        }
+
+        static long count(java.util.List<Integer> values) {
+            return values.stream().filter(v -> v > 2 && v < 9).count();
+        }
+    }
+}
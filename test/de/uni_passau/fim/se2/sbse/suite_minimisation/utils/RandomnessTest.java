@@ -0,0 +1,70 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGenerator.SplittableGenerator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RandomnessTest {
+
+    private static long[] draw(RandomGenerator random, int n) {
+        long[] values = new long[n];
+        for (int i = 0; i < n; i++) values[i] = random.nextLong();
+        return values;
+    }
+
+    @Test
+    void sameSeedGivesSameSequence() {
+        Randomness.setSeed(42);
+        long[] first = draw(Randomness.random(), 10);
+
+        Randomness.setSeed(42);
+        long[] second = draw(Randomness.random(), 10);
+
+        assertArrayEquals(first, second);
+    }
+
+    @Test
+    void childStreamsAreDeterministicGivenSeed() {
+        Randomness.setSeed(7);
+        long[] first = draw(Randomness.split(), 10);
+
+        Randomness.setSeed(7);
+        long[] second = draw(Randomness.split(), 10);
+
+        assertArrayEquals(first, second);
+    }
+
+    @Test
+    void withStreamBindsChildAndRestoresPrevious() {
+        Randomness.setSeed(1);
+        long[] expectedInside = draw(Randomness.split(), 5);
+        long[] expectedOutside = draw(Randomness.random(), 3);
+
+        Randomness.setSeed(1);
+        long[] inside = Randomness.withStream(Randomness.split(), () -> draw(Randomness.random(), 5));
+        long[] outside = draw(Randomness.random(), 3);
+
+        assertArrayEquals(expectedInside, inside);
+        assertArrayEquals(expectedOutside, outside);
+    }
+
+    @Test
+    void viewDelegatesToStreamOfCallingThread() throws Exception {
+        Randomness.setSeed(3);
+        long[] expected = draw(Randomness.split(), 5);
+
+        Randomness.setSeed(3);
+        SplittableGenerator child = Randomness.split();
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            Future<long[]> result = executor.submit(
+                    () -> Randomness.withStream(child, () -> draw(Randomness.random(), 5)));
+            assertArrayEquals(expected, result.get());
+        }
+    }
+}
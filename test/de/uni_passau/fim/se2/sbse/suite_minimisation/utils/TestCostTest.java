@@ -0,0 +1,39 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestCostTest {
+
+    @Test
+    void medianIsTheLowerMiddleValue() {
+        assertEquals(3, TestCost.median(new long[]{5, 3, 1}));
+        assertEquals(2, TestCost.median(new long[]{4, 1, 3, 2}));
+        assertEquals(7, TestCost.median(new long[]{7}));
+    }
+
+    @Test
+    void warmupsAndRunsAreCounted() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+
+        TestCost cost = TestCost.measure(() -> {
+            calls.incrementAndGet();
+            Thread.sleep(1);
+        }, 2, 3);
+
+        assertEquals(5, calls.get());
+        assertTrue(cost.wallNanos() >= 1_000_000);
+    }
+
+    @Test
+    void allocationsAreMeasured() throws Exception {
+        final Object[] sink = new Object[1];
+
+        TestCost cost = TestCost.measure(() -> sink[0] = new byte[1 << 20], 1, 3);
+
+        assertTrue(cost.allocatedBytes() == -1 || cost.allocatedBytes() >= 1 << 20);
+    }
+}
@@ -0,0 +1,84 @@
+package de.uni_passau.fim.se2.sbse.suite_minimisation.utils;
+
+import de.uni_passau.fim.se2.sbse.suite_minimisation.examples.Lift;
+import de.uni_passau.fim.se2.sbse.suite_minimisation.examples.LiftTest;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestFingerprintsTest {
+
+    private static final String[] TEST_CASES = new CoverageTracker(Lift.class, LiftTest.class).getTestCases();
+
+    @Test
+    void fingerprintsAreStableAndDistinct() throws IOException {
+        byte[] suite = read();
+
+        String[] fingerprints = TestFingerprints.of(suite, TEST_CASES);
+
+        assertArrayEquals(fingerprints, TestFingerprints.of(suite.clone(), TEST_CASES));
+        assertEquals(TEST_CASES.length, new HashSet<>(List.of(fingerprints)).size());
+    }
+
+    @Test
+    void changingATestChangesOnlyItsFingerprint() throws IOException {
+        String changed = TEST_CASES[1];
+        String[] before = TestFingerprints.of(read(), TEST_CASES);
+
+        String[] after = TestFingerprints.of(prependNop(read(), changed), TEST_CASES);
+
+        for (int i = 0; i < TEST_CASES.length; i++) {
+            assertEquals(TEST_CASES[i].equals(changed), !before[i].equals(after[i]), TEST_CASES[i]);
+        }
+    }
+
+    @Test
+    void changingSharedCodeChangesAllFingerprints() throws IOException {
+        String[] before = TestFingerprints.of(read(), TEST_CASES);
+
+        String[] after = TestFingerprints.of(prependNop(read(), "<init>"), TEST_CASES);
+
+        for (int i = 0; i < TEST_CASES.length; i++) {
+            assertNotEquals(before[i], after[i]);
+        }
+    }
+
+    private static byte[] read() throws IOException {
+        try (InputStream in = LiftTest.class.getResourceAsStream("LiftTest.class")) {
+            return in.readAllBytes();
+        }
+    }
+
+    /**
+     * Returns the given class with a NOP instruction at the start of the named method.
+     */
+    private static byte[] prependNop(byte[] bytes, String method) {
+        ClassWriter writer = new ClassWriter(0);
+        new ClassReader(bytes).accept(new ClassVisitor(Opcodes.ASM9, writer) {
+            @Override
+            public MethodVisitor visitMethod(int access, String name, String descriptor,
+                                             String signature, String[] exceptions) {
+                MethodVisitor visitor = super.visitMethod(access, name, descriptor, signature, exceptions);
+                if (!name.equals(method)) return visitor;
+                return new MethodVisitor(Opcodes.ASM9, visitor) {
+                    @Override
+                    public void visitCode() {
+                        super.visitCode();
+                        super.visitInsn(Opcodes.NOP);
+                    }
+                };
+            }
+        }, 0);
+        return writer.toByteArray();
+    }
+}